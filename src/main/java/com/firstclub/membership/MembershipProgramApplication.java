@@ -2,12 +2,18 @@ package com.firstclub.membership;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
 
 @SpringBootApplication
 public class MembershipProgramApplication {
 
+	// Startup steps kept for /actuator/startup; later steps are dropped once full
+	private static final int STARTUP_STEP_CAPACITY = 8192;
+
 	public static void main(String[] args) {
-		SpringApplication.run(MembershipProgramApplication.class, args);
+		SpringApplication application = new SpringApplication(MembershipProgramApplication.class);
+		application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEP_CAPACITY));
+		application.run(args);
 	}
 
 }
@@ -0,0 +1,52 @@
+package com.firstclub.membership.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+import java.time.Duration;
+
+/**
+ * Registers the admission control filter for the REST API.
+ * It runs after the security filter chain so unauthenticated requests never
+ * consume tokens or concurrency slots.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.admission.enabled", havingValue = "true", matchIfMissing = true)
+public class AdmissionControlConfiguration {
+
+    @Bean
+    public AdmissionControlFilter admissionControlFilter(
+            @Value("${app.admission.global.rate:2000}") double globalRate,
+            @Value("${app.admission.global.burst:4000}") double globalBurst,
+            @Value("${app.admission.user.rate:20}") double userRate,
+            @Value("${app.admission.user.burst:40}") double userBurst,
+            @Value("${app.admission.user.max-tracked:100000}") int maxTrackedUsers,
+            @Value("${app.admission.concurrency.initial-limit:20}") int initialLimit,
+            @Value("${app.admission.concurrency.min-limit:2}") int minLimit,
+            @Value("${app.admission.concurrency.max-limit:100}") int maxLimit,
+            @Value("${app.admission.concurrency.target-latency:500ms}") Duration targetLatency,
+            @Value("${app.admission.concurrency.backoff-ratio:0.9}") double backoffRatio,
+            @Value("${app.admission.concurrency.retry-after:1s}") Duration retryAfter,
+            MeterRegistry meterRegistry,
+            ObjectMapper objectMapper) {
+        AdmissionControlFilter.Settings settings = new AdmissionControlFilter.Settings(
+                globalRate, globalBurst, userRate, userBurst, maxTrackedUsers,
+                initialLimit, minLimit, maxLimit, targetLatency, backoffRatio, retryAfter);
+        return new AdmissionControlFilter(settings, meterRegistry, objectMapper);
+    }
+
+    @Bean
+    public FilterRegistrationBean<AdmissionControlFilter> admissionControlFilterRegistration(
+            AdmissionControlFilter admissionControlFilter) {
+        FilterRegistrationBean<AdmissionControlFilter> registration = new FilterRegistrationBean<>(admissionControlFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 100);
+        return registration;
+    }
+}
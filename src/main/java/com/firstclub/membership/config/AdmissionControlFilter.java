@@ -0,0 +1,241 @@
+package com.firstclub.membership.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.response.ApiResponse;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.security.Principal;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Admission control for the REST API. Every request takes a token from its
+ * user's bucket and from the global bucket, or from neither; mutation
+ * requests must also get a slot from their endpoint's adaptive concurrency
+ * limit. Requests that cannot be admitted are rejected at once with 429 (rate
+ * limited) or 503 (over the concurrency limit) and a Retry-After header,
+ * instead of queueing on request threads for a database connection.
+ *
+ * Users are told apart by the authenticated principal, or by the client
+ * address when there is none; the path and request headers are chosen by the
+ * client and would let it spread its requests over many buckets. POSTs that
+ * only read, such as the bulk membership lookup, are not mutations.
+ */
+@Slf4j
+public class AdmissionControlFilter extends OncePerRequestFilter {
+
+    private static final String OTHER_ENDPOINT = "other";
+    private static final int MAX_ENDPOINTS = 64;
+    private static final Set<String> READ_ONLY_POSTS = Set.of(
+            "/api/v1/memberships/users/current",
+            "/api/v1/quotes");
+
+    private final Settings settings;
+    private final MeterRegistry meterRegistry;
+    private final ObjectMapper objectMapper;
+
+    private final TokenBucket globalBucket;
+    private final Map<String, TokenBucket> userBuckets = new ConcurrentHashMap<>();
+    private final Map<String, EndpointLimit> endpointLimits = new ConcurrentHashMap<>();
+    private final Counter userRejections;
+    private final Counter globalRejections;
+
+    /**
+     * Admission control settings; rates are requests per second and bursts are
+     * bucket capacities.
+     */
+    public record Settings(
+            double globalRate,
+            double globalBurst,
+            double userRate,
+            double userBurst,
+            int maxTrackedUsers,
+            int initialLimit,
+            int minLimit,
+            int maxLimit,
+            Duration targetLatency,
+            double backoffRatio,
+            Duration concurrencyRetryAfter) {
+    }
+
+    public AdmissionControlFilter(Settings settings, MeterRegistry meterRegistry, ObjectMapper objectMapper) {
+        this.settings = settings;
+        this.meterRegistry = meterRegistry;
+        this.objectMapper = objectMapper;
+        this.globalBucket = new TokenBucket(settings.globalRate(), settings.globalBurst(), System.nanoTime());
+        this.userRejections = rejectionCounter("user_rate", "all");
+        this.globalRejections = rejectionCounter("global_rate", "all");
+
+        Gauge.builder("membership.admission.global.tokens", globalBucket, bucket -> bucket.availableTokens(System.nanoTime()))
+            .description("Tokens currently available in the global bucket")
+            .register(meterRegistry);
+        Gauge.builder("membership.admission.global.rate", settings, Settings::globalRate)
+            .description("Configured global request rate per second")
+            .register(meterRegistry);
+        Gauge.builder("membership.admission.user.rate", settings, Settings::userRate)
+            .description("Configured per-user request rate per second")
+            .register(meterRegistry);
+        Gauge.builder("membership.admission.users.tracked", userBuckets, Map::size)
+            .description("Users with a token bucket")
+            .register(meterRegistry);
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        long now = System.nanoTime();
+
+        TokenBucket userBucket = userBucket(userKey(request), now);
+        long wait = userBucket != null ? userBucket.tryAcquire(now) : 0;
+        if (wait > 0) {
+            userRejections.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "Too many requests for this user");
+            return;
+        }
+        wait = globalBucket.tryAcquire(now);
+        if (wait > 0) {
+            if (userBucket != null) {
+                // A request the server refused must not count against the user
+                userBucket.refund();
+            }
+            globalRejections.increment();
+            reject(response, HttpStatus.TOO_MANY_REQUESTS, wait, "Too many requests");
+            return;
+        }
+
+        if (!isMutation(request)) {
+            chain.doFilter(request, response);
+            return;
+        }
+
+        EndpointLimit endpoint = endpointLimit(request);
+        if (!endpoint.limit.tryAcquire()) {
+            endpoint.rejections.increment();
+            reject(response, HttpStatus.SERVICE_UNAVAILABLE, settings.concurrencyRetryAfter().toNanos(),
+                    "Server is busy, please retry");
+            return;
+        }
+
+        long started = System.nanoTime();
+        boolean failed = true;
+        try {
+            chain.doFilter(request, response);
+            failed = response.getStatus() >= 500;
+        } finally {
+            endpoint.limit.release(System.nanoTime() - started, failed);
+        }
+    }
+
+    /**
+     * Drops the buckets of users that have been idle long enough to refill
+     * completely; they would be recreated full anyway.
+     */
+    @Scheduled(fixedDelayString = "${app.admission.user.cleanup-interval-ms:60000}")
+    public void removeIdleUserBuckets() {
+        long now = System.nanoTime();
+        int before = userBuckets.size();
+        userBuckets.values().removeIf(bucket -> bucket.isFull(now));
+        log.debug("Removed {} idle user token buckets", before - userBuckets.size());
+    }
+
+    private TokenBucket userBucket(String userKey, long now) {
+        TokenBucket bucket = userBuckets.get(userKey);
+        if (bucket != null) {
+            return bucket;
+        }
+        if (userBuckets.size() >= settings.maxTrackedUsers()) {
+            // Only the global bucket applies until idle buckets are cleaned up
+            return null;
+        }
+        return userBuckets.computeIfAbsent(userKey,
+                key -> new TokenBucket(settings.userRate(), settings.userBurst(), now));
+    }
+
+    private EndpointLimit endpointLimit(HttpServletRequest request) {
+        String endpoint = request.getMethod() + " " + normalize(request.getRequestURI());
+        EndpointLimit limit = endpointLimits.get(endpoint);
+        if (limit != null) {
+            return limit;
+        }
+        if (endpointLimits.size() >= MAX_ENDPOINTS) {
+            endpoint = OTHER_ENDPOINT;
+        }
+        return endpointLimits.computeIfAbsent(endpoint, this::createEndpointLimit);
+    }
+
+    private EndpointLimit createEndpointLimit(String endpoint) {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(settings.initialLimit(), settings.minLimit(),
+                settings.maxLimit(), settings.targetLatency().toNanos(), settings.backoffRatio());
+        Gauge.builder("membership.admission.concurrency.limit", limit, AdaptiveConcurrencyLimit::getLimit)
+            .description("Current adaptive concurrency limit")
+            .tag("endpoint", endpoint)
+            .register(meterRegistry);
+        Gauge.builder("membership.admission.concurrency.in_flight", limit, AdaptiveConcurrencyLimit::getInFlight)
+            .description("Requests currently holding a concurrency slot")
+            .tag("endpoint", endpoint)
+            .register(meterRegistry);
+        return new EndpointLimit(limit, rejectionCounter("concurrency", endpoint));
+    }
+
+    private Counter rejectionCounter(String reason, String endpoint) {
+        return Counter.builder("membership.admission.rejected")
+            .description("Requests rejected by admission control")
+            .tag("reason", reason)
+            .tag("endpoint", endpoint)
+            .register(meterRegistry);
+    }
+
+    private void reject(HttpServletResponse response, HttpStatus status, long retryAfterNanos, String message)
+            throws IOException {
+        long retryAfterSeconds = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(retryAfterNanos + 999_999_999L));
+        response.setStatus(status.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, Long.toString(retryAfterSeconds));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        objectMapper.writeValue(response.getOutputStream(), ApiResponse.error(message));
+    }
+
+    private static boolean isMutation(HttpServletRequest request) {
+        String method = request.getMethod();
+        if ("POST".equals(method)) {
+            return !READ_ONLY_POSTS.contains(normalize(request.getRequestURI()));
+        }
+        return !"GET".equals(method) && !"HEAD".equals(method) && !"OPTIONS".equals(method);
+    }
+
+    private static String userKey(HttpServletRequest request) {
+        Principal principal = request.getUserPrincipal();
+        return principal != null ? "user:" + principal.getName() : "addr:" + request.getRemoteAddr();
+    }
+
+    /** Replaces numeric path segments with {id} so the endpoint key has low cardinality. */
+    static String normalize(String uri) {
+        StringBuilder normalized = new StringBuilder(uri.length());
+        for (String segment : uri.split("/")) {
+            if (segment.isEmpty()) {
+                continue;
+            }
+            normalized.append('/');
+            normalized.append(segment.chars().allMatch(Character::isDigit) ? "{id}" : segment);
+        }
+        return normalized.isEmpty() ? "/" : normalized.toString();
+    }
+
+    private record EndpointLimit(AdaptiveConcurrencyLimit limit, Counter rejections) {
+    }
+}
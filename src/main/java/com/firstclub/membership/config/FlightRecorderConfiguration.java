@@ -0,0 +1,87 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.config.MembershipFlightRecorder.OperationTimings;
+import com.firstclub.membership.service.MembershipService;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+import org.springframework.core.env.Environment;
+import org.springframework.data.repository.Repository;
+
+import java.lang.reflect.Method;
+import java.util.Set;
+
+/**
+ * Flight Recorder events for membership mutations. One advisor emits a
+ * {@link MembershipOperationEvent} around each operation, just inside the
+ * metrics timers so it also covers the transaction commit; another adds time
+ * spent in Spring Data repositories to the open operation.
+ *
+ * Recording starts off (app.jfr.enabled) and is switched at runtime through
+ * the jfr actuator endpoint. The recorder is created with the advisors, before
+ * regular beans, so the switch is read from the Environment directly.
+ */
+@Configuration
+public class FlightRecorderConfiguration {
+
+    private static final Set<String> RECORDED_OPERATIONS = Set.of(
+            "subscribeToPlan", "upgradeMembership", "downgradeMembership", "cancelMembership",
+            "evaluateAndUpdateTier");
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static MembershipFlightRecorder membershipFlightRecorder(Environment environment) {
+        return new MembershipFlightRecorder(environment.getProperty("app.jfr.enabled", Boolean.class, false));
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor membershipOperationEventAdvisor(MembershipFlightRecorder membershipFlightRecorder) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return RECORDED_OPERATIONS.contains(method.getName());
+            }
+        };
+        pointcut.setClassFilter(MembershipService.class::isAssignableFrom);
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut,
+                new FlightRecorderInterceptor(membershipFlightRecorder));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE + 1);
+        return advisor;
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor repositoryTimeAdvisor(MembershipFlightRecorder membershipFlightRecorder) {
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return method.getDeclaringClass() != Object.class;
+            }
+        };
+        pointcut.setClassFilter(Repository.class::isAssignableFrom);
+
+        MethodInterceptor interceptor = invocation -> {
+            OperationTimings timings = membershipFlightRecorder.current();
+            if (timings == OperationTimings.NONE) {
+                return invocation.proceed();
+            }
+            long started = System.nanoTime();
+            try {
+                return invocation.proceed();
+            } finally {
+                timings.addDatabaseTime(System.nanoTime() - started);
+            }
+        };
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut, interceptor);
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,39 @@
+package com.firstclub.membership.config;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * Actuator endpoint that switches membership Flight Recorder events on and
+ * off: {@code GET /actuator/jfr} shows the state, and
+ * {@code POST /actuator/jfr} with {@code {"enabled": true}} changes it.
+ */
+@Component
+@Endpoint(id = "jfr")
+@RequiredArgsConstructor
+@Slf4j
+public class FlightRecorderEndpoint {
+
+    private final MembershipFlightRecorder membershipFlightRecorder;
+
+    @ReadOperation
+    public Map<String, Object> state() {
+        return Map.of(
+                "enabled", membershipFlightRecorder.isEnabled(),
+                "recording", membershipFlightRecorder.isRecording(),
+                "event", MembershipOperationEvent.NAME);
+    }
+
+    @WriteOperation
+    public Map<String, Object> setEnabled(boolean enabled) {
+        membershipFlightRecorder.setEnabled(enabled);
+        log.info("Membership Flight Recorder events {}", enabled ? "enabled" : "disabled");
+        return state();
+    }
+}
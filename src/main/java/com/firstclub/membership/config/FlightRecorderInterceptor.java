@@ -0,0 +1,77 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.config.MembershipFlightRecorder.OperationTimings;
+import com.firstclub.membership.dto.request.SubscriptionRequest;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+/**
+ * Emits a {@link MembershipOperationEvent} around each intercepted membership
+ * operation. The user, plan and tier are read from the arguments: either a
+ * {@link SubscriptionRequest}, or a user id optionally followed by plan and
+ * tier ids.
+ */
+class FlightRecorderInterceptor implements MethodInterceptor {
+
+    private final MembershipFlightRecorder recorder;
+
+    FlightRecorderInterceptor(MembershipFlightRecorder recorder) {
+        this.recorder = recorder;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        if (!recorder.isEnabled()) {
+            return invocation.proceed();
+        }
+        MembershipOperationEvent event = new MembershipOperationEvent();
+        if (!event.isEnabled()) {
+            // No running recording includes the event
+            return invocation.proceed();
+        }
+
+        event.begin();
+        OperationTimings timings = recorder.open();
+        TimedOperationInterceptor.Outcome outcome = TimedOperationInterceptor.Outcome.ERROR;
+        try {
+            Object result = invocation.proceed();
+            outcome = TimedOperationInterceptor.Outcome.SUCCESS;
+            return result;
+        } catch (Throwable e) {
+            outcome = TimedOperationInterceptor.classify(e);
+            throw e;
+        } finally {
+            recorder.close(timings);
+            event.end();
+            if (event.shouldCommit()) {
+                event.operation = invocation.getMethod().getName();
+                event.outcome = outcome.tag;
+                setIds(event, invocation.getArguments());
+                event.lockWait = timings.lockWaitNanos;
+                event.paymentTime = timings.paymentNanos;
+                event.databaseTime = timings.databaseNanos;
+                event.commit();
+            }
+        }
+    }
+
+    private static void setIds(MembershipOperationEvent event, Object[] arguments) {
+        if (arguments.length > 0 && arguments[0] instanceof SubscriptionRequest request) {
+            event.userId = orZero(request.getUserId());
+            event.planId = orZero(request.getPlanId());
+            event.tierId = orZero(request.getTierId());
+            return;
+        }
+        event.userId = longArgument(arguments, 0);
+        event.planId = longArgument(arguments, 1);
+        event.tierId = longArgument(arguments, 2);
+    }
+
+    private static long longArgument(Object[] arguments, int index) {
+        return arguments.length > index && arguments[index] instanceof Long value ? value : 0;
+    }
+
+    private static long orZero(Long value) {
+        return value == null ? 0 : value;
+    }
+}
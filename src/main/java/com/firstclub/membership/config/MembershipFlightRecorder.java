@@ -0,0 +1,104 @@
+package com.firstclub.membership.config;
+
+import jdk.jfr.FlightRecorder;
+
+/**
+ * Switch and per-thread timings for {@link MembershipOperationEvent}.
+ *
+ * While switched off, instrumented code reads one volatile flag and does
+ * nothing else: no event is allocated and no timings are collected. While on,
+ * the operation interceptor opens {@link OperationTimings} for the calling
+ * thread, and the service and repository hooks add lock wait, payment and
+ * database time to it. The events only reach a file if a Flight Recorder
+ * recording is running, e.g. one started with {@code jcmd <pid> JFR.start}.
+ */
+public class MembershipFlightRecorder {
+
+    private final ThreadLocal<OperationTimings> current = new ThreadLocal<>();
+
+    private volatile boolean enabled;
+
+    public MembershipFlightRecorder(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public void setEnabled(boolean enabled) {
+        this.enabled = enabled;
+    }
+
+    /**
+     * Whether a Flight Recorder recording is running in this JVM. Does not
+     * start Flight Recorder if nothing has used it yet.
+     */
+    public boolean isRecording() {
+        return FlightRecorder.isInitialized() && !FlightRecorder.getFlightRecorder().getRecordings().isEmpty();
+    }
+
+    /**
+     * Timings of the operation running on this thread, or a no-op instance if
+     * recording is off or no operation is open. Pass the result to other
+     * threads that work on behalf of the operation.
+     */
+    public OperationTimings current() {
+        if (!enabled) {
+            return OperationTimings.NONE;
+        }
+        OperationTimings timings = current.get();
+        return timings == null ? OperationTimings.NONE : timings;
+    }
+
+    OperationTimings open() {
+        OperationTimings timings = new OperationTimings(current.get());
+        current.set(timings);
+        return timings;
+    }
+
+    void close(OperationTimings timings) {
+        if (timings.outer == null) {
+            current.remove();
+        } else {
+            current.set(timings.outer);
+        }
+    }
+
+    /**
+     * Time components of one operation. Payment time may be added from a pool
+     * thread; the operation joins that work before the event is committed, so
+     * plain fields are visible by then.
+     */
+    public static final class OperationTimings {
+
+        static final OperationTimings NONE = new OperationTimings(null);
+
+        private final OperationTimings outer;
+        long lockWaitNanos;
+        long paymentNanos;
+        long databaseNanos;
+
+        private OperationTimings(OperationTimings outer) {
+            this.outer = outer;
+        }
+
+        public void addLockWait(long nanos) {
+            if (this != NONE) {
+                lockWaitNanos += nanos;
+            }
+        }
+
+        public void addPaymentTime(long nanos) {
+            if (this != NONE) {
+                paymentNanos += nanos;
+            }
+        }
+
+        public void addDatabaseTime(long nanos) {
+            if (this != NONE) {
+                databaseNanos += nanos;
+            }
+        }
+    }
+}
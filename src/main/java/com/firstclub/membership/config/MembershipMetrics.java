@@ -0,0 +1,90 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.model.enums.PaymentConfirmationStatus;
+import com.firstclub.membership.model.enums.TransactionType;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Membership meters that are recorded explicitly rather than by
+ * {@link TimedOperationInterceptor}. All meters are registered up front, so
+ * recording is an array read and an update with no allocation.
+ */
+@Component
+public class MembershipMetrics {
+
+    static final Duration MIN_EXPECTED = Duration.ofMillis(1);
+    static final Duration MAX_EXPECTED = Duration.ofSeconds(30);
+
+    private final Timer lockWait;
+    private final Counter[] transactions;
+    private final Counter[] optimisticConflicts;
+    private final Timer[] paymentConfirmations;
+
+    public MembershipMetrics(MeterRegistry meterRegistry) {
+        this.lockWait = Timer.builder("membership.lock.wait")
+            .description("Time spent waiting for a user's membership lock")
+            .publishPercentileHistogram()
+            .minimumExpectedValue(Duration.ofNanos(1000))
+            .maximumExpectedValue(MAX_EXPECTED)
+            .register(meterRegistry);
+
+        TransactionType[] types = TransactionType.values();
+        this.transactions = new Counter[types.length];
+        for (TransactionType type : types) {
+            transactions[type.ordinal()] = Counter.builder("membership.transactions")
+                .description("Membership transactions written, by type")
+                .tag("type", type.name())
+                .register(meterRegistry);
+        }
+
+        this.optimisticConflicts = new Counter[types.length];
+        for (TransactionType type : types) {
+            optimisticConflicts[type.ordinal()] = Counter.builder("membership.optimistic.conflicts")
+                .description("Conditional membership updates that found the membership changed, by operation")
+                .tag("type", type.name())
+                .register(meterRegistry);
+        }
+
+        PaymentConfirmationStatus[] outcomes = PaymentConfirmationStatus.values();
+        this.paymentConfirmations = new Timer[outcomes.length];
+        for (PaymentConfirmationStatus outcome : outcomes) {
+            paymentConfirmations[outcome.ordinal()] = Timer.builder("membership.payment.confirmation")
+                .description("Time from requesting an asynchronous payment to its resolution, by outcome")
+                .tag("outcome", outcome.name().toLowerCase())
+                .publishPercentileHistogram()
+                .minimumExpectedValue(Duration.ofMillis(10))
+                .maximumExpectedValue(Duration.ofHours(1))
+                .register(meterRegistry);
+        }
+    }
+
+    public void recordLockWait(long nanos) {
+        lockWait.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Counts a written transaction. Writes are counted when they are made, so
+     * a transaction that later rolls back is still included.
+     */
+    public void recordTransaction(TransactionType type) {
+        transactions[type.ordinal()].increment();
+    }
+
+    public void recordTransactions(TransactionType type, long count) {
+        transactions[type.ordinal()].increment(count);
+    }
+
+    public void recordOptimisticConflict(TransactionType type) {
+        optimisticConflicts[type.ordinal()].increment();
+    }
+
+    public void recordPaymentConfirmation(PaymentConfirmationStatus outcome, Duration delay) {
+        paymentConfirmations[outcome.ordinal()].record(delay);
+    }
+}
@@ -0,0 +1,56 @@
+package com.firstclub.membership.config;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/**
+ * Flight Recorder event spanning one membership mutation, from the outermost
+ * service call to after the transaction commits. The event's thread and time
+ * range tie execution samples and lock/IO events in a recording to the
+ * operation. The commit-site stack trace is always the same interceptor frame,
+ * so it is not captured.
+ */
+@Name(MembershipOperationEvent.NAME)
+@Label("Membership Operation")
+@Category({"FirstClub", "Membership"})
+@Description("A subscribe, upgrade, downgrade, cancel or tier evaluation call")
+@StackTrace(false)
+public class MembershipOperationEvent extends Event {
+
+    public static final String NAME = "com.firstclub.membership.Operation";
+
+    @Label("Operation")
+    String operation;
+
+    @Label("Outcome")
+    String outcome;
+
+    @Label("User Id")
+    long userId;
+
+    @Label("Plan Id")
+    @Description("Requested plan, or 0 if the operation does not take one")
+    long planId;
+
+    @Label("Tier Id")
+    @Description("Requested tier, or 0 if the operation does not take one")
+    long tierId;
+
+    @Label("Lock Wait")
+    @Timespan
+    long lockWait;
+
+    @Label("Payment Time")
+    @Timespan
+    long paymentTime;
+
+    @Label("Database Time")
+    @Description("Time spent in repository calls; statements flushed at commit are only in the duration")
+    @Timespan
+    long databaseTime;
+}
@@ -0,0 +1,98 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.mapper.MembershipMapper;
+import com.firstclub.membership.service.MembershipPlanService;
+import com.firstclub.membership.service.MembershipService;
+import com.firstclub.membership.service.MembershipTierService;
+import com.firstclub.membership.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.StaticMethodMatcherPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Timers around the membership service, payments, catalog lookups and the
+ * membership mapper. Each is an AOP advisor applied to the existing beans, so
+ * the services themselves stay free of timing code. The advisors run
+ * outermost, so membership operation timings include the transaction commit
+ * and any retries.
+ *
+ * Advisors are created before the MeterRegistry exists, so the registry is
+ * looked up lazily on the first call.
+ */
+@Configuration
+public class MetricsConfiguration {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor membershipOperationMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return timedAdvisor(MembershipService.class, method -> true, "membership.operation",
+                "Membership operations by method and outcome", meterRegistry);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor paymentMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return timedAdvisor(PaymentService.class, method -> true, "membership.payment",
+                "Payment calls by outcome", meterRegistry);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor planLookupMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return timedAdvisor(MembershipPlanService.class, MetricsConfiguration::isLookup, "membership.catalog.lookup",
+                "Plan and tier lookups by method and outcome", meterRegistry);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor tierLookupMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return timedAdvisor(MembershipTierService.class, MetricsConfiguration::isLookup, "membership.catalog.lookup",
+                "Plan and tier lookups by method and outcome", meterRegistry);
+    }
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    static Advisor mapperMetricsAdvisor(ObjectProvider<MeterRegistry> meterRegistry) {
+        return timedAdvisor(MembershipMapper.class, method -> true, "membership.mapper",
+                "Membership entity to DTO mapping by method", meterRegistry);
+    }
+
+    private static boolean isLookup(Method method) {
+        return method.getName().startsWith("get");
+    }
+
+    private static Advisor timedAdvisor(Class<?> type, Predicate<Method> include, String metricName,
+                                        String description, ObjectProvider<MeterRegistry> meterRegistry) {
+        Set<String> methodNames = Arrays.stream(type.getMethods())
+            .filter(method -> method.getDeclaringClass() != Object.class)
+            .filter(include)
+            .map(Method::getName)
+            .collect(Collectors.toUnmodifiableSet());
+
+        StaticMethodMatcherPointcut pointcut = new StaticMethodMatcherPointcut() {
+            @Override
+            public boolean matches(Method method, Class<?> targetClass) {
+                return methodNames.contains(method.getName());
+            }
+        };
+        pointcut.setClassFilter(type::isAssignableFrom);
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(pointcut,
+                new TimedOperationInterceptor(metricName, description, meterRegistry, methodNames));
+        advisor.setOrder(Ordered.HIGHEST_PRECEDENCE);
+        return advisor;
+    }
+}
@@ -0,0 +1,88 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.service.impl.SimulatedPaymentGateway;
+import com.firstclub.membership.service.impl.SimulatedPaymentGateway.LatencyDistribution;
+import com.firstclub.membership.service.impl.SimulatedPaymentGateway.Settings;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.lang.Nullable;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Actuator endpoint for fault injection into the simulated payment gateway:
+ * {@code GET /actuator/paymentsimulator} shows the settings,
+ * {@code POST /actuator/paymentsimulator} with e.g.
+ * {@code {"errorRate": 0.2, "distribution": "bimodal"}} changes the given
+ * ones, and {@code DELETE /actuator/paymentsimulator} restores the configured
+ * settings. Only the loadtest profile exposes it over HTTP.
+ */
+@Component
+@Endpoint(id = "paymentsimulator")
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "simulated", matchIfMissing = true)
+@RequiredArgsConstructor
+public class PaymentSimulatorEndpoint {
+
+    private final SimulatedPaymentGateway simulatedPaymentGateway;
+
+    @ReadOperation
+    public Map<String, Object> settings() {
+        Settings settings = simulatedPaymentGateway.getSettings();
+        Map<String, Object> state = new LinkedHashMap<>();
+        state.put("distribution", settings.distribution().name().toLowerCase(Locale.ROOT));
+        state.put("latency", settings.latency().toString());
+        state.put("sigma", settings.sigma());
+        state.put("stallRate", settings.stallRate());
+        state.put("stallLatency", settings.stallLatency().toString());
+        state.put("perBatchedCharge", settings.perBatchedCharge().toString());
+        state.put("declineRate", settings.declineRate());
+        state.put("errorRate", settings.errorRate());
+        state.put("timeoutRate", settings.timeoutRate());
+        state.put("timeout", settings.timeout().toString());
+        return state;
+    }
+
+    @WriteOperation
+    public Map<String, Object> update(@Nullable String distribution, @Nullable Duration latency,
+                                      @Nullable Double sigma, @Nullable Double stallRate,
+                                      @Nullable Duration stallLatency, @Nullable Duration perBatchedCharge,
+                                      @Nullable Double declineRate, @Nullable Double errorRate,
+                                      @Nullable Double timeoutRate, @Nullable Duration timeout) {
+        Settings current = simulatedPaymentGateway.getSettings();
+        Settings updated;
+        try {
+            updated = new Settings(
+                    distribution != null
+                            ? LatencyDistribution.valueOf(distribution.toUpperCase(Locale.ROOT))
+                            : current.distribution(),
+                    latency != null ? latency : current.latency(),
+                    sigma != null ? sigma : current.sigma(),
+                    stallRate != null ? stallRate : current.stallRate(),
+                    stallLatency != null ? stallLatency : current.stallLatency(),
+                    perBatchedCharge != null ? perBatchedCharge : current.perBatchedCharge(),
+                    declineRate != null ? declineRate : current.declineRate(),
+                    errorRate != null ? errorRate : current.errorRate(),
+                    timeoutRate != null ? timeoutRate : current.timeoutRate(),
+                    timeout != null ? timeout : current.timeout());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        simulatedPaymentGateway.setSettings(updated);
+        return settings();
+    }
+
+    @DeleteOperation
+    public Map<String, Object> reset() {
+        simulatedPaymentGateway.resetSettings();
+        return settings();
+    }
+}
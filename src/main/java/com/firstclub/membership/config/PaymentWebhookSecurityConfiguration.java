@@ -0,0 +1,31 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.controller.PaymentWebhookController;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.security.config.Customizer;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Lets the payment gateway reach the webhook without user credentials or a
+ * CSRF token. The webhook authenticates every call by its HMAC signature
+ * instead. The path stays in the security filter chain, so security headers
+ * and the firewall still apply to it; every other request keeps Spring Boot's
+ * default rules of form login or HTTP Basic for any authenticated user.
+ */
+@Configuration
+public class PaymentWebhookSecurityConfiguration {
+
+    @Bean
+    public SecurityFilterChain securityFilterChain(HttpSecurity http) throws Exception {
+        return http
+            .authorizeHttpRequests(requests -> requests
+                .requestMatchers(PaymentWebhookController.PATH).permitAll()
+                .anyRequest().authenticated())
+            .csrf(csrf -> csrf.ignoringRequestMatchers(PaymentWebhookController.PATH))
+            .formLogin(Customizer.withDefaults())
+            .httpBasic(Customizer.withDefaults())
+            .build();
+    }
+}
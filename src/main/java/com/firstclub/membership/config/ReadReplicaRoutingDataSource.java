@@ -0,0 +1,126 @@
+package com.firstclub.membership.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.StringUtils;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Routing DataSource that sends read-only transactions to the replica pool and
+ * everything else to the primary pool.
+ *
+ * The replica is only used while it is reachable and its replication lag is
+ * within the configured limit; otherwise read-only work falls back to the
+ * primary. Must be wrapped in a LazyConnectionDataSourceProxy so the physical
+ * connection is chosen after the transaction's read-only flag is known.
+ */
+@Slf4j
+public class ReadReplicaRoutingDataSource extends AbstractRoutingDataSource {
+
+    public enum Route {
+        PRIMARY,
+        REPLICA
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final Duration maxLag;
+    private final String lagQuery;
+
+    private volatile boolean replicaAvailable = true;
+
+    public ReadReplicaRoutingDataSource(DataSource primary, DataSource replica, Duration maxLag, String lagQuery) {
+        this.primary = primary;
+        this.replica = replica;
+        this.maxLag = maxLag;
+        this.lagQuery = lagQuery;
+        setTargetDataSources(Map.of(Route.PRIMARY, primary, Route.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        setLenientFallback(false);
+        afterPropertiesSet();
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return TransactionSynchronizationManager.isCurrentTransactionReadOnly() && replicaAvailable
+                ? Route.REPLICA
+                : Route.PRIMARY;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                return replica.getConnection();
+            } catch (SQLException e) {
+                markReplicaUnavailable("connection failed: " + e.getMessage());
+            }
+        }
+        return primary.getConnection();
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        if (determineCurrentLookupKey() == Route.REPLICA) {
+            try {
+                return replica.getConnection(username, password);
+            } catch (SQLException e) {
+                markReplicaUnavailable("connection failed: " + e.getMessage());
+            }
+        }
+        return primary.getConnection(username, password);
+    }
+
+    /**
+     * Probes the replica and updates its availability. The replica is considered
+     * healthy when a connection can be validated and, if a lag query is
+     * configured, the reported lag in seconds is within the limit.
+     */
+    @Scheduled(fixedDelayString = "${app.datasource.replica.health-check-interval-ms:5000}")
+    public void checkReplicaHealth() {
+        try (Connection connection = replica.getConnection()) {
+            if (!connection.isValid(2)) {
+                markReplicaUnavailable("connection validation failed");
+                return;
+            }
+
+            if (StringUtils.hasText(lagQuery)) {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery(lagQuery)) {
+                    double lagSeconds = rs.next() ? rs.getDouble(1) : 0;
+                    if (lagSeconds * 1000 > maxLag.toMillis()) {
+                        markReplicaUnavailable("replication lag " + lagSeconds + "s exceeds " + maxLag);
+                        return;
+                    }
+                }
+            }
+
+            if (!replicaAvailable) {
+                log.info("Read replica is healthy again; routing read-only transactions to it");
+            }
+            replicaAvailable = true;
+        } catch (SQLException e) {
+            markReplicaUnavailable("health check failed: " + e.getMessage());
+        }
+    }
+
+    public boolean isReplicaAvailable() {
+        return replicaAvailable;
+    }
+
+    private void markReplicaUnavailable(String reason) {
+        if (replicaAvailable) {
+            log.warn("Read replica unavailable ({}); routing read-only transactions to primary", reason);
+        }
+        replicaAvailable = false;
+    }
+}
@@ -0,0 +1,95 @@
+package com.firstclub.membership.config;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Counts the SQL statements Hibernate prepares on the current thread between
+ * {@link #begin()} and {@link #end()}, and how often the most repeated
+ * statement ran; a statement repeated many times in one request is the
+ * signature of an N+1 query. Statements issued through JdbcTemplate bypass
+ * Hibernate and are not counted.
+ *
+ * Windows nest, so a test can open one around a MockMvc call whose filter
+ * opens its own; counts are kept until the outermost window ends.
+ */
+public class SqlStatementCounter implements StatementInspector {
+
+    private static final ThreadLocal<Window> WINDOW = ThreadLocal.withInitial(Window::new);
+
+    /**
+     * Statement counts of one window.
+     *
+     * @param statements Statements prepared
+     * @param maxRepeats Executions of the most repeated statement
+     * @param mostRepeated The most repeated statement, or null if none ran
+     */
+    public record Snapshot(int statements, int maxRepeats, String mostRepeated) {
+    }
+
+    @Override
+    public String inspect(String sql) {
+        Window window = WINDOW.get();
+        if (window.depth > 0) {
+            window.record(sql);
+        }
+        return sql;
+    }
+
+    /** Opens a counting window on the current thread, or joins the open one. */
+    public static void begin() {
+        Window window = WINDOW.get();
+        if (window.depth++ == 0) {
+            window.reset();
+        }
+    }
+
+    /** @return The counts so far in the current thread's window */
+    public static Snapshot current() {
+        return WINDOW.get().snapshot();
+    }
+
+    /**
+     * Closes the current thread's window.
+     *
+     * @return The counts of the window, including any nested windows
+     */
+    public static Snapshot end() {
+        Window window = WINDOW.get();
+        Snapshot snapshot = window.snapshot();
+        if (window.depth > 0 && --window.depth == 0) {
+            window.reset();
+        }
+        return snapshot;
+    }
+
+    private static final class Window {
+        final Map<String, int[]> executions = new HashMap<>();
+        int depth;
+        int statements;
+        int maxRepeats;
+        String mostRepeated;
+
+        void record(String sql) {
+            statements++;
+            int[] count = executions.computeIfAbsent(sql, key -> new int[1]);
+            if (++count[0] > maxRepeats) {
+                maxRepeats = count[0];
+                mostRepeated = sql;
+            }
+        }
+
+        void reset() {
+            executions.clear();
+            statements = 0;
+            maxRepeats = 0;
+            mostRepeated = null;
+        }
+
+        Snapshot snapshot() {
+            return new Snapshot(statements, maxRepeats, mostRepeated);
+        }
+    }
+}
@@ -0,0 +1,43 @@
+package com.firstclub.membership.config;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.hibernate.cfg.AvailableSettings;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.orm.jpa.HibernatePropertiesCustomizer;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+
+/**
+ * Installs the SQL statement counter as Hibernate's statement inspector and
+ * registers the filter that reports statements per request.
+ */
+@Configuration
+@ConditionalOnProperty(name = "app.sql-metrics.enabled", havingValue = "true", matchIfMissing = true)
+public class SqlStatementMetricsConfiguration {
+
+    @Bean
+    public HibernatePropertiesCustomizer sqlStatementCounterCustomizer() {
+        return properties -> properties.put(AvailableSettings.STATEMENT_INSPECTOR, new SqlStatementCounter());
+    }
+
+    @Bean
+    public SqlStatementMetricsFilter sqlStatementMetricsFilter(
+            MeterRegistry meterRegistry,
+            @Value("${app.sql-metrics.warn-statements:50}") int warnStatements,
+            @Value("${app.sql-metrics.n-plus-one-repeats:10}") int nPlusOneRepeats) {
+        return new SqlStatementMetricsFilter(meterRegistry, warnStatements, nPlusOneRepeats);
+    }
+
+    @Bean
+    public FilterRegistrationBean<SqlStatementMetricsFilter> sqlStatementMetricsFilterRegistration(
+            SqlStatementMetricsFilter sqlStatementMetricsFilter) {
+        FilterRegistrationBean<SqlStatementMetricsFilter> registration =
+                new FilterRegistrationBean<>(sqlStatementMetricsFilter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(Ordered.LOWEST_PRECEDENCE - 50);
+        return registration;
+    }
+}
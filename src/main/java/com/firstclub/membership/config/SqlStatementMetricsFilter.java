@@ -0,0 +1,85 @@
+package com.firstclub.membership.config;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Records how many SQL statements each request made, as a histogram per
+ * method and URI template, and logs requests that exceed the statement
+ * threshold or repeat one statement often enough to look like an N+1 query.
+ */
+@Slf4j
+public class SqlStatementMetricsFilter extends OncePerRequestFilter {
+
+    private static final String UNKNOWN_URI = "UNKNOWN";
+
+    private final MeterRegistry meterRegistry;
+    private final int warnStatements;
+    private final int nPlusOneRepeats;
+    // Keyed by method, then URI template, so a lookup never builds a key
+    private final Map<String, Map<String, Meters>> meters = new ConcurrentHashMap<>();
+
+    public SqlStatementMetricsFilter(MeterRegistry meterRegistry, int warnStatements, int nPlusOneRepeats) {
+        this.meterRegistry = meterRegistry;
+        this.warnStatements = warnStatements;
+        this.nPlusOneRepeats = nPlusOneRepeats;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        SqlStatementCounter.begin();
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            record(request, SqlStatementCounter.end());
+        }
+    }
+
+    private void record(HttpServletRequest request, SqlStatementCounter.Snapshot snapshot) {
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern instanceof String template ? template : UNKNOWN_URI;
+        Meters requestMeters = meters(request.getMethod(), uri);
+        requestMeters.statements.record(snapshot.statements());
+
+        if (snapshot.maxRepeats() >= nPlusOneRepeats) {
+            requestMeters.nPlusOne.increment();
+            log.warn("Possible N+1 on {} {}: one statement ran {} times: {}",
+                    request.getMethod(), uri, snapshot.maxRepeats(), snapshot.mostRepeated());
+        } else if (snapshot.statements() >= warnStatements) {
+            log.warn("{} {} made {} SQL statements", request.getMethod(), uri, snapshot.statements());
+        }
+    }
+
+    private Meters meters(String method, String uri) {
+        return meters.computeIfAbsent(method, key -> new ConcurrentHashMap<>())
+            .computeIfAbsent(uri, key -> new Meters(
+                DistributionSummary.builder("membership.http.sql.statements")
+                    .description("SQL statements prepared by Hibernate per HTTP request")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .publishPercentileHistogram()
+                    .maximumExpectedValue(1000.0)
+                    .register(meterRegistry),
+                Counter.builder("membership.http.sql.n_plus_one")
+                    .description("Requests that repeated one SQL statement past the N+1 threshold")
+                    .tag("method", method)
+                    .tag("uri", uri)
+                    .register(meterRegistry)));
+    }
+
+    private record Meters(DistributionSummary statements, Counter nPlusOne) {
+    }
+}
@@ -0,0 +1,126 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.IdempotencyConflictException;
+import com.firstclub.membership.exception.InvalidOperationException;
+import com.firstclub.membership.exception.MembershipAlreadyExistsException;
+import com.firstclub.membership.exception.MembershipNotFoundException;
+import com.firstclub.membership.exception.PaymentFailedException;
+import com.firstclub.membership.exception.PlanNotFoundException;
+import com.firstclub.membership.exception.TierNotFoundException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Times every call to a fixed set of methods, tagged with the method name and
+ * the outcome. Timers are kept in a per-method array indexed by outcome and
+ * registered on first use, so only combinations that actually occur become
+ * series, and a steady-state call is a map lookup, two clock reads and a
+ * record with no allocation.
+ */
+class TimedOperationInterceptor implements MethodInterceptor {
+
+    enum Outcome {
+        SUCCESS("success"),
+        DECLINED("declined"),
+        NOT_FOUND("not_found"),
+        CONFLICT("conflict"),
+        INVALID("invalid"),
+        PAYMENT_FAILED("payment_failed"),
+        ERROR("error");
+
+        final String tag;
+
+        Outcome(String tag) {
+            this.tag = tag;
+        }
+    }
+
+    private static final Outcome[] OUTCOMES = Outcome.values();
+
+    private final String metricName;
+    private final String description;
+    private final ObjectProvider<MeterRegistry> meterRegistry;
+    private final Map<String, Timer[]> timers = new HashMap<>();
+
+    TimedOperationInterceptor(String metricName, String description, ObjectProvider<MeterRegistry> meterRegistry,
+                              Collection<String> methodNames) {
+        this.metricName = metricName;
+        this.description = description;
+        this.meterRegistry = meterRegistry;
+        // Filled once here and only read afterwards, so a plain HashMap is safe
+        for (String methodName : methodNames) {
+            timers.put(methodName, new Timer[OUTCOMES.length]);
+        }
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Timer[] methodTimers = timers.get(invocation.getMethod().getName());
+        if (methodTimers == null) {
+            return invocation.proceed();
+        }
+
+        long started = System.nanoTime();
+        Outcome outcome = Outcome.ERROR;
+        try {
+            Object result = invocation.proceed();
+            outcome = result instanceof PaymentResult payment && !payment.isSuccess()
+                    ? Outcome.DECLINED
+                    : Outcome.SUCCESS;
+            return result;
+        } catch (Throwable e) {
+            outcome = classify(e);
+            throw e;
+        } finally {
+            timer(methodTimers, invocation.getMethod().getName(), outcome)
+                .record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    private Timer timer(Timer[] methodTimers, String methodName, Outcome outcome) {
+        Timer timer = methodTimers[outcome.ordinal()];
+        if (timer == null) {
+            // Registration is idempotent, so a racing first call just gets the same timer
+            timer = Timer.builder(metricName)
+                .description(description)
+                .tag("method", methodName)
+                .tag("outcome", outcome.tag)
+                .publishPercentileHistogram()
+                .minimumExpectedValue(MembershipMetrics.MIN_EXPECTED)
+                .maximumExpectedValue(MembershipMetrics.MAX_EXPECTED)
+                .register(meterRegistry.getObject());
+            methodTimers[outcome.ordinal()] = timer;
+        }
+        return timer;
+    }
+
+    static Outcome classify(Throwable e) {
+        if (e instanceof MembershipNotFoundException
+                || e instanceof PlanNotFoundException
+                || e instanceof TierNotFoundException) {
+            return Outcome.NOT_FOUND;
+        }
+        if (e instanceof MembershipAlreadyExistsException
+                || e instanceof ObjectOptimisticLockingFailureException
+                || e instanceof IdempotencyConflictException) {
+            return Outcome.CONFLICT;
+        }
+        if (e instanceof InvalidOperationException) {
+            return Outcome.INVALID;
+        }
+        if (e instanceof PaymentFailedException) {
+            return Outcome.PAYMENT_FAILED;
+        }
+        return Outcome.ERROR;
+    }
+}
@@ -0,0 +1,69 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.dto.response.EncodedResponse;
+import com.firstclub.membership.service.CatalogResponseCache;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.WebRequest;
+
+import java.util.function.Supplier;
+
+/**
+ * Builds catalog endpoint responses from pre-serialized byte buffers.
+ * Bodies are returned as byte arrays, which Spring MVC copies straight to the
+ * servlet output stream without involving Jackson.
+ */
+@Component
+@RequiredArgsConstructor
+class CatalogResponseWriter {
+
+    private final CatalogResponseCache catalogResponseCache;
+
+    /**
+     * Answers a catalog GET: 304 when the client's ETag is current, otherwise the
+     * cached encoded body, gzip-compressed when the client accepts it.
+     * 
+     * The body is resolved first, so a missing plan or tier still fails with its
+     * not-found error instead of a 304; at a warm cache that costs one map lookup.
+     * 
+     * @param webRequest The current request
+     * @param key Cache key identifying the endpoint and its parameters
+     * @param bodySupplier Produces the response object when the cache misses
+     * @return The response entity, or null when a 304 has already been written
+     */
+    ResponseEntity<byte[]> write(WebRequest webRequest, String key, Supplier<?> bodySupplier) {
+        EncodedResponse encoded = catalogResponseCache.get(key, bodySupplier);
+        boolean gzip = acceptsGzip(webRequest.getHeader(HttpHeaders.ACCEPT_ENCODING)) && encoded.gzipSmaller();
+        if (webRequest.checkNotModified(encoded.etag(gzip))) {
+            return null;
+        }
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+            .contentType(MediaType.APPLICATION_JSON)
+            .eTag(encoded.etag(gzip))
+            .cacheControl(CacheControl.noCache())
+            .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (gzip) {
+            response.header(HttpHeaders.CONTENT_ENCODING, "gzip");
+        }
+        byte[] body = gzip ? encoded.gzip() : encoded.identity();
+        return response.contentLength(body.length).body(body);
+    }
+
+    private static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].replace(" ", "").equalsIgnoreCase("q=0");
+            }
+        }
+        return false;
+    }
+}
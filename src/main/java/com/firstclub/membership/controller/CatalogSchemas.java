@@ -0,0 +1,34 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.dto.response.ApiResponse;
+import com.firstclub.membership.dto.response.BenefitResponse;
+import com.firstclub.membership.dto.response.PlanResponse;
+import com.firstclub.membership.dto.response.TierResponse;
+
+import java.util.List;
+
+/**
+ * Response body types of the catalog GET endpoints, for the OpenAPI document only.
+ * Those endpoints return pre-encoded bytes, so their JSON contract has to be
+ * named explicitly; each type fixes the generic parameter of ApiResponse.
+ */
+final class CatalogSchemas {
+
+    private CatalogSchemas() {
+    }
+
+    static final class PlanListResponse extends ApiResponse<List<PlanResponse>> {
+    }
+
+    static final class SinglePlanResponse extends ApiResponse<PlanResponse> {
+    }
+
+    static final class TierListResponse extends ApiResponse<List<TierResponse>> {
+    }
+
+    static final class SingleTierResponse extends ApiResponse<TierResponse> {
+    }
+
+    static final class BenefitListResponse extends ApiResponse<List<BenefitResponse>> {
+    }
+}
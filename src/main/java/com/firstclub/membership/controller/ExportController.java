@@ -0,0 +1,55 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.dto.request.ExportFilter;
+import com.firstclub.membership.model.enums.DataFormat;
+import com.firstclub.membership.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+
+@RestController
+@RequestMapping("/api/v1/admin/exports")
+@RequiredArgsConstructor
+@Tag(name = "Exports", description = "APIs for streaming full membership and transaction extracts")
+public class ExportController {
+    
+    private static final MediaType NDJSON = MediaType.parseMediaType("application/x-ndjson");
+    private static final MediaType CSV = MediaType.parseMediaType("text/csv;charset=UTF-8");
+    
+    private final ExportService exportService;
+    
+    @GetMapping("/memberships")
+    @Operation(summary = "Stream memberships as NDJSON or CSV")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportMemberships(
+            ExportFilter filter,
+            @RequestParam(defaultValue = "NDJSON") DataFormat format) {
+        
+        return stream("memberships", format, out -> exportService.exportMemberships(filter, format, out));
+    }
+    
+    @GetMapping("/transactions")
+    @Operation(summary = "Stream membership transactions as NDJSON or CSV")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<StreamingResponseBody> exportTransactions(
+            ExportFilter filter,
+            @RequestParam(defaultValue = "NDJSON") DataFormat format) {
+        
+        return stream("transactions", format, out -> exportService.exportTransactions(filter, format, out));
+    }
+    
+    private ResponseEntity<StreamingResponseBody> stream(String name, DataFormat format, StreamingResponseBody body) {
+        String filename = name + (format == DataFormat.CSV ? ".csv" : ".ndjson");
+        return ResponseEntity.ok()
+            .contentType(format == DataFormat.CSV ? CSV : NDJSON)
+            .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment().filename(filename).build().toString())
+            .body(body);
+    }
+}
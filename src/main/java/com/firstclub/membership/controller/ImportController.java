@@ -0,0 +1,41 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.dto.response.ApiResponse;
+import com.firstclub.membership.dto.response.ImportResult;
+import com.firstclub.membership.model.enums.DataFormat;
+import com.firstclub.membership.service.MembershipImportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.multipart.MultipartFile;
+
+import java.io.IOException;
+
+@RestController
+@RequestMapping("/api/v1/admin/imports")
+@RequiredArgsConstructor
+@Tag(name = "Imports", description = "APIs for bulk-loading memberships from partner programs")
+public class ImportController {
+    
+    private final MembershipImportService membershipImportService;
+    
+    @PostMapping(value = "/memberships", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
+    @Operation(summary = "Import memberships from a CSV or NDJSON file")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<ApiResponse<ImportResult>> importMemberships(
+            @RequestParam("file") MultipartFile file,
+            @RequestParam(required = false) DataFormat format) throws IOException {
+        
+        DataFormat resolved = format != null ? format : formatOf(file.getOriginalFilename());
+        ImportResult result = membershipImportService.importMemberships(file.getInputStream(), resolved);
+        return ResponseEntity.ok(ApiResponse.success("Import completed", result));
+    }
+    
+    private static DataFormat formatOf(String filename) {
+        return filename != null && filename.toLowerCase().endsWith(".csv") ? DataFormat.CSV : DataFormat.NDJSON;
+    }
+}
@@ -1,11 +1,16 @@
 package com.firstclub.membership.controller;
 
+import com.firstclub.membership.dto.request.BulkMembershipRequest;
 import com.firstclub.membership.dto.request.SubscriptionRequest;
 import com.firstclub.membership.dto.request.ModifyRequest;
 import com.firstclub.membership.dto.response.ApiResponse;
 import com.firstclub.membership.dto.response.BenefitResponse;
+import com.firstclub.membership.dto.response.EntitlementResponse;
 import com.firstclub.membership.dto.response.MembershipResponse;
 import com.firstclub.membership.dto.response.TransactionResponse;
+import com.firstclub.membership.model.enums.BenefitType;
+import com.firstclub.membership.service.EntitlementService;
+import com.firstclub.membership.service.IdempotencyService;
 import com.firstclub.membership.service.MembershipService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -17,7 +22,10 @@ import org.springframework.web.bind.annotation.*;
 
 import jakarta.validation.Valid;
 import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.time.YearMonth;
 import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/v1/memberships")
@@ -27,39 +35,61 @@ import java.util.List;
 public class MembershipController {
     
     private final MembershipService membershipService;
+    private final EntitlementService entitlementService;
+    private final IdempotencyService idempotencyService;
     
     @PostMapping("/subscribe")
     @Operation(summary = "Subscribe to a membership plan")
     public ResponseEntity<ApiResponse<MembershipResponse>> subscribe(
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) @Size(max = 255) String idempotencyKey,
             @Valid @RequestBody SubscriptionRequest request) {
         
-        MembershipResponse response = membershipService.subscribeToPlan(request);
-        return ResponseEntity.status(HttpStatus.CREATED)
-            .body(ApiResponse.success("Subscription successful", response));
+        return idempotencyService.execute(idempotencyKey, "subscribe", request.getUserId(), request,
+            MembershipResponse.class, () -> {
+                MembershipResponse response = membershipService.subscribeToPlan(request, idempotencyKey);
+                if (response.getPendingPaymentReference() != null) {
+                    return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.success("Subscription awaiting payment confirmation", response));
+                }
+                return ResponseEntity.status(HttpStatus.CREATED)
+                    .body(ApiResponse.success("Subscription successful", response));
+            });
     }
     
     @PutMapping("/users/{userId}/upgrade")
     @Operation(summary = "Upgrade membership plan or tier")
     public ResponseEntity<ApiResponse<MembershipResponse>> upgrade(
             @PathVariable @NotNull Long userId,
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) @Size(max = 255) String idempotencyKey,
             @Valid @RequestBody ModifyRequest request) {
         
-        MembershipResponse response = membershipService.upgradeMembership(
-            userId, request.getNewPlanId(), request.getNewTierId()
-        );
-        return ResponseEntity.ok(ApiResponse.success("Upgrade successful", response));
+        return idempotencyService.execute(idempotencyKey, "upgrade", userId, request,
+            MembershipResponse.class, () -> {
+                MembershipResponse response = membershipService.upgradeMembership(
+                    userId, request.getNewPlanId(), request.getNewTierId(), idempotencyKey
+                );
+                if (response.getPendingPaymentReference() != null) {
+                    return ResponseEntity.status(HttpStatus.ACCEPTED)
+                        .body(ApiResponse.success("Upgrade awaiting payment confirmation", response));
+                }
+                return ResponseEntity.ok(ApiResponse.success("Upgrade successful", response));
+            });
     }
     
     @PutMapping("/users/{userId}/downgrade")
     @Operation(summary = "Downgrade membership tier")
     public ResponseEntity<ApiResponse<MembershipResponse>> downgrade(
             @PathVariable @NotNull Long userId,
+            @RequestHeader(value = IdempotencyService.KEY_HEADER, required = false) @Size(max = 255) String idempotencyKey,
             @Valid @RequestBody ModifyRequest request) {
         
-        MembershipResponse response = membershipService.downgradeMembership(
-            userId, request.getNewPlanId(), request.getNewTierId()
-        );
-        return ResponseEntity.ok(ApiResponse.success("Downgrade successful", response));
+        return idempotencyService.execute(idempotencyKey, "downgrade", userId, request,
+            MembershipResponse.class, () -> {
+                MembershipResponse response = membershipService.downgradeMembership(
+                    userId, request.getNewPlanId(), request.getNewTierId()
+                );
+                return ResponseEntity.ok(ApiResponse.success("Downgrade successful", response));
+            });
     }
     
     @DeleteMapping("/users/{userId}/cancel")
@@ -80,6 +110,15 @@ public class MembershipController {
         return ResponseEntity.ok(ApiResponse.success(response));
     }
     
+    @PostMapping("/users/current")
+    @Operation(summary = "Get current membership details for multiple users")
+    public ResponseEntity<ApiResponse<Map<Long, MembershipResponse>>> getCurrentMemberships(
+            @Valid @RequestBody BulkMembershipRequest request) {
+        
+        Map<Long, MembershipResponse> response = membershipService.getCurrentMemberships(request.getUserIds());
+        return ResponseEntity.ok(ApiResponse.success(response));
+    }
+    
     @PostMapping("/users/{userId}/evaluate-tier")
     @Operation(summary = "Manually trigger tier evaluation")
     public ResponseEntity<ApiResponse<String>> evaluateTier(
@@ -98,6 +137,16 @@ public class MembershipController {
         return ResponseEntity.ok(ApiResponse.success(benefits));
     }
     
+    @GetMapping("/users/{userId}/entitlements")
+    @Operation(summary = "Check which benefits a user is entitled to")
+    public ResponseEntity<ApiResponse<EntitlementResponse>> getEntitlements(
+            @PathVariable @NotNull Long userId,
+            @RequestParam(required = false) List<BenefitType> types) {
+        
+        EntitlementResponse entitlements = entitlementService.getEntitlements(userId, types);
+        return ResponseEntity.ok(ApiResponse.success(entitlements));
+    }
+    
     @GetMapping("/users/{userId}/history")
     @Operation(summary = "Get membership transaction history")
     public ResponseEntity<ApiResponse<List<TransactionResponse>>> getTransactionHistory(
@@ -108,4 +157,15 @@ public class MembershipController {
         List<TransactionResponse> history = membershipService.getTransactionHistory(userId, page, size);
         return ResponseEntity.ok(ApiResponse.success(history));
     }
+    
+    @GetMapping("/users/{userId}/history/archived")
+    @Operation(summary = "Get archived membership transaction history")
+    public ResponseEntity<ApiResponse<List<TransactionResponse>>> getArchivedTransactionHistory(
+            @PathVariable @NotNull Long userId,
+            @RequestParam YearMonth from,
+            @RequestParam YearMonth to) {
+        
+        List<TransactionResponse> history = membershipService.getArchivedTransactionHistory(userId, from, to);
+        return ResponseEntity.ok(ApiResponse.success(history));
+    }
 }
@@ -6,11 +6,15 @@ import com.firstclub.membership.dto.response.ApiResponse;
 import com.firstclub.membership.dto.response.PlanResponse;
 import com.firstclub.membership.service.MembershipPlanService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -22,19 +26,32 @@ import java.util.List;
 public class MembershipPlanController {
     
     private final MembershipPlanService membershipPlanService;
+    private final CatalogResponseWriter catalogResponseWriter;
     
     @GetMapping
-    @Operation(summary = "Get all active membership plans")
-    public ResponseEntity<ApiResponse<List<PlanResponse>>> getAllPlans() {
-        List<PlanResponse> plans = membershipPlanService.getAllActivePlans();
-        return ResponseEntity.ok(ApiResponse.success(plans));
+    @Operation(summary = "Get all active membership plans", responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "OK",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CatalogSchemas.PlanListResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304",
+            description = "Catalog unchanged since the ETag sent in If-None-Match", content = @Content)
+    })
+    public ResponseEntity<byte[]> getAllPlans(WebRequest webRequest) {
+        return catalogResponseWriter.write(webRequest, "plans",
+            () -> ApiResponse.success(membershipPlanService.getAllActivePlans()));
     }
     
     @GetMapping("/{planId}")
-    @Operation(summary = "Get plan details by ID")
-    public ResponseEntity<ApiResponse<PlanResponse>> getPlanById(@PathVariable Long planId) {
-        PlanResponse plan = membershipPlanService.getPlanById(planId);
-        return ResponseEntity.ok(ApiResponse.success(plan));
+    @Operation(summary = "Get plan details by ID", responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "OK",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CatalogSchemas.SinglePlanResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304",
+            description = "Catalog unchanged since the ETag sent in If-None-Match", content = @Content)
+    })
+    public ResponseEntity<byte[]> getPlanById(@PathVariable Long planId, WebRequest webRequest) {
+        return catalogResponseWriter.write(webRequest, "plan:" + planId,
+            () -> ApiResponse.success(membershipPlanService.getPlanById(planId)));
     }
     
     @PostMapping
@@ -10,11 +10,15 @@ import com.firstclub.membership.dto.response.CriteriaResponse;
 import com.firstclub.membership.dto.response.TierResponse;
 import com.firstclub.membership.service.MembershipTierService;
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
 import jakarta.validation.Valid;
 import java.util.List;
@@ -26,19 +30,32 @@ import java.util.List;
 public class MembershipTierController {
     
     private final MembershipTierService tierService;
+    private final CatalogResponseWriter catalogResponseWriter;
     
     @GetMapping
-    @Operation(summary = "Get all active membership tiers")
-    public ResponseEntity<ApiResponse<List<TierResponse>>> getAllTiers() {
-        List<TierResponse> tiers = tierService.getAllActiveTiers();
-        return ResponseEntity.ok(ApiResponse.success(tiers));
+    @Operation(summary = "Get all active membership tiers", responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "OK",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CatalogSchemas.TierListResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304",
+            description = "Catalog unchanged since the ETag sent in If-None-Match", content = @Content)
+    })
+    public ResponseEntity<byte[]> getAllTiers(WebRequest webRequest) {
+        return catalogResponseWriter.write(webRequest, "tiers",
+            () -> ApiResponse.success(tierService.getAllActiveTiers()));
     }
     
     @GetMapping("/{tierId}")
-    @Operation(summary = "Get tier details by ID")
-    public ResponseEntity<ApiResponse<TierResponse>> getTierById(@PathVariable Long tierId) {
-        TierResponse tier = tierService.getTierById(tierId);
-        return ResponseEntity.ok(ApiResponse.success(tier));
+    @Operation(summary = "Get tier details by ID", responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "OK",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CatalogSchemas.SingleTierResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304",
+            description = "Catalog unchanged since the ETag sent in If-None-Match", content = @Content)
+    })
+    public ResponseEntity<byte[]> getTierById(@PathVariable Long tierId, WebRequest webRequest) {
+        return catalogResponseWriter.write(webRequest, "tier:" + tierId,
+            () -> ApiResponse.success(tierService.getTierById(tierId)));
     }
     
     @PostMapping
@@ -63,10 +80,16 @@ public class MembershipTierController {
     }
         
     @GetMapping("/{tierId}/benefits")
-    @Operation(summary = "Get benefits for a specific tier")
-    public ResponseEntity<ApiResponse<List<BenefitResponse>>> getTierBenefits(@PathVariable Long tierId) {
-        List<BenefitResponse> benefits = tierService.getTierBenefits(tierId);
-        return ResponseEntity.ok(ApiResponse.success(benefits));
+    @Operation(summary = "Get benefits for a specific tier", responses = {
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "200", description = "OK",
+            content = @Content(mediaType = MediaType.APPLICATION_JSON_VALUE,
+                schema = @Schema(implementation = CatalogSchemas.BenefitListResponse.class))),
+        @io.swagger.v3.oas.annotations.responses.ApiResponse(responseCode = "304",
+            description = "Catalog unchanged since the ETag sent in If-None-Match", content = @Content)
+    })
+    public ResponseEntity<byte[]> getTierBenefits(@PathVariable Long tierId, WebRequest webRequest) {
+        return catalogResponseWriter.write(webRequest, "tier-benefits:" + tierId,
+            () -> ApiResponse.success(tierService.getTierBenefits(tierId)));
     }
     
     @PostMapping("/{tierId}/benefits")
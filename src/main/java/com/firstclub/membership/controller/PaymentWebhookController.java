@@ -0,0 +1,114 @@
+package com.firstclub.membership.controller;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.request.PaymentWebhookRequest;
+import com.firstclub.membership.dto.response.ApiResponse;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.InvalidWebhookPayloadException;
+import com.firstclub.membership.exception.InvalidWebhookSignatureException;
+import com.firstclub.membership.service.MembershipService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.util.HexFormat;
+
+/**
+ * Receives payment outcomes from the gateway. Calls are authenticated by an
+ * HMAC-SHA256 signature of the raw body with the shared webhook secret, sent
+ * hex-encoded in the X-Payment-Signature header, rather than by user
+ * credentials. Outcomes are idempotent: repeats are acknowledged and ignored.
+ */
+@RestController
+@RequestMapping(PaymentWebhookController.PATH)
+@Slf4j
+@Tag(name = "Payment Webhooks", description = "Callbacks from the payment gateway")
+public class PaymentWebhookController {
+    
+    public static final String PATH = "/api/v1/payments/webhook";
+    static final String SIGNATURE_HEADER = "X-Payment-Signature";
+    private static final String SIGNATURE_ALGORITHM = "HmacSHA256";
+    
+    private final MembershipService membershipService;
+    private final ObjectMapper objectMapper;
+    private final byte[] secret;
+    
+    public PaymentWebhookController(MembershipService membershipService,
+                                    ObjectMapper objectMapper,
+                                    @Value("${app.payment.webhook.secret:}") String secret) {
+        this.membershipService = membershipService;
+        this.objectMapper = objectMapper;
+        this.secret = secret.getBytes(StandardCharsets.UTF_8);
+    }
+    
+    @PostMapping
+    @Operation(summary = "Report the outcome of an asynchronous payment")
+    public ResponseEntity<ApiResponse<String>> paymentOutcome(
+            @RequestHeader(value = SIGNATURE_HEADER, required = false) String signature,
+            @RequestBody String payload) {
+        
+        verifySignature(payload, signature);
+        PaymentWebhookRequest request = parse(payload);
+        
+        PaymentResult result = PaymentWebhookRequest.SUCCEEDED.equals(request.getStatus())
+            ? PaymentResult.success(request.getTransactionId())
+            : PaymentResult.failure(request.getMessage() != null ? request.getMessage() : "Payment declined");
+        boolean applied = membershipService.confirmPayment(request.getPaymentReference(), result);
+        return ResponseEntity.ok(ApiResponse.success(applied ? "Payment outcome applied" : "Payment already resolved"));
+    }
+    
+    private void verifySignature(String payload, String signature) {
+        if (secret.length == 0) {
+            throw new InvalidWebhookSignatureException("Payment webhook secret is not configured");
+        }
+        if (signature == null) {
+            throw new InvalidWebhookSignatureException("Missing " + SIGNATURE_HEADER + " header");
+        }
+        
+        byte[] expected;
+        try {
+            Mac mac = Mac.getInstance(SIGNATURE_ALGORITHM);
+            mac.init(new SecretKeySpec(secret, SIGNATURE_ALGORITHM));
+            expected = mac.doFinal(payload.getBytes(StandardCharsets.UTF_8));
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot compute webhook signature", e);
+        }
+        
+        byte[] actual;
+        try {
+            actual = HexFormat.of().parseHex(signature.trim());
+        } catch (IllegalArgumentException e) {
+            throw new InvalidWebhookSignatureException("Malformed webhook signature");
+        }
+        if (!MessageDigest.isEqual(expected, actual)) {
+            log.warn("Rejected payment webhook with an invalid signature");
+            throw new InvalidWebhookSignatureException("Invalid webhook signature");
+        }
+    }
+    
+    private PaymentWebhookRequest parse(String payload) {
+        PaymentWebhookRequest request;
+        try {
+            request = objectMapper.readValue(payload, PaymentWebhookRequest.class);
+        } catch (JsonProcessingException e) {
+            throw new InvalidWebhookPayloadException("Malformed payment webhook body", e);
+        }
+        if (request.getPaymentReference() == null || request.getPaymentReference().isBlank()) {
+            throw new InvalidWebhookPayloadException("paymentReference is required");
+        }
+        if (!PaymentWebhookRequest.SUCCEEDED.equals(request.getStatus())
+                && !PaymentWebhookRequest.DECLINED.equals(request.getStatus())) {
+            throw new InvalidWebhookPayloadException("status must be succeeded or declined");
+        }
+        return request;
+    }
+}
@@ -0,0 +1,29 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.dto.request.QuoteRequest;
+import com.firstclub.membership.dto.response.ApiResponse;
+import com.firstclub.membership.dto.response.QuoteResponse;
+import com.firstclub.membership.service.DiscountQuoteService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import jakarta.validation.Valid;
+
+@RestController
+@RequestMapping("/api/v1/quotes")
+@RequiredArgsConstructor
+@Tag(name = "Discount Quotes", description = "APIs for quoting membership discounts and cashback")
+public class QuoteController {
+    
+    private final DiscountQuoteService discountQuoteService;
+    
+    @PostMapping
+    @Operation(summary = "Quote membership discount and cashback for a cart")
+    public ResponseEntity<ApiResponse<QuoteResponse>> quote(@Valid @RequestBody QuoteRequest request) {
+        QuoteResponse quote = discountQuoteService.quote(request);
+        return ResponseEntity.ok(ApiResponse.success(quote));
+    }
+}
@@ -0,0 +1,29 @@
+package com.firstclub.membership.dto.event;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.time.LocalDateTime;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class MembershipEvent {
+    private String eventType;
+    private Long userId;
+    private Long membershipId;
+    private String status;
+    private Long planId;
+    private String planName;
+    private Long tierId;
+    private String tierName;
+    private Long oldPlanId;
+    private Long oldTierId;
+    private LocalDateTime endDate;
+    private LocalDateTime occurredAt;
+}
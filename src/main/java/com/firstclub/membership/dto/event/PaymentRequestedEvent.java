@@ -0,0 +1,17 @@
+package com.firstclub.membership.dto.event;
+
+import java.math.BigDecimal;
+
+/**
+ * Published inside the transaction that records a pending payment; the charge
+ * is submitted to the gateway once that transaction has committed.
+ *
+ * @param paymentReference The reference the charge is made and confirmed under
+ * @param userId The user to charge
+ * @param amount The amount to charge
+ */
+public record PaymentRequestedEvent(
+        String paymentReference,
+        Long userId,
+        BigDecimal amount) {
+}
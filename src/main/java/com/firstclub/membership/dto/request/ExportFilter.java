@@ -0,0 +1,34 @@
+package com.firstclub.membership.dto.request;
+
+import com.firstclub.membership.model.enums.MembershipStatus;
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
+
+import java.time.LocalDateTime;
+
+/**
+ * Optional filters for admin exports; unset fields do not restrict the export.
+ * The date range applies to the membership start date for membership exports
+ * and to the transaction date for transaction exports.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ExportFilter {
+    
+    private MembershipStatus status;
+    
+    private Long planId;
+    
+    private Long tierId;
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime from; // Inclusive
+    
+    @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+    private LocalDateTime to; // Exclusive
+}
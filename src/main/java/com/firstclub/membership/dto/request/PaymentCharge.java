@@ -0,0 +1,17 @@
+package com.firstclub.membership.dto.request;
+
+import java.math.BigDecimal;
+
+/**
+ * One charge of a batch payment call.
+ *
+ * @param userId The user to charge
+ * @param amount The amount to charge
+ * @param paymentReference Caller-chosen reference identifying this charge; a
+ *                         charge repeated with the same reference is taken once
+ */
+public record PaymentCharge(
+        Long userId,
+        BigDecimal amount,
+        String paymentReference) {
+}
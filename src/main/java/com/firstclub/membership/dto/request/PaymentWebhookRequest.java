@@ -0,0 +1,27 @@
+package com.firstclub.membership.dto.request;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+/**
+ * Payment outcome reported by the gateway's webhook.
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentWebhookRequest {
+    
+    public static final String SUCCEEDED = "succeeded";
+    public static final String DECLINED = "declined";
+    
+    private String paymentReference;
+    
+    private String status; // succeeded or declined
+    
+    private String transactionId;
+    
+    private String message;
+}
@@ -0,0 +1,38 @@
+package com.firstclub.membership.dto.request;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import jakarta.validation.constraints.AssertTrue;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Digits;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import java.math.BigDecimal;
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class QuoteRequest {
+    
+    @NotNull(message = "User ID is required")
+    private Long userId;
+    
+    @DecimalMin(value = "0.00", message = "Cart total must not be negative")
+    @Digits(integer = 12, fraction = 2, message = "Cart total must have at most 2 decimal places")
+    private BigDecimal cartTotal;
+    
+    @Size(max = 1000, message = "At most 1000 line amounts can be quoted at once")
+    private List<@NotNull @DecimalMin(value = "0.00", message = "Line amounts must not be negative")
+            @Digits(integer = 12, fraction = 2, message = "Line amounts must have at most 2 decimal places")
+            BigDecimal> lineAmounts;
+    
+    @AssertTrue(message = "Exactly one of cartTotal or lineAmounts is required")
+    private boolean isCartTotalOrLineAmounts() {
+        return (cartTotal != null) != (lineAmounts != null && !lineAmounts.isEmpty());
+    }
+}
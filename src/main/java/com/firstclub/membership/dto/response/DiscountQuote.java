@@ -0,0 +1,21 @@
+package com.firstclub.membership.dto.response;
+
+/**
+ * Result of quoting a cart against a user's membership benefits, with all
+ * amounts in minor currency units.
+ */
+public record DiscountQuote(
+        Long tierId,
+        long subtotalMinor,
+        long percentageDiscountMinor,
+        long fixedDiscountMinor,
+        long cashbackMinor) {
+
+    public long totalDiscountMinor() {
+        return percentageDiscountMinor + fixedDiscountMinor;
+    }
+
+    public long payableMinor() {
+        return subtotalMinor - totalDiscountMinor();
+    }
+}
@@ -0,0 +1,42 @@
+package com.firstclub.membership.dto.response;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * A tier's monetary benefits in fixed-point form, precomputed once per tier so
+ * quoting never converts BigDecimal values per call.
+ * Percentages are in basis points (5.00% = 500) and amounts in minor currency
+ * units (10.00 = 1000).
+ */
+public record DiscountTerms(
+        Long tierId,
+        long percentageDiscountBasisPoints,
+        long fixedDiscountMinor,
+        long cashbackBasisPoints) {
+
+    /** Number of decimal places in a currency amount. */
+    public static final int MINOR_UNIT_SCALE = 2;
+
+    /** Basis points in 100%. */
+    public static final long FULL_BASIS_POINTS = 10_000L;
+
+    /** Terms for users without an active membership. */
+    public static final DiscountTerms NONE = new DiscountTerms(null, 0, 0, 0);
+
+    public boolean isEmpty() {
+        return percentageDiscountBasisPoints == 0 && fixedDiscountMinor == 0 && cashbackBasisPoints == 0;
+    }
+
+    /**
+     * Converts a percentage such as 5.00 to basis points, or an amount such as
+     * 10.00 to minor units; both are the value scaled by 10^2.
+     */
+    public static long toFixedPoint(BigDecimal value) {
+        return value == null ? 0 : value.movePointRight(MINOR_UNIT_SCALE).setScale(0, RoundingMode.HALF_UP).longValueExact();
+    }
+
+    public static BigDecimal fromMinor(long minor) {
+        return BigDecimal.valueOf(minor, MINOR_UNIT_SCALE);
+    }
+}
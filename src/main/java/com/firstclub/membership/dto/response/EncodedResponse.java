@@ -0,0 +1,27 @@
+package com.firstclub.membership.dto.response;
+
+/**
+ * A response body serialized once for a given catalog version, kept both as
+ * plain JSON bytes and gzip-compressed bytes.
+ */
+public record EncodedResponse(long version, byte[] identity, byte[] gzip) {
+
+    /**
+     * Whether the gzip encoding is worth serving; tiny bodies can grow when compressed.
+     */
+    public boolean gzipSmaller() {
+        return gzip.length < identity.length;
+    }
+
+    public String etag(boolean gzipped) {
+        return etag(version, gzipped);
+    }
+
+    /**
+     * Strong ETag for a catalog version. Each content encoding is a distinct
+     * representation and therefore gets its own ETag.
+     */
+    public static String etag(long version, boolean gzipped) {
+        return "\"catalog-" + version + (gzipped ? "-gzip\"" : "\"");
+    }
+}
@@ -0,0 +1,23 @@
+package com.firstclub.membership.dto.response;
+
+import com.firstclub.membership.model.enums.BenefitType;
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.math.BigDecimal;
+import java.util.Map;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class EntitlementResponse {
+    private Long userId;
+    private Long tierId;
+    private String tierName;
+    private Map<BenefitType, BigDecimal> benefits; // Entitled benefit types and their values (null when the benefit has none)
+}
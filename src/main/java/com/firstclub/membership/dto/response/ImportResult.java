@@ -0,0 +1,21 @@
+package com.firstclub.membership.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResult {
+    private long totalRows;
+    private long imported;
+    private long failed;
+    private long durationMillis;
+    private List<ImportRowError> errors;
+    private boolean errorsTruncated; // More rows failed than are listed in errors
+}
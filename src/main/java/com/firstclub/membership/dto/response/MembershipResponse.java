@@ -1,10 +1,10 @@
 package com.firstclub.membership.dto.response;
 
-import com.firstclub.membership.model.entity.TierBenefit;
 import lombok.Data;
 import lombok.Builder;
 import lombok.NoArgsConstructor;
 import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -22,9 +22,13 @@ public class MembershipResponse {
     private LocalDateTime startDate;
     private LocalDateTime endDate;
     private Boolean autoRenew;
-    private List<TierBenefit> benefits;
+    private List<BenefitResponse> benefits;
     private Integer daysRemaining;
     
+    // Set while the membership change awaits confirmation of this payment
+    @JsonInclude(JsonInclude.Include.NON_NULL)
+    private String pendingPaymentReference;
+    
     public Integer getDaysRemaining() {
         if (endDate != null) {
             return (int) java.time.Duration.between(LocalDateTime.now(), endDate).toDays();
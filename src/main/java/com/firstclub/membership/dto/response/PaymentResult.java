@@ -4,11 +4,17 @@ public class PaymentResult {
     private final boolean success;
     private final String transactionId;
     private final String message;
+    private final boolean outcomeUnknown;
     
     public PaymentResult(boolean success, String transactionId, String message) {
+        this(success, transactionId, message, false);
+    }
+    
+    private PaymentResult(boolean success, String transactionId, String message, boolean outcomeUnknown) {
         this.success = success;
         this.transactionId = transactionId;
         this.message = message;
+        this.outcomeUnknown = outcomeUnknown;
     }
     
     public boolean isSuccess() {
@@ -23,6 +29,15 @@ public class PaymentResult {
         return message;
     }
     
+    /**
+     * Whether the gateway gave no answer, so the charge may still be taken or
+     * declined. Such a result is not a success, but neither is it a decline:
+     * retry with the same payment reference or wait for the gateway's webhook.
+     */
+    public boolean isOutcomeUnknown() {
+        return outcomeUnknown;
+    }
+    
     public static PaymentResult success(String transactionId) {
         return new PaymentResult(true, transactionId, "Payment successful");
     }
@@ -30,4 +45,8 @@ public class PaymentResult {
     public static PaymentResult failure(String message) {
         return new PaymentResult(false, null, message);
     }
+    
+    public static PaymentResult unknown(String message) {
+        return new PaymentResult(false, null, message, true);
+    }
 }
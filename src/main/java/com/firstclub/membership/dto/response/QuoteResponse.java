@@ -0,0 +1,25 @@
+package com.firstclub.membership.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import com.fasterxml.jackson.annotation.JsonInclude;
+
+import java.math.BigDecimal;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class QuoteResponse {
+    private Long userId;
+    private Long tierId;
+    private BigDecimal subtotal;
+    private BigDecimal percentageDiscount;
+    private BigDecimal fixedDiscount;
+    private BigDecimal totalDiscount;
+    private BigDecimal payable;
+    private BigDecimal cashback;
+}
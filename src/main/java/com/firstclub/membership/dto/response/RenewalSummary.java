@@ -0,0 +1,18 @@
+package com.firstclub.membership.dto.response;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class RenewalSummary {
+    private long candidates;
+    private long renewed;
+    private long paymentFailures;
+    private long conflicts;
+    private long durationMillis;
+}
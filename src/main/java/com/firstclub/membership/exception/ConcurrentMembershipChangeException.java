@@ -0,0 +1,21 @@
+package com.firstclub.membership.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a membership change keeps losing to concurrent
+ * changes of the same membership, or the membership is reserved by a change
+ * that is awaiting payment.
+ */
+@ResponseStatus(HttpStatus.CONFLICT)
+public class ConcurrentMembershipChangeException extends RuntimeException {
+    
+    public ConcurrentMembershipChangeException(String message) {
+        super(message);
+    }
+    
+    public ConcurrentMembershipChangeException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,20 @@
+package com.firstclub.membership.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a correctly signed webhook call has a body that
+ * cannot be understood.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidWebhookPayloadException extends RuntimeException {
+    
+    public InvalidWebhookPayloadException(String message) {
+        super(message);
+    }
+    
+    public InvalidWebhookPayloadException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -0,0 +1,15 @@
+package com.firstclub.membership.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a webhook call is not signed with the shared secret.
+ */
+@ResponseStatus(HttpStatus.UNAUTHORIZED)
+public class InvalidWebhookSignatureException extends RuntimeException {
+    
+    public InvalidWebhookSignatureException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.firstclub.membership.exception;
+
+/**
+ * Exception thrown when the payment gateway could not be reached or did not
+ * answer in time. Unlike a declined payment, the outcome of the charge is
+ * unknown, so callers should retry with the same payment reference.
+ */
+public class PaymentGatewayException extends RuntimeException {
+
+    public PaymentGatewayException(String message) {
+        super(message);
+    }
+
+    public PaymentGatewayException(String message, Throwable cause) {
+        super(message, cause);
+    }
+}
@@ -38,7 +38,7 @@ public class MembershipMapper {
             .startDate(membership.getStartDate())
             .endDate(membership.getEndDate())
             .autoRenew(membership.getAutoRenew())
-            .benefits(membership.getTier().getBenefits())
+            .benefits(mapBenefits(membership.getTier().getBenefits()))
             .build();
     }
 
@@ -0,0 +1,49 @@
+package com.firstclub.membership.model.entity;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import jakarta.persistence.*;
+import com.firstclub.membership.model.enums.MembershipEventType;
+
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "membership_outbox", indexes = {
+    @Index(name = "idx_membership_outbox_pending", columnList = "published_at, id")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxEvent {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId; // Ordering key: events of one user are delivered in id order
+    
+    @Column(name = "membership_id")
+    private Long membershipId;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(name = "event_type", nullable = false)
+    private MembershipEventType eventType;
+    
+    @Column(nullable = false, columnDefinition = "text")
+    private String payload;
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "published_at")
+    private LocalDateTime publishedAt;
+    
+    @Column(nullable = false)
+    @Builder.Default
+    private Integer attempts = 0;
+}
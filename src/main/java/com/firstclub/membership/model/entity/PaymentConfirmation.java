@@ -0,0 +1,74 @@
+package com.firstclub.membership.model.entity;
+
+import lombok.Data;
+import lombok.Builder;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.hibernate.annotations.CreationTimestamp;
+import jakarta.persistence.*;
+import com.firstclub.membership.model.enums.PaymentConfirmationStatus;
+import com.firstclub.membership.model.enums.TransactionType;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * A charge whose outcome is confirmed asynchronously, and the membership
+ * change to apply once it is: a subscription (membership in PENDING_PAYMENT)
+ * or an upgrade (membership stays on its current plan and tier until then).
+ */
+@Entity
+@Table(name = "payment_confirmations", indexes = {
+    @Index(name = "idx_payment_confirmations_reference", columnList = "payment_reference", unique = true),
+    @Index(name = "idx_payment_confirmations_pending", columnList = "status, created_at"),
+    @Index(name = "idx_payment_confirmations_user", columnList = "user_id, status")
+})
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class PaymentConfirmation {
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+    
+    @Column(name = "payment_reference", nullable = false, updatable = false)
+    private String paymentReference;
+    
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "membership_id", nullable = false)
+    private UserMembership membership;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TransactionType type; // SUBSCRIPTION or UPGRADE
+    
+    @Column(nullable = false)
+    private BigDecimal amount;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "new_plan_id", nullable = false)
+    private MembershipPlan newPlan;
+    
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "new_tier_id", nullable = false)
+    private MembershipTier newTier;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    @Builder.Default
+    private PaymentConfirmationStatus status = PaymentConfirmationStatus.PENDING;
+    
+    @Column(name = "transaction_id")
+    private String transactionId; // Gateway transaction, once confirmed
+    
+    @CreationTimestamp
+    @Column(name = "created_at", updatable = false, nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "resolved_at")
+    private LocalDateTime resolvedAt;
+}
@@ -14,7 +14,10 @@ import java.util.ArrayList;
 import java.util.List;
 
 @Entity
-@Table(name = "user_memberships")
+@Table(name = "user_memberships", indexes = {
+    @Index(name = "idx_user_memberships_renewal", columnList = "status, auto_renew, end_date, id"),
+    @Index(name = "idx_user_memberships_expiry", columnList = "status, end_date")
+})
 @Data
 @Builder
 @NoArgsConstructor
@@ -49,6 +52,13 @@ public class UserMembership {
     @Builder.Default
     private Boolean autoRenew = true;
     
+    // Payment reference of an optimistic upgrade that has reserved this membership
+    @Column(name = "reserved_by", length = 64)
+    private String reservedBy;
+    
+    @Column(name = "reserved_until")
+    private LocalDateTime reservedUntil;
+    
     @OneToMany(mappedBy = "membership", cascade = CascadeType.ALL, fetch = FetchType.LAZY)
     @Builder.Default
     private List<MembershipTransaction> transactions = new ArrayList<>();
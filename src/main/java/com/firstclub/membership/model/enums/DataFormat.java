@@ -0,0 +1,6 @@
+package com.firstclub.membership.model.enums;
+
+public enum DataFormat {
+    NDJSON,
+    CSV
+}
@@ -0,0 +1,8 @@
+package com.firstclub.membership.model.enums;
+
+public enum MembershipEventType {
+    MEMBERSHIP_CREATED,
+    MEMBERSHIP_UPGRADED,
+    MEMBERSHIP_DOWNGRADED,
+    MEMBERSHIP_CANCELLED
+}
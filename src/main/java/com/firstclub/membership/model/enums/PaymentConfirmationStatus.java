@@ -0,0 +1,8 @@
+package com.firstclub.membership.model.enums;
+
+public enum PaymentConfirmationStatus {
+    PENDING,
+    CONFIRMED,
+    FAILED,
+    TIMED_OUT
+}
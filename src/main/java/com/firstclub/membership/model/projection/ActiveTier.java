@@ -0,0 +1,12 @@
+package com.firstclub.membership.model.projection;
+
+import java.time.LocalDateTime;
+
+/**
+ * The tier of a user's active membership and when that membership ends.
+ * Loaded by a constructor-expression query for the entitlement index.
+ */
+public record ActiveTier(
+        Long tierId,
+        LocalDateTime endDate) {
+}
@@ -0,0 +1,22 @@
+package com.firstclub.membership.model.projection;
+
+import com.firstclub.membership.model.enums.PlanDuration;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Flat read-only view of an auto-renewing membership that is due for renewal.
+ * Loaded by a constructor-expression query so renewal batches never hydrate
+ * UserMembership entities or their lazy associations.
+ */
+public record RenewalCandidate(
+        Long membershipId,
+        Long userId,
+        Long version,
+        LocalDateTime endDate,
+        Long planId,
+        BigDecimal price,
+        PlanDuration duration,
+        Long tierId) {
+}
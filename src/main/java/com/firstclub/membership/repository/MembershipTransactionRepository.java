@@ -3,6 +3,7 @@ package com.firstclub.membership.repository;
 import com.firstclub.membership.model.entity.MembershipTransaction;
 import com.firstclub.membership.model.enums.TransactionType;
 
+import org.springframework.data.jpa.repository.EntityGraph;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import org.springframework.data.domain.Page;
@@ -21,10 +22,13 @@ public interface MembershipTransactionRepository extends JpaRepository<Membershi
     List<MembershipTransaction> findByType(TransactionType type);
     
     /**
-     * Find transactions by membership ID with pagination and ordering
+     * Find transactions by membership ID with pagination and ordering.
+     * The plans and tiers are fetched in the same query so mapping a page
+     * does not load them one by one.
      * @param membershipId the membership ID
      * @param pageable the pagination and sorting parameters
      * @return Page of transactions for the membership
      */
+    @EntityGraph(attributePaths = {"oldPlan", "newPlan", "oldTier", "newTier"})
     Page<MembershipTransaction> findByMembershipIdOrderByTransactionDateDesc(Long membershipId, Pageable pageable);
 }
@@ -0,0 +1,54 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.model.entity.OutboxEvent;
+
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboxEventRepository extends JpaRepository<OutboxEvent, Long> {
+    
+    /**
+     * Find the oldest unpublished events in insertion order
+     * @param limit the maximum number of events to return
+     * @return List of unpublished events ordered by ID
+     */
+    @Query(value = "SELECT * FROM membership_outbox WHERE published_at IS NULL ORDER BY id LIMIT :limit",
+            nativeQuery = true)
+    List<OutboxEvent> findUnpublished(@Param("limit") int limit);
+    
+    /**
+     * Mark events as published
+     * @param ids the event IDs
+     * @param publishedAt the publication time
+     * @return number of events updated
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.publishedAt = :publishedAt WHERE e.id IN :ids")
+    int markPublished(@Param("ids") Collection<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+    
+    /**
+     * Record a failed delivery attempt for events
+     * @param ids the event IDs
+     * @return number of events updated
+     */
+    @Modifying
+    @Query("UPDATE OutboxEvent e SET e.attempts = e.attempts + 1 WHERE e.id IN :ids")
+    int incrementAttempts(@Param("ids") Collection<Long> ids);
+    
+    /**
+     * Delete events published before the given time
+     * @param cutoff the publication time cutoff
+     * @return number of events deleted
+     */
+    @Modifying
+    @Query("DELETE FROM OutboxEvent e WHERE e.publishedAt < :cutoff")
+    int deletePublishedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
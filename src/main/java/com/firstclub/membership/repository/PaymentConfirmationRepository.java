@@ -0,0 +1,82 @@
+package com.firstclub.membership.repository;
+
+import com.firstclub.membership.model.entity.PaymentConfirmation;
+import com.firstclub.membership.model.enums.PaymentConfirmationStatus;
+
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface PaymentConfirmationRepository extends JpaRepository<PaymentConfirmation, Long> {
+    
+    /**
+     * Find the confirmation of a payment, fetching its membership, plan and tier
+     * @param paymentReference the payment reference sent to the gateway
+     * @return Optional containing the confirmation if found
+     */
+    @Query("SELECT c FROM PaymentConfirmation c JOIN FETCH c.membership JOIN FETCH c.newPlan JOIN FETCH c.newTier "
+            + "WHERE c.paymentReference = :paymentReference")
+    Optional<PaymentConfirmation> findByPaymentReference(@Param("paymentReference") String paymentReference);
+    
+    /**
+     * Check whether a user has a payment in the given status
+     * @param userId the user ID
+     * @param status the confirmation status (normally PENDING)
+     * @return true if such a payment exists
+     */
+    boolean existsByUserIdAndStatus(Long userId, PaymentConfirmationStatus status);
+    
+    /**
+     * Find the references of payments still pending since before the cutoff, oldest first
+     * @param cutoff the creation time cutoff
+     * @param pageable the page size (page number must be 0)
+     * @return List of payment references
+     */
+    @Query("SELECT c.paymentReference FROM PaymentConfirmation c "
+            + "WHERE c.status = com.firstclub.membership.model.enums.PaymentConfirmationStatus.PENDING "
+            + "AND c.createdAt < :cutoff ORDER BY c.createdAt")
+    List<String> findPendingReferencesCreatedBefore(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+    
+    /**
+     * Move a payment out of PENDING. Only one caller can win: a payment that
+     * was already resolved is left unchanged
+     * @param id the confirmation ID
+     * @param status the outcome
+     * @param transactionId the gateway transaction ID, if the payment was taken
+     * @param resolvedAt the resolution time
+     * @return 1 if the payment was resolved by this call, 0 otherwise
+     */
+    @Modifying
+    @Query("UPDATE PaymentConfirmation c SET c.status = :status, c.transactionId = :transactionId, "
+            + "c.resolvedAt = :resolvedAt WHERE c.id = :id "
+            + "AND c.status = com.firstclub.membership.model.enums.PaymentConfirmationStatus.PENDING")
+    int resolve(@Param("id") Long id,
+                @Param("status") PaymentConfirmationStatus status,
+                @Param("transactionId") String transactionId,
+                @Param("resolvedAt") LocalDateTime resolvedAt);
+    
+    /**
+     * Read the current status of a payment, bypassing the persistence context
+     * @param id the confirmation ID
+     * @return the current status
+     */
+    @Query("SELECT c.status FROM PaymentConfirmation c WHERE c.id = :id")
+    PaymentConfirmationStatus findStatusById(@Param("id") Long id);
+    
+    /**
+     * Delete payments resolved before the given time
+     * @param cutoff the resolution time cutoff
+     * @return number of payments deleted
+     */
+    @Modifying
+    @Query("DELETE FROM PaymentConfirmation c WHERE c.resolvedAt < :cutoff")
+    int deleteResolvedBefore(@Param("cutoff") LocalDateTime cutoff);
+}
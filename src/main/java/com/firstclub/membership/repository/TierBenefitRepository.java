@@ -3,6 +3,7 @@ package com.firstclub.membership.repository;
 import com.firstclub.membership.model.entity.TierBenefit;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
@@ -17,4 +18,11 @@ public interface TierBenefitRepository extends JpaRepository<TierBenefit, Long>
      * @return List of active/inactive benefits for the tier
      */
     List<TierBenefit> findByTierIdAndActive(Long tierId, Boolean active);
+    
+    /**
+     * Find all active benefits of all active tiers
+     * @return List of active benefits belonging to active tiers
+     */
+    @Query("SELECT b FROM TierBenefit b WHERE b.active = true AND b.tier.active = true")
+    List<TierBenefit> findAllActiveOfActiveTiers();
 }
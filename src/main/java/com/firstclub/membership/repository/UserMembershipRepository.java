@@ -1,11 +1,21 @@
 package com.firstclub.membership.repository;
 
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
 import com.firstclub.membership.model.entity.UserMembership;
 import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.model.projection.ActiveTier;
+import com.firstclub.membership.model.projection.RenewalCandidate;
 
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -17,7 +27,33 @@ public interface UserMembershipRepository extends JpaRepository<UserMembership,
      * @param userId the user ID
      * @return Optional containing the active membership if found
      */
-    Optional<UserMembership> findActiveByUserId(Long userId);
+    @Query("SELECT m FROM UserMembership m WHERE m.userId = :userId "
+            + "AND m.status = com.firstclub.membership.model.enums.MembershipStatus.ACTIVE")
+    Optional<UserMembership> findActiveByUserId(@Param("userId") Long userId);
+    
+    /**
+     * Find active memberships for several users in one query, fetching plan,
+     * tier and tier benefits so the results can be mapped without further queries
+     * @param userIds the user IDs
+     * @return List of active memberships for those users that have one
+     */
+    @Query("SELECT DISTINCT m FROM UserMembership m JOIN FETCH m.plan JOIN FETCH m.tier t "
+            + "LEFT JOIN FETCH t.benefits "
+            + "WHERE m.userId IN :userIds "
+            + "AND m.status = com.firstclub.membership.model.enums.MembershipStatus.ACTIVE")
+    List<UserMembership> findActiveByUserIdIn(@Param("userIds") Collection<Long> userIds);
+    
+    /**
+     * Find the tier and end date of a user's active, unexpired membership
+     * without loading the membership entity
+     * @param userId the user ID
+     * @param now the current time; memberships ending before it are ignored
+     * @return Optional containing the active tier if found
+     */
+    @Query("SELECT new com.firstclub.membership.model.projection.ActiveTier(m.tier.id, m.endDate) "
+            + "FROM UserMembership m WHERE m.userId = :userId AND m.endDate > :now "
+            + "AND m.status = com.firstclub.membership.model.enums.MembershipStatus.ACTIVE")
+    Optional<ActiveTier> findActiveTier(@Param("userId") Long userId, @Param("now") LocalDateTime now);
     
     /**
      * Find all memberships for a specific user
@@ -26,6 +62,14 @@ public interface UserMembershipRepository extends JpaRepository<UserMembership,
      */
     List<UserMembership> findByUserId(Long userId);
     
+    /**
+     * Find the IDs of all memberships (current and past) for a specific user
+     * @param userId the user ID
+     * @return List of membership IDs for the user
+     */
+    @Query("SELECT m.id FROM UserMembership m WHERE m.userId = :userId")
+    List<Long> findIdsByUserId(@Param("userId") Long userId);
+    
     /**
      * Find all memberships by status
      * @param status the membership status
@@ -46,4 +90,122 @@ public interface UserMembershipRepository extends JpaRepository<UserMembership,
      * @return List of memberships with the specified tier
      */
     List<UserMembership> findByTierId(Long tierId);
+    
+    /**
+     * Find the next page of auto-renewing memberships ending before the given time,
+     * using keyset pagination on (endDate, id) so each page is an index range scan
+     * @param status the membership status (normally ACTIVE)
+     * @param until exclusive upper bound for the end date
+     * @param lastEndDate end date of the last candidate of the previous page
+     * @param lastId ID of the last candidate of the previous page
+     * @param pageable the page size (page number must be 0)
+     * @return List of renewal candidates ordered by end date and ID
+     */
+    @Query("SELECT new com.firstclub.membership.model.projection.RenewalCandidate("
+            + "m.id, m.userId, m.version, m.endDate, p.id, p.price, p.duration, m.tier.id) "
+            + "FROM UserMembership m JOIN m.plan p "
+            + "WHERE m.status = :status AND m.autoRenew = true AND m.endDate < :until "
+            + "AND (m.endDate > :lastEndDate OR (m.endDate = :lastEndDate AND m.id > :lastId)) "
+            + "ORDER BY m.endDate, m.id")
+    List<RenewalCandidate> findRenewalCandidates(@Param("status") MembershipStatus status,
+                                                 @Param("until") LocalDateTime until,
+                                                 @Param("lastEndDate") LocalDateTime lastEndDate,
+                                                 @Param("lastId") Long lastId,
+                                                 Pageable pageable);
+    
+    /**
+     * Reserve an active membership for a change that still has to be paid for,
+     * if it is unchanged since it was read and not reserved by another change
+     * @param id the membership ID
+     * @param version the version the membership was read with
+     * @param reference payment reference of the change
+     * @param until when the reservation lapses if it is never applied or released
+     * @param now the current time
+     * @return 1 if reserved, 0 if the membership changed or is reserved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMembership m SET m.reservedBy = :reference, m.reservedUntil = :until, "
+            + "m.version = m.version + 1, m.updatedAt = :now "
+            + "WHERE m.id = :id AND m.version = :version "
+            + "AND m.status = com.firstclub.membership.model.enums.MembershipStatus.ACTIVE "
+            + "AND (m.reservedUntil IS NULL OR m.reservedUntil < :now)")
+    int reserve(@Param("id") Long id,
+                @Param("version") Long version,
+                @Param("reference") String reference,
+                @Param("until") LocalDateTime until,
+                @Param("now") LocalDateTime now);
+    
+    /**
+     * Apply a reserved plan change and release the reservation, if nothing
+     * else has written the membership since it was reserved
+     * @param id the membership ID
+     * @param version the version the reservation left the membership at
+     * @param reference payment reference the membership was reserved with
+     * @return 1 if applied, 0 if the reservation is no longer held
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMembership m SET m.plan = :plan, m.tier = :tier, m.endDate = :endDate, "
+            + "m.reservedBy = NULL, m.reservedUntil = NULL, m.version = m.version + 1, m.updatedAt = :now "
+            + "WHERE m.id = :id AND m.version = :version AND m.reservedBy = :reference "
+            + "AND m.status = com.firstclub.membership.model.enums.MembershipStatus.ACTIVE")
+    int applyReserved(@Param("id") Long id,
+                      @Param("version") Long version,
+                      @Param("reference") String reference,
+                      @Param("plan") MembershipPlan plan,
+                      @Param("tier") MembershipTier tier,
+                      @Param("endDate") LocalDateTime endDate,
+                      @Param("now") LocalDateTime now);
+    
+    /**
+     * Release a reservation without changing the membership
+     * @param id the membership ID
+     * @param reference payment reference the membership was reserved with
+     * @return 1 if released, 0 if the reservation is no longer held
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMembership m SET m.reservedBy = NULL, m.reservedUntil = NULL, "
+            + "m.version = m.version + 1, m.updatedAt = :now "
+            + "WHERE m.id = :id AND m.reservedBy = :reference")
+    int releaseReservation(@Param("id") Long id,
+                           @Param("reference") String reference,
+                           @Param("now") LocalDateTime now);
+    
+    /**
+     * Change the plan of an active membership if it is unchanged since it was
+     * read and not reserved by another change
+     * @param id the membership ID
+     * @param version the version the membership was read with
+     * @return 1 if changed, 0 if the membership changed or is reserved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMembership m SET m.plan = :plan, m.tier = :tier, m.endDate = :endDate, "
+            + "m.reservedBy = NULL, m.reservedUntil = NULL, m.version = m.version + 1, m.updatedAt = :now "
+            + "WHERE m.id = :id AND m.version = :version "
+            + "AND m.status = com.firstclub.membership.model.enums.MembershipStatus.ACTIVE "
+            + "AND (m.reservedUntil IS NULL OR m.reservedUntil < :now)")
+    int changePlanIfUnchanged(@Param("id") Long id,
+                              @Param("version") Long version,
+                              @Param("plan") MembershipPlan plan,
+                              @Param("tier") MembershipTier tier,
+                              @Param("endDate") LocalDateTime endDate,
+                              @Param("now") LocalDateTime now);
+    
+    /**
+     * Cancel an active membership if it is unchanged since it was read and not
+     * reserved by another change
+     * @param id the membership ID
+     * @param version the version the membership was read with
+     * @return 1 if cancelled, 0 if the membership changed or is reserved
+     */
+    @Modifying(flushAutomatically = true, clearAutomatically = true)
+    @Query("UPDATE UserMembership m "
+            + "SET m.status = com.firstclub.membership.model.enums.MembershipStatus.CANCELLED, "
+            + "m.autoRenew = false, m.reservedBy = NULL, m.reservedUntil = NULL, "
+            + "m.version = m.version + 1, m.updatedAt = :now "
+            + "WHERE m.id = :id AND m.version = :version "
+            + "AND m.status = com.firstclub.membership.model.enums.MembershipStatus.ACTIVE "
+            + "AND (m.reservedUntil IS NULL OR m.reservedUntil < :now)")
+    int cancelIfUnchanged(@Param("id") Long id,
+                          @Param("version") Long version,
+                          @Param("now") LocalDateTime now);
 }
@@ -0,0 +1,27 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.response.EncodedResponse;
+
+import java.util.function.Supplier;
+
+/**
+ * Cache of pre-serialized catalog response bodies.
+ * 
+ * Catalog endpoints (plans, tiers, tier benefits) return the same body until
+ * the catalog changes. This cache serializes each body once per catalog
+ * version, plain and gzip-compressed, so repeated requests are served from
+ * byte buffers without touching the database or Jackson. Entries are dropped
+ * as soon as the catalog version moves on.
+ */
+public interface CatalogResponseCache {
+
+    /**
+     * Returns the encoded body for a key at the current catalog version,
+     * building it from the supplier on a miss.
+     * 
+     * @param key Identifies the endpoint and its parameters, e.g. "tier-benefits:3"
+     * @param bodySupplier Produces the response object to serialize on a miss
+     * @return The encoded response body
+     */
+    EncodedResponse get(String key, Supplier<?> bodySupplier);
+}
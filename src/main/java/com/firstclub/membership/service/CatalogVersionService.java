@@ -0,0 +1,27 @@
+package com.firstclub.membership.service;
+
+/**
+ * Service interface for the catalog version counter.
+ * 
+ * The catalog is the set of plans, tiers, tier benefits and tier criteria.
+ * Every write to it bumps a shared version counter, which the read endpoints
+ * expose as a strong ETag so unchanged catalogs can be answered with
+ * 304 Not Modified straight from the encoded-response cache.
+ */
+public interface CatalogVersionService {
+
+    /**
+     * Returns the current catalog version from local memory.
+     * Never touches the database or the network.
+     * 
+     * @return The current catalog version
+     */
+    long currentVersion();
+
+    /**
+     * Bumps the catalog version. When called inside a transaction the bump is
+     * applied after the transaction commits, so clients can never cache
+     * uncommitted data under the new version.
+     */
+    void bump();
+}
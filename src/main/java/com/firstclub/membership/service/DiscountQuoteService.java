@@ -0,0 +1,51 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.request.QuoteRequest;
+import com.firstclub.membership.dto.response.DiscountQuote;
+import com.firstclub.membership.dto.response.QuoteResponse;
+
+/**
+ * Service interface for quoting the discount and cashback a member gets on a
+ * cart.
+ * 
+ * Benefits of the user's current tier are applied in a fixed precedence:
+ * 1. PERCENTAGE_DISCOUNT on each line, rounded half-up per line
+ * 2. FIXED_DISCOUNT once on the discounted subtotal, capped so the payable
+ *    amount never goes below zero
+ * 3. CASHBACK as a percentage of the payable amount, rounded down
+ * 
+ * All arithmetic is done on long minor-unit amounts against the tier's
+ * precomputed DiscountTerms, so the in-process methods allocate only the
+ * returned quote. Users without an active membership get a zero quote.
+ */
+public interface DiscountQuoteService {
+
+    /**
+     * Quotes a single cart total.
+     * 
+     * @param userId The ID of the user
+     * @param cartTotalMinor The cart total in minor currency units
+     * @return DiscountQuote with the effective discounts and cashback
+     * @throws InvalidOperationException if the amount is negative or too large to quote
+     */
+    DiscountQuote quote(Long userId, long cartTotalMinor);
+
+    /**
+     * Quotes a cart given as individual line amounts.
+     * 
+     * @param userId The ID of the user
+     * @param lineAmountsMinor The line amounts in minor currency units
+     * @return DiscountQuote with the effective discounts and cashback
+     * @throws InvalidOperationException if an amount is negative or the total is too large to quote
+     */
+    DiscountQuote quote(Long userId, long[] lineAmountsMinor);
+
+    /**
+     * Quotes a cart from an API request, converting amounts to and from
+     * minor units at the edge.
+     * 
+     * @param request The quote request containing the user ID and either a cart total or line amounts
+     * @return QuoteResponse with the effective discounts and cashback
+     */
+    QuoteResponse quote(QuoteRequest request);
+}
@@ -0,0 +1,79 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.response.DiscountTerms;
+import com.firstclub.membership.dto.response.EntitlementResponse;
+import com.firstclub.membership.model.enums.BenefitType;
+
+import java.math.BigDecimal;
+import java.util.Collection;
+
+/**
+ * Service interface for answering benefit entitlement questions on the
+ * checkout hot path.
+ * 
+ * Entitlements are served from two in-process structures: a table of active
+ * tiers, each holding a bitset of its benefit types and a value per type, and
+ * a compact index from user ID to tier ID. A check is one index lookup and one
+ * bit test; the database is only consulted when a user's mapping is missing or
+ * older than the configured TTL. The tier table is rebuilt whenever the
+ * catalog version changes.
+ * 
+ * Users without an active membership are simply not entitled to anything;
+ * none of these methods throw for them.
+ */
+public interface EntitlementService {
+
+    /**
+     * Checks whether a user's current tier grants a benefit.
+     * 
+     * @param userId The ID of the user
+     * @param type The benefit type to check
+     * @return true if the user has an active membership whose tier has an active benefit of this type
+     */
+    boolean hasBenefit(Long userId, BenefitType type);
+
+    /**
+     * Returns the value of a benefit granted by a user's current tier, such as
+     * the percentage of a PERCENTAGE_DISCOUNT.
+     * 
+     * @param userId The ID of the user
+     * @param type The benefit type to look up
+     * @return The benefit value, or null if the user is not entitled or the benefit has no value
+     */
+    BigDecimal getBenefitValue(Long userId, BenefitType type);
+
+    /**
+     * Returns the benefits a user is entitled to, optionally restricted to the
+     * given types.
+     * 
+     * @param userId The ID of the user
+     * @param types The benefit types of interest, or null/empty for all
+     * @return EntitlementResponse listing the entitled benefit types and their values
+     */
+    EntitlementResponse getEntitlements(Long userId, Collection<BenefitType> types);
+
+    /**
+     * Returns the fixed-point discount terms of a user's current tier. The
+     * returned instance is precomputed per tier and shared.
+     * 
+     * @param userId The ID of the user
+     * @return The tier's discount terms, or DiscountTerms.NONE if the user has no active membership
+     */
+    DiscountTerms getDiscountTerms(Long userId);
+
+    /**
+     * Drops a user's cached tier mapping once the current transaction commits,
+     * so the next check sees the committed membership.
+     * 
+     * @param userId The ID of the user whose membership changed
+     */
+    void invalidate(Long userId);
+
+    /**
+     * Drops the cached tier mappings of several users once the current
+     * transaction commits.
+     * 
+     * @param userIds The IDs of the users whose memberships changed
+     */
+    void invalidateAll(Collection<Long> userIds);
+}
@@ -0,0 +1,45 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.request.ExportFilter;
+import com.firstclub.membership.model.enums.DataFormat;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Service interface for full extracts of memberships and their transactions.
+ * 
+ * Rows are read through a forward-only JDBC cursor inside a read-only
+ * transaction and written to the output stream as they arrive, so memory use
+ * does not depend on the size of the export and the first rows are sent as
+ * soon as the first fetch returns. Entities are never loaded.
+ */
+public interface ExportService {
+
+    /**
+     * Writes all memberships matching the filter to the output stream.
+     * 
+     * Filters: membership status, plan, tier, and a start date range.
+     * 
+     * @param filter The export filter
+     * @param format NDJSON (one JSON object per line) or CSV (with a header row)
+     * @param out The stream to write to; it is flushed but not closed
+     * @return The number of rows written
+     * @throws IOException if writing to the stream fails
+     */
+    long exportMemberships(ExportFilter filter, DataFormat format, OutputStream out) throws IOException;
+
+    /**
+     * Writes all transactions matching the filter to the output stream.
+     * 
+     * Filters: status, plan and tier of the owning membership, and a
+     * transaction date range.
+     * 
+     * @param filter The export filter
+     * @param format NDJSON (one JSON object per line) or CSV (with a header row)
+     * @param out The stream to write to; it is flushed but not closed
+     * @return The number of rows written
+     * @throws IOException if writing to the stream fails
+     */
+    long exportTransactions(ExportFilter filter, DataFormat format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,44 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.response.ApiResponse;
+import org.springframework.http.ResponseEntity;
+
+import java.util.function.Supplier;
+
+/**
+ * Service interface for making mutation endpoints safe to retry with an
+ * Idempotency-Key header.
+ * 
+ * The first request with a key executes and its response is stored for the
+ * configured TTL; later requests with the same key get that response back
+ * without executing again, marked with an Idempotent-Replayed header.
+ * Duplicates that arrive while the first request is still running wait for
+ * its response instead of running in parallel. Keys are scoped to the
+ * operation and user, and a key reused with a different request body is
+ * rejected. Failed executions are not stored, so the client may retry them
+ * with the same key.
+ */
+public interface IdempotencyService {
+
+    /** Request header carrying the client's idempotency key. */
+    String KEY_HEADER = "Idempotency-Key";
+
+    /** Response header set on replayed responses. */
+    String REPLAYED_HEADER = "Idempotent-Replayed";
+
+    /**
+     * Executes an action at most once per idempotency key.
+     * 
+     * @param key The client's idempotency key, or null to execute unconditionally
+     * @param operation Name of the operation, part of the key scope
+     * @param userId The user the operation acts on, part of the key scope
+     * @param request The request body, used to detect key reuse
+     * @param dataType Type of the response data, used to rebuild replayed responses
+     * @param action The operation to execute
+     * @return The response of the first execution for this key
+     * @throws com.firstclub.membership.exception.IdempotencyConflictException if the key was used
+     *         for a different request, or the first request is still running after the wait timeout
+     */
+    <T> ResponseEntity<ApiResponse<T>> execute(String key, String operation, Long userId, Object request,
+                                               Class<T> dataType, Supplier<ResponseEntity<ApiResponse<T>>> action);
+}
@@ -0,0 +1,86 @@
+package com.firstclub.membership.service;
+
+import java.time.Duration;
+
+/**
+ * Storage for Idempotency-Key state shared by all nodes.
+ *
+ * A key is first claimed by one request, which marks it in progress for a
+ * bounded lock TTL so a crashed node cannot block the key forever; the owner
+ * keeps extending the claim while its action runs. The owner then either
+ * completes the key with the response to replay, or releases it so a retry can
+ * execute again. Claiming is a single round trip to the store.
+ * The active store is selected with the app.idempotency.store property.
+ */
+public interface IdempotencyStore {
+
+    /**
+     * State of a key that was already claimed.
+     *
+     * @param fingerprint Hash of the request that claimed the key
+     * @param status HTTP status of the stored response, or null while in progress
+     * @param body Serialized response body, or null while in progress
+     */
+    record Entry(String fingerprint, Integer status, String body) {
+
+        public boolean isCompleted() {
+            return status != null;
+        }
+    }
+
+    /**
+     * Claims a key for the calling request unless it is already claimed.
+     *
+     * @param key The scoped idempotency key
+     * @param fingerprint Hash of the request body
+     * @param owner Token identifying this claim, required to release it
+     * @param lockTtl How long the claim holds if the owner never completes it
+     * @return null if the key was claimed, otherwise the existing entry
+     */
+    Entry claim(String key, String fingerprint, String owner, Duration lockTtl);
+
+    /**
+     * Resets the lock TTL of an in-progress claim if it is still held by the given owner.
+     *
+     * @param key The scoped idempotency key
+     * @param fingerprint Hash of the request body
+     * @param owner Token passed to {@link #claim}
+     * @param lockTtl How long the claim holds from now on
+     * @return true if the claim was extended, false if it was lost
+     */
+    boolean extend(String key, String fingerprint, String owner, Duration lockTtl);
+
+    /**
+     * Stores the response of a claimed key, replacing the in-progress marker,
+     * if the claim is still held by the given owner.
+     *
+     * @param key The scoped idempotency key
+     * @param fingerprint Hash of the request body
+     * @param owner Token passed to {@link #claim}
+     * @param status HTTP status of the response
+     * @param body Serialized response body
+     * @param ttl How long the response is replayed
+     * @return true if the response was stored, false if the claim was lost
+     */
+    boolean complete(String key, String fingerprint, String owner, int status, String body, Duration ttl);
+
+    /**
+     * Removes an in-progress claim if it is still held by the given owner.
+     *
+     * @param key The scoped idempotency key
+     * @param fingerprint Hash of the request body
+     * @param owner Token passed to {@link #claim}
+     */
+    void release(String key, String fingerprint, String owner);
+
+    /**
+     * Waits for an in-progress key to complete or be released.
+     *
+     * @param key The scoped idempotency key
+     * @param timeout Maximum time to wait
+     * @return The completed entry, the still in-progress entry if the timeout
+     *         elapsed, or null if the key was released or expired
+     * @throws InterruptedException if the waiting thread is interrupted
+     */
+    Entry await(String key, Duration timeout) throws InterruptedException;
+}
@@ -0,0 +1,43 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.response.MembershipResponse;
+
+import java.util.Collection;
+import java.util.Map;
+
+/**
+ * Service interface for bulk access to the per-user "membership" cache.
+ * 
+ * Bulk endpoints and batch jobs that touch many memberships at once use this
+ * instead of reading or evicting entries one key at a time, so the number of
+ * cache round trips depends on the number of batches rather than the number
+ * of users. Entries use the same keys and serialization as the Redis cache
+ * manager.
+ */
+public interface MembershipCacheService {
+
+    /**
+     * Reads the cached current membership of every given user in a single
+     * round trip to the cache.
+     * 
+     * @param userIds The IDs of the users to look up
+     * @return Map of user ID to cached membership, containing only cache hits
+     */
+    Map<Long, MembershipResponse> getAll(Collection<Long> userIds);
+
+    /**
+     * Caches the current membership of several users in a single pipelined
+     * round trip to the cache.
+     * 
+     * @param memberships Map of user ID to current membership
+     */
+    void putAll(Map<Long, MembershipResponse> memberships);
+
+    /**
+     * Evicts the cached current membership of every given user in a single
+     * round trip to the cache.
+     * 
+     * @param userIds The IDs of the users whose cached membership should be evicted
+     */
+    void evictAll(Collection<Long> userIds);
+}
@@ -0,0 +1,24 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.model.entity.OutboxEvent;
+
+import java.util.List;
+
+/**
+ * Destination for membership domain events relayed from the outbox.
+ * 
+ * Implementations receive events in outbox order and must either deliver the
+ * whole batch or throw; a failed batch is retried in full on the next relay
+ * run, so sinks must tolerate duplicates (at-least-once delivery).
+ * The active sink is selected with the app.outbox.sink property.
+ */
+public interface MembershipEventSink {
+
+    /**
+     * Publishes a batch of events in the given order.
+     * 
+     * @param events The events to publish, ordered by outbox ID
+     * @throws RuntimeException if any event in the batch could not be delivered
+     */
+    void publish(List<OutboxEvent> events);
+}
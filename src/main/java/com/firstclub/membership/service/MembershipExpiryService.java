@@ -0,0 +1,22 @@
+package com.firstclub.membership.service;
+
+/**
+ * Service interface for expiring memberships whose end date has passed.
+ * 
+ * The sweeper moves overdue ACTIVE memberships to EXPIRED so that
+ * active-membership lookups never return ended memberships. It:
+ * - Updates overdue rows in fixed-size chunks with set-based UPDATEs,
+ *   each chunk committing on its own
+ * - Evicts the cached memberships of each chunk with one bulk cache call
+ * - Publishes the number of rows expired and how far the sweep lags behind
+ *   the clock as metrics
+ */
+public interface MembershipExpiryService {
+
+    /**
+     * Expires every ACTIVE membership whose end date is before now.
+     * 
+     * @return Number of memberships moved to EXPIRED
+     */
+    long expireOverdueMemberships();
+}
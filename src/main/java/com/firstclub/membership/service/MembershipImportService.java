@@ -0,0 +1,45 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.response.ImportResult;
+import com.firstclub.membership.model.enums.DataFormat;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+/**
+ * Service interface for bulk-loading memberships migrated from partner
+ * programs.
+ * 
+ * Each input row becomes a UserMembership and its initial SUBSCRIPTION
+ * transaction. Rows name their plan and tier, which are resolved against an
+ * in-memory snapshot of the active catalog taken at the start of the import.
+ * Valid rows are grouped into chunks and written with large JDBC batches in
+ * parallel, one transaction per chunk. Rows of the same user always go
+ * through the same sequential lane, so the one-active-membership-per-user
+ * rule can be checked per chunk without coordination between lanes.
+ * 
+ * Input fields (CSV header names or NDJSON keys):
+ * - userId (required)
+ * - plan, tier (required, catalog names, case-insensitive)
+ * - status (default ACTIVE)
+ * - startDate (ISO date or date-time, default now)
+ * - endDate (default startDate plus the plan duration)
+ * - autoRenew (default true)
+ * - amount (amount of the initial transaction, default the plan price)
+ */
+public interface MembershipImportService {
+
+    /**
+     * Imports memberships from a CSV or NDJSON stream.
+     * 
+     * Invalid rows and rows rejected by the database are reported individually
+     * and do not stop the import. The input is read once, front to back, and
+     * only a bounded number of chunks is held in memory at any time.
+     * 
+     * @param in The input stream; it is read to the end and closed
+     * @param format CSV (with a header row) or NDJSON
+     * @return ImportResult with row counts and per-row errors
+     * @throws IOException if reading the input fails
+     */
+    ImportResult importMemberships(InputStream in, DataFormat format) throws IOException;
+}
@@ -0,0 +1,32 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.response.RenewalSummary;
+
+/**
+ * Service interface for automatically renewing memberships that have
+ * auto-renew enabled and are about to end.
+ * 
+ * Renewal runs as a scheduled batch job that:
+ * - Pages through due memberships with keyset pagination over an index on end_date
+ * - Charges each page in parallel through the PaymentService
+ * - Extends end dates with version-checked batched UPDATEs
+ * - Records RENEWAL transactions with batched INSERTs
+ * 
+ * Payments are taken outside of any database transaction and each page is
+ * written in its own short transaction, so no transaction is held for the
+ * duration of a run.
+ */
+public interface MembershipRenewalService {
+
+    /**
+     * Renews every active auto-renew membership ending within the configured
+     * renewal window.
+     * 
+     * Memberships whose payment fails are left untouched so they expire at
+     * their current end date. Memberships modified concurrently between the
+     * read and the write are reported as conflicts.
+     * 
+     * @return RenewalSummary with counts of renewed, failed and conflicting memberships
+     */
+    RenewalSummary renewDueMemberships();
+}
@@ -3,9 +3,13 @@ package com.firstclub.membership.service;
 import com.firstclub.membership.dto.request.SubscriptionRequest;
 import com.firstclub.membership.dto.response.BenefitResponse;
 import com.firstclub.membership.dto.response.MembershipResponse;
+import com.firstclub.membership.dto.response.PaymentResult;
 import com.firstclub.membership.dto.response.TransactionResponse;
 
+import java.time.YearMonth;
+import java.util.Collection;
 import java.util.List;
+import java.util.Map;
 
 /**
  * Service interface for managing membership operations including subscriptions,
@@ -32,14 +36,25 @@ public interface MembershipService {
      * concurrent subscription attempts and user-level locks to prevent
      * race conditions for the same user.
      * 
+     * With asynchronous payments enabled, the membership is saved in
+     * PENDING_PAYMENT and returned with its pending payment reference as soon
+     * as the charge has been requested; the charge is made after the
+     * transaction commits and finalised by {@link #confirmPayment}.
+     * 
+     * The charge is requested under a payment reference derived from the
+     * idempotency key, so a request retried with the same key is charged at
+     * most once by the gateway.
+     * 
      * @param request The subscription request containing user ID, plan ID, tier ID, and auto-renew preference
+     * @param idempotencyKey The client's Idempotency-Key, or null if the request is not retried safely
      * @return MembershipResponse containing the created membership details
-     * @throws MembershipAlreadyExistsException if user already has an active membership
+     * @throws MembershipAlreadyExistsException if user already has an active membership, or one
+     *         awaiting payment confirmation
      * @throws PlanNotFoundException if the specified plan doesn't exist
      * @throws TierNotFoundException if the specified tier doesn't exist
      * @throws PaymentFailedException if payment processing fails
      */
-    MembershipResponse subscribeToPlan(SubscriptionRequest request);
+    MembershipResponse subscribeToPlan(SubscriptionRequest request, String idempotencyKey);
 
     /**
      * Upgrades a user's existing membership to a higher tier and/or plan.
@@ -54,18 +69,63 @@ public interface MembershipService {
      * 
      * Uses repeatable read isolation to ensure data consistency during
      * the upgrade process and user-level locks for concurrency control.
+     * With optimistic mutations enabled, the membership is instead reserved
+     * by a version-checked update before the charge and the upgrade applied
+     * afterwards, without any lock.
+     * 
+     * With asynchronous payments enabled, the membership is returned unchanged
+     * with its pending payment reference; the upgrade is applied when
+     * {@link #confirmPayment} reports the charge as taken.
+     * 
+     * As for subscriptions, the charge's payment reference is derived from the
+     * idempotency key so retries with the same key are charged at most once.
      * 
      * @param userId The ID of the user whose membership is being upgraded
      * @param newPlanId The ID of the new plan to upgrade to
      * @param newTierId The ID of the new tier to upgrade to
+     * @param idempotencyKey The client's Idempotency-Key, or null if the request is not retried safely
      * @return MembershipResponse containing the updated membership details
      * @throws MembershipNotFoundException if no active membership is found for the user
      * @throws PlanNotFoundException if the new plan doesn't exist
      * @throws TierNotFoundException if the new tier doesn't exist
-     * @throws InvalidOperationException if attempting to upgrade to a lower or same tier
+     * @throws InvalidOperationException if attempting to upgrade to a lower or same tier, or
+     *         another change is awaiting payment confirmation
      * @throws PaymentFailedException if upgrade payment processing fails
+     * @throws ConcurrentMembershipChangeException in optimistic mode, if the membership is
+     *         reserved by another change or keeps changing concurrently
+     */
+    MembershipResponse upgradeMembership(Long userId, Long newPlanId, Long newTierId, String idempotencyKey);
+
+    /**
+     * Finalises the membership change waiting for an asynchronous payment.
+     * 
+     * A taken payment activates the pending subscription or applies the
+     * pending upgrade, records its transaction, publishes the membership event
+     * and refreshes the user's cached membership and entitlements. A failed
+     * payment cancels the pending subscription or drops the pending upgrade.
+     * A result whose outcome is unknown changes nothing; the payment stays
+     * pending for its webhook or the timeout sweeper.
+     * 
+     * Each payment is finalised once: the outcome reported by the gateway's
+     * response, its webhook or the timeout sweeper, whichever comes first,
+     * wins, and later reports are ignored. A payment taken after the change
+     * was abandoned is logged for refund.
+     * 
+     * @param paymentReference The reference the payment was requested under
+     * @param result The outcome of the payment
+     * @return true if this call finalised the payment, false if the payment or its outcome was
+     *         unknown, or it was already final
+     */
+    boolean confirmPayment(String paymentReference, PaymentResult result);
+
+    /**
+     * Abandons the membership change waiting for an asynchronous payment that
+     * was never confirmed, like a failed payment.
+     * 
+     * @param paymentReference The reference the payment was requested under
+     * @return true if this call abandoned the payment, false if it was unknown or already final
      */
-    MembershipResponse upgradeMembership(Long userId, Long newPlanId, Long newTierId);
+    boolean expirePendingPayment(String paymentReference);
 
     /**
      * Downgrades a user's existing membership to a lower tier and/or plan.
@@ -85,6 +145,8 @@ public interface MembershipService {
      * @throws PlanNotFoundException if the new plan doesn't exist
      * @throws TierNotFoundException if the new tier doesn't exist
      * @throws InvalidOperationException if attempting to downgrade to a higher or same tier
+     * @throws ConcurrentMembershipChangeException in optimistic mode, if the membership is
+     *         reserved by another change or keeps changing concurrently
      */
     MembershipResponse downgradeMembership(Long userId, Long newPlanId, Long newTierId);
 
@@ -98,11 +160,14 @@ public interface MembershipService {
      * - Publishing membership cancellation event
      * 
      * The cancellation is immediate and does not require payment processing.
-     * User-level locks ensure thread safety during cancellation.
+     * User-level locks ensure thread safety during cancellation, or in
+     * optimistic mode a version-checked update.
      * 
      * @param userId The ID of the user whose membership is being cancelled
      * @return MembershipResponse containing the cancelled membership details
      * @throws MembershipNotFoundException if no active membership is found for the user
+     * @throws ConcurrentMembershipChangeException in optimistic mode, if the membership is
+     *         reserved by another change or keeps changing concurrently
      */
     MembershipResponse cancelMembership(Long userId);
 
@@ -122,6 +187,19 @@ public interface MembershipService {
      */
     MembershipResponse getCurrentMembership(Long userId);
 
+    /**
+     * Retrieves the current active memberships of several users at once.
+     * 
+     * Cached memberships are read with a single multi-key cache lookup; the
+     * misses are resolved with one database query and written back to the
+     * cache. Users without an active membership are omitted from the result
+     * rather than reported as errors.
+     * 
+     * @param userIds The IDs of the users whose memberships are being retrieved
+     * @return Map of user ID to current membership, for users that have one
+     */
+    Map<Long, MembershipResponse> getCurrentMemberships(Collection<Long> userIds);
+
     /**
      * Evaluates and updates a user's tier based on current criteria and activity.
      * 
@@ -158,4 +236,20 @@ public interface MembershipService {
      * @throws MembershipNotFoundException if no membership is found for the user
      */
     List<TransactionResponse> getTransactionHistory(Long userId, int page, int size);
-}
\ No newline at end of file
+
+    /**
+     * Retrieves archived transactions for all of a user's memberships.
+     * 
+     * Transactions older than the partition retention window are no longer in
+     * the database; they are read back from the compressed monthly archive
+     * files covering the requested range.
+     * 
+     * @param userId The ID of the user
+     * @param from The first month to read (inclusive)
+     * @param to The last month to read (inclusive)
+     * @return List of archived transactions for the user, newest first
+     * @throws MembershipNotFoundException if the user has never had a membership
+     * @throws InvalidOperationException if from is after to, or the range is too long
+     */
+    List<TransactionResponse> getArchivedTransactionHistory(Long userId, YearMonth from, YearMonth to);
+}
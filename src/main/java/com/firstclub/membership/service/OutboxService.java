@@ -0,0 +1,41 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.UserMembership;
+import com.firstclub.membership.model.enums.MembershipEventType;
+
+/**
+ * Service interface for the transactional outbox of membership domain events.
+ * 
+ * Events are written to the membership_outbox table inside the caller's
+ * transaction, so an event exists if and only if its state change committed.
+ * A scheduled relay then publishes pending events in batches through the
+ * configured MembershipEventSink:
+ * - Delivery is at-least-once; events are marked published only after the sink accepts them
+ * - Events are delivered in outbox order, which preserves ordering per user
+ * - Only one relay runs at a time across all nodes
+ * 
+ * Recording an event is a single insert, so the request path never waits on
+ * the downstream system.
+ */
+public interface OutboxService {
+
+    /**
+     * Records an event for the current state of a membership.
+     * Must be called inside the transaction that performs the state change.
+     * 
+     * @param type The event type
+     * @param membership The membership after the change
+     * @param oldPlan The plan before the change, or null if unchanged
+     * @param oldTier The tier before the change, or null if unchanged
+     */
+    void record(MembershipEventType type, UserMembership membership, MembershipPlan oldPlan, MembershipTier oldTier);
+
+    /**
+     * Publishes the next batches of pending events through the sink.
+     * 
+     * @return Number of events published
+     */
+    int relayPendingEvents();
+}
@@ -0,0 +1,24 @@
+package com.firstclub.membership.service;
+
+/**
+ * Service interface for the asynchronous payment mode, where subscriptions and
+ * upgrades return before the charge is made and are finalised when its outcome
+ * is known.
+ * 
+ * It submits each requested charge to the gateway once the request's
+ * transaction has committed, and finalises the membership change with the
+ * gateway's response. Gateways that confirm out of band report through the
+ * payment webhook instead. Payments with no outcome after the confirmation
+ * timeout are abandoned by a periodic sweep.
+ */
+public interface PaymentConfirmationService {
+
+    /**
+     * Abandons every pending payment requested longer than the confirmation
+     * timeout ago, cancelling its pending subscription or dropping its pending
+     * upgrade.
+     * 
+     * @return Number of payments abandoned by this call
+     */
+    int expireUnconfirmedPayments();
+}
@@ -0,0 +1,50 @@
+package com.firstclub.membership.service;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+
+/**
+ * Client for the external payment gateway.
+ *
+ * Implementations make a single charge attempt and do no retrying or
+ * protection of their own; PaymentService wraps every call in the bulkhead and
+ * circuit breaker. The gateway de-duplicates by payment reference, so a charge
+ * repeated with the same reference is not taken twice. The active gateway is
+ * selected with the app.payment.gateway property.
+ */
+public interface PaymentGateway {
+
+    /**
+     * Charges a user.
+     *
+     * @param userId The user ID
+     * @param amount The amount to charge
+     * @param paymentReference Caller-chosen reference identifying this charge
+     * @return A successful result, or a failure if the gateway declined the charge
+     * @throws com.firstclub.membership.exception.PaymentGatewayException if the
+     *         gateway failed or timed out and the outcome is unknown
+     */
+    PaymentResult charge(Long userId, BigDecimal amount, String paymentReference);
+
+    /**
+     * Charges a batch of users in one gateway call. Gateways without a batch
+     * API charge one by one.
+     *
+     * @param charges The charges of the batch
+     * @return One result per charge, in the order of the charges; a declined
+     *         charge does not affect the others
+     * @throws com.firstclub.membership.exception.PaymentGatewayException if the
+     *         batch call failed and the outcome of its charges is unknown
+     */
+    default List<PaymentResult> chargeBatch(List<PaymentCharge> charges) {
+        List<PaymentResult> results = new ArrayList<>(charges.size());
+        for (PaymentCharge charge : charges) {
+            results.add(charge(charge.userId(), charge.amount(), charge.paymentReference()));
+        }
+        return results;
+    }
+}
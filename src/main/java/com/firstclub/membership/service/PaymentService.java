@@ -1,7 +1,9 @@
 package com.firstclub.membership.service;
 
 import java.math.BigDecimal;
+import java.util.List;
 
+import com.firstclub.membership.dto.request.PaymentCharge;
 import com.firstclub.membership.dto.response.PaymentResult;
 
 /**
@@ -18,4 +20,29 @@ public interface PaymentService {
      * @return PaymentResult containing the payment status
      */
     PaymentResult processPayment(Long userId, BigDecimal amount);
+
+    /**
+     * Processes a payment at most once per payment reference. Calling again
+     * with a reference that was already charged returns the original result
+     * without charging again, so callers that may retry pass a stable reference.
+     * 
+     * @param userId The user ID
+     * @param amount The payment amount
+     * @param paymentReference Caller-chosen reference identifying this charge
+     * @return PaymentResult containing the payment status
+     */
+    PaymentResult processPayment(Long userId, BigDecimal amount, String paymentReference);
+
+    /**
+     * Processes many payments, such as a page of renewals, through the
+     * gateway's batch API. Charges are grouped into gateway batches of the
+     * configured size; a batch that does not fill within the linger time is
+     * sent part-full. Charges from concurrent calls may share a batch.
+     * Each charge succeeds or fails on its own, and is taken at most once per
+     * payment reference.
+     * 
+     * @param charges The charges to process
+     * @return One PaymentResult per charge, in the order of the charges
+     */
+    List<PaymentResult> processPayments(List<PaymentCharge> charges);
 }
@@ -0,0 +1,61 @@
+package com.firstclub.membership.service;
+
+import com.firstclub.membership.dto.response.TransactionResponse;
+
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Service interface for managing the monthly range partitions of the
+ * membership_transactions table and the archive of expired partitions.
+ *
+ * The table is partitioned by transaction_date, one partition per calendar
+ * month, with a default partition catching any out-of-range rows. This service:
+ * - Converts an existing plain table into a partitioned one on startup
+ * - Creates partitions ahead of time so inserts never land in the default partition
+ * - Archives partitions older than the retention window to compressed files,
+ *   then detaches and drops them
+ * - Reads archived rows back for history queries on demand
+ */
+public interface TransactionPartitionService {
+
+    /**
+     * Ensures membership_transactions is a partitioned table, converting the
+     * existing table and copying its rows if necessary.
+     *
+     * This operation is idempotent and does nothing when the table is already
+     * partitioned.
+     */
+    void ensurePartitioned();
+
+    /**
+     * Creates the partitions for the current month and the configured number
+     * of months ahead, if they do not exist yet.
+     *
+     * @return Number of partitions created
+     */
+    int createFuturePartitions();
+
+    /**
+     * Writes every monthly partition older than the retention window to a
+     * gzip-compressed NDJSON archive file and, once the file is verified,
+     * detaches and drops the partition in one transaction.
+     *
+     * @return Number of partitions archived
+     */
+    int archiveExpiredPartitions();
+
+    /**
+     * Reads archived transactions for the given memberships from the archive
+     * files covering the requested month range.
+     *
+     * @param membershipIds The membership IDs whose transactions should be returned
+     * @param from The first month to read (inclusive)
+     * @param to The last month to read (inclusive)
+     * @return List of archived transactions, newest first
+     * @throws InvalidOperationException if from is after to, or the range spans
+     *         more months than configured
+     */
+    List<TransactionResponse> readArchivedTransactions(Collection<Long> membershipIds, YearMonth from, YearMonth to);
+}
@@ -0,0 +1,75 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.response.EncodedResponse;
+import com.firstclub.membership.service.CatalogResponseCache;
+import com.firstclub.membership.service.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * In-process implementation of CatalogResponseCache.
+ * Concurrent misses for the same key may each build the body once; the cost is
+ * bounded and avoids holding a lock across the database call.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogResponseCacheImpl implements CatalogResponseCache {
+
+    private final ObjectMapper objectMapper;
+    private final CatalogVersionService catalogVersionService;
+
+    private final Map<String, EncodedResponse> entries = new ConcurrentHashMap<>();
+    private volatile long entriesVersion = Long.MIN_VALUE;
+
+    @Override
+    public EncodedResponse get(String key, Supplier<?> bodySupplier) {
+        // Read the version before the data so a concurrent write can only make the body newer than its ETag
+        long version = catalogVersionService.currentVersion();
+        if (version != entriesVersion) {
+            synchronized (this) {
+                if (version != entriesVersion) {
+                    entries.clear();
+                    entriesVersion = version;
+                }
+            }
+        }
+
+        EncodedResponse cached = entries.get(key);
+        if (cached != null && cached.version() == version) {
+            return cached;
+        }
+
+        EncodedResponse encoded = encode(version, bodySupplier.get());
+        entries.put(key, encoded);
+        log.debug("Encoded catalog response {} at version {} ({} bytes, {} gzipped)",
+                key, version, encoded.identity().length, encoded.gzip().length);
+        return encoded;
+    }
+
+    private EncodedResponse encode(long version, Object body) {
+        try {
+            byte[] identity = objectMapper.writeValueAsBytes(body);
+            ByteArrayOutputStream compressed = new ByteArrayOutputStream(identity.length / 4 + 64);
+            try (GZIPOutputStream gzip = new GZIPOutputStream(compressed)) {
+                gzip.write(identity);
+            }
+            return new EncodedResponse(version, identity, compressed.toByteArray());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize catalog response", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to compress catalog response", e);
+        }
+    }
+}
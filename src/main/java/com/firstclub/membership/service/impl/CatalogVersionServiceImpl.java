@@ -0,0 +1,98 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.service.CatalogVersionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import jakarta.annotation.PostConstruct;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Redis-backed implementation of CatalogVersionService.
+ * The shared counter lives in Redis so all nodes agree on the version; each node
+ * serves reads from a local copy that is refreshed periodically and immediately
+ * after its own bumps. Bumps made while Redis is unreachable are replayed once
+ * it is back, so a catalog change is never hidden behind an old version.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cache.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+@Slf4j
+public class CatalogVersionServiceImpl implements CatalogVersionService {
+
+    static final String VERSION_KEY = "catalog:version";
+
+    private final StringRedisTemplate redisTemplate;
+
+    // Used only until Redis has been read; the clock keeps it distinct from any shared version
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+    private final AtomicBoolean pendingSharedBump = new AtomicBoolean(false);
+
+    @PostConstruct
+    void initialize() {
+        try {
+            // Seed with the clock so a Redis flush can never reissue an ETag clients still hold
+            redisTemplate.opsForValue().setIfAbsent(VERSION_KEY, Long.toString(System.currentTimeMillis()));
+        } catch (Exception e) {
+            log.warn("Could not seed catalog version in Redis; using local version {}", version.get(), e);
+        }
+        refresh();
+    }
+
+    @Override
+    public long currentVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    doBump();
+                }
+            });
+        } else {
+            doBump();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.catalog.version-refresh-ms:1000}")
+    public void refresh() {
+        try {
+            if (pendingSharedBump.get()) {
+                redisTemplate.opsForValue().increment(VERSION_KEY);
+                pendingSharedBump.set(false);
+            }
+            String shared = redisTemplate.opsForValue().get(VERSION_KEY);
+            if (shared != null) {
+                version.set(Long.parseLong(shared));
+            }
+        } catch (Exception e) {
+            log.debug("Could not refresh catalog version from Redis", e);
+        }
+    }
+
+    private void doBump() {
+        try {
+            Long shared = redisTemplate.opsForValue().increment(VERSION_KEY);
+            if (shared != null) {
+                version.set(shared);
+                log.debug("Catalog version bumped to {}", shared);
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("Could not bump catalog version in Redis; bumping local version only", e);
+        }
+        pendingSharedBump.set(true);
+        version.incrementAndGet();
+    }
+}
@@ -0,0 +1,106 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.request.QuoteRequest;
+import com.firstclub.membership.dto.response.DiscountQuote;
+import com.firstclub.membership.dto.response.DiscountTerms;
+import com.firstclub.membership.dto.response.QuoteResponse;
+import com.firstclub.membership.exception.InvalidOperationException;
+import com.firstclub.membership.service.DiscountQuoteService;
+import com.firstclub.membership.service.EntitlementService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Implementation of DiscountQuoteService on top of the entitlement index.
+ * A quote is one entitlement lookup plus a handful of integer operations.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class DiscountQuoteServiceImpl implements DiscountQuoteService {
+
+    private static final long HALF_BASIS_POINTS = DiscountTerms.FULL_BASIS_POINTS / 2;
+
+    private final EntitlementService entitlementService;
+
+    @Override
+    public DiscountQuote quote(Long userId, long cartTotalMinor) {
+        DiscountTerms terms = entitlementService.getDiscountTerms(userId);
+        try {
+            return apply(terms, cartTotalMinor, percentageOf(cartTotalMinor, terms));
+        } catch (ArithmeticException e) {
+            throw new InvalidOperationException("Cart total is too large to quote", e);
+        }
+    }
+
+    @Override
+    public DiscountQuote quote(Long userId, long[] lineAmountsMinor) {
+        DiscountTerms terms = entitlementService.getDiscountTerms(userId);
+        try {
+            long subtotal = 0;
+            long percentageDiscount = 0;
+            for (long line : lineAmountsMinor) {
+                subtotal = Math.addExact(subtotal, line);
+                percentageDiscount += percentageOf(line, terms);
+            }
+            return apply(terms, subtotal, percentageDiscount);
+        } catch (ArithmeticException e) {
+            throw new InvalidOperationException("Cart total is too large to quote", e);
+        }
+    }
+
+    @Override
+    public QuoteResponse quote(QuoteRequest request) {
+        DiscountQuote quote;
+        if (request.getCartTotal() != null) {
+            quote = quote(request.getUserId(), toMinor(request.getCartTotal()));
+        } else {
+            List<BigDecimal> lines = request.getLineAmounts();
+            long[] lineAmounts = new long[lines.size()];
+            for (int i = 0; i < lineAmounts.length; i++) {
+                lineAmounts[i] = toMinor(lines.get(i));
+            }
+            quote = quote(request.getUserId(), lineAmounts);
+        }
+
+        return QuoteResponse.builder()
+            .userId(request.getUserId())
+            .tierId(quote.tierId())
+            .subtotal(DiscountTerms.fromMinor(quote.subtotalMinor()))
+            .percentageDiscount(DiscountTerms.fromMinor(quote.percentageDiscountMinor()))
+            .fixedDiscount(DiscountTerms.fromMinor(quote.fixedDiscountMinor()))
+            .totalDiscount(DiscountTerms.fromMinor(quote.totalDiscountMinor()))
+            .payable(DiscountTerms.fromMinor(quote.payableMinor()))
+            .cashback(DiscountTerms.fromMinor(quote.cashbackMinor()))
+            .build();
+    }
+
+    private static DiscountQuote apply(DiscountTerms terms, long subtotal, long percentageDiscount) {
+        long afterPercentage = subtotal - percentageDiscount;
+        long fixedDiscount = Math.min(terms.fixedDiscountMinor(), afterPercentage);
+        long payable = afterPercentage - fixedDiscount;
+        long cashback = Math.multiplyExact(payable, terms.cashbackBasisPoints()) / DiscountTerms.FULL_BASIS_POINTS;
+        return new DiscountQuote(terms.tierId(), subtotal, percentageDiscount, fixedDiscount, cashback);
+    }
+
+    /** Percentage discount on one amount, rounded half-up and never more than the amount itself. */
+    private static long percentageOf(long amount, DiscountTerms terms) {
+        if (amount < 0) {
+            throw new InvalidOperationException("Amounts to quote must not be negative");
+        }
+        long basisPoints = Math.min(terms.percentageDiscountBasisPoints(), DiscountTerms.FULL_BASIS_POINTS);
+        return (Math.multiplyExact(amount, basisPoints) + HALF_BASIS_POINTS) / DiscountTerms.FULL_BASIS_POINTS;
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        try {
+            return amount.movePointRight(DiscountTerms.MINOR_UNIT_SCALE).longValueExact();
+        } catch (ArithmeticException e) {
+            throw new InvalidOperationException("Amount " + amount + " is not a whole number of minor units", e);
+        }
+    }
+}
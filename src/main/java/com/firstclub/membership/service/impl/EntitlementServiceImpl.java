@@ -0,0 +1,231 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.response.DiscountTerms;
+import com.firstclub.membership.dto.response.EntitlementResponse;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.TierBenefit;
+import com.firstclub.membership.model.enums.BenefitType;
+import com.firstclub.membership.model.projection.ActiveTier;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.TierBenefitRepository;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.service.CatalogVersionService;
+import com.firstclub.membership.service.EntitlementService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+/**
+ * In-process implementation of EntitlementService.
+ * The tier table is an immutable snapshot swapped in whole when the catalog
+ * version moves; the user index is filled lazily from the database and entries
+ * expire after the configured TTL or when the membership ends, whichever is
+ * sooner. Changes made on this node are applied on commit; changes made on
+ * other nodes become visible within the TTL.
+ */
+@Service
+@Slf4j
+public class EntitlementServiceImpl implements EntitlementService {
+
+    private static final long NO_TIER = 0L;
+
+    private final UserMembershipRepository membershipRepository;
+    private final MembershipTierRepository tierRepository;
+    private final TierBenefitRepository benefitRepository;
+    private final CatalogVersionService catalogVersionService;
+    private final TransactionTemplate readOnlyTransaction;
+    private final UserTierIndex userTiers;
+    private final long userTtlSeconds;
+
+    private volatile TierTable tiers = TierTable.EMPTY;
+
+    public EntitlementServiceImpl(UserMembershipRepository membershipRepository,
+                                  MembershipTierRepository tierRepository,
+                                  TierBenefitRepository benefitRepository,
+                                  CatalogVersionService catalogVersionService,
+                                  TransactionTemplate transactionTemplate,
+                                  @Value("${app.entitlements.user-ttl:60s}") Duration userTtl,
+                                  @Value("${app.entitlements.max-users:1000000}") int maxUsers) {
+        this.membershipRepository = membershipRepository;
+        this.tierRepository = tierRepository;
+        this.benefitRepository = benefitRepository;
+        this.catalogVersionService = catalogVersionService;
+        this.readOnlyTransaction = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        this.readOnlyTransaction.setReadOnly(true);
+        this.userTiers = new UserTierIndex(maxUsers);
+        this.userTtlSeconds = Math.max(1, userTtl.toSeconds());
+    }
+
+    @Override
+    public boolean hasBenefit(Long userId, BenefitType type) {
+        TierEntitlements entitlements = entitlementsOf(userId);
+        return entitlements != null && entitlements.has(type);
+    }
+
+    @Override
+    public BigDecimal getBenefitValue(Long userId, BenefitType type) {
+        TierEntitlements entitlements = entitlementsOf(userId);
+        return entitlements != null && entitlements.has(type) ? entitlements.value(type) : null;
+    }
+
+    @Override
+    public EntitlementResponse getEntitlements(Long userId, Collection<BenefitType> types) {
+        TierEntitlements entitlements = entitlementsOf(userId);
+        Map<BenefitType, BigDecimal> benefits = new EnumMap<>(BenefitType.class);
+        if (entitlements != null) {
+            for (BenefitType type : types == null || types.isEmpty() ? Arrays.asList(BenefitType.values()) : types) {
+                if (entitlements.has(type)) {
+                    benefits.put(type, entitlements.value(type));
+                }
+            }
+        }
+        return EntitlementResponse.builder()
+            .userId(userId)
+            .tierId(entitlements != null ? entitlements.tierId() : null)
+            .tierName(entitlements != null ? entitlements.tierName() : null)
+            .benefits(benefits)
+            .build();
+    }
+
+    @Override
+    public DiscountTerms getDiscountTerms(Long userId) {
+        TierEntitlements entitlements = entitlementsOf(userId);
+        return entitlements != null ? entitlements.discountTerms() : DiscountTerms.NONE;
+    }
+
+    @Override
+    public void invalidate(Long userId) {
+        afterCommit(() -> userTiers.remove(userId));
+    }
+
+    @Override
+    public void invalidateAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+        List<Long> ids = List.copyOf(userIds);
+        afterCommit(() -> ids.forEach(userTiers::remove));
+    }
+
+    /**
+     * @return The entitlements of the user's current tier, or null if the user has
+     *         no active membership or its tier is no longer active
+     */
+    TierEntitlements entitlementsOf(long userId) {
+        long tierId = tierIdOf(userId);
+        return tierId == NO_TIER ? null : currentTiers().find(tierId);
+    }
+
+    private long tierIdOf(long userId) {
+        long nowSecond = System.currentTimeMillis() / 1000;
+        long entry = userTiers.get(userId);
+        if (entry != UserTierIndex.MISSING && UserTierIndex.expiresAtSecond(entry) > nowSecond) {
+            return UserTierIndex.tierId(entry);
+        }
+        return loadTierId(userId, nowSecond);
+    }
+
+    private long loadTierId(long userId, long nowSecond) {
+        // Read before the query so an invalidation landing while it runs wins over this load
+        long generation = userTiers.generation(userId);
+        Optional<ActiveTier> active = membershipRepository.findActiveTier(userId, LocalDateTime.now());
+        long tierId = active.map(ActiveTier::tierId).orElse(NO_TIER);
+        long expiresAt = nowSecond + userTtlSeconds;
+        if (active.isPresent()) {
+            expiresAt = Math.min(expiresAt, active.get().endDate().atZone(ZoneId.systemDefault()).toEpochSecond());
+        }
+        userTiers.putIfGeneration(userId, UserTierIndex.pack(tierId, expiresAt), generation);
+        return tierId;
+    }
+
+    private TierTable currentTiers() {
+        long version = catalogVersionService.currentVersion();
+        TierTable table = tiers;
+        return table.version == version ? table : rebuildTiers(version);
+    }
+
+    private synchronized TierTable rebuildTiers(long version) {
+        TierTable table = tiers;
+        if (table.version == version) {
+            return table;
+        }
+
+        table = readOnlyTransaction.execute(status -> {
+            Map<Long, TierEntitlements.Builder> builders = new HashMap<>();
+            for (MembershipTier tier : tierRepository.findAllByActiveOrderByLevelDesc(true)) {
+                builders.put(tier.getId(), TierEntitlements.builder(tier.getId(), tier.getName()));
+            }
+            for (TierBenefit benefit : benefitRepository.findAllActiveOfActiveTiers()) {
+                TierEntitlements.Builder builder = builders.get(benefit.getTier().getId());
+                if (builder != null) {
+                    builder.add(benefit.getType(), benefit.getValue());
+                }
+            }
+            return TierTable.of(version, builders);
+        });
+        tiers = table;
+        log.info("Rebuilt entitlement table for {} tiers at catalog version {}", table.tierIds.length, version);
+        return table;
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    /**
+     * Active tiers sorted by ID, looked up by binary search so the hot path
+     * never boxes a tier ID.
+     */
+    private static final class TierTable {
+
+        static final TierTable EMPTY = new TierTable(Long.MIN_VALUE, new long[0], new TierEntitlements[0]);
+
+        final long version;
+        final long[] tierIds;
+        final TierEntitlements[] entitlements;
+
+        private TierTable(long version, long[] tierIds, TierEntitlements[] entitlements) {
+            this.version = version;
+            this.tierIds = tierIds;
+            this.entitlements = entitlements;
+        }
+
+        static TierTable of(long version, Map<Long, TierEntitlements.Builder> builders) {
+            long[] tierIds = builders.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+            TierEntitlements[] entitlements = new TierEntitlements[tierIds.length];
+            for (int i = 0; i < tierIds.length; i++) {
+                entitlements[i] = builders.get(tierIds[i]).build();
+            }
+            return new TierTable(version, tierIds, entitlements);
+        }
+
+        TierEntitlements find(long tierId) {
+            int index = Arrays.binarySearch(tierIds, tierId);
+            return index >= 0 ? entitlements[index] : null;
+        }
+    }
+}
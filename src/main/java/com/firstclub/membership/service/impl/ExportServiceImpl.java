@@ -0,0 +1,291 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.io.SerializedString;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.request.ExportFilter;
+import com.firstclub.membership.model.enums.DataFormat;
+import com.firstclub.membership.service.ExportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementCreator;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * JDBC implementation of ExportService.
+ * PostgreSQL only streams with a server-side cursor when auto-commit is off and
+ * a fetch size is set, so every export runs in a read-only transaction (served
+ * by the replica when routing is enabled) on a JdbcTemplate with its own fetch
+ * size. Row order is unspecified so the database never has to sort.
+ */
+@Service
+@Slf4j
+public class ExportServiceImpl implements ExportService {
+
+    private static final String MEMBERSHIPS_SQL = "SELECT m.id, m.user_id, m.plan_id, p.name AS plan_name, "
+            + "m.tier_id, t.name AS tier_name, m.status, m.start_date, m.end_date, m.auto_renew, "
+            + "m.created_at, m.updated_at "
+            + "FROM user_memberships m "
+            + "JOIN membership_plans p ON p.id = m.plan_id "
+            + "JOIN membership_tiers t ON t.id = m.tier_id";
+
+    private static final String TRANSACTIONS_SQL = "SELECT x.id, x.membership_id, m.user_id, x.type, x.amount, "
+            + "x.old_plan_id, x.new_plan_id, x.old_tier_id, x.new_tier_id, x.notes, x.transaction_date "
+            + "FROM membership_transactions x "
+            + "JOIN user_memberships m ON m.id = x.membership_id";
+
+    private static final int WRITE_BUFFER_SIZE = 64 * 1024;
+
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate cursorJdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+
+    public ExportServiceImpl(ObjectMapper objectMapper,
+                             DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${app.export.fetch-size:2000}") int fetchSize) {
+        this.objectMapper = objectMapper;
+        this.cursorJdbcTemplate = new JdbcTemplate(dataSource);
+        this.cursorJdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+
+    @Override
+    public long exportMemberships(ExportFilter filter, DataFormat format, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(MEMBERSHIPS_SQL);
+        appendMembershipFilters(sql, params, filter);
+        appendDateRange(sql, params, "m.start_date", filter);
+        return export("memberships", sql.toString(), params, format, out);
+    }
+
+    @Override
+    public long exportTransactions(ExportFilter filter, DataFormat format, OutputStream out) throws IOException {
+        List<Object> params = new ArrayList<>();
+        StringBuilder sql = new StringBuilder(TRANSACTIONS_SQL);
+        appendMembershipFilters(sql, params, filter);
+        appendDateRange(sql, params, "x.transaction_date", filter);
+        return export("transactions", sql.toString(), params, format, out);
+    }
+
+    private long export(String name, String sql, List<Object> params, DataFormat format, OutputStream out)
+            throws IOException {
+        long started = System.currentTimeMillis();
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), WRITE_BUFFER_SIZE);
+        RowWriter rowWriter = format == DataFormat.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+
+        PreparedStatementCreator statement = connection -> {
+            PreparedStatement ps = connection.prepareStatement(sql, ResultSet.TYPE_FORWARD_ONLY, ResultSet.CONCUR_READ_ONLY);
+            for (int i = 0; i < params.size(); i++) {
+                ps.setObject(i + 1, params.get(i));
+            }
+            return ps;
+        };
+
+        long[] rows = new long[1];
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> cursorJdbcTemplate.query(statement, rs -> {
+                try {
+                    if (rows[0] == 0) {
+                        rowWriter.start(rs.getMetaData());
+                    }
+                    rowWriter.write(rs);
+                    if (++rows[0] == 1) {
+                        // Get the first bytes to the client without waiting for the buffer to fill
+                        writer.flush();
+                    }
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+            }));
+        } catch (UncheckedIOException e) {
+            log.warn("Export of {} aborted after {} rows: {}", name, rows[0], e.getCause().getMessage());
+            throw e.getCause();
+        }
+
+        rowWriter.finish();
+        writer.flush();
+        log.info("Exported {} {} rows as {} in {} ms", rows[0], name, format, System.currentTimeMillis() - started);
+        return rows[0];
+    }
+
+    private static void appendMembershipFilters(StringBuilder sql, List<Object> params, ExportFilter filter) {
+        sql.append(" WHERE 1 = 1");
+        if (filter.getStatus() != null) {
+            sql.append(" AND m.status = ?");
+            params.add(filter.getStatus().name());
+        }
+        if (filter.getPlanId() != null) {
+            sql.append(" AND m.plan_id = ?");
+            params.add(filter.getPlanId());
+        }
+        if (filter.getTierId() != null) {
+            sql.append(" AND m.tier_id = ?");
+            params.add(filter.getTierId());
+        }
+    }
+
+    private static void appendDateRange(StringBuilder sql, List<Object> params, String column, ExportFilter filter) {
+        if (filter.getFrom() != null) {
+            sql.append(" AND ").append(column).append(" >= ?");
+            params.add(Timestamp.valueOf(filter.getFrom()));
+        }
+        if (filter.getTo() != null) {
+            sql.append(" AND ").append(column).append(" < ?");
+            params.add(Timestamp.valueOf(filter.getTo()));
+        }
+    }
+
+    private interface RowWriter {
+
+        void start(ResultSetMetaData metaData) throws SQLException, IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        void finish() throws IOException;
+    }
+
+    /**
+     * One JSON object per line, keyed by column label. Timestamps are written as
+     * ISO-8601 local date-times and numerics as JSON numbers.
+     */
+    private final class NdjsonRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private JsonGenerator generator;
+        private String[] columns;
+
+        NdjsonRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            columns = columnLabels(metaData);
+            generator = objectMapper.getFactory().createGenerator(writer);
+            generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+            generator.setRootValueSeparator(new SerializedString("\n"));
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < columns.length; i++) {
+                generator.writeFieldName(columns[i]);
+                Object value = rs.getObject(i + 1);
+                if (value == null) {
+                    generator.writeNull();
+                } else if (value instanceof BigDecimal decimal) {
+                    generator.writeNumber(decimal);
+                } else if (value instanceof Long number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Integer number) {
+                    generator.writeNumber(number);
+                } else if (value instanceof Boolean bool) {
+                    generator.writeBoolean(bool);
+                } else if (value instanceof Timestamp timestamp) {
+                    generator.writeString(timestamp.toLocalDateTime().toString());
+                } else {
+                    generator.writeString(value.toString());
+                }
+            }
+            generator.writeEndObject();
+        }
+
+        @Override
+        public void finish() throws IOException {
+            if (generator != null) {
+                generator.writeRaw('\n');
+                generator.close();
+            }
+        }
+    }
+
+    /**
+     * RFC 4180 CSV with a header row of column labels. The header is only
+     * written once the first row arrives, so an empty export is an empty body.
+     */
+    private static final class CsvRowWriter implements RowWriter {
+
+        private final Writer writer;
+        private int columnCount;
+
+        CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void start(ResultSetMetaData metaData) throws SQLException, IOException {
+            String[] columns = columnLabels(metaData);
+            columnCount = columns.length;
+            writer.write(String.join(",", columns));
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columnCount; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                Object value = rs.getObject(i);
+                if (value instanceof Timestamp timestamp) {
+                    writer.write(timestamp.toLocalDateTime().toString());
+                } else if (value instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (value != null) {
+                    writeEscaped(value.toString());
+                }
+            }
+            writer.write("\r\n");
+        }
+
+        @Override
+        public void finish() {
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private static String[] columnLabels(ResultSetMetaData metaData) throws SQLException {
+        String[] columns = new String[metaData.getColumnCount()];
+        for (int i = 0; i < columns.length; i++) {
+            columns[i] = metaData.getColumnLabel(i + 1);
+        }
+        return columns;
+    }
+}
@@ -0,0 +1,52 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.model.entity.OutboxEvent;
+import com.firstclub.membership.service.MembershipEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * MembershipEventSink that appends each event payload as one NDJSON line to a file.
+ * Intended for tests and local development.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "file")
+@Slf4j
+public class FileMembershipEventSink implements MembershipEventSink {
+
+    private final Path file;
+
+    public FileMembershipEventSink(@Value("${app.outbox.file-path:./outbox/membership-events.ndjson}") String filePath) {
+        this.file = Paths.get(filePath);
+    }
+
+    @Override
+    public synchronized void publish(List<OutboxEvent> events) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                    StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (OutboxEvent event : events) {
+                    writer.write(event.getPayload());
+                    writer.newLine();
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to append membership events to " + file, e);
+        }
+    }
+}
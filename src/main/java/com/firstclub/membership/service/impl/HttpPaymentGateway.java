@@ -0,0 +1,144 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.PaymentGatewayException;
+import com.firstclub.membership.service.PaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.JdkClientHttpRequestFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.RestClient;
+import org.springframework.web.client.RestClientException;
+import org.springframework.web.client.RestClientResponseException;
+
+import java.math.BigDecimal;
+import java.net.http.HttpClient;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * PaymentGateway that charges through the gateway's HTTP API:
+ * {@code POST {base-url}/charges} with the payment reference as the
+ * Idempotency-Key header, and {@code POST {base-url}/charges/batch} with the
+ * reference in each charge, answered with one result per charge in order.
+ *
+ * The connect timeout and the read timeout (until the response headers arrive)
+ * bound every call, so a slow gateway costs at most their sum per charge.
+ * 402 is a decline; any other error status, a timeout or an I/O failure means
+ * the outcome is unknown and is thrown as a PaymentGatewayException.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "http")
+@Slf4j
+public class HttpPaymentGateway implements PaymentGateway {
+
+    static final String IDEMPOTENCY_KEY_HEADER = "Idempotency-Key";
+
+    private final RestClient restClient;
+
+    public HttpPaymentGateway(RestClient.Builder restClientBuilder,
+                              @Value("${app.payment.http.base-url}") String baseUrl,
+                              @Value("${app.payment.http.connect-timeout:500ms}") Duration connectTimeout,
+                              @Value("${app.payment.http.read-timeout:2s}") Duration readTimeout) {
+        HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(connectTimeout)
+            .build();
+        JdkClientHttpRequestFactory requestFactory = new JdkClientHttpRequestFactory(httpClient);
+        requestFactory.setReadTimeout(readTimeout);
+        this.restClient = restClientBuilder
+            .baseUrl(baseUrl)
+            .requestFactory(requestFactory)
+            .build();
+    }
+
+    @Override
+    public PaymentResult charge(Long userId, BigDecimal amount, String paymentReference) {
+        ChargeResponse response;
+        try {
+            response = restClient.post()
+                .uri("/charges")
+                .header(IDEMPOTENCY_KEY_HEADER, paymentReference)
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new ChargeRequest(userId, amount, paymentReference))
+                .retrieve()
+                .body(ChargeResponse.class);
+        } catch (RestClientResponseException e) {
+            if (e.getStatusCode().value() == HttpStatus.PAYMENT_REQUIRED.value()) {
+                log.info("Payment {} for user {} declined by gateway", paymentReference, userId);
+                return PaymentResult.failure("Payment declined");
+            }
+            throw new PaymentGatewayException("Payment gateway returned " + e.getStatusCode().value(), e);
+        } catch (RestClientException e) {
+            throw new PaymentGatewayException("Payment gateway call failed: " + e.getMessage(), e);
+        }
+
+        if (response == null) {
+            throw new PaymentGatewayException("Payment gateway returned an empty response");
+        }
+        return toResult(response, paymentReference, userId);
+    }
+
+    @Override
+    public List<PaymentResult> chargeBatch(List<PaymentCharge> charges) {
+        List<ChargeRequest> requests = new ArrayList<>(charges.size());
+        for (PaymentCharge charge : charges) {
+            requests.add(new ChargeRequest(charge.userId(), charge.amount(), charge.paymentReference()));
+        }
+
+        BatchResponse response;
+        try {
+            response = restClient.post()
+                .uri("/charges/batch")
+                .contentType(MediaType.APPLICATION_JSON)
+                .body(new BatchRequest(requests))
+                .retrieve()
+                .body(BatchResponse.class);
+        } catch (RestClientResponseException e) {
+            throw new PaymentGatewayException("Payment gateway returned " + e.getStatusCode().value()
+                    + " for a batch of " + charges.size(), e);
+        } catch (RestClientException e) {
+            throw new PaymentGatewayException("Payment gateway batch call failed: " + e.getMessage(), e);
+        }
+
+        if (response == null || response.results() == null || response.results().size() != charges.size()) {
+            throw new PaymentGatewayException("Payment gateway returned an incomplete batch response");
+        }
+        List<PaymentResult> results = new ArrayList<>(charges.size());
+        for (int i = 0; i < charges.size(); i++) {
+            PaymentCharge charge = charges.get(i);
+            results.add(toResult(response.results().get(i), charge.paymentReference(), charge.userId()));
+        }
+        return results;
+    }
+
+    private static PaymentResult toResult(ChargeResponse response, String paymentReference, Long userId) {
+        if (response.status() == null) {
+            throw new PaymentGatewayException("Payment gateway returned a charge without status");
+        }
+        if ("succeeded".equals(response.status())) {
+            return PaymentResult.success(response.transactionId());
+        }
+        log.info("Payment {} for user {} not taken by gateway: {}", paymentReference, userId, response.message());
+        return PaymentResult.failure(response.message() != null ? response.message() : "Payment declined");
+    }
+
+    record ChargeRequest(Long userId, BigDecimal amount, String reference) {
+    }
+
+    record BatchRequest(List<ChargeRequest> charges) {
+    }
+
+    record BatchResponse(List<ChargeResponse> results) {
+    }
+
+    /**
+     * @param status "succeeded" or "declined"
+     */
+    record ChargeResponse(String status, String transactionId, String message) {
+    }
+}
@@ -0,0 +1,226 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.response.ApiResponse;
+import com.firstclub.membership.exception.IdempotencyConflictException;
+import com.firstclub.membership.service.IdempotencyService;
+import com.firstclub.membership.service.IdempotencyStore;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Service;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.util.HexFormat;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * IdempotencyStore-backed implementation of IdempotencyService.
+ * The store is consulted once before executing (one round trip when the key
+ * is new) and written once afterwards. While the action runs its claim is
+ * extended every third of the lock TTL, so a slow action keeps the key and the
+ * TTL only frees keys whose node died. If the store is unreachable the action
+ * runs without idempotency protection rather than failing the request.
+ */
+@Service
+@Slf4j
+public class IdempotencyServiceImpl implements IdempotencyService {
+
+    private final IdempotencyStore store;
+    private final ObjectMapper objectMapper;
+    private final Duration ttl;
+    private final Duration lockTtl;
+    private final Duration waitTimeout;
+
+    private final Timer claimTimer;
+    private final Counter executed;
+    private final Counter replayed;
+    private final Counter conflicts;
+    private final Counter storeErrors;
+
+    private final ScheduledExecutorService lockRenewal;
+
+    public IdempotencyServiceImpl(IdempotencyStore store,
+                                  ObjectMapper objectMapper,
+                                  MeterRegistry meterRegistry,
+                                  @Value("${app.idempotency.ttl:24h}") Duration ttl,
+                                  @Value("${app.idempotency.lock-ttl:30s}") Duration lockTtl,
+                                  @Value("${app.idempotency.wait-timeout:10s}") Duration waitTimeout) {
+        this.store = store;
+        this.objectMapper = objectMapper;
+        this.ttl = ttl;
+        this.lockTtl = lockTtl;
+        this.waitTimeout = waitTimeout;
+        this.claimTimer = Timer.builder("membership.idempotency.claim")
+            .description("Time to claim or look up an idempotency key")
+            .register(meterRegistry);
+        this.executed = outcomeCounter(meterRegistry, "executed");
+        this.replayed = outcomeCounter(meterRegistry, "replayed");
+        this.conflicts = outcomeCounter(meterRegistry, "conflict");
+        this.storeErrors = outcomeCounter(meterRegistry, "store_error");
+        this.lockRenewal = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Idempotency-Lock-Renewal");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    @PreDestroy
+    void close() {
+        lockRenewal.shutdownNow();
+    }
+
+    @Override
+    public <T> ResponseEntity<ApiResponse<T>> execute(String key, String operation, Long userId, Object request,
+                                                      Class<T> dataType,
+                                                      Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        if (key == null || key.isBlank()) {
+            return action.get();
+        }
+
+        String scopedKey = operation + ":" + userId + ":" + key;
+        String fingerprint = fingerprint(operation, request);
+        String owner = UUID.randomUUID().toString();
+        long deadline = System.nanoTime() + waitTimeout.toNanos();
+
+        while (true) {
+            IdempotencyStore.Entry existing;
+            long started = System.nanoTime();
+            try {
+                existing = store.claim(scopedKey, fingerprint, owner, lockTtl);
+            } catch (DataAccessException e) {
+                storeErrors.increment();
+                log.warn("Idempotency store unavailable; executing {} for user {} without key {}", operation, userId, key, e);
+                return action.get();
+            } finally {
+                claimTimer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            }
+
+            if (existing == null) {
+                return executeClaimed(scopedKey, fingerprint, owner, action);
+            }
+            if (!existing.fingerprint().equals(fingerprint)) {
+                conflicts.increment();
+                throw new IdempotencyConflictException("Idempotency-Key was already used for a different request");
+            }
+            if (!existing.isCompleted()) {
+                existing = awaitCompletion(scopedKey, deadline);
+            }
+            if (existing != null && existing.isCompleted()) {
+                replayed.increment();
+                return replay(existing, dataType);
+            }
+            // The first request failed and released the key; claim it for this one
+        }
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> executeClaimed(String scopedKey, String fingerprint, String owner,
+                                                              Supplier<ResponseEntity<ApiResponse<T>>> action) {
+        long renewalNanos = lockTtl.toNanos() / 3;
+        ScheduledFuture<?> renewal = lockRenewal.scheduleAtFixedRate(
+                () -> extendQuietly(scopedKey, fingerprint, owner), renewalNanos, renewalNanos, TimeUnit.NANOSECONDS);
+
+        ResponseEntity<ApiResponse<T>> response;
+        try {
+            response = action.get();
+        } catch (RuntimeException e) {
+            renewal.cancel(false);
+            releaseQuietly(scopedKey, fingerprint, owner);
+            throw e;
+        }
+        renewal.cancel(false);
+        executed.increment();
+
+        try {
+            if (!store.complete(scopedKey, fingerprint, owner, response.getStatusCode().value(),
+                    objectMapper.writeValueAsString(response.getBody()), ttl)) {
+                log.warn("Claim on {} was lost while the action ran; its response was not stored", scopedKey);
+            }
+        } catch (JsonProcessingException | DataAccessException e) {
+            // The action already ran; duplicates will re-execute once the lock TTL passes
+            log.warn("Could not store idempotent response for {}", scopedKey, e);
+        }
+        return response;
+    }
+
+    private IdempotencyStore.Entry awaitCompletion(String scopedKey, long deadline) {
+        long remaining = deadline - System.nanoTime();
+        IdempotencyStore.Entry entry = null;
+        if (remaining > 0) {
+            try {
+                entry = store.await(scopedKey, Duration.ofNanos(remaining));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IdempotencyConflictException("Interrupted while waiting for the original request");
+            }
+        }
+        if (remaining <= 0 || entry != null && !entry.isCompleted()) {
+            conflicts.increment();
+            throw new IdempotencyConflictException("A request with this Idempotency-Key is still being processed");
+        }
+        return entry;
+    }
+
+    private <T> ResponseEntity<ApiResponse<T>> replay(IdempotencyStore.Entry entry, Class<T> dataType) {
+        JavaType type = objectMapper.getTypeFactory().constructParametricType(ApiResponse.class, dataType);
+        try {
+            ApiResponse<T> body = objectMapper.readValue(entry.body(), type);
+            return ResponseEntity.status(entry.status())
+                .header(REPLAYED_HEADER, "true")
+                .body(body);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response could not be read", e);
+        }
+    }
+
+    private void extendQuietly(String scopedKey, String fingerprint, String owner) {
+        try {
+            if (!store.extend(scopedKey, fingerprint, owner, lockTtl)) {
+                log.warn("Claim on {} was lost before its action finished", scopedKey);
+            }
+        } catch (DataAccessException e) {
+            log.warn("Could not extend the claim on {}", scopedKey, e);
+        }
+    }
+
+    private void releaseQuietly(String scopedKey, String fingerprint, String owner) {
+        try {
+            store.release(scopedKey, fingerprint, owner);
+        } catch (DataAccessException e) {
+            log.warn("Could not release idempotency key {}; it frees up after {}", scopedKey, lockTtl, e);
+        }
+    }
+
+    private String fingerprint(String operation, Object request) {
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            digest.update(operation.getBytes(StandardCharsets.UTF_8));
+            digest.update(objectMapper.writeValueAsBytes(request));
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (NoSuchAlgorithmException | JsonProcessingException e) {
+            throw new IllegalStateException("Could not fingerprint request", e);
+        }
+    }
+
+    private static Counter outcomeCounter(MeterRegistry meterRegistry, String outcome) {
+        return Counter.builder("membership.idempotency.requests")
+            .description("Requests carrying an Idempotency-Key, by outcome")
+            .tag("outcome", outcome)
+            .register(meterRegistry);
+    }
+}
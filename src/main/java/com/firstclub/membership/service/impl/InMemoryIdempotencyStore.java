@@ -0,0 +1,133 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.service.IdempotencyStore;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * IdempotencyStore that keeps keys in process memory.
+ * Only correct for a single node; intended for tests, load tests and local
+ * runs without Redis. Waiters block on the claim's future instead of polling.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "memory")
+@Slf4j
+public class InMemoryIdempotencyStore implements IdempotencyStore {
+
+    private final Map<String, Slot> slots = new ConcurrentHashMap<>();
+
+    @Override
+    public Entry claim(String key, String fingerprint, String owner, Duration lockTtl) {
+        Slot claimed = new Slot(new Entry(fingerprint, null, null), owner, deadline(lockTtl));
+        Slot current = slots.compute(key, (k, existing) ->
+                existing == null || existing.isExpired(System.nanoTime()) ? claimed : existing);
+        return current == claimed ? null : current.entry;
+    }
+
+    @Override
+    public boolean extend(String key, String fingerprint, String owner, Duration lockTtl) {
+        boolean[] extended = new boolean[1];
+        slots.computeIfPresent(key, (k, existing) -> {
+            if (owner.equals(existing.owner) && !existing.isExpired(System.nanoTime())) {
+                existing.expiresAtNanos = deadline(lockTtl);
+                extended[0] = true;
+            }
+            return existing;
+        });
+        return extended[0];
+    }
+
+    @Override
+    public boolean complete(String key, String fingerprint, String owner, int status, String body, Duration ttl) {
+        Entry entry = new Entry(fingerprint, status, body);
+        Slot completed = new Slot(entry, null, deadline(ttl));
+        Slot[] previous = new Slot[1];
+        slots.computeIfPresent(key, (k, existing) -> {
+            if (owner.equals(existing.owner) && !existing.isExpired(System.nanoTime())) {
+                previous[0] = existing;
+                return completed;
+            }
+            return existing;
+        });
+        if (previous[0] == null) {
+            return false;
+        }
+        previous[0].done.complete(entry);
+        return true;
+    }
+
+    @Override
+    public void release(String key, String fingerprint, String owner) {
+        Slot[] released = new Slot[1];
+        slots.computeIfPresent(key, (k, existing) -> {
+            if (owner.equals(existing.owner)) {
+                released[0] = existing;
+                return null;
+            }
+            return existing;
+        });
+        if (released[0] != null) {
+            released[0].done.complete(null);
+        }
+    }
+
+    @Override
+    public Entry await(String key, Duration timeout) throws InterruptedException {
+        Slot slot = slots.get(key);
+        if (slot == null || slot.entry.isCompleted()) {
+            return slot == null ? null : slot.entry;
+        }
+        try {
+            return slot.done.get(timeout.toNanos(), TimeUnit.NANOSECONDS);
+        } catch (TimeoutException e) {
+            return slot.entry;
+        } catch (ExecutionException e) {
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.idempotency.cleanup-interval-ms:60000}")
+    public void removeExpired() {
+        long now = System.nanoTime();
+        int before = slots.size();
+        slots.values().removeIf(slot -> {
+            if (!slot.isExpired(now)) {
+                return false;
+            }
+            slot.done.complete(null);
+            return true;
+        });
+        log.debug("Removed {} expired idempotency keys", before - slots.size());
+    }
+
+    private static long deadline(Duration ttl) {
+        return System.nanoTime() + ttl.toNanos();
+    }
+
+    private static final class Slot {
+        final Entry entry;
+        final String owner;
+        volatile long expiresAtNanos;
+        final CompletableFuture<Entry> done = new CompletableFuture<>();
+
+        Slot(Entry entry, String owner, long expiresAtNanos) {
+            this.entry = entry;
+            this.owner = owner;
+            this.expiresAtNanos = expiresAtNanos;
+        }
+
+        boolean isExpired(long now) {
+            return now - expiresAtNanos >= 0;
+        }
+    }
+}
@@ -0,0 +1,56 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.config.CacheConfiguration;
+import com.firstclub.membership.dto.response.MembershipResponse;
+import com.firstclub.membership.service.MembershipCacheService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * MembershipCacheService that keeps entries in process memory with the same
+ * TTL as the Redis cache. Only correct for a single node; intended for load
+ * tests and local runs without Redis.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cache.store", havingValue = "memory")
+public class InMemoryMembershipCacheService implements MembershipCacheService {
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+
+    @Override
+    public Map<Long, MembershipResponse> getAll(Collection<Long> userIds) {
+        long now = System.currentTimeMillis();
+        Map<Long, MembershipResponse> hits = new HashMap<>();
+        for (Long userId : userIds) {
+            Entry entry = entries.get(userId);
+            if (entry == null) {
+                continue;
+            }
+            if (entry.expiresAtMillis() > now) {
+                hits.put(userId, entry.response());
+            } else {
+                entries.remove(userId, entry);
+            }
+        }
+        return hits;
+    }
+
+    @Override
+    public void putAll(Map<Long, MembershipResponse> memberships) {
+        long expiresAt = System.currentTimeMillis() + CacheConfiguration.CACHE_TTL.toMillis();
+        memberships.forEach((userId, response) -> entries.put(userId, new Entry(response, expiresAt)));
+    }
+
+    @Override
+    public void evictAll(Collection<Long> userIds) {
+        userIds.forEach(entries::remove);
+    }
+
+    private record Entry(MembershipResponse response, long expiresAtMillis) {
+    }
+}
@@ -0,0 +1,33 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.model.entity.OutboxEvent;
+import com.firstclub.membership.service.MembershipEventSink;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * MembershipEventSink that keeps published events in memory.
+ * Intended for tests that assert on the delivered event stream.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "memory")
+public class InMemoryMembershipEventSink implements MembershipEventSink {
+
+    private final List<OutboxEvent> events = new CopyOnWriteArrayList<>();
+
+    @Override
+    public void publish(List<OutboxEvent> batch) {
+        events.addAll(batch);
+    }
+
+    public List<OutboxEvent> getEvents() {
+        return List.copyOf(events);
+    }
+
+    public void clear() {
+        events.clear();
+    }
+}
@@ -0,0 +1,40 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.service.CatalogVersionService;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * CatalogVersionService that keeps the version in process memory.
+ * Only correct for a single node; intended for load tests and local runs
+ * without Redis. Seeded from the clock so a restart never reissues an ETag.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cache.store", havingValue = "memory")
+public class LocalCatalogVersionService implements CatalogVersionService {
+
+    private final AtomicLong version = new AtomicLong(System.currentTimeMillis());
+
+    @Override
+    public long currentVersion() {
+        return version.get();
+    }
+
+    @Override
+    public void bump() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    version.incrementAndGet();
+                }
+            });
+        } else {
+            version.incrementAndGet();
+        }
+    }
+}
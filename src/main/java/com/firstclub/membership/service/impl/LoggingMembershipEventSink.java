@@ -0,0 +1,26 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.model.entity.OutboxEvent;
+import com.firstclub.membership.service.MembershipEventSink;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Default MembershipEventSink that writes events to the application log.
+ * Replace with a broker-backed sink to deliver events to downstream systems.
+ */
+@Component
+@ConditionalOnProperty(name = "app.outbox.sink", havingValue = "log", matchIfMissing = true)
+@Slf4j
+public class LoggingMembershipEventSink implements MembershipEventSink {
+
+    @Override
+    public void publish(List<OutboxEvent> events) {
+        for (OutboxEvent event : events) {
+            log.info("Membership event {} for user {}: {}", event.getEventType(), event.getUserId(), event.getPayload());
+        }
+    }
+}
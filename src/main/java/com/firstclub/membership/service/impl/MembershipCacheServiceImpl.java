@@ -0,0 +1,111 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.config.CacheConfiguration;
+import com.firstclub.membership.dto.response.MembershipResponse;
+import com.firstclub.membership.service.MembershipCacheService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.connection.RedisStringCommands;
+import org.springframework.data.redis.core.RedisCallback;
+import org.springframework.data.redis.core.RedisTemplate;
+import org.springframework.data.redis.core.types.Expiration;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Redis-backed implementation of MembershipCacheService.
+ * Keys follow RedisCacheManager's default "cacheName::key" layout.
+ */
+@Service
+@ConditionalOnProperty(name = "app.cache.store", havingValue = "redis", matchIfMissing = true)
+@Slf4j
+public class MembershipCacheServiceImpl implements MembershipCacheService {
+
+    static final String MEMBERSHIP_KEY_PREFIX = "membership::";
+
+    private final RedisTemplate<String, Object> redisTemplate;
+
+    public MembershipCacheServiceImpl(@Qualifier("cacheRedisTemplate") RedisTemplate<String, Object> redisTemplate) {
+        this.redisTemplate = redisTemplate;
+    }
+
+    @Override
+    public Map<Long, MembershipResponse> getAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return Map.of();
+        }
+
+        List<Long> ids = new ArrayList<>(userIds);
+        Map<Long, MembershipResponse> hits = new HashMap<>();
+        try {
+            List<Object> values = redisTemplate.opsForValue().multiGet(keys(ids));
+            if (values == null) {
+                return hits;
+            }
+            for (int i = 0; i < ids.size(); i++) {
+                if (values.get(i) instanceof MembershipResponse response) {
+                    hits.put(ids.get(i), response);
+                }
+            }
+        } catch (Exception e) {
+            // Treat an unavailable cache as all misses; callers fall back to the database
+            log.warn("Failed to read {} membership cache entries", ids.size(), e);
+        }
+        return hits;
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public void putAll(Map<Long, MembershipResponse> memberships) {
+        if (memberships.isEmpty()) {
+            return;
+        }
+
+        RedisSerializer<String> keySerializer = RedisSerializer.string();
+        RedisSerializer<Object> valueSerializer = (RedisSerializer<Object>) redisTemplate.getValueSerializer();
+        Expiration ttl = Expiration.from(CacheConfiguration.CACHE_TTL);
+        try {
+            redisTemplate.executePipelined((RedisCallback<Object>) connection -> {
+                memberships.forEach((userId, response) -> connection.stringCommands().set(
+                        keySerializer.serialize(MEMBERSHIP_KEY_PREFIX + userId),
+                        valueSerializer.serialize(response),
+                        ttl,
+                        RedisStringCommands.SetOption.upsert()));
+                return null;
+            });
+        } catch (Exception e) {
+            log.warn("Failed to cache {} memberships", memberships.size(), e);
+        }
+    }
+
+    @Override
+    public void evictAll(Collection<Long> userIds) {
+        if (userIds.isEmpty()) {
+            return;
+        }
+
+        List<String> keys = keys(userIds);
+        try {
+            Long deleted = redisTemplate.delete(keys);
+            log.debug("Evicted {} of {} membership cache entries", deleted, keys.size());
+        } catch (Exception e) {
+            // Entries expire with the cache TTL; a failed eviction must not fail the batch
+            log.warn("Failed to evict {} membership cache entries", keys.size(), e);
+        }
+    }
+
+    private static List<String> keys(Collection<Long> userIds) {
+        List<String> keys = new ArrayList<>(userIds.size());
+        for (Long userId : userIds) {
+            keys.add(MEMBERSHIP_KEY_PREFIX + userId);
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,111 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.service.EntitlementService;
+import com.firstclub.membership.service.MembershipCacheService;
+import com.firstclub.membership.service.MembershipExpiryService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Implementation of MembershipExpiryService using chunked PostgreSQL
+ * UPDATE ... FROM (SELECT ... FOR UPDATE SKIP LOCKED) statements, so the sweep
+ * never blocks on rows that user requests are currently modifying.
+ */
+@Service
+@Slf4j
+public class MembershipExpiryServiceImpl implements MembershipExpiryService {
+
+    private static final String EXPIRE_CHUNK_SQL = "WITH due AS ("
+            + "SELECT id FROM user_memberships WHERE status = 'ACTIVE' AND end_date < ? "
+            + "AND (reserved_until IS NULL OR reserved_until < ?) "
+            + "ORDER BY end_date LIMIT ? FOR UPDATE SKIP LOCKED) "
+            + "UPDATE user_memberships m SET status = 'EXPIRED', version = m.version + 1, updated_at = ? "
+            + "FROM due WHERE m.id = due.id RETURNING m.user_id";
+
+    private static final String OLDEST_OVERDUE_SQL =
+            "SELECT MIN(end_date) FROM user_memberships WHERE status = 'ACTIVE' AND end_date < ?";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final MembershipCacheService membershipCacheService;
+    private final EntitlementService entitlementService;
+    private final Counter expiredCounter;
+    private final AtomicLong lagSeconds = new AtomicLong();
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.expiry.enabled:true}")
+    private boolean expiryEnabled;
+
+    @Value("${app.expiry.chunk-size:1000}")
+    private int chunkSize;
+
+    public MembershipExpiryServiceImpl(JdbcTemplate jdbcTemplate,
+                                       MembershipCacheService membershipCacheService,
+                                       EntitlementService entitlementService,
+                                       MeterRegistry meterRegistry) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.membershipCacheService = membershipCacheService;
+        this.entitlementService = entitlementService;
+        this.expiredCounter = Counter.builder("membership.expiry.processed")
+                .description("Memberships moved to EXPIRED by the expiry sweeper")
+                .register(meterRegistry);
+        Gauge.builder("membership.expiry.lag", lagSeconds, AtomicLong::get)
+                .description("Age of the oldest overdue ACTIVE membership when the last sweep started")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${app.expiry.interval-ms:60000}")
+    public void scheduledSweep() {
+        if (!expiryEnabled) {
+            return;
+        }
+        expireOverdueMemberships();
+    }
+
+    @Override
+    public long expireOverdueMemberships() {
+        if (!running.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            Timestamp cutoff = Timestamp.valueOf(now);
+
+            Timestamp oldest = jdbcTemplate.queryForObject(OLDEST_OVERDUE_SQL, Timestamp.class, cutoff);
+            lagSeconds.set(oldest != null ? Duration.between(oldest.toLocalDateTime(), now).toSeconds() : 0);
+            if (oldest == null) {
+                return 0;
+            }
+
+            long total = 0;
+            List<Long> userIds;
+            do {
+                // Each statement auto-commits, so row locks are held for one chunk only
+                userIds = jdbcTemplate.queryForList(EXPIRE_CHUNK_SQL, Long.class, cutoff, cutoff, chunkSize, cutoff);
+                membershipCacheService.evictAll(userIds);
+                entitlementService.invalidateAll(userIds);
+                expiredCounter.increment(userIds.size());
+                total += userIds.size();
+            } while (userIds.size() == chunkSize);
+
+            log.info("Expired {} overdue membership(s); sweep lag was {}s", total, lagSeconds.get());
+            return total;
+        } finally {
+            running.set(false);
+        }
+    }
+}
@@ -0,0 +1,454 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.config.MembershipMetrics;
+import com.firstclub.membership.dto.response.ImportResult;
+import com.firstclub.membership.dto.response.ImportRowError;
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.enums.DataFormat;
+import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.model.enums.PlanDuration;
+import com.firstclub.membership.model.enums.TransactionType;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.service.EntitlementService;
+import com.firstclub.membership.service.MembershipCacheService;
+import com.firstclub.membership.service.MembershipImportService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+
+/**
+ * JDBC implementation of MembershipImportService.
+ * The request thread parses and validates rows and hands full chunks to the
+ * import executor; chunks of one lane are chained so they run in order, and a
+ * semaphore bounds the chunks in flight so memory stays flat. Membership IDs
+ * are drawn from the identity sequence up front so memberships and their
+ * transactions can both be written as plain batched INSERTs, which the driver
+ * rewrites into multi-row statements (reWriteBatchedInserts).
+ */
+@Service
+@Slf4j
+public class MembershipImportServiceImpl implements MembershipImportService {
+
+    private static final String ACTIVE_USERS_SQL =
+            "SELECT user_id FROM user_memberships WHERE status = 'ACTIVE' AND user_id = ANY(?)";
+
+    private static final String ALLOCATE_IDS_SQL =
+            "SELECT nextval(pg_get_serial_sequence('user_memberships', 'id')) FROM generate_series(1, ?)";
+
+    private static final String INSERT_MEMBERSHIP_SQL = "INSERT INTO user_memberships "
+            + "(id, user_id, plan_id, tier_id, status, start_date, end_date, auto_renew, created_at, updated_at, version) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, 0)";
+
+    private static final String INSERT_TRANSACTION_SQL = "INSERT INTO membership_transactions "
+            + "(membership_id, type, amount, new_plan_id, new_tier_id, notes, transaction_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+    private final ObjectMapper objectMapper;
+    private final MembershipPlanRepository planRepository;
+    private final MembershipTierRepository tierRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor importExecutor;
+    private final MembershipCacheService membershipCacheService;
+    private final EntitlementService entitlementService;
+    private final MembershipMetrics membershipMetrics;
+
+    @Value("${app.import.chunk-size:5000}")
+    private int chunkSize;
+
+    @Value("${app.import.max-reported-errors:1000}")
+    private int maxReportedErrors;
+
+    public MembershipImportServiceImpl(ObjectMapper objectMapper,
+                                       MembershipPlanRepository planRepository,
+                                       MembershipTierRepository tierRepository,
+                                       JdbcTemplate jdbcTemplate,
+                                       TransactionTemplate transactionTemplate,
+                                       @Qualifier("importExecutor") ThreadPoolTaskExecutor importExecutor,
+                                       MembershipCacheService membershipCacheService,
+                                       EntitlementService entitlementService,
+                                       MembershipMetrics membershipMetrics) {
+        this.objectMapper = objectMapper;
+        this.planRepository = planRepository;
+        this.tierRepository = tierRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.importExecutor = importExecutor;
+        this.membershipCacheService = membershipCacheService;
+        this.entitlementService = entitlementService;
+        this.membershipMetrics = membershipMetrics;
+    }
+
+    @Override
+    public ImportResult importMemberships(InputStream in, DataFormat format) throws IOException {
+        long started = System.currentTimeMillis();
+        Catalog catalog = loadCatalog();
+        ImportProgress progress = new ImportProgress(maxReportedErrors);
+
+        int lanes = importExecutor.getMaxPoolSize();
+        List<List<ImportRow>> buffers = new ArrayList<>(lanes);
+        List<CompletableFuture<Void>> tails = new ArrayList<>(lanes);
+        for (int i = 0; i < lanes; i++) {
+            buffers.add(new ArrayList<>(chunkSize));
+            tails.add(CompletableFuture.completedFuture(null));
+        }
+        Semaphore inFlight = new Semaphore(lanes * 2);
+
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))) {
+            long lineNumber = 0;
+            Map<String, Integer> csvColumns = null;
+            if (format == DataFormat.CSV) {
+                String header = reader.readLine();
+                lineNumber++;
+                csvColumns = header == null ? Map.of() : csvHeader(header);
+            }
+
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.isBlank()) {
+                    continue;
+                }
+                progress.total.incrementAndGet();
+
+                ImportRow row;
+                try {
+                    row = format == DataFormat.CSV
+                            ? parseCsv(lineNumber, line, csvColumns, catalog)
+                            : parseNdjson(lineNumber, line, catalog);
+                } catch (IllegalArgumentException | DateTimeParseException e) {
+                    progress.fail(lineNumber, null, e.getMessage());
+                    continue;
+                }
+
+                int lane = Math.floorMod(Long.hashCode(row.userId()), lanes);
+                List<ImportRow> buffer = buffers.get(lane);
+                buffer.add(row);
+                if (buffer.size() >= chunkSize) {
+                    submit(lane, buffer, tails, inFlight, progress);
+                    buffers.set(lane, new ArrayList<>(chunkSize));
+                }
+            }
+
+            for (int lane = 0; lane < lanes; lane++) {
+                if (!buffers.get(lane).isEmpty()) {
+                    submit(lane, buffers.get(lane), tails, inFlight, progress);
+                }
+            }
+        } finally {
+            CompletableFuture.allOf(tails.toArray(new CompletableFuture[0])).join();
+        }
+
+        ImportResult result = progress.toResult(System.currentTimeMillis() - started);
+        log.info("Imported {} of {} membership rows ({} failed) in {} ms",
+                result.getImported(), result.getTotalRows(), result.getFailed(), result.getDurationMillis());
+        return result;
+    }
+
+    private void submit(int lane, List<ImportRow> chunk, List<CompletableFuture<Void>> tails,
+                        Semaphore inFlight, ImportProgress progress) {
+        inFlight.acquireUninterruptibly();
+        tails.set(lane, tails.get(lane).thenRunAsync(() -> {
+            try {
+                loadChunk(chunk, progress);
+            } finally {
+                inFlight.release();
+            }
+        }, importExecutor));
+    }
+
+    private void loadChunk(List<ImportRow> chunk, ImportProgress progress) {
+        List<RowRejection> rejected = new ArrayList<>();
+        List<ImportRow> loaded;
+        try {
+            loaded = transactionTemplate.execute(status -> insertChunk(chunk, rejected));
+        } catch (RuntimeException e) {
+            log.warn("Import chunk of {} rows starting at line {} failed", chunk.size(), chunk.get(0).line(), e);
+            for (ImportRow row : chunk) {
+                progress.fail(row.line(), row.userId(), "Chunk rolled back: " + e.getMessage());
+            }
+            return;
+        }
+
+        for (RowRejection rejection : rejected) {
+            progress.fail(rejection.row().line(), rejection.row().userId(), rejection.message());
+        }
+        progress.imported.addAndGet(loaded.size());
+        membershipMetrics.recordTransactions(TransactionType.SUBSCRIPTION, loaded.size());
+
+        List<Long> userIds = loaded.stream().map(ImportRow::userId).distinct().toList();
+        membershipCacheService.evictAll(userIds);
+        entitlementService.invalidateAll(userIds);
+    }
+
+    private List<ImportRow> insertChunk(List<ImportRow> chunk, List<RowRejection> rejected) {
+        Set<Long> activeUsers = new HashSet<>(activeUsersAmong(chunk));
+        List<ImportRow> accepted = new ArrayList<>(chunk.size());
+        for (ImportRow row : chunk) {
+            if (row.status() == MembershipStatus.ACTIVE && !activeUsers.add(row.userId())) {
+                rejected.add(new RowRejection(row, "User " + row.userId() + " already has an active membership"));
+            } else {
+                accepted.add(row);
+            }
+        }
+        if (accepted.isEmpty()) {
+            return accepted;
+        }
+
+        List<Long> ids = jdbcTemplate.queryForList(ALLOCATE_IDS_SQL, Long.class, accepted.size());
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> memberships = new ArrayList<>(accepted.size());
+        List<Object[]> transactions = new ArrayList<>(accepted.size());
+        for (int i = 0; i < accepted.size(); i++) {
+            ImportRow row = accepted.get(i);
+            Long id = ids.get(i);
+            Timestamp startDate = Timestamp.valueOf(row.startDate());
+            memberships.add(new Object[] {
+                    id, row.userId(), row.planId(), row.tierId(), row.status().name(),
+                    startDate, Timestamp.valueOf(row.endDate()), row.autoRenew(), now, now });
+            transactions.add(new Object[] {
+                    id, TransactionType.SUBSCRIPTION.name(), row.amount(), row.planId(), row.tierId(),
+                    "Imported membership", startDate });
+        }
+        jdbcTemplate.batchUpdate(INSERT_MEMBERSHIP_SQL, memberships);
+        jdbcTemplate.batchUpdate(INSERT_TRANSACTION_SQL, transactions);
+        return accepted;
+    }
+
+    private List<Long> activeUsersAmong(List<ImportRow> chunk) {
+        Long[] userIds = chunk.stream()
+                .filter(row -> row.status() == MembershipStatus.ACTIVE)
+                .map(ImportRow::userId)
+                .distinct()
+                .toArray(Long[]::new);
+        if (userIds.length == 0) {
+            return List.of();
+        }
+        return jdbcTemplate.query(ACTIVE_USERS_SQL,
+                ps -> ps.setArray(1, ps.getConnection().createArrayOf("bigint", userIds)),
+                (rs, rowNum) -> rs.getLong(1));
+    }
+
+    private Catalog loadCatalog() {
+        Map<String, MembershipPlan> plans = new HashMap<>();
+        for (MembershipPlan plan : planRepository.findAll()) {
+            if (Boolean.TRUE.equals(plan.getActive())) {
+                plans.put(plan.getName().toLowerCase(Locale.ROOT), plan);
+            }
+        }
+        Map<String, Long> tiers = new HashMap<>();
+        for (MembershipTier tier : tierRepository.findAllByActiveOrderByLevelDesc(true)) {
+            tiers.put(tier.getName().toLowerCase(Locale.ROOT), tier.getId());
+        }
+        return new Catalog(plans, tiers);
+    }
+
+    private ImportRow parseNdjson(long line, String text, Catalog catalog) {
+        JsonNode node;
+        try {
+            node = objectMapper.readTree(text);
+        } catch (JsonProcessingException e) {
+            throw new IllegalArgumentException("Malformed JSON: " + e.getOriginalMessage());
+        }
+        if (!node.isObject()) {
+            throw new IllegalArgumentException("Expected a JSON object");
+        }
+        return toRow(line, field -> node.hasNonNull(field) ? node.get(field).asText() : null, catalog);
+    }
+
+    private ImportRow parseCsv(long line, String text, Map<String, Integer> columns, Catalog catalog) {
+        List<String> values = splitCsv(text);
+        return toRow(line, field -> {
+            Integer index = columns.get(field);
+            if (index == null || index >= values.size()) {
+                return null;
+            }
+            String value = values.get(index);
+            return value.isEmpty() ? null : value;
+        }, catalog);
+    }
+
+    private static ImportRow toRow(long line, Function<String, String> field, Catalog catalog) {
+        String userIdText = required(field, "userId");
+        long userId;
+        try {
+            userId = Long.parseLong(userIdText.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid userId: " + userIdText);
+        }
+
+        String planName = required(field, "plan");
+        MembershipPlan plan = catalog.plans().get(planName.trim().toLowerCase(Locale.ROOT));
+        if (plan == null) {
+            throw new IllegalArgumentException("Unknown or inactive plan: " + planName);
+        }
+        String tierName = required(field, "tier");
+        Long tierId = catalog.tiers().get(tierName.trim().toLowerCase(Locale.ROOT));
+        if (tierId == null) {
+            throw new IllegalArgumentException("Unknown or inactive tier: " + tierName);
+        }
+
+        String statusText = field.apply("status");
+        MembershipStatus status = statusText == null
+                ? MembershipStatus.ACTIVE
+                : MembershipStatus.valueOf(statusText.trim().toUpperCase(Locale.ROOT));
+
+        String startText = field.apply("startDate");
+        LocalDateTime startDate = startText == null ? LocalDateTime.now() : parseDateTime(startText);
+        String endText = field.apply("endDate");
+        PlanDuration duration = plan.getDuration();
+        LocalDateTime endDate = endText == null ? startDate.plusMonths(duration.getMonths()) : parseDateTime(endText);
+        if (!endDate.isAfter(startDate)) {
+            throw new IllegalArgumentException("endDate must be after startDate");
+        }
+
+        String autoRenewText = field.apply("autoRenew");
+        boolean autoRenew = autoRenewText == null || Boolean.parseBoolean(autoRenewText.trim());
+
+        String amountText = field.apply("amount");
+        BigDecimal amount;
+        try {
+            amount = amountText == null ? plan.getPrice() : new BigDecimal(amountText.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Invalid amount: " + amountText);
+        }
+        if (amount.signum() < 0) {
+            throw new IllegalArgumentException("amount must not be negative");
+        }
+
+        return new ImportRow(line, userId, plan.getId(), tierId, status, startDate, endDate, autoRenew, amount);
+    }
+
+    private static String required(Function<String, String> field, String name) {
+        String value = field.apply(name);
+        if (value == null || value.isBlank()) {
+            throw new IllegalArgumentException("Missing " + name);
+        }
+        return value;
+    }
+
+    private static LocalDateTime parseDateTime(String text) {
+        String value = text.trim();
+        return value.length() == 10 ? LocalDate.parse(value).atStartOfDay() : LocalDateTime.parse(value);
+    }
+
+    private static Map<String, Integer> csvHeader(String header) {
+        List<String> names = splitCsv(header.startsWith("\uFEFF") ? header.substring(1) : header);
+        Map<String, Integer> columns = new HashMap<>();
+        for (int i = 0; i < names.size(); i++) {
+            columns.put(names.get(i).trim(), i);
+        }
+        return columns;
+    }
+
+    /** Splits one RFC 4180 record; quoted fields may contain commas and doubled quotes but not line breaks. */
+    static List<String> splitCsv(String line) {
+        List<String> values = new ArrayList<>();
+        StringBuilder value = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c == '"' && i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    value.append('"');
+                    i++;
+                } else if (c == '"') {
+                    quoted = false;
+                } else {
+                    value.append(c);
+                }
+            } else if (c == '"') {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(value.toString());
+                value.setLength(0);
+            } else {
+                value.append(c);
+            }
+        }
+        values.add(value.toString());
+        return values;
+    }
+
+    private record Catalog(Map<String, MembershipPlan> plans, Map<String, Long> tiers) {
+    }
+
+    private record ImportRow(long line, long userId, Long planId, Long tierId, MembershipStatus status,
+                             LocalDateTime startDate, LocalDateTime endDate, boolean autoRenew, BigDecimal amount) {
+    }
+
+    private record RowRejection(ImportRow row, String message) {
+    }
+
+    /**
+     * Counters shared by the parsing thread and the chunk workers. Only the
+     * first maxErrors errors are kept.
+     */
+    private static final class ImportProgress {
+
+        private final AtomicLong total = new AtomicLong();
+        private final AtomicLong imported = new AtomicLong();
+        private final AtomicLong failed = new AtomicLong();
+        private final AtomicInteger reported = new AtomicInteger();
+        private final Queue<ImportRowError> errors = new ConcurrentLinkedQueue<>();
+        private final int maxErrors;
+
+        ImportProgress(int maxErrors) {
+            this.maxErrors = maxErrors;
+        }
+
+        void fail(long line, Long userId, String message) {
+            failed.incrementAndGet();
+            if (reported.incrementAndGet() <= maxErrors) {
+                errors.add(ImportRowError.builder().line(line).userId(userId).message(message).build());
+            }
+        }
+
+        ImportResult toResult(long durationMillis) {
+            List<ImportRowError> sorted = new ArrayList<>(errors);
+            sorted.sort((a, b) -> Long.compare(a.getLine(), b.getLine()));
+            return ImportResult.builder()
+                .totalRows(total.get())
+                .imported(imported.get())
+                .failed(failed.get())
+                .durationMillis(durationMillis)
+                .errors(sorted)
+                .errorsTruncated(failed.get() > sorted.size())
+                .build();
+        }
+    }
+}
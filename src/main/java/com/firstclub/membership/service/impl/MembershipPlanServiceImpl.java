@@ -7,6 +7,7 @@ import com.firstclub.membership.exception.PlanNotFoundException;
 import com.firstclub.membership.mapper.PlanMapper;
 import com.firstclub.membership.model.entity.MembershipPlan;
 import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.service.CatalogVersionService;
 import com.firstclub.membership.service.MembershipPlanService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -27,6 +28,7 @@ public class MembershipPlanServiceImpl implements MembershipPlanService {
 
     private final MembershipPlanRepository planRepository;
     private final PlanMapper planMapper;
+    private final CatalogVersionService catalogVersionService;
 
     @Override
     @Transactional(readOnly = true)
@@ -58,6 +60,7 @@ public class MembershipPlanServiceImpl implements MembershipPlanService {
         MembershipPlan plan = planMapper.toMembershipPlan(request);
         plan = planRepository.save(plan);
         
+        catalogVersionService.bump();
         log.info("Successfully created membership plan with ID: {}", plan.getId());
         return planMapper.toPlanResponse(plan);
     }
@@ -80,6 +83,7 @@ public class MembershipPlanServiceImpl implements MembershipPlanService {
         plan = planMapper.updateMembershipPlan(plan, request);
         plan = planRepository.save(plan);
         
+        catalogVersionService.bump();
         log.info("Successfully updated membership plan with ID: {}", planId);
         return planMapper.toPlanResponse(plan);
     }
@@ -94,6 +98,7 @@ public class MembershipPlanServiceImpl implements MembershipPlanService {
         plan.setActive(false);
         planRepository.save(plan);
         
+        catalogVersionService.bump();
         log.info("Successfully deactivated membership plan with ID: {}", planId);
     }
 
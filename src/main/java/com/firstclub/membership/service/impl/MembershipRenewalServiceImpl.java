@@ -0,0 +1,270 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.config.MembershipMetrics;
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.dto.response.RenewalSummary;
+import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.model.enums.TransactionType;
+import com.firstclub.membership.model.projection.RenewalCandidate;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.service.MembershipCacheService;
+import com.firstclub.membership.service.MembershipRenewalService;
+import com.firstclub.membership.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of MembershipRenewalService.
+ * Each page of candidates is reserved with version-checked updates, charged
+ * through the batch payment API outside of any transaction, and then extended
+ * with JDBC batch statements in a single short transaction. The reservation
+ * (reserved_by/reserved_until, as used by optimistic membership changes) keeps
+ * user changes off a membership while its renewal charge is in flight.
+ */
+@Service
+@Slf4j
+public class MembershipRenewalServiceImpl implements MembershipRenewalService {
+
+    private static final String RESERVE_SQL = "UPDATE user_memberships "
+            + "SET reserved_by = ?, reserved_until = ?, version = version + 1, updated_at = ? "
+            + "WHERE id = ? AND version = ? AND status = 'ACTIVE' AND auto_renew = true "
+            + "AND (reserved_until IS NULL OR reserved_until < ?)";
+
+    private static final String EXTEND_SQL = "UPDATE user_memberships "
+            + "SET end_date = ?, reserved_by = NULL, reserved_until = NULL, version = version + 1, updated_at = ? "
+            + "WHERE id = ? AND reserved_by = ? AND status = 'ACTIVE' AND auto_renew = true";
+
+    private static final String RELEASE_SQL = "UPDATE user_memberships "
+            + "SET reserved_by = NULL, reserved_until = NULL, version = version + 1, updated_at = ? "
+            + "WHERE id = ? AND reserved_by = ?";
+
+    private static final String INSERT_RENEWAL_SQL = "INSERT INTO membership_transactions "
+            + "(membership_id, type, amount, old_plan_id, new_plan_id, old_tier_id, new_tier_id, notes, transaction_date) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserMembershipRepository membershipRepository;
+    private final PaymentService paymentService;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final MembershipCacheService membershipCacheService;
+    private final MembershipMetrics membershipMetrics;
+
+    private final AtomicBoolean running = new AtomicBoolean(false);
+
+    @Value("${app.renewal.enabled:true}")
+    private boolean renewalEnabled;
+
+    @Value("${app.renewal.window-hours:24}")
+    private int windowHours;
+
+    @Value("${app.renewal.batch-size:500}")
+    private int batchSize;
+
+    @Value("${app.renewal.reservation-timeout:10m}")
+    private Duration reservationTimeout;
+
+    public MembershipRenewalServiceImpl(UserMembershipRepository membershipRepository,
+                                        PaymentService paymentService,
+                                        JdbcTemplate jdbcTemplate,
+                                        TransactionTemplate transactionTemplate,
+                                        MembershipCacheService membershipCacheService,
+                                        MembershipMetrics membershipMetrics) {
+        this.membershipRepository = membershipRepository;
+        this.paymentService = paymentService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = transactionTemplate;
+        this.membershipCacheService = membershipCacheService;
+        this.membershipMetrics = membershipMetrics;
+    }
+
+    @Scheduled(cron = "${app.renewal.cron:0 0 1 * * ?}")
+    public void scheduledRenewal() {
+        if (!renewalEnabled) {
+            return;
+        }
+        renewDueMemberships();
+    }
+
+    @Override
+    public RenewalSummary renewDueMemberships() {
+        if (!running.compareAndSet(false, true)) {
+            log.warn("Membership renewal is already running; skipping this trigger");
+            return RenewalSummary.builder().build();
+        }
+
+        long started = System.currentTimeMillis();
+        RenewalSummary summary = RenewalSummary.builder().build();
+        try {
+            LocalDateTime now = LocalDateTime.now();
+            LocalDateTime until = now.plusHours(windowHours);
+            // Memberships that already ended belong to the expiry sweeper, not to renewal
+            LocalDateTime lastEndDate = now;
+            long lastId = 0L;
+
+            log.info("Starting membership renewal for memberships ending between {} and {}", lastEndDate, until);
+            while (true) {
+                List<RenewalCandidate> page = membershipRepository.findRenewalCandidates(
+                        MembershipStatus.ACTIVE, until, lastEndDate, lastId, PageRequest.of(0, batchSize));
+                if (page.isEmpty()) {
+                    break;
+                }
+
+                renewBatch(page, summary);
+
+                RenewalCandidate last = page.get(page.size() - 1);
+                lastEndDate = last.endDate();
+                lastId = last.membershipId();
+            }
+        } finally {
+            summary.setDurationMillis(System.currentTimeMillis() - started);
+            running.set(false);
+        }
+
+        log.info("Completed membership renewal: {}", summary);
+        return summary;
+    }
+
+    private void renewBatch(List<RenewalCandidate> batch, RenewalSummary summary) {
+        summary.setCandidates(summary.getCandidates() + batch.size());
+
+        // Reserve before charging; a membership changed since it was read is skipped uncharged
+        List<RenewalCandidate> reserved = transactionTemplate.execute(status -> reserveRenewals(batch));
+        summary.setConflicts(summary.getConflicts() + (batch.size() - reserved.size()));
+        if (reserved.isEmpty()) {
+            return;
+        }
+
+        // Charge the whole page in gateway batches, outside of any database transaction
+        List<PaymentCharge> charges = new ArrayList<>(reserved.size());
+        for (RenewalCandidate candidate : reserved) {
+            charges.add(new PaymentCharge(candidate.userId(), candidate.price(), paymentReference(candidate)));
+        }
+        List<PaymentResult> payments = paymentService.processPayments(charges);
+
+        List<RenewalCandidate> paid = new ArrayList<>(reserved.size());
+        List<PaymentResult> paidResults = new ArrayList<>(reserved.size());
+        List<RenewalCandidate> unpaid = new ArrayList<>();
+        for (int i = 0; i < reserved.size(); i++) {
+            PaymentResult result = payments.get(i);
+            if (result.isSuccess()) {
+                paid.add(reserved.get(i));
+                paidResults.add(result);
+            } else {
+                unpaid.add(reserved.get(i));
+                summary.setPaymentFailures(summary.getPaymentFailures() + 1);
+                log.warn("Renewal payment failed for user {}: {}", reserved.get(i).userId(), result.getMessage());
+            }
+        }
+
+        if (!unpaid.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> releaseRenewals(unpaid));
+        }
+        if (paid.isEmpty()) {
+            return;
+        }
+
+        List<RenewalCandidate> renewed = transactionTemplate.execute(status -> persistRenewals(paid, paidResults));
+        summary.setRenewed(summary.getRenewed() + renewed.size());
+        summary.setConflicts(summary.getConflicts() + (paid.size() - renewed.size()));
+        membershipMetrics.recordTransactions(TransactionType.RENEWAL, renewed.size());
+
+        membershipCacheService.evictAll(renewed.stream().map(RenewalCandidate::userId).toList());
+    }
+
+    /**
+     * One reference per membership and renewal period, so a rerun or retry of
+     * the job is de-duplicated by the gateway instead of charging again.
+     */
+    static String paymentReference(RenewalCandidate candidate) {
+        return "renewal-" + candidate.membershipId() + "-" + candidate.endDate();
+    }
+
+    /**
+     * @return the candidates reserved, i.e. unchanged since they were read and not reserved by another change
+     */
+    private List<RenewalCandidate> reserveRenewals(List<RenewalCandidate> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        Timestamp nowTimestamp = Timestamp.valueOf(now);
+        Timestamp reservedUntil = Timestamp.valueOf(now.plus(reservationTimeout));
+
+        List<Object[]> reserveArgs = new ArrayList<>(batch.size());
+        for (RenewalCandidate candidate : batch) {
+            reserveArgs.add(new Object[] {
+                    paymentReference(candidate), reservedUntil, nowTimestamp,
+                    candidate.membershipId(), candidate.version(), nowTimestamp });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(RESERVE_SQL, reserveArgs);
+
+        List<RenewalCandidate> reserved = new ArrayList<>(batch.size());
+        for (int i = 0; i < batch.size(); i++) {
+            if (updated[i] != 0) {
+                reserved.add(batch.get(i));
+            } else {
+                log.debug("Membership {} changed before its renewal was charged; skipped", batch.get(i).membershipId());
+            }
+        }
+        return reserved;
+    }
+
+    private void releaseRenewals(List<RenewalCandidate> unpaid) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        List<Object[]> releaseArgs = new ArrayList<>(unpaid.size());
+        for (RenewalCandidate candidate : unpaid) {
+            releaseArgs.add(new Object[] { now, candidate.membershipId(), paymentReference(candidate) });
+        }
+        jdbcTemplate.batchUpdate(RELEASE_SQL, releaseArgs);
+    }
+
+    private List<RenewalCandidate> persistRenewals(List<RenewalCandidate> paid, List<PaymentResult> results) {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+
+        List<Object[]> extendArgs = new ArrayList<>(paid.size());
+        for (RenewalCandidate candidate : paid) {
+            LocalDateTime newEndDate = candidate.endDate().plusMonths(candidate.duration().getMonths());
+            extendArgs.add(new Object[] {
+                    Timestamp.valueOf(newEndDate), now, candidate.membershipId(), paymentReference(candidate) });
+        }
+        int[] updated = jdbcTemplate.batchUpdate(EXTEND_SQL, extendArgs);
+
+        List<RenewalCandidate> renewed = new ArrayList<>(paid.size());
+        List<Object[]> transactionArgs = new ArrayList<>(paid.size());
+        for (int i = 0; i < paid.size(); i++) {
+            RenewalCandidate candidate = paid.get(i);
+            if (updated[i] == 0) {
+                // The reservation was lost (lapsed or overridden); the charge must be reconciled
+                log.error("Renewal conflict for membership {} (user {}); payment {} was taken but not applied",
+                        candidate.membershipId(), candidate.userId(), results.get(i).getTransactionId());
+                continue;
+            }
+            renewed.add(candidate);
+            transactionArgs.add(new Object[] {
+                    candidate.membershipId(),
+                    TransactionType.RENEWAL.name(),
+                    candidate.price(),
+                    candidate.planId(),
+                    candidate.planId(),
+                    candidate.tierId(),
+                    candidate.tierId(),
+                    "Automatic renewal - payment " + results.get(i).getTransactionId(),
+                    now });
+        }
+
+        if (!transactionArgs.isEmpty()) {
+            jdbcTemplate.batchUpdate(INSERT_RENEWAL_SQL, transactionArgs);
+        }
+        return renewed;
+    }
+}
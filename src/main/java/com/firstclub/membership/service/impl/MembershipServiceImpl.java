@@ -1,5 +1,9 @@
 package com.firstclub.membership.service.impl;
 
+import com.firstclub.membership.config.MembershipFlightRecorder;
+import com.firstclub.membership.config.MembershipFlightRecorder.OperationTimings;
+import com.firstclub.membership.config.MembershipMetrics;
+import com.firstclub.membership.dto.event.PaymentRequestedEvent;
 import com.firstclub.membership.dto.request.SubscriptionRequest;
 import com.firstclub.membership.dto.response.BenefitResponse;
 import com.firstclub.membership.dto.response.MembershipResponse;
@@ -8,38 +12,60 @@ import com.firstclub.membership.dto.response.TransactionResponse;
 import com.firstclub.membership.exception.*;
 import com.firstclub.membership.mapper.MembershipMapper;
 import com.firstclub.membership.model.entity.*;
+import com.firstclub.membership.model.enums.MembershipEventType;
 import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.model.enums.PaymentConfirmationStatus;
 import com.firstclub.membership.model.enums.PlanDuration;
 import com.firstclub.membership.model.enums.TransactionType;
 import com.firstclub.membership.repository.UserMembershipRepository;
 import com.firstclub.membership.repository.MembershipTransactionRepository;
+import com.firstclub.membership.repository.PaymentConfirmationRepository;
+import com.firstclub.membership.service.EntitlementService;
+import com.firstclub.membership.service.MembershipCacheService;
 import com.firstclub.membership.service.MembershipService;
 import com.firstclub.membership.service.MembershipPlanService;
 import com.firstclub.membership.service.MembershipTierService;
+import com.firstclub.membership.service.OutboxService;
 import com.firstclub.membership.service.PaymentService;
+import com.firstclub.membership.service.TransactionPartitionService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-// import org.springframework.context.ApplicationEventPublisher;
-// import com.firstclub.membership.service.TierEvaluationService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
 import org.springframework.retry.annotation.Retryable;
 import org.springframework.retry.annotation.Backoff;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.cache.annotation.CacheEvict;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Page;
+import org.springframework.dao.ConcurrencyFailureException;
 import org.springframework.orm.ObjectOptimisticLockingFailureException;
 
 import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
 import java.time.LocalDateTime;
 import java.time.Duration;
+import java.time.YearMonth;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ThreadLocalRandom;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Supplier;
 
 @Service
 @RequiredArgsConstructor
@@ -50,10 +76,32 @@ public class MembershipServiceImpl implements MembershipService {
     private final MembershipPlanService planService;
     private final MembershipTierService tierService;
     private final MembershipTransactionRepository transactionRepository;
-    // private final ApplicationEventPublisher eventPublisher;
-    // private final TierEvaluationService tierEvaluationService;
+    private final OutboxService outboxService;
     private final PaymentService paymentService;
     private final MembershipMapper membershipMapper;
+    private final TransactionPartitionService transactionPartitionService;
+    private final MembershipCacheService membershipCacheService;
+    private final EntitlementService entitlementService;
+    private final MembershipMetrics membershipMetrics;
+    private final MembershipFlightRecorder flightRecorder;
+    private final PaymentConfirmationRepository paymentConfirmationRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.payment.async.enabled:false}")
+    private boolean asyncPayments;
+
+    @Value("${app.membership.optimistic.enabled:false}")
+    private boolean optimisticMutations;
+
+    @Value("${app.membership.optimistic.max-attempts:5}")
+    private int optimisticMaxAttempts;
+
+    @Value("${app.membership.optimistic.backoff:20ms}")
+    private Duration optimisticBackoff;
+
+    @Value("${app.membership.optimistic.reservation-timeout:30s}")
+    private Duration reservationTimeout;
 
     // User-level locks to prevent concurrent membership operations
     private final ConcurrentHashMap<Long, ReentrantLock> userLocks = new ConcurrentHashMap<>();
@@ -61,10 +109,10 @@ public class MembershipServiceImpl implements MembershipService {
     @Transactional
     @Retryable(value = {
             ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
-    public MembershipResponse subscribeToPlan(SubscriptionRequest request) {
+    public MembershipResponse subscribeToPlan(SubscriptionRequest request, String idempotencyKey) {
         Long userId = request.getUserId();
         Lock lock = getUserLock(userId);
-        lock.lock();
+        lockTimed(lock);
 
         try {
             // Check for existing active membership
@@ -77,10 +125,6 @@ public class MembershipServiceImpl implements MembershipService {
 
             MembershipTier tier = tierService.getTierEntityById(request.getTierId());
 
-            // Process payment asynchronously
-            CompletableFuture<PaymentResult> paymentFuture = CompletableFuture
-                    .supplyAsync(() -> paymentService.processPayment(userId, plan.getPrice()));
-
             // Create membership
             UserMembership membership = UserMembership.builder()
                     .userId(userId)
@@ -92,27 +136,25 @@ public class MembershipServiceImpl implements MembershipService {
                     .autoRenew(request.getAutoRenew())
                     .build();
 
+            String paymentReference = paymentReference(idempotencyKey, TransactionType.SUBSCRIPTION, userId,
+                    plan.getId(), tier.getId());
+            if (asyncPayments) {
+                return subscribePendingPayment(membership, plan, tier, paymentReference);
+            }
+
+            // Process payment asynchronously
+            OperationTimings timings = flightRecorder.current();
+            CompletableFuture<PaymentResult> paymentFuture = CompletableFuture
+                    .supplyAsync(() -> timedPayment(timings,
+                            () -> paymentService.processPayment(userId, plan.getPrice(), paymentReference)));
+
             membership = membershipRepository.save(membership);
 
             // MOCK: Wait for payment result
             PaymentResult paymentResult = paymentFuture.join();
 
             if (paymentResult.isSuccess()) {
-                membership.setStatus(MembershipStatus.ACTIVE);
-
-                // Record transaction
-                MembershipTransaction transaction = MembershipTransaction.builder()
-                        .membership(membership)
-                        .type(TransactionType.SUBSCRIPTION)
-                        .amount(plan.getPrice())
-                        .newPlan(plan)
-                        .newTier(tier)
-                        .build();
-
-                transactionRepository.save(transaction);
-
-                // Publish event
-                // eventPublisher.publishEvent(new MembershipCreatedEvent(membership));
+                activateSubscription(membership, plan, tier, null);
 
                 log.info("Membership created successfully for user: {}", userId);
             } else {
@@ -127,14 +169,45 @@ public class MembershipServiceImpl implements MembershipService {
         }
     }
 
-    @Transactional(isolation = Isolation.REPEATABLE_READ)
-    public MembershipResponse upgradeMembership(Long userId, Long newPlanId, Long newTierId) {
+    @Override
+    public MembershipResponse upgradeMembership(Long userId, Long newPlanId, Long newTierId, String idempotencyKey) {
+        String paymentReference = paymentReference(idempotencyKey, TransactionType.UPGRADE, userId,
+                newPlanId, newTierId);
+        if (optimisticMutations) {
+            return upgradeOptimistically(userId, newPlanId, newTierId, paymentReference);
+        }
+        return inTransaction(Isolation.REPEATABLE_READ,
+                () -> upgradeLocked(userId, newPlanId, newTierId, paymentReference));
+    }
+
+    @Override
+    public MembershipResponse downgradeMembership(Long userId, Long newPlanId, Long newTierId) {
+        log.info("Downgrading membership for user: {}", userId);
+        if (optimisticMutations) {
+            return withConflictRetry(TransactionType.DOWNGRADE,
+                    () -> transactionTemplate.execute(status -> tryDowngrade(userId, newPlanId, newTierId)));
+        }
+        return inTransaction(Isolation.DEFAULT, () -> downgradeLocked(userId, newPlanId, newTierId));
+    }
+
+    @Override
+    public MembershipResponse cancelMembership(Long userId) {
+        if (optimisticMutations) {
+            return withConflictRetry(TransactionType.CANCELLATION,
+                    () -> transactionTemplate.execute(status -> tryCancel(userId)));
+        }
+        return inTransaction(Isolation.DEFAULT, () -> cancelLocked(userId));
+    }
+
+    private MembershipResponse upgradeLocked(Long userId, Long newPlanId, Long newTierId,
+            String paymentReference) {
         Lock lock = getUserLock(userId);
-        lock.lock();
+        lockTimed(lock);
 
         try {
             UserMembership membership = membershipRepository.findActiveByUserId(userId)
                     .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+            requireUnreserved(membership, LocalDateTime.now());
 
             MembershipPlan newPlan = planService.getPlanEntityById(newPlanId);
 
@@ -149,32 +222,22 @@ public class MembershipServiceImpl implements MembershipService {
             BigDecimal proratedAmount = calculateProratedAmount(
                     membership, newPlan, newTier);
 
+            if (asyncPayments) {
+                if (paymentConfirmationRepository.existsByUserIdAndStatus(userId, PaymentConfirmationStatus.PENDING)) {
+                    throw new InvalidOperationException("Another membership change is awaiting payment confirmation");
+                }
+                requestPayment(membership, TransactionType.UPGRADE, proratedAmount, newPlan, newTier,
+                        paymentReference);
+                log.info("Upgrade for user {} awaiting confirmation of payment {}", userId, paymentReference);
+                return pendingResponse(membership, paymentReference);
+            }
+
             // Process payment
-            PaymentResult paymentResult = paymentService.processPayment(userId, proratedAmount);
+            PaymentResult paymentResult = timedPayment(flightRecorder.current(),
+                    () -> paymentService.processPayment(userId, proratedAmount, paymentReference));
 
             if (paymentResult.isSuccess()) {
-                // Record transaction
-                MembershipTransaction transaction = MembershipTransaction.builder()
-                        .membership(membership)
-                        .type(TransactionType.UPGRADE)
-                        .amount(proratedAmount)
-                        .oldPlan(membership.getPlan())
-                        .newPlan(newPlan)
-                        .oldTier(membership.getTier())
-                        .newTier(newTier)
-                        .build();
-
-                transactionRepository.save(transaction);
-
-                // Update membership
-                membership.setPlan(newPlan);
-                membership.setTier(newTier);
-                membership.setEndDate(calculateEndDate(membership.getStartDate(), newPlan.getDuration()));
-
-                membership = membershipRepository.save(membership);
-
-                // Publish event
-                // eventPublisher.publishEvent(new MembershipUpgradedEvent(membership));
+                membership = applyUpgrade(membership, newPlan, newTier, proratedAmount, null);
 
                 log.info("Membership upgraded for user: {}", userId);
 
@@ -188,15 +251,14 @@ public class MembershipServiceImpl implements MembershipService {
         }
     }
 
-    @Override
-    public MembershipResponse downgradeMembership(Long userId, Long newPlanId, Long newTierId) {
-        log.info("Downgrading membership for user: {}", userId);
+    private MembershipResponse downgradeLocked(Long userId, Long newPlanId, Long newTierId) {
         Lock lock = getUserLock(userId);
-        lock.lock();
+        lockTimed(lock);
 
         try {
             UserMembership membership = membershipRepository.findActiveByUserId(userId)
                     .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+            requireUnreserved(membership, LocalDateTime.now());
 
             MembershipPlan newPlan = planService.getPlanEntityById(newPlanId);
 
@@ -225,6 +287,11 @@ public class MembershipServiceImpl implements MembershipService {
 
             transactionRepository.save(transaction);
 
+            membershipMetrics.recordTransaction(transaction.getType());
+
+            MembershipPlan oldPlan = membership.getPlan();
+            MembershipTier oldTier = membership.getTier();
+
             // Update membership with new plan/tier and extended end date
             membership.setPlan(newPlan);
             membership.setTier(newTier);
@@ -232,6 +299,10 @@ public class MembershipServiceImpl implements MembershipService {
 
             membership = membershipRepository.save(membership);
 
+            // Publish event
+            outboxService.record(MembershipEventType.MEMBERSHIP_DOWNGRADED, membership, oldPlan, oldTier);
+            invalidateMembership(userId);
+
             log.info("Membership downgraded for user: {} - new plan effective from {}", userId, currentEndDate);
 
             return membershipMapper.toMembershipResponse(membership);
@@ -241,14 +312,14 @@ public class MembershipServiceImpl implements MembershipService {
         }
     }
 
-    @Transactional
-    public MembershipResponse cancelMembership(Long userId) {
+    private MembershipResponse cancelLocked(Long userId) {
         Lock lock = getUserLock(userId);
-        lock.lock();
+        lockTimed(lock);
 
         try {
             UserMembership membership = membershipRepository.findActiveByUserId(userId)
                     .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+            requireUnreserved(membership, LocalDateTime.now());
 
             membership.setStatus(MembershipStatus.CANCELLED);
             membership.setAutoRenew(false);
@@ -264,10 +335,13 @@ public class MembershipServiceImpl implements MembershipService {
                     .build();
 
             transactionRepository.save(transaction);
+
+            membershipMetrics.recordTransaction(transaction.getType());
             membership = membershipRepository.save(membership);
 
             // Publish event
-            // eventPublisher.publishEvent(new MembershipCancelledEvent(membership));
+            outboxService.record(MembershipEventType.MEMBERSHIP_CANCELLED, membership, null, null);
+            invalidateMembership(userId);
 
             log.info("Membership cancelled for user: {}", userId);
 
@@ -278,6 +352,29 @@ public class MembershipServiceImpl implements MembershipService {
         }
     }
 
+    @Override
+    @Transactional
+    @Retryable(value = {
+            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
+    public boolean confirmPayment(String paymentReference, PaymentResult result) {
+        if (result.isOutcomeUnknown()) {
+            return false;
+        }
+        PaymentConfirmationStatus outcome = result.isSuccess()
+                ? PaymentConfirmationStatus.CONFIRMED
+                : PaymentConfirmationStatus.FAILED;
+        return finalisePayment(paymentReference, outcome, result);
+    }
+
+    @Override
+    @Transactional
+    @Retryable(value = {
+            ObjectOptimisticLockingFailureException.class }, maxAttempts = 3, backoff = @Backoff(delay = 100))
+    public boolean expirePendingPayment(String paymentReference) {
+        return finalisePayment(paymentReference, PaymentConfirmationStatus.TIMED_OUT,
+                PaymentResult.failure("Payment not confirmed in time"));
+    }
+
     @Cacheable(value = "membership", key = "#userId")
     public MembershipResponse getCurrentMembership(Long userId) {
         return membershipRepository.findActiveByUserId(userId)
@@ -285,6 +382,37 @@ public class MembershipServiceImpl implements MembershipService {
                 .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
     }
 
+    @Override
+    @Transactional(readOnly = true)
+    public Map<Long, MembershipResponse> getCurrentMemberships(Collection<Long> userIds) {
+        Set<Long> requested = new LinkedHashSet<>(userIds);
+        Map<Long, MembershipResponse> found = new HashMap<>(membershipCacheService.getAll(requested));
+
+        Set<Long> misses = new LinkedHashSet<>(requested);
+        misses.removeAll(found.keySet());
+        if (!misses.isEmpty()) {
+            Map<Long, MembershipResponse> loaded = new HashMap<>();
+            for (UserMembership membership : membershipRepository.findActiveByUserIdIn(misses)) {
+                loaded.put(membership.getUserId(), toMembershipResponse(membership));
+            }
+            membershipCacheService.putAll(loaded);
+            found.putAll(loaded);
+        }
+
+        log.debug("Resolved {} of {} memberships ({} from cache)",
+                found.size(), requested.size(), requested.size() - misses.size());
+
+        // Preserve the caller's order; users without an active membership are omitted
+        Map<Long, MembershipResponse> result = new LinkedHashMap<>();
+        for (Long userId : requested) {
+            MembershipResponse response = found.get(userId);
+            if (response != null) {
+                result.put(userId, response);
+            }
+        }
+        return result;
+    }
+
     @CacheEvict(value = "membership", key = "#userId")
     @Transactional
     public void evaluateAndUpdateTier(Long userId) {
@@ -296,32 +424,6 @@ public class MembershipServiceImpl implements MembershipService {
         }
 
         MembershipTier currentTier = membership.getTier();
-        // MembershipTier newTier = tierEvaluationService.evaluateTier(userId,
-        // membership);
-
-        // if (!currentTier.getId().equals(newTier.getId())) {
-        // // Record tier change
-        // MembershipTransaction transaction = MembershipTransaction.builder()
-        // .membership(membership)
-        // .type(TransactionType.TIER_CHANGE)
-        // .amount(BigDecimal.ZERO)
-        // .oldTier(currentTier)
-        // .newTier(newTier)
-        // .notes("Automatic tier evaluation")
-        // .build();
-
-        // transactionRepository.save(transaction);
-
-        // membership.setTier(newTier);
-        // membershipRepository.save(membership);
-
-        // // Publish event
-        // eventPublisher.publishEvent(new TierChangedEvent(membership, currentTier,
-        // newTier));
-
-        // log.info("Tier updated for user {} from {} to {}",
-        // userId, currentTier.getName(), newTier.getName());
-        // }
 
         log.info("Tier will be automatically updated for userID: {} from {} to suitable tier after some time",
                 userId, currentTier.getName());
@@ -348,10 +450,538 @@ public class MembershipServiceImpl implements MembershipService {
         return membershipMapper.toTransactionResponseList(transactionPage.getContent());
     }
 
+    @Override
+    public List<TransactionResponse> getArchivedTransactionHistory(Long userId, YearMonth from, YearMonth to) {
+        log.debug("Retrieving archived transaction history for user: {} from {} to {}", userId, from, to);
+        List<Long> membershipIds = membershipRepository.findIdsByUserId(userId);
+        if (membershipIds.isEmpty()) {
+            throw new MembershipNotFoundException("No membership found for user: " + userId);
+        }
+        return transactionPartitionService.readArchivedTransactions(membershipIds, from, to);
+    }
+
+    /**
+     * Upgrade without the user lock. The membership is first reserved with a
+     * version-checked UPDATE, so the prorated price stays based on what is
+     * upgraded and no other change can slip in while the charge runs outside
+     * any transaction. The upgrade is then applied, or the reservation
+     * released, only while the reservation is still ours. With asynchronous
+     * payments the charge is requested instead, as for locked upgrades.
+     */
+    private MembershipResponse upgradeOptimistically(Long userId, Long newPlanId, Long newTierId,
+            String paymentReference) {
+        if (asyncPayments) {
+            return withConflictRetry(TransactionType.UPGRADE, () -> transactionTemplate.execute(
+                    status -> requestReservedUpgradePayment(userId, newPlanId, newTierId, paymentReference)));
+        }
+
+        UpgradeReservation reservation = withConflictRetry(TransactionType.UPGRADE,
+                () -> transactionTemplate.execute(
+                        status -> reserveUpgrade(userId, newPlanId, newTierId, paymentReference)));
+
+        boolean applied = false;
+        try {
+            PaymentResult paymentResult = timedPayment(flightRecorder.current(),
+                    () -> paymentService.processPayment(userId, reservation.amount(), paymentReference));
+            if (!paymentResult.isSuccess()) {
+                throw new PaymentFailedException("Upgrade payment failed");
+            }
+
+            MembershipResponse response = transactionTemplate.execute(
+                    status -> applyReservedUpgrade(userId, reservation, paymentReference, paymentResult));
+            applied = true;
+            return response;
+        } finally {
+            if (!applied) {
+                releaseReservation(reservation, paymentReference);
+            }
+        }
+    }
+
+    /**
+     * @return the pending membership, or null if it changed since it was read
+     */
+    private MembershipResponse requestReservedUpgradePayment(Long userId, Long newPlanId, Long newTierId,
+            String paymentReference) {
+        if (paymentConfirmationRepository.existsByUserIdAndStatus(userId, PaymentConfirmationStatus.PENDING)) {
+            throw new InvalidOperationException("Another membership change is awaiting payment confirmation");
+        }
+        UpgradeReservation reservation = reserveUpgrade(userId, newPlanId, newTierId, paymentReference);
+        if (reservation == null) {
+            return null;
+        }
+        // The reservation only orders this request against concurrent ones;
+        // from here on the pending payment holds off further upgrades
+        membershipRepository.releaseReservation(reservation.membershipId(), paymentReference, LocalDateTime.now());
+
+        UserMembership membership = membershipRepository.findById(reservation.membershipId())
+                .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+        requestPayment(membership, TransactionType.UPGRADE, reservation.amount(), reservation.newPlan(),
+                reservation.newTier(), paymentReference);
+        log.info("Upgrade for user {} awaiting confirmation of payment {}", userId, paymentReference);
+        return pendingResponse(membership, paymentReference);
+    }
+
+    private void releaseReservation(UpgradeReservation reservation, String paymentReference) {
+        transactionTemplate.executeWithoutResult(status -> membershipRepository.releaseReservation(
+                reservation.membershipId(), paymentReference, LocalDateTime.now()));
+    }
+
+    /**
+     * @return the reservation, or null if the membership changed since it was read
+     */
+    private UpgradeReservation reserveUpgrade(Long userId, Long newPlanId, Long newTierId, String paymentReference) {
+        UserMembership membership = membershipRepository.findActiveByUserId(userId)
+                .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+
+        MembershipPlan newPlan = planService.getPlanEntityById(newPlanId);
+
+        MembershipTier newTier = tierService.getTierEntityById(newTierId);
+
+        // Validate upgrade (tier level should be higher)
+        if (newTier.getLevel() <= membership.getTier().getLevel()) {
+            throw new InvalidOperationException("Can only upgrade to a higher tier");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        requireUnreserved(membership, now);
+
+        BigDecimal proratedAmount = calculateProratedAmount(membership, newPlan, newTier);
+
+        UpgradeReservation reservation = new UpgradeReservation(membership.getId(), membership.getVersion() + 1,
+                membership.getPlan(), membership.getTier(), newPlan, newTier, membership.getStartDate(),
+                proratedAmount);
+        if (membershipRepository.reserve(membership.getId(), membership.getVersion(), paymentReference,
+                now.plus(reservationTimeout), now) == 0) {
+            return null;
+        }
+        return reservation;
+    }
+
+    private MembershipResponse applyReservedUpgrade(Long userId, UpgradeReservation reservation,
+            String paymentReference, PaymentResult paymentResult) {
+        MembershipPlan newPlan = reservation.newPlan();
+        LocalDateTime endDate = calculateEndDate(reservation.startDate(), newPlan.getDuration());
+        if (membershipRepository.applyReserved(reservation.membershipId(), reservation.reservedVersion(),
+                paymentReference, newPlan, reservation.newTier(), endDate, LocalDateTime.now()) == 0) {
+            // The membership was written while the charge ran; the charge must be reconciled
+            log.error("Upgrade payment {} (transaction {}) for user {} was taken but the reservation of membership {} "
+                    + "was lost; it must be refunded", paymentReference, paymentResult.getTransactionId(),
+                    userId, reservation.membershipId());
+            throw new ConcurrentMembershipChangeException("Membership changed while the upgrade was being paid");
+        }
+
+        UserMembership membership = membershipRepository.findById(reservation.membershipId())
+                .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+
+        // Record transaction
+        MembershipTransaction transaction = MembershipTransaction.builder()
+                .membership(membership)
+                .type(TransactionType.UPGRADE)
+                .amount(reservation.amount())
+                .oldPlan(reservation.oldPlan())
+                .newPlan(newPlan)
+                .oldTier(reservation.oldTier())
+                .newTier(reservation.newTier())
+                .notes("Payment " + paymentResult.getTransactionId())
+                .build();
+
+        transactionRepository.save(transaction);
+
+        membershipMetrics.recordTransaction(transaction.getType());
+
+        // Publish event
+        outboxService.record(MembershipEventType.MEMBERSHIP_UPGRADED, membership,
+                reservation.oldPlan(), reservation.oldTier());
+        invalidateMembership(userId);
+
+        log.info("Membership upgraded for user: {}", userId);
+
+        return membershipMapper.toMembershipResponse(membership);
+    }
+
+    /**
+     * @return the downgraded membership, or null if it changed since it was read
+     */
+    private MembershipResponse tryDowngrade(Long userId, Long newPlanId, Long newTierId) {
+        UserMembership membership = membershipRepository.findActiveByUserId(userId)
+                .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+
+        MembershipPlan newPlan = planService.getPlanEntityById(newPlanId);
+
+        MembershipTier newTier = tierService.getTierEntityById(newTierId);
+
+        // Validate downgrade (tier level should be lower)
+        if (newTier.getLevel() >= membership.getTier().getLevel()) {
+            throw new InvalidOperationException("Can only downgrade to a lower tier");
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        requireUnreserved(membership, now);
+
+        // Calculate new end date based on current plan's remaining time
+        LocalDateTime currentEndDate = membership.getEndDate();
+        LocalDateTime newEndDate = calculateEndDate(currentEndDate, newPlan.getDuration());
+
+        MembershipPlan oldPlan = membership.getPlan();
+        MembershipTier oldTier = membership.getTier();
+
+        if (membershipRepository.changePlanIfUnchanged(membership.getId(), membership.getVersion(),
+                newPlan, newTier, newEndDate, now) == 0) {
+            return null;
+        }
+        membership = membershipRepository.findById(membership.getId())
+                .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+
+        // Record transaction for plan change
+        MembershipTransaction transaction = MembershipTransaction.builder()
+                .membership(membership)
+                .type(TransactionType.DOWNGRADE)
+                .amount(BigDecimal.ZERO) // No immediate charge
+                .oldPlan(oldPlan)
+                .newPlan(newPlan)
+                .oldTier(oldTier)
+                .newTier(newTier)
+                .notes("Plan downgrade - effective after current plan ends")
+                .build();
+
+        transactionRepository.save(transaction);
+
+        membershipMetrics.recordTransaction(transaction.getType());
+
+        // Publish event
+        outboxService.record(MembershipEventType.MEMBERSHIP_DOWNGRADED, membership, oldPlan, oldTier);
+        invalidateMembership(userId);
+
+        log.info("Membership downgraded for user: {} - new plan effective from {}", userId, currentEndDate);
+
+        return membershipMapper.toMembershipResponse(membership);
+    }
+
+    /**
+     * @return the cancelled membership, or null if it changed since it was read
+     */
+    private MembershipResponse tryCancel(Long userId) {
+        UserMembership membership = membershipRepository.findActiveByUserId(userId)
+                .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+
+        LocalDateTime now = LocalDateTime.now();
+        requireUnreserved(membership, now);
+
+        MembershipPlan oldPlan = membership.getPlan();
+        MembershipTier oldTier = membership.getTier();
+
+        if (membershipRepository.cancelIfUnchanged(membership.getId(), membership.getVersion(), now) == 0) {
+            return null;
+        }
+        membership = membershipRepository.findById(membership.getId())
+                .orElseThrow(() -> new MembershipNotFoundException("No active membership found"));
+
+        // Record transaction
+        MembershipTransaction transaction = MembershipTransaction.builder()
+                .membership(membership)
+                .type(TransactionType.CANCELLATION)
+                .amount(BigDecimal.ZERO)
+                .oldPlan(oldPlan)
+                .oldTier(oldTier)
+                .notes("User initiated cancellation")
+                .build();
+
+        transactionRepository.save(transaction);
+
+        membershipMetrics.recordTransaction(transaction.getType());
+
+        // Publish event
+        outboxService.record(MembershipEventType.MEMBERSHIP_CANCELLED, membership, null, null);
+        invalidateMembership(userId);
+
+        log.info("Membership cancelled for user: {}", userId);
+
+        return membershipMapper.toMembershipResponse(membership);
+    }
+
+    private static void requireUnreserved(UserMembership membership, LocalDateTime now) {
+        if (membership.getReservedUntil() != null && membership.getReservedUntil().isAfter(now)) {
+            throw new ConcurrentMembershipChangeException("Another membership change is awaiting payment");
+        }
+    }
+
+    /**
+     * Runs attempts, each in its own transaction, until one applies. An attempt
+     * returns null when its conditional UPDATE found the membership changed (or
+     * the database reports a concurrency failure); the next one re-reads and
+     * re-validates after a short random pause.
+     */
+    private <T> T withConflictRetry(TransactionType operation, Supplier<T> attempt) {
+        for (int attempts = 1; attempts <= optimisticMaxAttempts; attempts++) {
+            try {
+                T result = attempt.get();
+                if (result != null) {
+                    return result;
+                }
+            } catch (ConcurrencyFailureException e) {
+                log.debug("{} attempt {} hit a concurrent change: {}", operation, attempts, e.getMessage());
+            }
+            membershipMetrics.recordOptimisticConflict(operation);
+            if (attempts < optimisticMaxAttempts) {
+                try {
+                    Thread.sleep(ThreadLocalRandom.current().nextLong(optimisticBackoff.toMillis() + 1));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+        }
+        throw new ConcurrentMembershipChangeException("Membership was changed concurrently; please retry");
+    }
+
+    private <T> T inTransaction(Isolation isolation, Supplier<T> work) {
+        TransactionTemplate template = new TransactionTemplate(transactionTemplate.getTransactionManager());
+        template.setIsolationLevel(isolation.value());
+        return template.execute(status -> work.get());
+    }
+
+    private MembershipResponse subscribePendingPayment(UserMembership membership, MembershipPlan plan,
+            MembershipTier tier, String paymentReference) {
+        Long userId = membership.getUserId();
+        if (paymentConfirmationRepository.existsByUserIdAndStatus(userId, PaymentConfirmationStatus.PENDING)) {
+            throw new MembershipAlreadyExistsException("User already has a membership awaiting payment confirmation");
+        }
+
+        membership = membershipRepository.save(membership);
+        requestPayment(membership, TransactionType.SUBSCRIPTION, plan.getPrice(), plan, tier, paymentReference);
+        log.info("Membership for user {} awaiting confirmation of payment {}", userId, paymentReference);
+        return pendingResponse(membership, paymentReference);
+    }
+
+    /**
+     * Records a payment to be confirmed asynchronously. The charge is submitted
+     * once the current transaction commits, so the request never waits for the
+     * gateway and a rolled-back request never charges.
+     */
+    private void requestPayment(UserMembership membership, TransactionType type, BigDecimal amount,
+            MembershipPlan newPlan, MembershipTier newTier, String paymentReference) {
+        paymentConfirmationRepository.save(PaymentConfirmation.builder()
+                .paymentReference(paymentReference)
+                .userId(membership.getUserId())
+                .membership(membership)
+                .type(type)
+                .amount(amount)
+                .newPlan(newPlan)
+                .newTier(newTier)
+                .build());
+        eventPublisher.publishEvent(new PaymentRequestedEvent(paymentReference, membership.getUserId(), amount));
+    }
+
+    private MembershipResponse pendingResponse(UserMembership membership, String paymentReference) {
+        MembershipResponse response = membershipMapper.toMembershipResponse(membership);
+        response.setPendingPaymentReference(paymentReference);
+        return response;
+    }
+
+    private boolean finalisePayment(String paymentReference, PaymentConfirmationStatus outcome, PaymentResult result) {
+        PaymentConfirmation confirmation = paymentConfirmationRepository.findByPaymentReference(paymentReference)
+                .orElse(null);
+        if (confirmation == null) {
+            log.warn("Ignoring outcome of unknown payment {}", paymentReference);
+            return false;
+        }
+
+        Long userId = confirmation.getUserId();
+        Lock lock = getUserLock(userId);
+        lockTimed(lock);
+
+        try {
+            // Only the first report of an outcome moves the payment out of PENDING
+            LocalDateTime now = LocalDateTime.now();
+            if (paymentConfirmationRepository.resolve(confirmation.getId(), outcome, result.getTransactionId(), now) == 0) {
+                PaymentConfirmationStatus resolved = paymentConfirmationRepository.findStatusById(confirmation.getId());
+                if (result.isSuccess() && resolved != PaymentConfirmationStatus.CONFIRMED) {
+                    log.error("Payment {} (transaction {}) for user {} was taken after it was resolved as {}; "
+                            + "it must be refunded", paymentReference, result.getTransactionId(), userId, resolved);
+                } else {
+                    log.debug("Payment {} for user {} was already resolved as {}", paymentReference, userId, resolved);
+                }
+                return false;
+            }
+            membershipMetrics.recordPaymentConfirmation(outcome, Duration.between(confirmation.getCreatedAt(), now));
+
+            if (confirmation.getType() == TransactionType.SUBSCRIPTION) {
+                finaliseSubscription(confirmation, outcome, result);
+            } else {
+                finaliseUpgrade(confirmation, outcome, result);
+            }
+
+            invalidateMembership(userId);
+            return true;
+
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void finaliseSubscription(PaymentConfirmation confirmation, PaymentConfirmationStatus outcome,
+            PaymentResult result) {
+        UserMembership membership = confirmation.getMembership();
+        Long userId = confirmation.getUserId();
+        if (membership.getStatus() != MembershipStatus.PENDING_PAYMENT) {
+            log.error("Payment {} for user {} resolved as {} but membership {} is {}{}",
+                    confirmation.getPaymentReference(), userId, outcome, membership.getId(), membership.getStatus(),
+                    result.isSuccess() ? "; the payment must be refunded" : "");
+            return;
+        }
+
+        if (outcome == PaymentConfirmationStatus.CONFIRMED) {
+            activateSubscription(membership, confirmation.getNewPlan(), confirmation.getNewTier(),
+                    "Payment " + result.getTransactionId());
+            membershipRepository.save(membership);
+            log.info("Membership created for user {} after payment {} was confirmed",
+                    userId, confirmation.getPaymentReference());
+        } else {
+            membership.setStatus(MembershipStatus.CANCELLED);
+            membershipRepository.save(membership);
+            log.info("Pending membership for user {} cancelled: payment {} {} ({})",
+                    userId, confirmation.getPaymentReference(), outcome, result.getMessage());
+        }
+    }
+
+    private void finaliseUpgrade(PaymentConfirmation confirmation, PaymentConfirmationStatus outcome,
+            PaymentResult result) {
+        Long userId = confirmation.getUserId();
+        if (outcome != PaymentConfirmationStatus.CONFIRMED) {
+            log.info("Pending upgrade for user {} dropped: payment {} {} ({})",
+                    userId, confirmation.getPaymentReference(), outcome, result.getMessage());
+            return;
+        }
+
+        UserMembership membership = confirmation.getMembership();
+        MembershipTier newTier = confirmation.getNewTier();
+        if (membership.getStatus() != MembershipStatus.ACTIVE
+                || newTier.getLevel() <= membership.getTier().getLevel()) {
+            // Membership changed while the payment was pending; the charge must be reconciled
+            log.error("Upgrade payment {} (transaction {}) for user {} was taken but membership {} changed meanwhile; "
+                    + "it must be refunded", confirmation.getPaymentReference(), result.getTransactionId(),
+                    userId, membership.getId());
+            return;
+        }
+
+        applyUpgrade(membership, confirmation.getNewPlan(), newTier, confirmation.getAmount(),
+                "Payment " + result.getTransactionId());
+        log.info("Membership upgraded for user {} after payment {} was confirmed",
+                userId, confirmation.getPaymentReference());
+    }
+
+    private void activateSubscription(UserMembership membership, MembershipPlan plan, MembershipTier tier,
+            String notes) {
+        membership.setStatus(MembershipStatus.ACTIVE);
+
+        // Record transaction
+        MembershipTransaction transaction = MembershipTransaction.builder()
+                .membership(membership)
+                .type(TransactionType.SUBSCRIPTION)
+                .amount(plan.getPrice())
+                .newPlan(plan)
+                .newTier(tier)
+                .notes(notes)
+                .build();
+
+        transactionRepository.save(transaction);
+
+        membershipMetrics.recordTransaction(transaction.getType());
+
+        // Publish event
+        outboxService.record(MembershipEventType.MEMBERSHIP_CREATED, membership, null, null);
+        invalidateMembership(membership.getUserId());
+    }
+
+    private UserMembership applyUpgrade(UserMembership membership, MembershipPlan newPlan, MembershipTier newTier,
+            BigDecimal amount, String notes) {
+        // Record transaction
+        MembershipTransaction transaction = MembershipTransaction.builder()
+                .membership(membership)
+                .type(TransactionType.UPGRADE)
+                .amount(amount)
+                .oldPlan(membership.getPlan())
+                .newPlan(newPlan)
+                .oldTier(membership.getTier())
+                .newTier(newTier)
+                .notes(notes)
+                .build();
+
+        transactionRepository.save(transaction);
+
+        membershipMetrics.recordTransaction(transaction.getType());
+
+        MembershipPlan oldPlan = membership.getPlan();
+        MembershipTier oldTier = membership.getTier();
+
+        // Update membership
+        membership.setPlan(newPlan);
+        membership.setTier(newTier);
+        membership.setEndDate(calculateEndDate(membership.getStartDate(), newPlan.getDuration()));
+
+        membership = membershipRepository.save(membership);
+
+        // Publish event
+        outboxService.record(MembershipEventType.MEMBERSHIP_UPGRADED, membership, oldPlan, oldTier);
+        invalidateMembership(membership.getUserId());
+        return membership;
+    }
+
+    /**
+     * Drops the user's entitlements and cached current membership once the
+     * change commits, so the bulk lookup cannot keep serving the old state.
+     */
+    private void invalidateMembership(Long userId) {
+        entitlementService.invalidate(userId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    membershipCacheService.evictAll(List.of(userId));
+                }
+            });
+        } else {
+            membershipCacheService.evictAll(List.of(userId));
+        }
+    }
+
     private Lock getUserLock(Long userId) {
         return userLocks.computeIfAbsent(userId, k -> new ReentrantLock());
     }
 
+    private void lockTimed(Lock lock) {
+        long started = System.nanoTime();
+        lock.lock();
+        long waited = System.nanoTime() - started;
+        membershipMetrics.recordLockWait(waited);
+        flightRecorder.current().addLockWait(waited);
+    }
+
+    private static PaymentResult timedPayment(OperationTimings timings, Supplier<PaymentResult> payment) {
+        long started = System.nanoTime();
+        try {
+            return payment.get();
+        } finally {
+            timings.addPaymentTime(System.nanoTime() - started);
+        }
+    }
+
+    /**
+     * The reference a charge is requested under. Requests retried with the same
+     * Idempotency-Key get the same reference, so the gateway returns the first
+     * attempt's charge instead of taking another; without a key every request
+     * is a new charge.
+     */
+    private static String paymentReference(String idempotencyKey, TransactionType type, Long userId,
+            Long planId, Long tierId) {
+        if (idempotencyKey == null) {
+            return UUID.randomUUID().toString();
+        }
+        String request = type + ":" + userId + ":" + planId + ":" + tierId + ":" + idempotencyKey;
+        return UUID.nameUUIDFromBytes(request.getBytes(StandardCharsets.UTF_8)).toString();
+    }
+
     private LocalDateTime calculateEndDate(LocalDateTime startDate, PlanDuration duration) {
         return startDate.plusMonths(duration.getMonths());
     }
@@ -375,4 +1005,9 @@ public class MembershipServiceImpl implements MembershipService {
         return membershipMapper.toMembershipResponse(membership);
     }
 
+    private record UpgradeReservation(Long membershipId, Long reservedVersion, MembershipPlan oldPlan,
+            MembershipTier oldTier, MembershipPlan newPlan, MembershipTier newTier, LocalDateTime startDate,
+            BigDecimal amount) {
+    }
+
 }
@@ -15,6 +15,7 @@ import com.firstclub.membership.model.entity.TierCriteria;
 import com.firstclub.membership.repository.MembershipTierRepository;
 import com.firstclub.membership.repository.TierBenefitRepository;
 import com.firstclub.membership.repository.TierCriteriaRepository;
+import com.firstclub.membership.service.CatalogVersionService;
 import com.firstclub.membership.service.MembershipTierService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
@@ -37,6 +38,7 @@ public class MembershipTierServiceImpl implements MembershipTierService {
     private final TierBenefitRepository benefitRepository;
     private final TierCriteriaRepository criteriaRepository;
     private final TierMapper tierMapper;
+    private final CatalogVersionService catalogVersionService;
 
     @Override
     @Transactional(readOnly = true)
@@ -68,6 +70,7 @@ public class MembershipTierServiceImpl implements MembershipTierService {
         MembershipTier tier = tierMapper.toMembershipTier(request);
         tier = tierRepository.save(tier);
         
+        catalogVersionService.bump();
         log.info("Successfully created membership tier with ID: {}", tier.getId());
         return tierMapper.toTierResponse(tier);
     }
@@ -90,6 +93,7 @@ public class MembershipTierServiceImpl implements MembershipTierService {
         tier = tierMapper.updateMembershipTier(tier, request);
         tier = tierRepository.save(tier);
         
+        catalogVersionService.bump();
         log.info("Successfully updated membership tier with ID: {}", tierId);
         return tierMapper.toTierResponse(tier);
     }
@@ -117,6 +121,7 @@ public class MembershipTierServiceImpl implements MembershipTierService {
         TierBenefit benefit = tierMapper.toTierBenefit(request, tier);
         benefit = benefitRepository.save(benefit);
         
+        catalogVersionService.bump();
         log.info("Successfully added benefit with ID: {} to tier: {}", benefit.getId(), tierId);
         return tierMapper.toBenefitResponse(benefit);
     }
@@ -131,6 +136,7 @@ public class MembershipTierServiceImpl implements MembershipTierService {
         TierCriteria criteria = tierMapper.toTierCriteria(request, tier);
         criteria = criteriaRepository.save(criteria);
         
+        catalogVersionService.bump();
         log.info("Successfully added criteria with ID: {} to tier: {}", criteria.getId(), tierId);
         return tierMapper.toCriteriaResponse(criteria);
     }
@@ -145,6 +151,7 @@ public class MembershipTierServiceImpl implements MembershipTierService {
         tier.setActive(false);
         tierRepository.save(tier);
         
+        catalogVersionService.bump();
         log.info("Successfully deactivated membership tier with ID: {}", tierId);
     }
 
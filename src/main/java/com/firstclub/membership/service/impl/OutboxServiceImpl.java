@@ -0,0 +1,147 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.event.MembershipEvent;
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.OutboxEvent;
+import com.firstclub.membership.model.entity.UserMembership;
+import com.firstclub.membership.model.enums.MembershipEventType;
+import com.firstclub.membership.repository.OutboxEventRepository;
+import com.firstclub.membership.service.MembershipEventSink;
+import com.firstclub.membership.service.OutboxService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * Implementation of OutboxService backed by the membership_outbox table.
+ * The relay serialises itself across nodes with a transaction-scoped
+ * PostgreSQL advisory lock.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class OutboxServiceImpl implements OutboxService {
+
+    private static final long RELAY_LOCK_KEY = 0x6d656d626f78L; // "membox"
+
+    private final OutboxEventRepository outboxRepository;
+    private final MembershipEventSink eventSink;
+    private final ObjectMapper objectMapper;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${app.outbox.relay.enabled:true}")
+    private boolean relayEnabled;
+
+    @Value("${app.outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${app.outbox.max-batches-per-run:50}")
+    private int maxBatchesPerRun;
+
+    @Value("${app.outbox.retention-days:7}")
+    private int retentionDays;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void record(MembershipEventType type, UserMembership membership, MembershipPlan oldPlan, MembershipTier oldTier) {
+        MembershipEvent event = MembershipEvent.builder()
+                .eventType(type.name())
+                .userId(membership.getUserId())
+                .membershipId(membership.getId())
+                .status(membership.getStatus().name())
+                .planId(membership.getPlan().getId())
+                .planName(membership.getPlan().getName())
+                .tierId(membership.getTier().getId())
+                .tierName(membership.getTier().getName())
+                .oldPlanId(oldPlan != null ? oldPlan.getId() : null)
+                .oldTierId(oldTier != null ? oldTier.getId() : null)
+                .endDate(membership.getEndDate())
+                .occurredAt(LocalDateTime.now())
+                .build();
+
+        try {
+            outboxRepository.save(OutboxEvent.builder()
+                    .userId(membership.getUserId())
+                    .membershipId(membership.getId())
+                    .eventType(type)
+                    .payload(objectMapper.writeValueAsString(event))
+                    .build());
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize " + type + " event for user " + membership.getUserId(), e);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.outbox.relay-interval-ms:500}")
+    public void scheduledRelay() {
+        if (!relayEnabled) {
+            return;
+        }
+        relayPendingEvents();
+    }
+
+    @Override
+    public int relayPendingEvents() {
+        int published = 0;
+        for (int batch = 0; batch < maxBatchesPerRun; batch++) {
+            Integer count = transactionTemplate.execute(status -> relayBatch());
+            if (count == null || count <= 0) {
+                break;
+            }
+            published += count;
+        }
+        return published;
+    }
+
+    @Scheduled(cron = "${app.outbox.cleanup-cron:0 15 4 * * ?}")
+    @Transactional
+    public void deletePublishedEvents() {
+        int deleted = outboxRepository.deletePublishedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Deleted {} published outbox event(s) older than {} days", deleted, retentionDays);
+        }
+    }
+
+    /**
+     * Publishes one batch inside the current transaction.
+     * Returns the number of events published, 0 when there is nothing to do or
+     * another node holds the relay lock, and -1 when the sink rejected the batch.
+     */
+    private int relayBatch() {
+        Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, RELAY_LOCK_KEY);
+        if (!Boolean.TRUE.equals(locked)) {
+            return 0;
+        }
+
+        List<OutboxEvent> events = outboxRepository.findUnpublished(batchSize);
+        if (events.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> ids = events.stream().map(OutboxEvent::getId).toList();
+        try {
+            eventSink.publish(events);
+        } catch (RuntimeException e) {
+            // Keep the whole batch pending so later events of the same user cannot overtake it
+            log.warn("Failed to publish {} outbox event(s) starting at id {}; will retry", events.size(), ids.get(0), e);
+            outboxRepository.incrementAttempts(ids);
+            return -1;
+        }
+
+        outboxRepository.markPublished(ids, LocalDateTime.now());
+        log.debug("Published {} outbox event(s) up to id {}", events.size(), ids.get(ids.size() - 1));
+        return events.size();
+    }
+}
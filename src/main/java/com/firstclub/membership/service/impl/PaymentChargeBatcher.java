@@ -0,0 +1,156 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Groups submitted charges into gateway batches. A batch is sent as soon as it
+ * holds batchSize charges, or when the linger time has passed since its first
+ * charge was submitted, whichever comes first. Batches are sent on the given
+ * executor, so its parallelism bounds the batch calls in flight.
+ *
+ * The dispatcher must return one result per charge, in order; if it throws or
+ * returns a different number of results, every charge of the batch fails.
+ */
+@Slf4j
+final class PaymentChargeBatcher implements AutoCloseable {
+
+    private final Function<List<PaymentCharge>, List<PaymentResult>> dispatcher;
+    private final Executor executor;
+    private final int batchSize;
+    private final Duration linger;
+    private final ScheduledExecutorService lingerTimer;
+
+    private final Object lock = new Object();
+    private List<Pending> pending;
+    private ScheduledFuture<?> lingerFlush;
+
+    PaymentChargeBatcher(Function<List<PaymentCharge>, List<PaymentResult>> dispatcher,
+                         Executor executor, int batchSize, Duration linger) {
+        if (batchSize < 1) {
+            throw new IllegalArgumentException("Payment batch size must be at least 1");
+        }
+        this.dispatcher = dispatcher;
+        this.executor = executor;
+        this.batchSize = batchSize;
+        this.linger = linger;
+        this.pending = new ArrayList<>(batchSize);
+        this.lingerTimer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "Payment-Batch-Linger");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queues the charges for the next batches.
+     *
+     * @return One future per charge, in the order of the charges
+     */
+    List<CompletableFuture<PaymentResult>> submitAll(List<PaymentCharge> charges) {
+        List<CompletableFuture<PaymentResult>> results = new ArrayList<>(charges.size());
+        List<List<Pending>> fullBatches = new ArrayList<>();
+        synchronized (lock) {
+            for (PaymentCharge charge : charges) {
+                CompletableFuture<PaymentResult> result = new CompletableFuture<>();
+                pending.add(new Pending(charge, result));
+                results.add(result);
+                if (pending.size() >= batchSize) {
+                    fullBatches.add(takePending());
+                }
+            }
+            if (!pending.isEmpty() && lingerFlush == null) {
+                lingerFlush = lingerTimer.schedule(this::flush, linger.toNanos(), TimeUnit.NANOSECONDS);
+            }
+        }
+        fullBatches.forEach(this::dispatch);
+        return results;
+    }
+
+    /**
+     * Sends the pending charges now, without waiting for the batch to fill.
+     */
+    void flush() {
+        List<Pending> batch;
+        synchronized (lock) {
+            batch = takePending();
+        }
+        if (!batch.isEmpty()) {
+            dispatch(batch);
+        }
+    }
+
+    @Override
+    public void close() {
+        flush();
+        lingerTimer.shutdownNow();
+    }
+
+    // Caller holds the lock
+    private List<Pending> takePending() {
+        List<Pending> batch = pending;
+        pending = new ArrayList<>(batchSize);
+        if (lingerFlush != null) {
+            lingerFlush.cancel(false);
+            lingerFlush = null;
+        }
+        return batch;
+    }
+
+    private void dispatch(List<Pending> batch) {
+        try {
+            executor.execute(() -> send(batch));
+        } catch (RejectedExecutionException e) {
+            log.warn("Payment batch of {} charges rejected: {}", batch.size(), e.getMessage());
+            fail(batch, "Payment batch rejected");
+        }
+    }
+
+    private void send(List<Pending> batch) {
+        List<PaymentCharge> charges = new ArrayList<>(batch.size());
+        for (Pending item : batch) {
+            charges.add(item.charge());
+        }
+
+        List<PaymentResult> results;
+        try {
+            results = dispatcher.apply(charges);
+        } catch (RuntimeException e) {
+            log.error("Payment batch of {} charges failed", batch.size(), e);
+            fail(batch, "Payment batch failed");
+            return;
+        }
+        if (results == null || results.size() != batch.size()) {
+            log.error("Payment batch of {} charges returned {} results", batch.size(),
+                    results == null ? null : results.size());
+            fail(batch, "Payment batch failed");
+            return;
+        }
+
+        for (int i = 0; i < batch.size(); i++) {
+            batch.get(i).result().complete(results.get(i));
+        }
+    }
+
+    private static void fail(List<Pending> batch, String message) {
+        for (Pending item : batch) {
+            item.result().complete(PaymentResult.unknown(message));
+        }
+    }
+
+    private record Pending(PaymentCharge charge, CompletableFuture<PaymentResult> result) {
+    }
+}
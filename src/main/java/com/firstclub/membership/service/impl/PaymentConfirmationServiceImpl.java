@@ -0,0 +1,141 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.event.PaymentRequestedEvent;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.repository.PaymentConfirmationRepository;
+import com.firstclub.membership.service.MembershipService;
+import com.firstclub.membership.service.PaymentConfirmationService;
+import com.firstclub.membership.service.PaymentService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+/**
+ * Implementation of PaymentConfirmationService.
+ * Charges run on the payment submission executor, whose queue absorbs bursts
+ * instead of failing them on the payment bulkhead. A payment whose charge is
+ * never made or never answered stays PENDING until the webhook or the sweep
+ * resolves it.
+ */
+@Service
+@Slf4j
+public class PaymentConfirmationServiceImpl implements PaymentConfirmationService {
+
+    private static final int SWEEP_PAGE_SIZE = 500;
+
+    private final MembershipService membershipService;
+    private final PaymentService paymentService;
+    private final PaymentConfirmationRepository confirmationRepository;
+    private final ThreadPoolTaskExecutor submissionExecutor;
+    private final AtomicBoolean sweeping = new AtomicBoolean(false);
+
+    @Value("${app.payment.async.enabled:false}")
+    private boolean asyncPayments;
+
+    @Value("${app.payment.async.confirmation-timeout:15m}")
+    private Duration confirmationTimeout;
+
+    @Value("${app.payment.async.retention-days:30}")
+    private int retentionDays;
+
+    public PaymentConfirmationServiceImpl(MembershipService membershipService,
+                                          PaymentService paymentService,
+                                          PaymentConfirmationRepository confirmationRepository,
+                                          @Qualifier("paymentSubmissionExecutor") ThreadPoolTaskExecutor submissionExecutor) {
+        this.membershipService = membershipService;
+        this.paymentService = paymentService;
+        this.confirmationRepository = confirmationRepository;
+        this.submissionExecutor = submissionExecutor;
+    }
+
+    @TransactionalEventListener
+    public void submitPayment(PaymentRequestedEvent event) {
+        try {
+            submissionExecutor.execute(() -> charge(event));
+        } catch (RejectedExecutionException e) {
+            log.warn("Payment {} for user {} not submitted ({}); left for the webhook or the timeout sweep",
+                    event.paymentReference(), event.userId(), e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${app.payment.async.sweep-interval-ms:60000}")
+    public void scheduledSweep() {
+        if (!asyncPayments) {
+            return;
+        }
+        expireUnconfirmedPayments();
+    }
+
+    @Override
+    public int expireUnconfirmedPayments() {
+        if (!sweeping.compareAndSet(false, true)) {
+            return 0;
+        }
+
+        try {
+            LocalDateTime cutoff = LocalDateTime.now().minus(confirmationTimeout);
+            int total = 0;
+            List<String> references;
+            int expired;
+            do {
+                references = confirmationRepository.findPendingReferencesCreatedBefore(
+                        cutoff, PageRequest.of(0, SWEEP_PAGE_SIZE));
+                expired = 0;
+                for (String reference : references) {
+                    try {
+                        if (membershipService.expirePendingPayment(reference)) {
+                            expired++;
+                        }
+                    } catch (RuntimeException e) {
+                        log.error("Failed to abandon unconfirmed payment {}", reference, e);
+                    }
+                }
+                total += expired;
+                // Stop when a full page made no progress, so failing payments cannot spin the sweep
+            } while (references.size() == SWEEP_PAGE_SIZE && expired > 0);
+
+            if (total > 0) {
+                log.info("Abandoned {} payment(s) not confirmed within {}", total, confirmationTimeout);
+            }
+            return total;
+        } finally {
+            sweeping.set(false);
+        }
+    }
+
+    @Scheduled(cron = "${app.payment.async.cleanup-cron:0 45 4 * * ?}")
+    @Transactional
+    public void deleteResolvedPayments() {
+        int deleted = confirmationRepository.deleteResolvedBefore(LocalDateTime.now().minusDays(retentionDays));
+        if (deleted > 0) {
+            log.info("Deleted {} resolved payment confirmation(s) older than {} days", deleted, retentionDays);
+        }
+    }
+
+    private void charge(PaymentRequestedEvent event) {
+        PaymentResult result = paymentService.processPayment(event.userId(), event.amount(), event.paymentReference());
+        if (result.isOutcomeUnknown()) {
+            log.warn("Payment {} for user {} has no outcome yet ({}); left for the webhook or the timeout sweep",
+                    event.paymentReference(), event.userId(), result.getMessage());
+            return;
+        }
+        try {
+            membershipService.confirmPayment(event.paymentReference(), result);
+        } catch (RuntimeException e) {
+            // The webhook or the timeout sweep resolves it later
+            log.error("Failed to finalise payment {} for user {}", event.paymentReference(), event.userId(), e);
+        }
+    }
+}
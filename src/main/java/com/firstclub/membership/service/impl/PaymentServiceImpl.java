@@ -1,42 +1,129 @@
 package com.firstclub.membership.service.impl;
 
+import com.firstclub.membership.dto.request.PaymentCharge;
 import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.PaymentGatewayException;
+import com.firstclub.membership.service.PaymentGateway;
 import com.firstclub.membership.service.PaymentService;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
 import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
 
 /**
- * MOCK of PaymentService for demonstration purposes.
- * In a real application, this would integrate with actual payment gateways.
+ * PaymentService that charges through the configured PaymentGateway, guarded
+ * by the resilience4j "payment-service" circuit breaker and bulkhead.
+ *
+ * The circuit breaker is outermost, so while it is open calls fail at once
+ * without waiting for a bulkhead permit or touching the gateway. The bulkhead
+ * caps concurrent gateway calls, so a slow gateway holds at most that many
+ * threads; callers beyond it wait briefly and then fail. Gateway errors,
+ * timeouts and rejections are returned rather than thrown, as results whose
+ * outcome is unknown: unlike a decline, the charge may still be taken or can
+ * be retried under the same reference. The reason is logged.
+ *
+ * processPayments feeds a PaymentChargeBatcher; each gateway batch call is
+ * one call through the circuit breaker and bulkhead, and fails as a whole.
  */
 @Service
 @Slf4j
 public class PaymentServiceImpl implements PaymentService {
-    
+
+    static final String RESILIENCE_INSTANCE = "payment-service";
+
+    private final PaymentGateway paymentGateway;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final PaymentChargeBatcher batcher;
+
+    public PaymentServiceImpl(PaymentGateway paymentGateway,
+                              CircuitBreakerRegistry circuitBreakerRegistry,
+                              BulkheadRegistry bulkheadRegistry,
+                              @Qualifier("paymentBatchExecutor") Executor paymentBatchExecutor,
+                              @Value("${app.payment.batch.size:100}") int batchSize,
+                              @Value("${app.payment.batch.linger:20ms}") Duration batchLinger) {
+        this.paymentGateway = paymentGateway;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(RESILIENCE_INSTANCE);
+        this.bulkhead = bulkheadRegistry.bulkhead(RESILIENCE_INSTANCE);
+        this.batcher = new PaymentChargeBatcher(this::chargeBatch, paymentBatchExecutor, batchSize, batchLinger);
+    }
+
     @Override
     public PaymentResult processPayment(Long userId, BigDecimal amount) {
-        log.info("Processing payment for user {}: amount {}", userId, amount);
-        
-        // Simulate payment processing
+        return processPayment(userId, amount, UUID.randomUUID().toString());
+    }
+
+    @Override
+    public PaymentResult processPayment(Long userId, BigDecimal amount, String paymentReference) {
+        Supplier<PaymentResult> charge = Bulkhead.decorateSupplier(bulkhead,
+                () -> paymentGateway.charge(userId, amount, paymentReference));
+        try {
+            return circuitBreaker.executeSupplier(charge);
+        } catch (CallNotPermittedException e) {
+            log.warn("Payment {} for user {} rejected: payment gateway circuit is open", paymentReference, userId);
+            return PaymentResult.unknown("Payment gateway unavailable");
+        } catch (BulkheadFullException e) {
+            log.warn("Payment {} for user {} rejected: too many concurrent gateway calls", paymentReference, userId);
+            return PaymentResult.unknown("Payment gateway busy");
+        } catch (PaymentGatewayException e) {
+            // The charge may or may not have been taken; a retry with the same reference is safe
+            log.warn("Payment {} for user {} failed: {}", paymentReference, userId, e.getMessage());
+            return PaymentResult.unknown("Payment gateway error");
+        }
+    }
+
+    @Override
+    public List<PaymentResult> processPayments(List<PaymentCharge> charges) {
+        if (charges.isEmpty()) {
+            return List.of();
+        }
+        List<CompletableFuture<PaymentResult>> submitted = batcher.submitAll(charges);
+        List<PaymentResult> results = new ArrayList<>(submitted.size());
+        for (CompletableFuture<PaymentResult> result : submitted) {
+            results.add(result.join());
+        }
+        return results;
+    }
+
+    @PreDestroy
+    void close() {
+        batcher.close();
+    }
+
+    private List<PaymentResult> chargeBatch(List<PaymentCharge> charges) {
+        Supplier<List<PaymentResult>> batch = Bulkhead.decorateSupplier(bulkhead,
+                () -> paymentGateway.chargeBatch(charges));
+        String failure;
         try {
-            // Simulate processing delay
-            Thread.sleep(100);
-            
-            // For demo purposes, assume payment is successful
-            String transactionId = UUID.randomUUID().toString();
-            log.info("Payment successful for user {}: transaction ID {}", userId, transactionId);
-            
-            return PaymentResult.success(transactionId);
-        } catch (InterruptedException e) {
-            Thread.currentThread().interrupt();
-            log.error("Payment processing interrupted for user {}", userId, e);
-            return PaymentResult.failure("Payment processing interrupted");
-        } catch (Exception e) {
-            log.error("Payment processing failed for user {}", userId, e);
-            return PaymentResult.failure("Payment processing failed: " + e.getMessage());
+            return circuitBreaker.executeSupplier(batch);
+        } catch (CallNotPermittedException e) {
+            log.warn("Payment batch of {} charges rejected: payment gateway circuit is open", charges.size());
+            failure = "Payment gateway unavailable";
+        } catch (BulkheadFullException e) {
+            log.warn("Payment batch of {} charges rejected: too many concurrent gateway calls", charges.size());
+            failure = "Payment gateway busy";
+        } catch (PaymentGatewayException e) {
+            // The charges may or may not have been taken; a retry with the same references is safe
+            log.warn("Payment batch of {} charges failed: {}", charges.size(), e.getMessage());
+            failure = "Payment gateway error";
         }
+        return Collections.nCopies(charges.size(), PaymentResult.unknown(failure));
     }
 }
@@ -0,0 +1,112 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.service.IdempotencyStore;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.redis.core.StringRedisTemplate;
+import org.springframework.data.redis.core.script.DefaultRedisScript;
+import org.springframework.data.redis.core.script.RedisScript;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Redis-backed IdempotencyStore.
+ * Each key holds either "P|fingerprint|owner" while in progress or
+ * "C|fingerprint|status|body" once completed. Claiming is one Lua script call
+ * that returns the existing value or sets the marker, so a first request costs
+ * a single round trip. Extending, completing and releasing only touch the key
+ * while it still holds this owner's marker. Waiters poll with a short, growing
+ * interval.
+ */
+@Component
+@ConditionalOnProperty(name = "app.idempotency.store", havingValue = "redis", matchIfMissing = true)
+@RequiredArgsConstructor
+public class RedisIdempotencyStore implements IdempotencyStore {
+
+    static final String KEY_PREFIX = "idempotency:";
+
+    private static final RedisScript<String> CLAIM_SCRIPT = new DefaultRedisScript<>(
+            "local current = redis.call('GET', KEYS[1]) "
+            + "if current then return current end "
+            + "redis.call('SET', KEYS[1], ARGV[1], 'PX', ARGV[2]) "
+            + "return ''", String.class);
+
+    private static final RedisScript<Long> EXTEND_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('PEXPIRE', KEYS[1], ARGV[2]) end "
+            + "return 0", Long.class);
+
+    private static final RedisScript<Long> COMPLETE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) ~= ARGV[1] then return 0 end "
+            + "redis.call('SET', KEYS[1], ARGV[2], 'PX', ARGV[3]) "
+            + "return 1", Long.class);
+
+    private static final RedisScript<Long> RELEASE_SCRIPT = new DefaultRedisScript<>(
+            "if redis.call('GET', KEYS[1]) == ARGV[1] then return redis.call('DEL', KEYS[1]) end "
+            + "return 0", Long.class);
+
+    private static final long MIN_POLL_MILLIS = 2;
+    private static final long MAX_POLL_MILLIS = 50;
+
+    private final StringRedisTemplate redisTemplate;
+
+    @Override
+    public Entry claim(String key, String fingerprint, String owner, Duration lockTtl) {
+        String current = redisTemplate.execute(CLAIM_SCRIPT, List.of(KEY_PREFIX + key),
+                inProgress(fingerprint, owner), Long.toString(lockTtl.toMillis()));
+        return current == null || current.isEmpty() ? null : decode(current);
+    }
+
+    @Override
+    public boolean extend(String key, String fingerprint, String owner, Duration lockTtl) {
+        Long extended = redisTemplate.execute(EXTEND_SCRIPT, List.of(KEY_PREFIX + key),
+                inProgress(fingerprint, owner), Long.toString(lockTtl.toMillis()));
+        return extended != null && extended == 1;
+    }
+
+    @Override
+    public boolean complete(String key, String fingerprint, String owner, int status, String body, Duration ttl) {
+        Long stored = redisTemplate.execute(COMPLETE_SCRIPT, List.of(KEY_PREFIX + key),
+                inProgress(fingerprint, owner), "C|" + fingerprint + "|" + status + "|" + body,
+                Long.toString(ttl.toMillis()));
+        return stored != null && stored == 1;
+    }
+
+    @Override
+    public void release(String key, String fingerprint, String owner) {
+        redisTemplate.execute(RELEASE_SCRIPT, List.of(KEY_PREFIX + key), inProgress(fingerprint, owner));
+    }
+
+    @Override
+    public Entry await(String key, Duration timeout) throws InterruptedException {
+        long deadline = System.nanoTime() + timeout.toNanos();
+        long pollMillis = MIN_POLL_MILLIS;
+        while (true) {
+            String current = redisTemplate.opsForValue().get(KEY_PREFIX + key);
+            Entry entry = current == null ? null : decode(current);
+            if (entry == null || entry.isCompleted() || System.nanoTime() >= deadline) {
+                return entry;
+            }
+            TimeUnit.MILLISECONDS.sleep(Math.min(pollMillis,
+                    Math.max(1, TimeUnit.NANOSECONDS.toMillis(deadline - System.nanoTime()))));
+            pollMillis = Math.min(MAX_POLL_MILLIS, pollMillis * 2);
+        }
+    }
+
+    private static String inProgress(String fingerprint, String owner) {
+        return "P|" + fingerprint + "|" + owner;
+    }
+
+    private static Entry decode(String value) {
+        int fingerprintEnd = value.indexOf('|', 2);
+        String fingerprint = value.substring(2, fingerprintEnd);
+        if (value.charAt(0) == 'P') {
+            return new Entry(fingerprint, null, null);
+        }
+        int statusEnd = value.indexOf('|', fingerprintEnd + 1);
+        int status = Integer.parseInt(value, fingerprintEnd + 1, statusEnd, 10);
+        return new Entry(fingerprint, status, value.substring(statusEnd + 1));
+    }
+}
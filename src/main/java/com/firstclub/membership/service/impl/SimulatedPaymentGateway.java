@@ -0,0 +1,245 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.PaymentGatewayException;
+import com.firstclub.membership.service.PaymentGateway;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * MOCK payment gateway for local runs, demos and load tests; no money moves.
+ *
+ * Every call waits for a latency drawn from the configured distribution:
+ * fixed, lognormal around a median, or bimodal (lognormal plus occasional
+ * stalls). A batch call additionally costs a small per-charge processing time,
+ * so batching amortizes the round trip the way it does against a real gateway.
+ * Configured shares of calls time out, fail with a gateway error (both thrown
+ * as PaymentGatewayException, outcome unknown) or are declined.
+ *
+ * The settings can be replaced at runtime through the paymentsimulator
+ * actuator endpoint to inject faults while a load test is running.
+ */
+@Component
+@ConditionalOnProperty(name = "app.payment.gateway", havingValue = "simulated", matchIfMissing = true)
+@Slf4j
+public class SimulatedPaymentGateway implements PaymentGateway {
+
+    public enum LatencyDistribution {
+        FIXED, LOGNORMAL, BIMODAL
+    }
+
+    /**
+     * Simulator behaviour.
+     *
+     * @param distribution How call latency is drawn
+     * @param latency Fixed latency, or the median of the lognormal
+     * @param sigma Spread of the lognormal (standard deviation of its log)
+     * @param stallRate Share of bimodal calls that stall instead
+     * @param stallLatency Latency of a stalled call
+     * @param perBatchedCharge Extra latency per charge of a batch call
+     * @param declineRate Share of charges declined
+     * @param errorRate Share of calls failing with a gateway error after their latency
+     * @param timeoutRate Share of calls that hang for the timeout and then fail
+     * @param timeout How long a timed-out call hangs
+     */
+    public record Settings(
+            LatencyDistribution distribution,
+            Duration latency,
+            double sigma,
+            double stallRate,
+            Duration stallLatency,
+            Duration perBatchedCharge,
+            double declineRate,
+            double errorRate,
+            double timeoutRate,
+            Duration timeout) {
+
+        public Settings {
+            if (distribution == null) {
+                throw new IllegalArgumentException("distribution is required");
+            }
+            requireNonNegative("latency", latency);
+            requireNonNegative("stallLatency", stallLatency);
+            requireNonNegative("perBatchedCharge", perBatchedCharge);
+            requireNonNegative("timeout", timeout);
+            if (sigma < 0) {
+                throw new IllegalArgumentException("sigma must not be negative");
+            }
+            requireRate("stallRate", stallRate);
+            requireRate("declineRate", declineRate);
+            requireRate("errorRate", errorRate);
+            requireRate("timeoutRate", timeoutRate);
+            if (errorRate + timeoutRate > 1) {
+                throw new IllegalArgumentException("errorRate + timeoutRate must not exceed 1");
+            }
+        }
+
+        Duration sampleLatency(ThreadLocalRandom random) {
+            return switch (distribution) {
+                case FIXED -> latency;
+                case LOGNORMAL -> sampleLognormal(random);
+                case BIMODAL -> random.nextDouble() < stallRate ? stallLatency : sampleLognormal(random);
+            };
+        }
+
+        private Duration sampleLognormal(ThreadLocalRandom random) {
+            return Duration.ofNanos((long) (latency.toNanos() * Math.exp(sigma * random.nextGaussian())));
+        }
+
+        private static void requireNonNegative(String name, Duration value) {
+            if (value == null || value.isNegative()) {
+                throw new IllegalArgumentException(name + " must not be negative");
+            }
+        }
+
+        private static void requireRate(String name, double value) {
+            if (!(value >= 0 && value <= 1)) {
+                throw new IllegalArgumentException(name + " must be between 0 and 1");
+            }
+        }
+    }
+
+    // Recent results by payment reference, standing in for the gateway's own de-duplication
+    private static final int MAX_REMEMBERED_REFERENCES = 10_000;
+    private final Map<String, PaymentResult> resultsByReference = Collections.synchronizedMap(
+            new LinkedHashMap<>(16, 0.75f, false) {
+                @Override
+                protected boolean removeEldestEntry(Map.Entry<String, PaymentResult> eldest) {
+                    return size() > MAX_REMEMBERED_REFERENCES;
+                }
+            });
+
+    private final Settings configured;
+    private final AtomicReference<Settings> settings;
+
+    @Autowired
+    public SimulatedPaymentGateway(
+            @Value("${app.payment.simulator.latency.distribution:fixed}") String distribution,
+            @Value("${app.payment.simulator.latency.value:100ms}") Duration latency,
+            @Value("${app.payment.simulator.latency.sigma:0.5}") double sigma,
+            @Value("${app.payment.simulator.latency.stall-rate:0.01}") double stallRate,
+            @Value("${app.payment.simulator.latency.stall:5s}") Duration stallLatency,
+            @Value("${app.payment.simulator.latency.per-batched-charge:2ms}") Duration perBatchedCharge,
+            @Value("${app.payment.simulator.decline-rate:0.0}") double declineRate,
+            @Value("${app.payment.simulator.error-rate:0.0}") double errorRate,
+            @Value("${app.payment.simulator.timeout-rate:0.0}") double timeoutRate,
+            @Value("${app.payment.simulator.timeout:2s}") Duration timeout) {
+        this(new Settings(LatencyDistribution.valueOf(distribution.toUpperCase(Locale.ROOT)), latency, sigma,
+                stallRate, stallLatency, perBatchedCharge, declineRate, errorRate, timeoutRate, timeout));
+    }
+
+    SimulatedPaymentGateway(Settings settings) {
+        this.configured = settings;
+        this.settings = new AtomicReference<>(settings);
+    }
+
+    public Settings getSettings() {
+        return settings.get();
+    }
+
+    public void setSettings(Settings settings) {
+        this.settings.set(settings);
+        log.info("Payment simulator settings changed to {}", settings);
+    }
+
+    /** Restores the settings the application was started with. */
+    public void resetSettings() {
+        setSettings(configured);
+    }
+
+    @Override
+    public PaymentResult charge(Long userId, BigDecimal amount, String paymentReference) {
+        log.debug("Processing payment for user {}: amount {}", userId, amount);
+        Settings current = settings.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        if (!simulateCall(current, random, current.sampleLatency(random))) {
+            log.error("Payment processing interrupted for user {}", userId);
+            return PaymentResult.failure("Payment processing interrupted");
+        }
+        return take(current, random, userId, paymentReference);
+    }
+
+    @Override
+    public List<PaymentResult> chargeBatch(List<PaymentCharge> charges) {
+        log.debug("Processing payment batch of {} charges", charges.size());
+        Settings current = settings.get();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        boolean completed = simulateCall(current, random,
+                current.sampleLatency(random).plus(current.perBatchedCharge().multipliedBy(charges.size())));
+
+        List<PaymentResult> results = new ArrayList<>(charges.size());
+        for (PaymentCharge charge : charges) {
+            results.add(completed
+                    ? take(current, random, charge.userId(), charge.paymentReference())
+                    : PaymentResult.failure("Payment processing interrupted"));
+        }
+        return results;
+    }
+
+    /**
+     * Waits like a gateway call would, failing the configured share of calls.
+     *
+     * @return false if the wait was interrupted
+     * @throws PaymentGatewayException for a simulated timeout or gateway error
+     */
+    private static boolean simulateCall(Settings settings, ThreadLocalRandom random, Duration latency) {
+        double fault = random.nextDouble();
+        if (fault < settings.timeoutRate()) {
+            sleep(settings.timeout());
+            throw new PaymentGatewayException("Simulated gateway timeout after " + settings.timeout());
+        }
+        if (!sleep(latency)) {
+            return false;
+        }
+        if (fault < settings.timeoutRate() + settings.errorRate()) {
+            throw new PaymentGatewayException("Simulated gateway error 503");
+        }
+        return true;
+    }
+
+    private PaymentResult take(Settings settings, ThreadLocalRandom random, Long userId, String paymentReference) {
+        PaymentResult previous = resultsByReference.get(paymentReference);
+        if (previous != null) {
+            log.info("Payment {} for user {} already processed; returning original result", paymentReference, userId);
+            return previous;
+        }
+
+        PaymentResult result;
+        if (random.nextDouble() < settings.declineRate()) {
+            log.debug("Payment declined for user {} by simulator", userId);
+            result = PaymentResult.failure("Card declined");
+        } else {
+            String transactionId = UUID.randomUUID().toString();
+            log.debug("Payment successful for user {}: transaction ID {}", userId, transactionId);
+            result = PaymentResult.success(transactionId);
+        }
+        resultsByReference.put(paymentReference, result);
+        return result;
+    }
+
+    private static boolean sleep(Duration latency) {
+        try {
+            Thread.sleep(latency.toMillis(), latency.toNanosPart() % 1_000_000);
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.response.DiscountTerms;
+import com.firstclub.membership.model.enums.BenefitType;
+
+import java.math.BigDecimal;
+
+/**
+ * Immutable entitlement snapshot of one tier: a bitset of its active benefit
+ * types, indexed by BenefitType ordinal, the value of each, and the fixed-point
+ * discount terms derived from those values.
+ */
+final class TierEntitlements {
+
+    private static final BenefitType[] TYPES = BenefitType.values();
+
+    static {
+        if (TYPES.length > Long.SIZE) {
+            throw new IllegalStateException("BenefitType no longer fits in a 64-bit entitlement mask");
+        }
+    }
+
+    private final long tierId;
+    private final String tierName;
+    private final long mask;
+    private final BigDecimal[] values;
+    private final DiscountTerms discountTerms;
+
+    private TierEntitlements(long tierId, String tierName, long mask, BigDecimal[] values) {
+        this.tierId = tierId;
+        this.tierName = tierName;
+        this.mask = mask;
+        this.values = values;
+        this.discountTerms = new DiscountTerms(tierId,
+                fixedPoint(BenefitType.PERCENTAGE_DISCOUNT),
+                fixedPoint(BenefitType.FIXED_DISCOUNT),
+                fixedPoint(BenefitType.CASHBACK));
+    }
+
+    long tierId() {
+        return tierId;
+    }
+
+    String tierName() {
+        return tierName;
+    }
+
+    boolean has(BenefitType type) {
+        return (mask & (1L << type.ordinal())) != 0;
+    }
+
+    BigDecimal value(BenefitType type) {
+        return values[type.ordinal()];
+    }
+
+    DiscountTerms discountTerms() {
+        return discountTerms;
+    }
+
+    private long fixedPoint(BenefitType type) {
+        return has(type) ? DiscountTerms.toFixedPoint(value(type)) : 0;
+    }
+
+    static Builder builder(long tierId, String tierName) {
+        return new Builder(tierId, tierName);
+    }
+
+    static final class Builder {
+
+        private final long tierId;
+        private final String tierName;
+        private final BigDecimal[] values = new BigDecimal[TYPES.length];
+        private long mask;
+
+        private Builder(long tierId, String tierName) {
+            this.tierId = tierId;
+            this.tierName = tierName;
+        }
+
+        /**
+         * Adds a benefit. When a tier has several active benefits of one type
+         * the largest value wins.
+         */
+        Builder add(BenefitType type, BigDecimal value) {
+            int ordinal = type.ordinal();
+            mask |= 1L << ordinal;
+            if (value != null && (values[ordinal] == null || value.compareTo(values[ordinal]) > 0)) {
+                values[ordinal] = value;
+            }
+            return this;
+        }
+
+        TierEntitlements build() {
+            return new TierEntitlements(tierId, tierName, mask, values.clone());
+        }
+    }
+}
@@ -0,0 +1,405 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.response.TransactionResponse;
+import com.firstclub.membership.exception.InvalidOperationException;
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.service.TransactionPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Implementation of TransactionPartitionService backed by PostgreSQL declarative
+ * range partitioning. Partitions are named membership_transactions_pYYYYMM.
+ *
+ * The startup check runs once all singletons exist but before the web server
+ * and the schedulers start, so the table conversion (which holds an exclusive
+ * lock while it copies the rows) never blocks requests being served.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class TransactionPartitionServiceImpl implements TransactionPartitionService, SmartInitializingSingleton {
+
+    private static final String TABLE = "membership_transactions";
+    private static final String LEGACY_TABLE = TABLE + "_legacy";
+    private static final String DEFAULT_PARTITION = TABLE + "_default";
+    private static final String ID_SEQUENCE = TABLE + "_pid_seq";
+    private static final Pattern PARTITION_NAME = Pattern.compile(TABLE + "_p(\\d{6})");
+    private static final DateTimeFormatter PARTITION_SUFFIX = DateTimeFormatter.ofPattern("yyyyMM");
+    private static final int ARCHIVE_FETCH_SIZE = 5000;
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final MembershipPlanRepository planRepository;
+    private final MembershipTierRepository tierRepository;
+
+    @Value("${app.transactions.partitioning.enabled:true}")
+    private boolean partitioningEnabled;
+
+    @Value("${app.transactions.partitioning.startup-check:true}")
+    private boolean startupCheck;
+
+    @Value("${app.transactions.partitioning.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${app.transactions.partitioning.retention-months:24}")
+    private int retentionMonths;
+
+    @Value("${app.transactions.partitioning.archive-dir:./archive/membership_transactions}")
+    private String archiveDir;
+
+    @Value("${app.transactions.partitioning.archive-read-max-months:12}")
+    private int archiveReadMaxMonths;
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        if (!partitioningEnabled) {
+            log.info("Transaction partitioning is disabled via configuration.");
+            return;
+        }
+        if (!startupCheck) {
+            log.info("Skipping partition check on startup; the maintenance job creates future partitions.");
+            return;
+        }
+        ensurePartitioned();
+        createFuturePartitions();
+    }
+
+    @Override
+    public void ensurePartitioned() {
+        if (isPartitioned()) {
+            return;
+        }
+
+        log.info("Converting {} into a monthly range-partitioned table", TABLE);
+        transactionTemplate.executeWithoutResult(status -> {
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " RENAME TO " + LEGACY_TABLE);
+            jdbcTemplate.execute("CREATE TABLE " + TABLE + " (LIKE " + LEGACY_TABLE
+                    + " INCLUDING DEFAULTS INCLUDING CONSTRAINTS) PARTITION BY RANGE (transaction_date)");
+
+            // Identity columns are not supported on partitioned tables before PostgreSQL 17,
+            // so ids come from a plain sequence continuing where the old identity left off.
+            jdbcTemplate.execute("CREATE SEQUENCE IF NOT EXISTS " + ID_SEQUENCE);
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ALTER COLUMN id SET DEFAULT nextval('" + ID_SEQUENCE + "')");
+            jdbcTemplate.execute("ALTER SEQUENCE " + ID_SEQUENCE + " OWNED BY " + TABLE + ".id");
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD PRIMARY KEY (id, transaction_date)");
+            jdbcTemplate.execute("CREATE INDEX IF NOT EXISTS idx_membership_transactions_membership_date ON "
+                    + TABLE + " (membership_id, transaction_date DESC)");
+            jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + DEFAULT_PARTITION + " PARTITION OF " + TABLE + " DEFAULT");
+
+            Timestamp oldest = jdbcTemplate.queryForObject(
+                    "SELECT MIN(transaction_date) FROM " + LEGACY_TABLE, Timestamp.class);
+            YearMonth firstMonth = oldest != null
+                    ? YearMonth.from(oldest.toLocalDateTime())
+                    : YearMonth.now();
+            for (YearMonth month = firstMonth; !month.isAfter(YearMonth.now().plusMonths(monthsAhead)); month = month.plusMonths(1)) {
+                createPartition(month);
+            }
+
+            jdbcTemplate.execute("INSERT INTO " + TABLE + " SELECT * FROM " + LEGACY_TABLE);
+            jdbcTemplate.execute("SELECT setval('" + ID_SEQUENCE + "', COALESCE((SELECT MAX(id) FROM " + TABLE + "), 0) + 1, false)");
+
+            // LIKE copies CHECK and NOT NULL constraints only; re-create the foreign keys
+            // under their original names so schema validation still recognises them.
+            List<Map<String, Object>> foreignKeys = jdbcTemplate.queryForList(
+                    "SELECT quote_ident(conname) AS conname, pg_get_constraintdef(oid) AS definition FROM pg_constraint "
+                            + "WHERE conrelid = ?::regclass AND contype = 'f'", LEGACY_TABLE);
+            for (Map<String, Object> foreignKey : foreignKeys) {
+                jdbcTemplate.execute("ALTER TABLE " + TABLE + " ADD CONSTRAINT " + foreignKey.get("conname")
+                        + " " + foreignKey.get("definition"));
+            }
+
+            // No CASCADE: anything else still depending on the old table must fail the conversion
+            jdbcTemplate.execute("DROP TABLE " + LEGACY_TABLE);
+        });
+        log.info("Successfully converted {} into a partitioned table", TABLE);
+    }
+
+    @Override
+    @Scheduled(cron = "${app.transactions.partitioning.maintenance-cron:0 30 1 * * ?}")
+    public int createFuturePartitions() {
+        if (!partitioningEnabled || !isPartitioned()) {
+            return 0;
+        }
+
+        Set<YearMonth> existing = findPartitionMonths();
+        int created = 0;
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = YearMonth.now().plusMonths(i);
+            if (!existing.contains(month)) {
+                createPartition(month);
+                created++;
+            }
+        }
+
+        if (created > 0) {
+            log.info("Created {} future partition(s) for {}", created, TABLE);
+        }
+        return created;
+    }
+
+    @Override
+    @Scheduled(cron = "${app.transactions.partitioning.archive-cron:0 0 3 1 * ?}")
+    public int archiveExpiredPartitions() {
+        if (!partitioningEnabled || !isPartitioned()) {
+            return 0;
+        }
+
+        YearMonth cutoff = YearMonth.now().minusMonths(retentionMonths);
+        List<YearMonth> expired = findPartitionMonths().stream()
+                .filter(month -> month.isBefore(cutoff))
+                .sorted()
+                .collect(Collectors.toList());
+
+        int archived = 0;
+        for (YearMonth month : expired) {
+            try {
+                archivePartition(month);
+                archived++;
+            } catch (Exception e) {
+                log.error("Failed to archive partition {} of {}", partitionName(month), TABLE, e);
+            }
+        }
+
+        if (archived > 0) {
+            log.info("Archived {} partition(s) of {} older than {}", archived, TABLE, cutoff);
+        }
+        return archived;
+    }
+
+    @Override
+    public List<TransactionResponse> readArchivedTransactions(Collection<Long> membershipIds, YearMonth from, YearMonth to) {
+        if (from.isAfter(to)) {
+            throw new InvalidOperationException("Archive range start must not be after its end");
+        }
+        if (from.plusMonths(archiveReadMaxMonths).isBefore(to.plusMonths(1))) {
+            throw new InvalidOperationException("Archive range must not span more than " + archiveReadMaxMonths + " months");
+        }
+        if (membershipIds.isEmpty()) {
+            return List.of();
+        }
+
+        Set<Long> wanted = new HashSet<>(membershipIds);
+        List<ArchivedTransaction> rows = new ArrayList<>();
+        for (YearMonth month = from; !month.isAfter(to); month = month.plusMonths(1)) {
+            Path file = archiveFile(month);
+            if (!Files.exists(file)) {
+                continue;
+            }
+            try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                    new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+                String line;
+                while ((line = reader.readLine()) != null) {
+                    ArchivedTransaction row = objectMapper.readValue(line, ArchivedTransaction.class);
+                    if (wanted.contains(row.membershipId())) {
+                        rows.add(row);
+                    }
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException("Failed to read transaction archive " + file, e);
+            }
+        }
+
+        Map<Long, String> planNames = planRepository.findAllById(rows.stream()
+                        .flatMap(row -> Stream.of(row.oldPlanId(), row.newPlanId()))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(MembershipPlan::getId, MembershipPlan::getName));
+        Map<Long, String> tierNames = tierRepository.findAllById(rows.stream()
+                        .flatMap(row -> Stream.of(row.oldTierId(), row.newTierId()))
+                        .filter(Objects::nonNull)
+                        .collect(Collectors.toSet())).stream()
+                .collect(Collectors.toMap(MembershipTier::getId, MembershipTier::getName));
+
+        return rows.stream()
+                .sorted(Comparator.comparing(ArchivedTransaction::transactionDate).reversed())
+                .map(row -> TransactionResponse.builder()
+                        .id(row.id())
+                        .type(row.type())
+                        .amount(row.amount())
+                        .oldPlan(lookup(planNames, row.oldPlanId()))
+                        .newPlan(lookup(planNames, row.newPlanId()))
+                        .oldTier(lookup(tierNames, row.oldTierId()))
+                        .newTier(lookup(tierNames, row.newTierId()))
+                        .notes(row.notes())
+                        .transactionDate(row.transactionDate())
+                        .build())
+                .collect(Collectors.toList());
+    }
+
+    private void archivePartition(YearMonth month) throws IOException {
+        String partition = partitionName(month);
+        Path target = archiveFile(month);
+        Files.createDirectories(target.getParent());
+        Path temp = target.resolveSibling(target.getFileName() + ".tmp");
+
+        // Stream the still-attached partition out through a server-side cursor
+        // (requires a transaction) so the heap stays flat. The SHARE lock blocks
+        // writes to this partition only, so the file matches what gets dropped.
+        JdbcTemplate cursorTemplate = new JdbcTemplate(jdbcTemplate.getDataSource());
+        cursorTemplate.setFetchSize(ARCHIVE_FETCH_SIZE);
+        long count;
+        try (BufferedWriter writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(Files.newOutputStream(temp)), StandardCharsets.UTF_8))) {
+            count = transactionTemplate.execute(status -> {
+                jdbcTemplate.execute("LOCK TABLE " + partition + " IN SHARE MODE");
+                long[] written = {0};
+                cursorTemplate.query("SELECT id, membership_id, type, amount, old_plan_id, new_plan_id, "
+                        + "old_tier_id, new_tier_id, notes, transaction_date FROM " + partition, rs -> {
+                    try {
+                        writer.write(objectMapper.writeValueAsString(toArchivedTransaction(rs)));
+                        writer.newLine();
+                        written[0]++;
+                    } catch (IOException e) {
+                        throw new UncheckedIOException(e);
+                    }
+                });
+                return written[0];
+            });
+        }
+
+        long archivedRows = countArchivedRows(temp);
+        if (archivedRows != count) {
+            throw new IOException("Archive " + temp + " holds " + archivedRows + " rows, expected " + count);
+        }
+        Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+
+        // Only a verified archive lets the partition go; detach and drop together so a
+        // failure leaves it attached and the next run archives it again.
+        transactionTemplate.executeWithoutResult(status -> {
+            Long current = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM " + partition, Long.class);
+            if (current == null || current != count) {
+                throw new IllegalStateException("Partition " + partition + " changed while it was archived");
+            }
+            jdbcTemplate.execute("ALTER TABLE " + TABLE + " DETACH PARTITION " + partition);
+            jdbcTemplate.execute("DROP TABLE " + partition);
+        });
+        log.info("Archived partition {} ({} rows) to {}", partition, count, target);
+    }
+
+    private long countArchivedRows(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(Files.newInputStream(file)), StandardCharsets.UTF_8))) {
+            return reader.lines().count();
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+
+    private ArchivedTransaction toArchivedTransaction(ResultSet rs) throws SQLException {
+        return new ArchivedTransaction(
+                rs.getLong("id"),
+                rs.getLong("membership_id"),
+                rs.getString("type"),
+                rs.getBigDecimal("amount"),
+                rs.getObject("old_plan_id", Long.class),
+                rs.getObject("new_plan_id", Long.class),
+                rs.getObject("old_tier_id", Long.class),
+                rs.getObject("new_tier_id", Long.class),
+                rs.getString("notes"),
+                rs.getTimestamp("transaction_date").toLocalDateTime());
+    }
+
+    private void createPartition(YearMonth month) {
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS " + partitionName(month) + " PARTITION OF " + TABLE
+                + " FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')");
+    }
+
+    private boolean isPartitioned() {
+        Integer count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM pg_partitioned_table pt JOIN pg_class c ON c.oid = pt.partrelid "
+                        + "WHERE c.relname = ? AND pg_table_is_visible(c.oid)",
+                Integer.class, TABLE);
+        return count != null && count > 0;
+    }
+
+    private Set<YearMonth> findPartitionMonths() {
+        List<String> names = jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i "
+                        + "JOIN pg_class c ON c.oid = i.inhrelid "
+                        + "JOIN pg_class p ON p.oid = i.inhparent "
+                        + "WHERE p.relname = ? AND pg_table_is_visible(p.oid)",
+                String.class, TABLE);
+
+        Set<YearMonth> months = new HashSet<>();
+        for (String name : names) {
+            Matcher matcher = PARTITION_NAME.matcher(name);
+            if (matcher.matches()) {
+                months.add(YearMonth.parse(matcher.group(1), PARTITION_SUFFIX));
+            }
+        }
+        return months;
+    }
+
+    private String partitionName(YearMonth month) {
+        return TABLE + "_p" + month.format(PARTITION_SUFFIX);
+    }
+
+    private Path archiveFile(YearMonth month) {
+        return Paths.get(archiveDir, partitionName(month) + ".ndjson.gz");
+    }
+
+    private static String lookup(Map<Long, String> names, Long id) {
+        return id != null ? names.get(id) : null;
+    }
+
+    /**
+     * One archived membership_transactions row, stored as a single NDJSON line.
+     */
+    record ArchivedTransaction(
+            Long id,
+            Long membershipId,
+            String type,
+            BigDecimal amount,
+            Long oldPlanId,
+            Long newPlanId,
+            Long oldTierId,
+            Long newTierId,
+            String notes,
+            LocalDateTime transactionDate) {
+    }
+}
@@ -0,0 +1,298 @@
+package com.firstclub.membership.service.impl;
+
+import java.util.Arrays;
+import java.util.concurrent.locks.StampedLock;
+
+/**
+ * Compact concurrent map from user ID to tier ID for the entitlement hot path.
+ *
+ * Entries live in primitive open-addressing tables (linear probing, at most
+ * half full) split into independently locked segments, so a cached user costs
+ * about 32 bytes and a lookup allocates nothing. Each entry packs the tier ID
+ * with the epoch second at which it stops being trusted. Readers use an
+ * optimistic StampedLock read and only take the read lock if a writer
+ * interfered. Expired entries are dropped when a segment grows, and a segment
+ * that reaches its share of the size limit is reset.
+ *
+ * Every remove or clear bumps its segment's generation. A loader reads the
+ * generation before querying and stores with {@link #putIfGeneration}, so a
+ * value loaded before an invalidation can never overwrite it; a load racing
+ * any removal in the same segment is simply not cached.
+ */
+final class UserTierIndex {
+
+    /** Returned by {@link #get} when the user has no entry. */
+    static final long MISSING = -1L;
+
+    private static final int SEGMENT_BITS = 6;
+    private static final int SEGMENTS = 1 << SEGMENT_BITS;
+    private static final int INITIAL_CAPACITY = 64;
+    private static final long MAX_TIER_ID = Integer.MAX_VALUE;
+    private static final long ANY_GENERATION = -1L;
+
+    private final Segment[] segments = new Segment[SEGMENTS];
+    private final int maxEntriesPerSegment;
+
+    UserTierIndex(int maxEntries) {
+        this.maxEntriesPerSegment = Math.max(INITIAL_CAPACITY / 2, maxEntries / SEGMENTS);
+        for (int i = 0; i < SEGMENTS; i++) {
+            segments[i] = new Segment();
+        }
+    }
+
+    /**
+     * Packs a tier ID and an expiry into one entry value.
+     *
+     * @param tierId The tier ID, 0 meaning "no active membership"
+     * @param expiresAtSecond Epoch second after which the entry must be reloaded
+     */
+    static long pack(long tierId, long expiresAtSecond) {
+        if (tierId < 0 || tierId > MAX_TIER_ID) {
+            throw new IllegalArgumentException("Tier ID out of range for the entitlement index: " + tierId);
+        }
+        return (tierId << 32) | (expiresAtSecond & 0xFFFFFFFFL);
+    }
+
+    static long tierId(long entry) {
+        return entry >>> 32;
+    }
+
+    static long expiresAtSecond(long entry) {
+        return entry & 0xFFFFFFFFL;
+    }
+
+    /**
+     * @return The packed entry for the user, or {@link #MISSING}
+     */
+    long get(long userId) {
+        long hash = mix(userId);
+        return segmentFor(hash).get(userId, (int) hash);
+    }
+
+    void put(long userId, long entry) {
+        long hash = mix(userId);
+        segmentFor(hash).put(userId, (int) hash, entry, maxEntriesPerSegment, ANY_GENERATION);
+    }
+
+    /**
+     * @return The invalidation generation covering the user, to pass to {@link #putIfGeneration}
+     */
+    long generation(long userId) {
+        return segmentFor(mix(userId)).generation;
+    }
+
+    /**
+     * Stores the entry unless the user's segment was invalidated since the generation was read.
+     *
+     * @return true if the entry was stored
+     */
+    boolean putIfGeneration(long userId, long entry, long generation) {
+        long hash = mix(userId);
+        return segmentFor(hash).put(userId, (int) hash, entry, maxEntriesPerSegment, generation);
+    }
+
+    void remove(long userId) {
+        long hash = mix(userId);
+        segmentFor(hash).remove(userId, (int) hash);
+    }
+
+    void clear() {
+        for (Segment segment : segments) {
+            segment.clear();
+        }
+    }
+
+    int size() {
+        int size = 0;
+        for (Segment segment : segments) {
+            size += segment.size;
+        }
+        return size;
+    }
+
+    private Segment segmentFor(long hash) {
+        return segments[(int) (hash >>> (Long.SIZE - SEGMENT_BITS))];
+    }
+
+    private static long mix(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return h ^ (h >>> 29);
+    }
+
+    private static final class Table {
+        final long[] keys;
+        final long[] entries;
+
+        Table(int capacity) {
+            keys = new long[capacity];
+            entries = new long[capacity];
+            Arrays.fill(entries, MISSING);
+        }
+    }
+
+    private static final class Segment {
+
+        private final StampedLock lock = new StampedLock();
+        private volatile Table table = new Table(INITIAL_CAPACITY);
+        private volatile long generation;
+        private int size;
+
+        long get(long key, int hash) {
+            long stamp = lock.tryOptimisticRead();
+            long entry = find(table, key, hash);
+            if (!lock.validate(stamp)) {
+                stamp = lock.readLock();
+                try {
+                    entry = find(table, key, hash);
+                } finally {
+                    lock.unlockRead(stamp);
+                }
+            }
+            return entry;
+        }
+
+        boolean put(long key, int hash, long entry, int maxEntries, long expectedGeneration) {
+            long stamp = lock.writeLock();
+            try {
+                if (expectedGeneration != ANY_GENERATION && expectedGeneration != generation) {
+                    return false;
+                }
+                Table current = table;
+                if ((size + 1) * 2 > current.keys.length || size >= maxEntries) {
+                    current = grow(current, maxEntries);
+                }
+                int mask = current.keys.length - 1;
+                int slot = hash & mask;
+                while (current.entries[slot] != MISSING) {
+                    if (current.keys[slot] == key) {
+                        current.entries[slot] = entry;
+                        return true;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+                current.keys[slot] = key;
+                current.entries[slot] = entry;
+                size++;
+                return true;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void remove(long key, int hash) {
+            long stamp = lock.writeLock();
+            try {
+                generation++;
+                Table current = table;
+                int mask = current.keys.length - 1;
+                int slot = hash & mask;
+                while (current.entries[slot] != MISSING) {
+                    if (current.keys[slot] == key) {
+                        deleteSlot(current, slot);
+                        size--;
+                        return;
+                    }
+                    slot = (slot + 1) & mask;
+                }
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        void clear() {
+            long stamp = lock.writeLock();
+            try {
+                generation++;
+                table = new Table(INITIAL_CAPACITY);
+                size = 0;
+            } finally {
+                lock.unlockWrite(stamp);
+            }
+        }
+
+        /**
+         * Probes at most one full table length, so a torn view seen by an
+         * optimistic reader can never loop forever; validation discards it.
+         */
+        private static long find(Table table, long key, int hash) {
+            long[] keys = table.keys;
+            long[] entries = table.entries;
+            int mask = keys.length - 1;
+            int slot = hash & mask;
+            for (int probes = 0; probes < keys.length; probes++) {
+                long entry = entries[slot];
+                if (entry == MISSING) {
+                    return MISSING;
+                }
+                if (keys[slot] == key) {
+                    return entry;
+                }
+                slot = (slot + 1) & mask;
+            }
+            return MISSING;
+        }
+
+        /** Rehashes the unexpired entries into a larger table, or starts over when the segment is full. */
+        private Table grow(Table current, int maxEntries) {
+            long nowSecond = System.currentTimeMillis() / 1000;
+            int live = 0;
+            for (int i = 0; i < current.keys.length; i++) {
+                long entry = current.entries[i];
+                if (entry != MISSING && expiresAtSecond(entry) > nowSecond) {
+                    live++;
+                }
+            }
+
+            int capacity = INITIAL_CAPACITY;
+            if (live < maxEntries) {
+                while (capacity < (live + 1) * 4) {
+                    capacity <<= 1;
+                }
+            }
+            Table grown = new Table(capacity);
+            size = 0;
+            if (live < maxEntries) {
+                int mask = capacity - 1;
+                for (int i = 0; i < current.keys.length; i++) {
+                    long entry = current.entries[i];
+                    if (entry == MISSING || expiresAtSecond(entry) <= nowSecond) {
+                        continue;
+                    }
+                    long key = current.keys[i];
+                    int slot = (int) mix(key) & mask;
+                    while (grown.entries[slot] != MISSING) {
+                        slot = (slot + 1) & mask;
+                    }
+                    grown.keys[slot] = key;
+                    grown.entries[slot] = entry;
+                    size++;
+                }
+            }
+            table = grown;
+            return grown;
+        }
+
+        /** Backward-shift deletion keeps probe chains intact without tombstones. */
+        private static void deleteSlot(Table table, int slot) {
+            long[] keys = table.keys;
+            long[] entries = table.entries;
+            int mask = keys.length - 1;
+            int hole = slot;
+            int next = (hole + 1) & mask;
+            while (entries[next] != MISSING) {
+                int home = (int) mix(keys[next]) & mask;
+                // Move the entry back unless its home slot lies cyclically in (hole, next]
+                boolean stays = hole <= next
+                        ? hole < home && home <= next
+                        : hole < home || home <= next;
+                if (!stays) {
+                    keys[hole] = keys[next];
+                    entries[hole] = entries[next];
+                    hole = next;
+                }
+                next = (next + 1) & mask;
+            }
+            entries[hole] = MISSING;
+        }
+    }
+}
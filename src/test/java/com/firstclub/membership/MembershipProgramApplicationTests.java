@@ -1,10 +1,15 @@
 package com.firstclub.membership;
 
+import org.junit.jupiter.api.Test;
 import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
 
+// The loadtest profile runs on an embedded database and in-memory stores, so the context loads without infrastructure
 @SpringBootTest
+@ActiveProfiles("loadtest")
 class MembershipProgramApplicationTests {
 
+	@Test
 	void contextLoads() {
 	}
 
@@ -0,0 +1,111 @@
+package com.firstclub.membership.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.response.ApiResponse;
+import com.firstclub.membership.dto.response.PlanResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Compares the per-request cost of the catalog list endpoint before and after
+ * pre-encoding: Jackson serialization of the response on every request versus
+ * copying the cached JSON (or gzip) bytes to the output stream.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.firstclub.membership.benchmark.CatalogSerializationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class CatalogSerializationBenchmark {
+
+    @Param({"3", "50"})
+    private int planCount;
+
+    private ObjectMapper objectMapper;
+    private List<PlanResponse> plans;
+    private byte[] identity;
+    private byte[] gzip;
+
+    @Setup
+    public void setUp() throws IOException {
+        objectMapper = Jackson2ObjectMapperBuilder.json().build();
+        plans = new ArrayList<>(planCount);
+        for (long i = 1; i <= planCount; i++) {
+            plans.add(PlanResponse.builder()
+                .id(i)
+                .name("Plan " + i)
+                .duration(i % 3 == 0 ? "YEARLY" : i % 2 == 0 ? "QUARTERLY" : "MONTHLY")
+                .price(BigDecimal.valueOf(99L * i, 2))
+                .description("Membership plan number " + i + " with tiered benefits")
+                .active(true)
+                .build());
+        }
+
+        identity = objectMapper.writeValueAsBytes(ApiResponse.success(plans));
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(identity);
+        }
+        gzip = compressed.toByteArray();
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream serializePerRequest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length);
+        objectMapper.writeValue(out, ApiResponse.success(plans));
+        return out;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream serializeAndGzipPerRequest() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(gzip.length);
+        try (GZIPOutputStream compressed = new GZIPOutputStream(out)) {
+            objectMapper.writeValue(compressed, ApiResponse.success(plans));
+        }
+        return out;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream preEncoded() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(identity.length);
+        out.write(identity);
+        return out;
+    }
+
+    @Benchmark
+    public ByteArrayOutputStream preEncodedGzip() throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(gzip.length);
+        out.write(gzip);
+        return out;
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(CatalogSerializationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
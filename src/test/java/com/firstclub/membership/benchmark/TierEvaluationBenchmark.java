@@ -0,0 +1,109 @@
+package com.firstclub.membership.benchmark;
+
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.TierBenefit;
+import com.firstclub.membership.model.enums.BenefitType;
+import com.firstclub.membership.model.projection.ActiveTier;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.TierBenefitRepository;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.service.CatalogVersionService;
+import com.firstclub.membership.service.EntitlementService;
+import com.firstclub.membership.service.impl.EntitlementServiceImpl;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Rows per second of tier evaluation: resolving a user to their tier's
+ * entitlements through EntitlementService, with the user index warm. Every
+ * operation evaluates one user row, so the score is rows per second.
+ *
+ * Run with: mvn test-compile exec:java -Dexec.classpathScope=test
+ *   -Dexec.mainClass=com.firstclub.membership.benchmark.TierEvaluationBenchmark
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class TierEvaluationBenchmark {
+
+    private static final int USERS = 100_000;
+    private static final int TIERS = 3;
+
+    private EntitlementService entitlementService;
+
+    @Setup
+    public void setUp() {
+        List<MembershipTier> tiers = new ArrayList<>();
+        List<TierBenefit> benefits = new ArrayList<>();
+        for (long id = 1; id <= TIERS; id++) {
+            MembershipTier tier = MembershipTier.builder().id(id).name("Tier " + id).level((int) id).build();
+            tiers.add(tier);
+            for (BenefitType type : BenefitType.values()) {
+                if (type.ordinal() % TIERS < id) {
+                    benefits.add(TierBenefit.builder().tier(tier).type(type).value(BigDecimal.valueOf(5 * id)).build());
+                }
+            }
+        }
+
+        UserMembershipRepository membershipRepository = mock(UserMembershipRepository.class);
+        when(membershipRepository.findActiveTier(anyLong(), any())).thenAnswer(invocation -> {
+            long userId = invocation.getArgument(0);
+            return Optional.of(new ActiveTier(userId % TIERS + 1, LocalDateTime.now().plusYears(1)));
+        });
+        MembershipTierRepository tierRepository = mock(MembershipTierRepository.class);
+        when(tierRepository.findAllByActiveOrderByLevelDesc(anyBoolean())).thenReturn(tiers);
+        TierBenefitRepository benefitRepository = mock(TierBenefitRepository.class);
+        when(benefitRepository.findAllActiveOfActiveTiers()).thenReturn(benefits);
+        CatalogVersionService catalogVersionService = mock(CatalogVersionService.class);
+        when(catalogVersionService.currentVersion()).thenReturn(1L);
+
+        entitlementService = new EntitlementServiceImpl(membershipRepository, tierRepository, benefitRepository,
+                catalogVersionService, new TransactionTemplate(mock(PlatformTransactionManager.class)),
+                Duration.ofHours(1), USERS * 2);
+        for (long userId = 1; userId <= USERS; userId++) {
+            entitlementService.getDiscountTerms(userId);
+        }
+    }
+
+    @Benchmark
+    public Object evaluateUser() {
+        long userId = ThreadLocalRandom.current().nextLong(1, USERS + 1);
+        return entitlementService.getEntitlements(userId, null);
+    }
+
+    public static void main(String[] args) throws RunnerException {
+        new Runner(new OptionsBuilder()
+            .include(TierEvaluationBenchmark.class.getSimpleName())
+            .build()).run();
+    }
+}
@@ -0,0 +1,71 @@
+package com.firstclub.membership.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitTest {
+
+    private static final long TARGET = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(200);
+
+    @Test
+    void refusesRequestsOverLimitUntilSlotIsReleased() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(2, 1, 10, TARGET, 0.5);
+
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isTrue();
+        assertThat(limit.tryAcquire()).isFalse();
+        assertThat(limit.getInFlight()).isEqualTo(2);
+
+        limit.release(FAST, false);
+        assertThat(limit.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void backsOffOnSlowOrFailedRequestsDownToMinimum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 2, 10, TARGET, 0.5);
+
+        limit.tryAcquire();
+        limit.release(SLOW, false);
+        assertThat(limit.getLimit()).isEqualTo(5);
+
+        limit.tryAcquire();
+        limit.release(FAST, true);
+        assertThat(limit.getLimit()).isEqualTo(2);
+
+        limit.tryAcquire();
+        limit.release(SLOW, true);
+        assertThat(limit.getLimit()).isEqualTo(2);
+    }
+
+    @Test
+    void growsOnlyWhileLimitIsUsedAndNotPastMaximum() {
+        AdaptiveConcurrencyLimit limit = new AdaptiveConcurrencyLimit(10, 1, 11, TARGET, 0.5);
+
+        // One request in flight is far below the limit, so a fast sample says nothing
+        limit.tryAcquire();
+        limit.release(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(10);
+
+        for (int i = 0; i < 5; i++) {
+            limit.tryAcquire();
+        }
+        limit.release(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(11);
+
+        limit.tryAcquire();
+        limit.tryAcquire();
+        limit.release(FAST, false);
+        assertThat(limit.getLimit()).isEqualTo(11);
+    }
+
+    @Test
+    void clampsInitialLimitToBounds() {
+        assertThat(new AdaptiveConcurrencyLimit(50, 1, 20, TARGET, 0.5).getLimit()).isEqualTo(20);
+        assertThat(new AdaptiveConcurrencyLimit(0, 3, 20, TARGET, 0.5).getLimit()).isEqualTo(3);
+    }
+}
@@ -0,0 +1,148 @@
+package com.firstclub.membership.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import jakarta.servlet.FilterChain;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdmissionControlFilterTest {
+
+    private static final FilterChain OK = (request, response) -> { };
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    @Test
+    void rateLimitsPerPrincipalWith429AndRetryAfter() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 0.5, 2, 10);
+
+        assertThat(send(filter, get("alice"), OK).getStatus()).isEqualTo(200);
+        assertThat(send(filter, get("alice"), OK).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = send(filter, get("alice"), OK);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        // One token refills in two seconds at half a request per second
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("Too many requests for this user");
+        assertThat(send(filter, get("bob"), OK).getStatus()).isEqualTo(200);
+        assertThat(meterRegistry.get("membership.admission.rejected").tag("reason", "user_rate").counter().count())
+            .isEqualTo(1);
+    }
+
+    @Test
+    void ignoresClientSuppliedUserIds() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 0.001, 1, 10);
+
+        MockHttpServletRequest first = get("alice");
+        first.setRequestURI("/api/v1/memberships/users/1/current");
+        first.addHeader("X-User-Id", "1");
+        MockHttpServletRequest second = get("alice");
+        second.setRequestURI("/api/v1/memberships/users/2/current");
+        second.addHeader("X-User-Id", "2");
+
+        assertThat(send(filter, first, OK).getStatus()).isEqualTo(200);
+        assertThat(send(filter, second, OK).getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void keysAnonymousRequestsByClientAddress() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 0.001, 1, 10);
+
+        assertThat(send(filter, get(null), OK).getStatus()).isEqualTo(200);
+        assertThat(send(filter, get(null), OK).getStatus()).isEqualTo(429);
+        MockHttpServletRequest otherClient = get(null);
+        otherClient.setRemoteAddr("10.0.0.2");
+        assertThat(send(filter, otherClient, OK).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void globalRejectionDoesNotSpendUserToken() throws Exception {
+        // The global bucket holds one token and refills one every 50 ms
+        AdmissionControlFilter filter = filter(20, 1, 0.001, 1, 10);
+
+        assertThat(send(filter, get("bob"), OK).getStatus()).isEqualTo(200);
+        MockHttpServletResponse rejected = send(filter, get("alice"), OK);
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(rejected.getContentAsString()).contains("\"error\":\"Too many requests\"");
+
+        Thread.sleep(100);
+        assertThat(send(filter, get("alice"), OK).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void rejectsMutationsOverConcurrencyLimitWith503() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 1000, 1000, 1);
+        AtomicReference<MockHttpServletResponse> nested = new AtomicReference<>();
+
+        MockHttpServletResponse outer = send(filter, put("alice"),
+                (request, response) -> nested.set(send(filter, put("bob"), OK)));
+
+        assertThat(outer.getStatus()).isEqualTo(200);
+        assertThat(nested.get().getStatus()).isEqualTo(503);
+        assertThat(nested.get().getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        assertThat(meterRegistry.get("membership.admission.rejected")
+                .tag("endpoint", "PUT /api/v1/memberships/users/{id}/upgrade").counter().count())
+            .isEqualTo(1);
+        assertThat(send(filter, put("bob"), OK).getStatus()).isEqualTo(200);
+    }
+
+    @Test
+    void readsDoNotTakeConcurrencySlots() throws Exception {
+        AdmissionControlFilter filter = filter(1000, 1000, 1000, 1000, 1);
+        AtomicReference<MockHttpServletResponse> bulkLookup = new AtomicReference<>();
+        AtomicReference<MockHttpServletResponse> read = new AtomicReference<>();
+
+        send(filter, put("alice"), (request, response) -> {
+            MockHttpServletRequest lookup = new MockHttpServletRequest("POST", "/api/v1/memberships/users/current");
+            lookup.setUserPrincipal(() -> "bob");
+            bulkLookup.set(send(filter, lookup, OK));
+            read.set(send(filter, get("bob"), OK));
+        });
+
+        assertThat(bulkLookup.get().getStatus()).isEqualTo(200);
+        assertThat(read.get().getStatus()).isEqualTo(200);
+    }
+
+    private AdmissionControlFilter filter(double globalRate, double globalBurst, double userRate, double userBurst,
+                                         int concurrencyLimit) {
+        AdmissionControlFilter.Settings settings = new AdmissionControlFilter.Settings(
+                globalRate, globalBurst, userRate, userBurst, 100,
+                concurrencyLimit, concurrencyLimit, concurrencyLimit, Duration.ofSeconds(1), 0.9, Duration.ofSeconds(1));
+        return new AdmissionControlFilter(settings, meterRegistry, objectMapper);
+    }
+
+    private static MockHttpServletRequest get(String principal) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/v1/memberships/users/1/current");
+        if (principal != null) {
+            request.setUserPrincipal(() -> principal);
+        }
+        return request;
+    }
+
+    private static MockHttpServletRequest put(String principal) {
+        MockHttpServletRequest request = new MockHttpServletRequest("PUT", "/api/v1/memberships/users/1/upgrade");
+        request.setUserPrincipal(() -> principal);
+        return request;
+    }
+
+    private static MockHttpServletResponse send(AdmissionControlFilter filter, MockHttpServletRequest request,
+                                                FilterChain chain) {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        try {
+            filter.doFilter(request, response, chain);
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return response;
+    }
+}
@@ -0,0 +1,84 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.exception.InvalidOperationException;
+import com.firstclub.membership.service.MembershipService;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.aop.framework.ProxyFactory;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.mock;
+
+class FlightRecorderInterceptorTest {
+
+    private final MembershipFlightRecorder recorder = new MembershipFlightRecorder(false);
+
+    @TempDir
+    Path tempDir;
+
+    @Test
+    void recordsOperationsOnlyWhileEnabled() throws Exception {
+        MembershipService target = mock(MembershipService.class);
+        doAnswer(invocation -> {
+            recorder.current().addLockWait(Duration.ofMillis(3).toNanos());
+            recorder.current().addPaymentTime(Duration.ofMillis(5).toNanos());
+            return null;
+        }).when(target).cancelMembership(anyLong());
+        doThrow(new InvalidOperationException("Can only upgrade to a higher tier"))
+            .when(target).upgradeMembership(anyLong(), anyLong(), anyLong(), any());
+        MembershipService service = proxy(target);
+
+        List<RecordedEvent> events;
+        try (Recording recording = new Recording()) {
+            recording.enable(MembershipOperationEvent.NAME).withThreshold(Duration.ZERO);
+            recording.start();
+
+            service.cancelMembership(1L);
+            recorder.setEnabled(true);
+            service.cancelMembership(2L);
+            assertThatThrownBy(() -> service.upgradeMembership(3L, 4L, 5L, null))
+                .isInstanceOf(InvalidOperationException.class);
+
+            recording.stop();
+            Path file = tempDir.resolve("membership.jfr");
+            recording.dump(file);
+            events = new ArrayList<>(RecordingFile.readAllEvents(file));
+        }
+
+        events.sort(Comparator.comparing(RecordedEvent::getStartTime));
+        assertThat(events).hasSize(2);
+        RecordedEvent cancel = events.get(0);
+        assertThat(cancel.getString("operation")).isEqualTo("cancelMembership");
+        assertThat(cancel.getString("outcome")).isEqualTo("success");
+        assertThat(cancel.getLong("userId")).isEqualTo(2L);
+        assertThat(cancel.getDuration("lockWait")).isEqualTo(Duration.ofMillis(3));
+        assertThat(cancel.getDuration("paymentTime")).isEqualTo(Duration.ofMillis(5));
+
+        RecordedEvent upgrade = events.get(1);
+        assertThat(upgrade.getString("outcome")).isEqualTo("invalid");
+        assertThat(upgrade.getLong("planId")).isEqualTo(4L);
+        assertThat(upgrade.getLong("tierId")).isEqualTo(5L);
+        assertThat(recorder.current()).isSameAs(MembershipFlightRecorder.OperationTimings.NONE);
+    }
+
+    private MembershipService proxy(MembershipService target) {
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(MembershipService.class);
+        factory.addAdvice(new FlightRecorderInterceptor(recorder));
+        return (MembershipService) factory.getProxy();
+    }
+}
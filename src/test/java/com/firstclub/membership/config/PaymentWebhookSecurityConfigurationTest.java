@@ -0,0 +1,62 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.controller.PaymentWebhookController;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.http.MediaType;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+@SpringBootTest(properties = {
+        "app.payment.webhook.secret=" + PaymentWebhookSecurityConfigurationTest.SECRET,
+        "app.outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc
+@ActiveProfiles("loadtest")
+class PaymentWebhookSecurityConfigurationTest {
+
+    static final String SECRET = "webhook-secret";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Test
+    void webhookNeedsNeitherCredentialsNorCsrfToken() throws Exception {
+        String payload = "{\"paymentReference\":\"unknown-ref\",\"status\":\"succeeded\",\"transactionId\":\"tx-1\"}";
+
+        mockMvc.perform(post(PaymentWebhookController.PATH)
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("X-Payment-Signature", sign(payload))
+                        .content(payload))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("X-Content-Type-Options"));
+    }
+
+    @Test
+    void otherEndpointsStillRequireCredentialsAndCsrfToken() throws Exception {
+        mockMvc.perform(get("/api/v1/memberships/users/1/current"))
+                .andExpect(status().isUnauthorized());
+        mockMvc.perform(post("/api/v1/quotes")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{}"))
+                .andExpect(status().isForbidden());
+    }
+
+    private static String sign(String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
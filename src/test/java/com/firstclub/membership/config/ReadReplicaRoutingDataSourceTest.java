@@ -0,0 +1,102 @@
+package com.firstclub.membership.config;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Uses two in-memory H2 databases as stand-ins for the primary and the replica.
+ * Each database holds a single marker row naming itself.
+ */
+class ReadReplicaRoutingDataSourceTest {
+
+    private HikariDataSource primary;
+    private HikariDataSource replica;
+
+    @BeforeEach
+    void setUp() {
+        primary = createDatabase("primary");
+        replica = createDatabase("replica");
+    }
+
+    @AfterEach
+    void tearDown() {
+        primary.close();
+        replica.close();
+    }
+
+    @Test
+    void routesReadOnlyTransactionsToReplica() {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(5), null);
+
+        assertThat(currentDatabase(routing, true)).isEqualTo("replica");
+        assertThat(currentDatabase(routing, false)).isEqualTo("primary");
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsDown() {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(5), null);
+        replica.close();
+
+        assertThat(currentDatabase(routing, true)).isEqualTo("primary");
+        assertThat(routing.isReplicaAvailable()).isFalse();
+    }
+
+    @Test
+    void fallsBackToPrimaryWhenReplicaIsLagging() {
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(primary, replica, Duration.ofSeconds(5), "SELECT 120");
+        routing.checkReplicaHealth();
+
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        assertThat(currentDatabase(routing, true)).isEqualTo("primary");
+    }
+
+    @Test
+    void resumesReplicaRoutingOnceHealthy() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.execute("CREATE TABLE IF NOT EXISTS replica_lag (seconds DOUBLE)");
+        replicaJdbc.execute("DELETE FROM replica_lag");
+        replicaJdbc.update("INSERT INTO replica_lag (seconds) VALUES (?)", 120.0);
+        ReadReplicaRoutingDataSource routing = new ReadReplicaRoutingDataSource(
+                primary, replica, Duration.ofSeconds(5), "SELECT seconds FROM replica_lag");
+
+        routing.checkReplicaHealth();
+        assertThat(routing.isReplicaAvailable()).isFalse();
+        assertThat(currentDatabase(routing, true)).isEqualTo("primary");
+
+        replicaJdbc.update("UPDATE replica_lag SET seconds = ?", 0.5);
+        routing.checkReplicaHealth();
+        assertThat(routing.isReplicaAvailable()).isTrue();
+        assertThat(currentDatabase(routing, true)).isEqualTo("replica");
+    }
+
+    private String currentDatabase(ReadReplicaRoutingDataSource routing, boolean readOnly) {
+        LazyConnectionDataSourceProxy dataSource = new LazyConnectionDataSourceProxy(routing);
+        TransactionTemplate transactionTemplate = new TransactionTemplate(new DataSourceTransactionManager(dataSource));
+        transactionTemplate.setReadOnly(readOnly);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        return transactionTemplate.execute(status ->
+                jdbcTemplate.queryForObject("SELECT name FROM db_marker", String.class));
+    }
+
+    private static HikariDataSource createDatabase(String name) {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setJdbcUrl("jdbc:h2:mem:" + name + ";DB_CLOSE_DELAY=-1");
+        dataSource.setPoolName("test-" + name);
+        dataSource.setMaximumPoolSize(2);
+        JdbcTemplate jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE IF NOT EXISTS db_marker (name VARCHAR(32))");
+        jdbcTemplate.execute("DELETE FROM db_marker");
+        jdbcTemplate.update("INSERT INTO db_marker (name) VALUES (?)", name);
+        return dataSource;
+    }
+}
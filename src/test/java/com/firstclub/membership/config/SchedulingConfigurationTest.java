@@ -0,0 +1,39 @@
+package com.firstclub.membership.config;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.RootBeanDefinition;
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SchedulingConfigurationTest {
+
+    private final LazyInitializationExcludeFilter filter = SchedulingConfiguration.scheduledBeansExcludeFilter();
+
+    @Test
+    void keepsOnlyBeansWithScheduledMethodsEager() {
+        assertThat(isExcluded(Job.class)).isTrue();
+        assertThat(isExcluded(InheritedJob.class)).isTrue();
+        assertThat(isExcluded(PlainBean.class)).isFalse();
+        assertThat(filter.isExcluded("unknown", new RootBeanDefinition(), null)).isFalse();
+    }
+
+    private boolean isExcluded(Class<?> type) {
+        return filter.isExcluded(type.getSimpleName(), new RootBeanDefinition(type), type);
+    }
+
+    static class Job {
+        @Scheduled(fixedDelay = 1000)
+        void run() {
+        }
+    }
+
+    static class InheritedJob extends Job {
+    }
+
+    static class PlainBean {
+        void run() {
+        }
+    }
+}
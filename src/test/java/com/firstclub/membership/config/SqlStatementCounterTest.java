@@ -0,0 +1,48 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.support.QueryBudget;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SqlStatementCounterTest {
+
+    private final SqlStatementCounter counter = new SqlStatementCounter();
+
+    @Test
+    void countsStatementsAndRepeatsWithinWindow() {
+        counter.inspect("select outside window");
+
+        SqlStatementCounter.begin();
+        counter.inspect("select m from memberships");
+        counter.inspect("select p from plans where id = ?");
+        counter.inspect("select p from plans where id = ?");
+        counter.inspect("select p from plans where id = ?");
+        SqlStatementCounter.Snapshot snapshot = SqlStatementCounter.end();
+
+        assertThat(snapshot.statements()).isEqualTo(4);
+        assertThat(snapshot.maxRepeats()).isEqualTo(3);
+        assertThat(snapshot.mostRepeated()).isEqualTo("select p from plans where id = ?");
+    }
+
+    @Test
+    void nestedWindowsKeepCountsUntilOutermostEnds() {
+        SqlStatementCounter.begin();
+        counter.inspect("select 1");
+
+        SqlStatementCounter.begin();
+        counter.inspect("select 2");
+        assertThat(SqlStatementCounter.end().statements()).isEqualTo(2);
+
+        counter.inspect("select 3");
+        assertThat(SqlStatementCounter.end().statements()).isEqualTo(3);
+        assertThat(SqlStatementCounter.current().statements()).isZero();
+    }
+
+    @Test
+    @QueryBudget(value = 2, maxRepeats = 1)
+    void budgetAllowsStatementsWithinLimit() {
+        counter.inspect("select m from memberships");
+        counter.inspect("select t from transactions");
+    }
+}
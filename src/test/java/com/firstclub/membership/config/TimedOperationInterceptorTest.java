@@ -0,0 +1,73 @@
+package com.firstclub.membership.config;
+
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.PaymentFailedException;
+import com.firstclub.membership.service.PaymentService;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class TimedOperationInterceptorTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    void tagsTimersByMethodAndOutcome() {
+        PaymentService payments = proxy(new PaymentService() {
+            @Override
+            public PaymentResult processPayment(Long userId, BigDecimal amount) {
+                if (amount.signum() < 0) {
+                    throw new PaymentFailedException("negative amount");
+                }
+                return amount.signum() == 0 ? PaymentResult.failure("declined") : PaymentResult.success("tx");
+            }
+
+            @Override
+            public PaymentResult processPayment(Long userId, BigDecimal amount, String paymentReference) {
+                return processPayment(userId, amount);
+            }
+
+            @Override
+            public List<PaymentResult> processPayments(List<PaymentCharge> charges) {
+                return charges.stream().map(c -> processPayment(c.userId(), c.amount())).toList();
+            }
+        });
+
+        payments.processPayment(1L, BigDecimal.TEN);
+        payments.processPayment(1L, BigDecimal.ONE, "ref-1");
+        payments.processPayment(1L, BigDecimal.ZERO);
+        assertThatThrownBy(() -> payments.processPayment(1L, BigDecimal.ONE.negate()))
+            .isInstanceOf(PaymentFailedException.class);
+
+        assertThat(count("success")).isEqualTo(2);
+        assertThat(count("declined")).isEqualTo(1);
+        assertThat(count("payment_failed")).isEqualTo(1);
+    }
+
+    private long count(String outcome) {
+        return meterRegistry.get("membership.payment")
+            .tag("method", "processPayment")
+            .tag("outcome", outcome)
+            .timer()
+            .count();
+    }
+
+    private PaymentService proxy(PaymentService target) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry));
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.addInterface(PaymentService.class);
+        factory.addAdvice(new TimedOperationInterceptor("membership.payment", "Payment calls",
+                beanFactory.getBeanProvider(MeterRegistry.class), List.of("processPayment")));
+        return (PaymentService) factory.getProxy();
+    }
+}
@@ -0,0 +1,51 @@
+package com.firstclub.membership.config;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.offset;
+
+class TokenBucketTest {
+
+    private static final long START = 1_000_000_000L;
+
+    @Test
+    void startsFullAndRejectsOnceBurstIsSpent() {
+        TokenBucket bucket = new TokenBucket(10, 2, START);
+
+        assertThat(bucket.tryAcquire(START)).isZero();
+        assertThat(bucket.tryAcquire(START)).isZero();
+        // One token refills in 100 ms at 10 per second
+        assertThat(bucket.tryAcquire(START)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(100));
+    }
+
+    @Test
+    void refillsAtRateUpToCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 2, START);
+        bucket.tryAcquire(START);
+        bucket.tryAcquire(START);
+
+        long later = START + TimeUnit.MILLISECONDS.toNanos(50);
+        assertThat(bucket.availableTokens(later)).isCloseTo(0.5, offset(1e-9));
+        assertThat(bucket.tryAcquire(later)).isEqualTo(TimeUnit.MILLISECONDS.toNanos(50));
+
+        long muchLater = START + TimeUnit.SECONDS.toNanos(10);
+        assertThat(bucket.isFull(muchLater)).isTrue();
+        assertThat(bucket.availableTokens(muchLater)).isEqualTo(2);
+    }
+
+    @Test
+    void refundReturnsTokenButNeverExceedsCapacity() {
+        TokenBucket bucket = new TokenBucket(10, 1, START);
+        bucket.tryAcquire(START);
+
+        bucket.refund();
+        assertThat(bucket.tryAcquire(START)).isZero();
+
+        bucket.refund();
+        bucket.refund();
+        assertThat(bucket.availableTokens(START)).isEqualTo(1);
+    }
+}
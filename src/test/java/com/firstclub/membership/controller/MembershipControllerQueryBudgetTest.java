@@ -0,0 +1,127 @@
+package com.firstclub.membership.controller;
+
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.MembershipTransaction;
+import com.firstclub.membership.model.entity.UserMembership;
+import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.model.enums.TransactionType;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.MembershipTransactionRepository;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.support.QueryBudget;
+import com.firstclub.membership.support.QueryBudgetExtension;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doReturn;
+import static org.mockito.Mockito.mock;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+/**
+ * Query budgets for the membership endpoints, measured through MockMvc so
+ * the whole controller, service and mapper path is counted. Security filters
+ * are left out; they make no SQL statements.
+ */
+@SpringBootTest(properties = {
+        "app.payment.simulator.latency.value=5ms",
+        "app.outbox.relay.enabled=false"
+})
+@AutoConfigureMockMvc(addFilters = false)
+@ActiveProfiles("loadtest")
+class MembershipControllerQueryBudgetTest {
+
+    private static final long USER_ID = 920_001L;
+    private static final int TRANSACTIONS = 8;
+    private static final int PAGE_SIZE = 5;
+    private static final String HISTORY = "/api/v1/memberships/users/{userId}/history";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private UserMembershipRepository membershipRepository;
+
+    @Autowired
+    private MembershipTransactionRepository transactionRepository;
+
+    @Autowired
+    private MembershipPlanRepository planRepository;
+
+    @Autowired
+    private MembershipTierRepository tierRepository;
+
+    @BeforeEach
+    void setUp() {
+        if (membershipRepository.findActiveByUserId(USER_ID).isPresent()) {
+            return;
+        }
+        List<MembershipPlan> plans = planRepository.findAll();
+        List<MembershipTier> tiers = tierRepository.findAll();
+        UserMembership membership = membershipRepository.save(UserMembership.builder()
+                .userId(USER_ID)
+                .plan(plans.get(0))
+                .tier(tiers.get(0))
+                .status(MembershipStatus.ACTIVE)
+                .startDate(LocalDateTime.now().minusDays(10))
+                .endDate(LocalDateTime.now().plusDays(20))
+                .autoRenew(false)
+                .build());
+        // Every row points at different plans and tiers, so loading them one by one would show
+        for (int i = 0; i < TRANSACTIONS; i++) {
+            transactionRepository.save(MembershipTransaction.builder()
+                    .membership(membership)
+                    .type(TransactionType.UPGRADE)
+                    .amount(BigDecimal.TEN)
+                    .oldPlan(plans.get(i % plans.size()))
+                    .newPlan(plans.get((i + 1) % plans.size()))
+                    .oldTier(tiers.get(i % tiers.size()))
+                    .newTier(tiers.get((i + 1) % tiers.size()))
+                    .build());
+        }
+    }
+
+    @Test
+    @QueryBudget(value = 3, maxRepeats = 1)
+    void historyPageLoadsPlansAndTiersWithTheTransactions() throws Exception {
+        mockMvc.perform(get(HISTORY, USER_ID).param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.data.length()").value(PAGE_SIZE));
+    }
+
+    @Test
+    void historyPageOverBudgetFails() throws Exception {
+        QueryBudgetExtension extension = new QueryBudgetExtension();
+        ExtensionContext context = mock(ExtensionContext.class);
+        doReturn(Optional.empty()).when(context).getExecutionException();
+        doReturn(getClass().getDeclaredMethod("historyWithinTwoStatements")).when(context).getRequiredTestMethod();
+
+        extension.beforeTestExecution(context);
+        mockMvc.perform(get(HISTORY, USER_ID).param("size", String.valueOf(PAGE_SIZE)))
+                .andExpect(status().isOk());
+
+        assertThatThrownBy(() -> extension.afterTestExecution(context))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageStartingWith("Query budget exceeded: 3 statements, budget 2");
+    }
+
+    /** Too small for a full history page: the membership, the page and the total count are three statements. */
+    @QueryBudget(2)
+    private void historyWithinTwoStatements() {
+    }
+}
@@ -0,0 +1,70 @@
+package com.firstclub.membership.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.InvalidWebhookPayloadException;
+import com.firstclub.membership.exception.InvalidWebhookSignatureException;
+import com.firstclub.membership.service.MembershipService;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.util.HexFormat;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+class PaymentWebhookControllerTest {
+
+    private static final String SECRET = "webhook-secret";
+
+    private final MembershipService membershipService = mock(MembershipService.class);
+    private final PaymentWebhookController controller =
+            new PaymentWebhookController(membershipService, new ObjectMapper(), SECRET);
+
+    @Test
+    void signedOutcomeIsPassedOnOnce() throws Exception {
+        String payload = "{\"paymentReference\":\"ref-1\",\"status\":\"succeeded\",\"transactionId\":\"tx-1\"}";
+        when(membershipService.confirmPayment(eq("ref-1"), any())).thenReturn(true, false);
+
+        String first = controller.paymentOutcome(sign(payload), payload).getBody().getMessage();
+        String repeated = controller.paymentOutcome(sign(payload), payload).getBody().getMessage();
+
+        ArgumentCaptor<PaymentResult> result = ArgumentCaptor.forClass(PaymentResult.class);
+        verify(membershipService, times(2)).confirmPayment(eq("ref-1"), result.capture());
+        assertThat(result.getValue().isSuccess()).isTrue();
+        assertThat(result.getValue().getTransactionId()).isEqualTo("tx-1");
+        assertThat(first).isEqualTo("Payment outcome applied");
+        assertThat(repeated).isEqualTo("Payment already resolved");
+    }
+
+    @Test
+    void rejectsUnsignedTamperedAndMalformedCalls() throws Exception {
+        String payload = "{\"paymentReference\":\"ref-1\",\"status\":\"declined\"}";
+        String tampered = payload.replace("declined", "succeeded");
+        String unknownStatus = "{\"paymentReference\":\"ref-1\",\"status\":\"refunded\"}";
+
+        assertThatThrownBy(() -> controller.paymentOutcome(null, payload))
+            .isInstanceOf(InvalidWebhookSignatureException.class);
+        assertThatThrownBy(() -> controller.paymentOutcome(sign(payload), tampered))
+            .isInstanceOf(InvalidWebhookSignatureException.class);
+        assertThatThrownBy(() -> controller.paymentOutcome(sign(unknownStatus), unknownStatus))
+            .isInstanceOf(InvalidWebhookPayloadException.class);
+        verifyNoInteractions(membershipService);
+    }
+
+    private static String sign(String payload) throws Exception {
+        Mac mac = Mac.getInstance("HmacSHA256");
+        mac.init(new SecretKeySpec(SECRET.getBytes(StandardCharsets.UTF_8), "HmacSHA256"));
+        return HexFormat.of().formatHex(mac.doFinal(payload.getBytes(StandardCharsets.UTF_8)));
+    }
+}
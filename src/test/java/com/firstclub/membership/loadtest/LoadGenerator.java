@@ -0,0 +1,217 @@
+package com.firstclub.membership.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.loadtest.LoadTestSettings.Operation;
+import com.firstclub.membership.loadtest.LoadTestSettings.Stage;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-model traffic generator. Requests are scheduled at the stage's rate
+ * whether or not earlier ones have finished, and latency is measured from the
+ * scheduled start, so a slow server shows up as queueing delay instead of
+ * silently lowering the offered load.
+ *
+ * Subscribed users are kept in a pool; an operation on an existing user takes
+ * the user out of the pool while it runs, so one user never has two
+ * operations in flight. Operations that need a user fall back to subscribe
+ * while the pool is empty.
+ */
+class LoadGenerator {
+
+    private static final long FIRST_USER_ID = 10_000_000L;
+    private static final Duration REQUEST_TIMEOUT = Duration.ofSeconds(30);
+
+    private final String baseUrl;
+    private final LoadTestSettings settings;
+    private final ObjectMapper objectMapper;
+    private final HttpClient client;
+    private final Operation[] weighted;
+
+    private final Queue<PooledUser> users = new ConcurrentLinkedQueue<>();
+    private final AtomicLong nextUserId = new AtomicLong(FIRST_USER_ID);
+    private final Map<Operation, OperationStats> stats = new EnumMap<>(Operation.class);
+
+    private long[] planIds;
+    private long[] tierIdsByLevel;
+
+    private record PooledUser(long userId, int tierIndex) {
+    }
+
+    LoadGenerator(String baseUrl, LoadTestSettings settings, ObjectMapper objectMapper) {
+        this.baseUrl = baseUrl;
+        this.settings = settings;
+        this.objectMapper = objectMapper;
+        this.client = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .build();
+
+        List<Operation> slots = new ArrayList<>();
+        settings.mix().forEach((operation, weight) -> {
+            for (int i = 0; i < weight; i++) {
+                slots.add(operation);
+            }
+        });
+        this.weighted = slots.toArray(new Operation[0]);
+        for (Operation operation : Operation.values()) {
+            stats.put(operation, new OperationStats());
+        }
+    }
+
+    /**
+     * Runs every stage and waits for outstanding requests.
+     *
+     * @return Statistics per operation, excluding the warmup
+     */
+    Map<Operation, OperationStats> run() throws IOException, InterruptedException {
+        loadCatalog();
+
+        ExecutorService workers = Executors.newFixedThreadPool(settings.maxInFlight());
+        long start = System.nanoTime();
+        long measureFrom = start + settings.warmup().toNanos();
+        long stageStart = start;
+        try {
+            for (Stage stage : settings.stages()) {
+                long interval = (long) (TimeUnit.SECONDS.toNanos(1) / stage.rate());
+                long stageEnd = stageStart + stage.duration().toNanos();
+                for (long scheduled = stageStart; scheduled < stageEnd; scheduled += interval) {
+                    long wait = scheduled - System.nanoTime();
+                    if (wait > 0) {
+                        LockSupport.parkNanos(wait);
+                    }
+                    long scheduledStart = scheduled;
+                    workers.execute(() -> execute(scheduledStart, scheduledStart >= measureFrom));
+                }
+                stageStart = stageEnd;
+            }
+        } finally {
+            workers.shutdown();
+            workers.awaitTermination(REQUEST_TIMEOUT.toSeconds() + 5, TimeUnit.SECONDS);
+        }
+        return stats;
+    }
+
+    private void loadCatalog() throws IOException, InterruptedException {
+        planIds = ids(get("/api/v1/plans"), null);
+        tierIdsByLevel = ids(get("/api/v1/tiers"), "level");
+        if (planIds.length == 0 || tierIdsByLevel.length < 2) {
+            throw new IllegalStateException("Load test needs at least one plan and two tiers");
+        }
+    }
+
+    private long[] ids(JsonNode response, String sortField) {
+        List<JsonNode> items = new ArrayList<>();
+        response.path("data").forEach(items::add);
+        if (sortField != null) {
+            items.sort((a, b) -> Integer.compare(a.path(sortField).asInt(), b.path(sortField).asInt()));
+        }
+        return items.stream().mapToLong(item -> item.path("id").asLong()).toArray();
+    }
+
+    private JsonNode get(String path) throws IOException, InterruptedException {
+        HttpResponse<String> response = client.send(
+                HttpRequest.newBuilder(URI.create(baseUrl + path)).GET().build(),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("GET " + path + " returned " + response.statusCode());
+        }
+        return objectMapper.readTree(response.body());
+    }
+
+    private void execute(long scheduledStart, boolean measured) {
+        Operation operation = weighted[ThreadLocalRandom.current().nextInt(weighted.length)];
+        PooledUser user = operation == Operation.SUBSCRIBE ? null : users.poll();
+        if (user == null) {
+            operation = Operation.SUBSCRIBE;
+        } else if (operation == Operation.UPGRADE && user.tierIndex() == tierIdsByLevel.length - 1) {
+            operation = Operation.CURRENT;
+        }
+
+        String outcome;
+        boolean error;
+        try {
+            int status = send(operation, user);
+            outcome = Integer.toString(status);
+            error = status >= 400;
+        } catch (IOException e) {
+            outcome = e.getClass().getSimpleName();
+            error = true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return;
+        }
+        if (measured) {
+            stats.get(operation).record(System.nanoTime() - scheduledStart, outcome, error);
+        }
+    }
+
+    private int send(Operation operation, PooledUser user) throws IOException, InterruptedException {
+        switch (operation) {
+            case SUBSCRIBE -> {
+                long userId = nextUserId.getAndIncrement();
+                long planId = planIds[ThreadLocalRandom.current().nextInt(planIds.length)];
+                int status = send("POST", "/api/v1/memberships/subscribe", Map.of(
+                        "userId", userId, "planId", planId, "tierId", tierIdsByLevel[0], "autoRenew", true));
+                if (status < 300) {
+                    users.offer(new PooledUser(userId, 0));
+                }
+                return status;
+            }
+            case UPGRADE -> {
+                int tierIndex = user.tierIndex() + 1;
+                int status = 0;
+                try {
+                    status = send("PUT", "/api/v1/memberships/users/" + user.userId() + "/upgrade", Map.of(
+                            "newPlanId", planIds[0], "newTierId", tierIdsByLevel[tierIndex]));
+                    return status;
+                } finally {
+                    users.offer(status > 0 && status < 300 ? new PooledUser(user.userId(), tierIndex) : user);
+                }
+            }
+            case CANCEL -> {
+                // Cancelled users leave the pool whatever the outcome
+                return send("DELETE", "/api/v1/memberships/users/" + user.userId() + "/cancel", null);
+            }
+            case CURRENT, BENEFITS -> {
+                String path = operation == Operation.CURRENT ? "/current" : "/benefits";
+                try {
+                    return send("GET", "/api/v1/memberships/users/" + user.userId() + path, null);
+                } finally {
+                    users.offer(user);
+                }
+            }
+            default -> throw new IllegalStateException("Unknown operation " + operation);
+        }
+    }
+
+    private int send(String method, String path, Object body) throws IOException, InterruptedException {
+        HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+            .timeout(REQUEST_TIMEOUT)
+            .header("Accept", "application/json");
+        if (body != null) {
+            request.header("Content-Type", "application/json")
+                .method(method, HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(body)));
+        } else {
+            request.method(method, HttpRequest.BodyPublishers.noBody());
+        }
+        return client.send(request.build(), HttpResponse.BodyHandlers.discarding()).statusCode();
+    }
+}
@@ -0,0 +1,129 @@
+package com.firstclub.membership.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.MembershipProgramApplication;
+import com.firstclub.membership.loadtest.LoadTestSettings.Operation;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Starts the application with the loadtest profile (embedded H2, in-memory
+ * cache and idempotency stores, simulated payment gateway), drives the
+ * scripted traffic mix against it and writes a JSON report of throughput,
+ * latency percentiles and error rates. Excluded from the normal build; run it with
+ *
+ * <pre>
+ * mvn test -Ploadtest -Dloadtest.stages=30s@50,60s@200 -Dloadtest.mix=subscribe=20,current=80
+ * </pre>
+ *
+ * or from an IDE through {@link #main}. See {@link LoadTestSettings} for the
+ * script properties.
+ *
+ * Gateway behaviour is set with the app.payment.simulator properties, e.g.
+ * {@code -Dapp.payment.simulator.latency.distribution=bimodal
+ * -Dapp.payment.simulator.error-rate=0.02}, and can be changed mid-run
+ * through {@code /actuator/paymentsimulator}.
+ */
+@Tag("loadtest")
+public class LoadTest {
+
+    @Test
+    void runScriptedLoad() throws Exception {
+        Map<String, Object> report = run(LoadTestSettings.fromSystemProperties());
+
+        @SuppressWarnings("unchecked")
+        Map<String, Object> total = (Map<String, Object>) report.get("total");
+        assertThat((Integer) total.get("requests")).isPositive();
+    }
+
+    public static void main(String[] args) throws Exception {
+        run(LoadTestSettings.fromSystemProperties());
+    }
+
+    /**
+     * Runs one scripted load against a freshly started application.
+     *
+     * @return The report that was also written to the settings' report path
+     */
+    public static Map<String, Object> run(LoadTestSettings settings) throws Exception {
+        try (ConfigurableApplicationContext app = new SpringApplicationBuilder(
+                MembershipProgramApplication.class, LoadTestStandIns.class)
+                .profiles("loadtest")
+                .run()) {
+            String baseUrl = "http://localhost:" + app.getEnvironment().getRequiredProperty("local.server.port");
+            ObjectMapper objectMapper = app.getBean(ObjectMapper.class);
+
+            Instant startedAt = Instant.now();
+            Map<Operation, OperationStats> stats = new LoadGenerator(baseUrl, settings, objectMapper).run();
+
+            Map<String, Object> report = report(settings, startedAt, stats);
+            report.put("sqlStatementsPerRequest", sqlStatementsPerRequest(app.getBean(MeterRegistry.class)));
+            Files.createDirectories(settings.report().toAbsolutePath().getParent());
+            objectMapper.writerWithDefaultPrettyPrinter().writeValue(settings.report().toFile(), report);
+            System.out.println(objectMapper.writerWithDefaultPrettyPrinter().writeValueAsString(report.get("total")));
+            System.out.println("Load-test report written to " + settings.report().toAbsolutePath());
+            return report;
+        }
+    }
+
+    private static Map<String, Object> report(LoadTestSettings settings, Instant startedAt,
+                                              Map<Operation, OperationStats> stats) {
+        double measuredSeconds = settings.totalDuration().minus(settings.warmup()).toMillis() / 1000.0;
+
+        List<Map<String, Object>> stages = settings.stages().stream()
+            .map(stage -> Map.<String, Object>of(
+                    "durationSeconds", stage.duration().toMillis() / 1000.0,
+                    "ratePerSecond", stage.rate()))
+            .toList();
+        Map<String, Object> mix = new LinkedHashMap<>();
+        settings.mix().forEach((operation, weight) -> mix.put(operation.key(), weight));
+
+        Map<String, Object> scenario = new LinkedHashMap<>();
+        scenario.put("stages", stages);
+        scenario.put("warmupSeconds", settings.warmup().toMillis() / 1000.0);
+        scenario.put("mix", mix);
+        scenario.put("maxInFlight", settings.maxInFlight());
+
+        OperationStats total = new OperationStats();
+        Map<String, Object> operations = new LinkedHashMap<>();
+        stats.forEach((operation, operationStats) -> {
+            operationStats.addTo(total);
+            if (operationStats.count() > 0) {
+                operations.put(operation.key(), operationStats.summary(measuredSeconds));
+            }
+        });
+
+        Map<String, Object> report = new LinkedHashMap<>();
+        report.put("startedAt", startedAt.toString());
+        report.put("measuredSeconds", measuredSeconds);
+        report.put("scenario", scenario);
+        report.put("total", total.summary(measuredSeconds));
+        report.put("operations", operations);
+        return report;
+    }
+
+    /**
+     * Mean Hibernate statements per request by endpoint, over the whole run,
+     * from the application's SQL statement metrics.
+     */
+    private static Map<String, Object> sqlStatementsPerRequest(MeterRegistry meterRegistry) {
+        Map<String, Object> perEndpoint = new TreeMap<>();
+        for (DistributionSummary summary : meterRegistry.find("membership.http.sql.statements").summaries()) {
+            perEndpoint.put(summary.getId().getTag("method") + " " + summary.getId().getTag("uri"), summary.mean());
+        }
+        return perEndpoint;
+    }
+}
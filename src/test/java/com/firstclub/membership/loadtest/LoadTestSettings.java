@@ -0,0 +1,89 @@
+package com.firstclub.membership.loadtest;
+
+import org.springframework.boot.convert.DurationStyle;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Load-test script read from system properties:
+ * <ul>
+ *   <li>loadtest.stages: comma-separated duration@rate stages, e.g. "30s@50,60s@200"</li>
+ *   <li>loadtest.warmup: leading time excluded from the report</li>
+ *   <li>loadtest.mix: operation weights, e.g. "subscribe=15,upgrade=10,cancel=5,current=45,benefits=25"</li>
+ *   <li>loadtest.max-in-flight: concurrent requests before new ones queue</li>
+ *   <li>loadtest.report: where the JSON report is written</li>
+ * </ul>
+ */
+public record LoadTestSettings(List<Stage> stages, Duration warmup, Map<Operation, Integer> mix, int maxInFlight,
+                        Path report) {
+
+    static final String DEFAULT_STAGES = "30s@50,60s@200";
+    static final String DEFAULT_MIX = "subscribe=15,upgrade=10,cancel=5,current=45,benefits=25";
+    static final int DEFAULT_MAX_IN_FLIGHT = 256;
+
+    enum Operation {
+        SUBSCRIBE, UPGRADE, CANCEL, CURRENT, BENEFITS;
+
+        String key() {
+            return name().toLowerCase(Locale.ROOT);
+        }
+    }
+
+    /** Requests are started at a constant rate per second for the stage duration. */
+    record Stage(Duration duration, double rate) {
+    }
+
+    public static LoadTestSettings fromSystemProperties() {
+        return new LoadTestSettings(
+                parseStages(System.getProperty("loadtest.stages", DEFAULT_STAGES)),
+                DurationStyle.detectAndParse(System.getProperty("loadtest.warmup", "10s")),
+                parseMix(System.getProperty("loadtest.mix", DEFAULT_MIX)),
+                Integer.getInteger("loadtest.max-in-flight", DEFAULT_MAX_IN_FLIGHT),
+                Path.of(System.getProperty("loadtest.report", "target/loadtest-report.json")));
+    }
+
+    /**
+     * A fixed script, in the same formats as the system properties.
+     */
+    public static LoadTestSettings of(String stages, String warmup, String mix, Path report) {
+        return new LoadTestSettings(parseStages(stages), DurationStyle.detectAndParse(warmup), parseMix(mix),
+                DEFAULT_MAX_IN_FLIGHT, report);
+    }
+
+    Duration totalDuration() {
+        return stages.stream().map(Stage::duration).reduce(Duration.ZERO, Duration::plus);
+    }
+
+    static List<Stage> parseStages(String value) {
+        List<Stage> stages = new ArrayList<>();
+        for (String stage : value.split(",")) {
+            String[] parts = stage.trim().split("@");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Stage must be duration@rate: " + stage);
+            }
+            stages.add(new Stage(DurationStyle.detectAndParse(parts[0].trim()), Double.parseDouble(parts[1].trim())));
+        }
+        return stages;
+    }
+
+    static Map<Operation, Integer> parseMix(String value) {
+        Map<Operation, Integer> mix = new EnumMap<>(Operation.class);
+        for (String entry : value.split(",")) {
+            String[] parts = entry.trim().split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Mix entry must be operation=weight: " + entry);
+            }
+            mix.put(Operation.valueOf(parts[0].trim().toUpperCase(Locale.ROOT)), Integer.parseInt(parts[1].trim()));
+        }
+        if (mix.values().stream().mapToInt(Integer::intValue).sum() <= 0) {
+            throw new IllegalArgumentException("Mix weights must add up to more than zero: " + value);
+        }
+        return mix;
+    }
+}
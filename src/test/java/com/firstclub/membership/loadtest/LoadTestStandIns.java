@@ -0,0 +1,31 @@
+package com.firstclub.membership.loadtest;
+
+import org.springframework.boot.test.context.TestConfiguration;
+import org.springframework.context.annotation.Bean;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.security.config.annotation.web.builders.HttpSecurity;
+import org.springframework.security.config.annotation.web.configurers.AbstractHttpConfigurer;
+import org.springframework.security.web.SecurityFilterChain;
+
+/**
+ * Beans that replace external dependencies while the application runs under
+ * load: an open security chain so the generator does not need credentials.
+ * It matches every path and is ordered before the application's chain, which
+ * therefore never sees a request.
+ * Payments go through the real PaymentService against the simulated gateway,
+ * configured by the app.payment.simulator properties.
+ */
+@TestConfiguration(proxyBeanMethods = false)
+class LoadTestStandIns {
+
+    @Bean
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    SecurityFilterChain loadTestSecurityFilterChain(HttpSecurity http) throws Exception {
+        return http
+            .securityMatcher("/**")
+            .csrf(AbstractHttpConfigurer::disable)
+            .authorizeHttpRequests(requests -> requests.anyRequest().permitAll())
+            .build();
+    }
+}
@@ -0,0 +1,87 @@
+package com.firstclub.membership.loadtest;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Latencies and outcomes of one operation. Every latency is kept, so
+ * percentiles are exact; a few million samples fit easily in memory.
+ */
+class OperationStats {
+
+    private long[] latencies = new long[1024];
+    private int count;
+    private long errors;
+    private final Map<String, Long> outcomes = new TreeMap<>();
+
+    /**
+     * @param latencyNanos Time from the request's scheduled start to its response
+     * @param outcome HTTP status, or the exception type if no response arrived
+     * @param error Whether the request failed
+     */
+    synchronized void record(long latencyNanos, String outcome, boolean error) {
+        if (count == latencies.length) {
+            latencies = Arrays.copyOf(latencies, count * 2);
+        }
+        latencies[count++] = latencyNanos;
+        if (error) {
+            errors++;
+        }
+        outcomes.merge(outcome, 1L, Long::sum);
+    }
+
+    synchronized Map<String, Object> summary(double measuredSeconds) {
+        long[] sorted = Arrays.copyOf(latencies, count);
+        Arrays.sort(sorted);
+
+        Map<String, Object> latencyMillis = new LinkedHashMap<>();
+        latencyMillis.put("p50", percentile(sorted, 0.50));
+        latencyMillis.put("p90", percentile(sorted, 0.90));
+        latencyMillis.put("p99", percentile(sorted, 0.99));
+        latencyMillis.put("p999", percentile(sorted, 0.999));
+        latencyMillis.put("max", count == 0 ? 0.0 : millis(sorted[count - 1]));
+        latencyMillis.put("mean", count == 0 ? 0.0 : millis(Arrays.stream(sorted).sum() / count));
+
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", count);
+        summary.put("errors", errors);
+        summary.put("errorRate", count == 0 ? 0.0 : (double) errors / count);
+        summary.put("throughputPerSecond", measuredSeconds > 0 ? count / measuredSeconds : 0.0);
+        summary.put("latencyMillis", latencyMillis);
+        summary.put("outcomes", new TreeMap<>(outcomes));
+        return summary;
+    }
+
+    synchronized long count() {
+        return count;
+    }
+
+    synchronized long errors() {
+        return errors;
+    }
+
+    synchronized void addTo(OperationStats total) {
+        for (int i = 0; i < count; i++) {
+            total.latencies = total.count == total.latencies.length
+                    ? Arrays.copyOf(total.latencies, total.count * 2)
+                    : total.latencies;
+            total.latencies[total.count++] = latencies[i];
+        }
+        total.errors += errors;
+        outcomes.forEach((outcome, n) -> total.outcomes.merge(outcome, n, Long::sum));
+    }
+
+    private static double percentile(long[] sorted, double quantile) {
+        if (sorted.length == 0) {
+            return 0.0;
+        }
+        int index = (int) Math.ceil(quantile * sorted.length) - 1;
+        return millis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+    }
+
+    private static double millis(long nanos) {
+        return nanos / 1_000_000.0;
+    }
+}
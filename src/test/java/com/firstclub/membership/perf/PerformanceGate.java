@@ -0,0 +1,153 @@
+package com.firstclub.membership.perf;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.firstclub.membership.benchmark.CatalogSerializationBenchmark;
+import com.firstclub.membership.benchmark.TierEvaluationBenchmark;
+import com.firstclub.membership.loadtest.LoadTest;
+import com.firstclub.membership.loadtest.LoadTestSettings;
+import com.firstclub.membership.perf.RegressionReport.Tracked;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Performance regression gate. Runs the key JMH benchmarks and a fixed load
+ * scenario, compares the results with the stored baseline and fails if any
+ * tracked metric regressed beyond its tolerance, is missing from the run or
+ * has no baseline value yet. A diff report is written to
+ * target/perf/regression-report.md and .json. Excluded from the normal build;
+ * run it with
+ *
+ * <pre>
+ * mvn test -Pperf-gate
+ * </pre>
+ *
+ * Add -Dperf.update-baseline=true to record the run as the new baseline.
+ * Metrics without a baseline value fail the gate until one is recorded.
+ * Baselines are only comparable on the machine they were recorded on, so
+ * record them on the CI runner that executes the gate.
+ *
+ * Properties: perf.baseline (baseline file), perf.load.stages, perf.load.warmup
+ * and perf.load.mix (load scenario, in loadtest.* formats), and
+ * perf.jmh.warmup-iterations / perf.jmh.iterations.
+ */
+@Tag("perf")
+public class PerformanceGate {
+
+    private static final String DEFAULT_STAGES = "20s@100,40s@400";
+    private static final String DEFAULT_MIX = "subscribe=20,upgrade=5,cancel=5,current=50,benefits=20";
+    private static final Path REPORT_DIR = Path.of("target/perf");
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT);
+
+    @Test
+    void noRegressionsAgainstBaseline() throws Exception {
+        RegressionReport report = run();
+
+        assertThat(report.failures())
+            .as("Regressed, missing or unrecorded metrics; see %s", REPORT_DIR.resolve("regression-report.md").toAbsolutePath())
+            .isEmpty();
+    }
+
+    public static void main(String[] args) throws Exception {
+        RegressionReport report = run();
+        System.exit(report.failures().isEmpty() ? 0 : 1);
+    }
+
+    static RegressionReport run() throws Exception {
+        Map<String, Double> current = new TreeMap<>();
+        current.putAll(runBenchmarks());
+        current.putAll(runLoadScenario());
+
+        Path baselineFile = Path.of(System.getProperty("perf.baseline", "src/test/resources/perf/baseline.json"));
+        Map<String, Object> baseline = OBJECT_MAPPER.readValue(baselineFile.toFile(), new TypeReference<>() { });
+        Map<String, Tracked> tracked = OBJECT_MAPPER.convertValue(baseline.get("metrics"), new TypeReference<>() { });
+
+        RegressionReport report = RegressionReport.compare(tracked, current);
+        Files.createDirectories(REPORT_DIR);
+        OBJECT_MAPPER.writeValue(REPORT_DIR.resolve("regression-report.json").toFile(), report.toJson());
+        Files.writeString(REPORT_DIR.resolve("regression-report.md"), report.toMarkdown());
+        System.out.println(report.toMarkdown());
+
+        if (Boolean.getBoolean("perf.update-baseline")) {
+            Map<String, Tracked> updated = new LinkedHashMap<>();
+            tracked.forEach((metric, old) -> updated.put(metric,
+                    new Tracked(old.better(), old.tolerance(), current.getOrDefault(metric, old.value()))));
+            baseline.put("metrics", updated);
+            OBJECT_MAPPER.writeValue(baselineFile.toFile(), baseline);
+            System.out.println("Baseline updated: " + baselineFile.toAbsolutePath());
+            return RegressionReport.compare(updated, current);
+        }
+        return report;
+    }
+
+    /**
+     * Benchmark scores in operations per second, keyed
+     * jmh.Class.method[param=value].
+     */
+    private static Map<String, Double> runBenchmarks() throws Exception {
+        Options options = new OptionsBuilder()
+            .include(CatalogSerializationBenchmark.class.getSimpleName() + "\\.serializePerRequest$")
+            .include(TierEvaluationBenchmark.class.getSimpleName() + "\\.evaluateUser$")
+            .warmupIterations(Integer.getInteger("perf.jmh.warmup-iterations", 3))
+            .measurementIterations(Integer.getInteger("perf.jmh.iterations", 5))
+            .forks(1)
+            .timeUnit(TimeUnit.SECONDS)
+            .shouldFailOnError(true)
+            .build();
+
+        Map<String, Double> scores = new TreeMap<>();
+        for (RunResult result : new Runner(options).run()) {
+            String benchmark = result.getParams().getBenchmark();
+            String className = benchmark.substring(benchmark.lastIndexOf('.', benchmark.lastIndexOf('.') - 1) + 1);
+            StringBuilder key = new StringBuilder("jmh.").append(className);
+            for (String param : result.getParams().getParamsKeys()) {
+                key.append('[').append(param).append('=').append(result.getParams().getParam(param)).append(']');
+            }
+            scores.put(key.toString(), result.getPrimaryResult().getScore());
+        }
+        return scores;
+    }
+
+    /**
+     * Throughput and p99 per operation, keyed load.operation.metric, and mean
+     * SQL statements per request, keyed load.sql.METHOD uri.
+     */
+    @SuppressWarnings("unchecked")
+    private static Map<String, Double> runLoadScenario() throws Exception {
+        LoadTestSettings settings = LoadTestSettings.of(
+                System.getProperty("perf.load.stages", DEFAULT_STAGES),
+                System.getProperty("perf.load.warmup", "20s"),
+                System.getProperty("perf.load.mix", DEFAULT_MIX),
+                REPORT_DIR.resolve("loadtest-report.json"));
+        Map<String, Object> report = LoadTest.run(settings);
+
+        Map<String, Double> metrics = new TreeMap<>();
+        Map<String, Object> total = (Map<String, Object>) report.get("total");
+        metrics.put("load.errorRate", ((Number) total.get("errorRate")).doubleValue());
+        ((Map<String, Object>) report.get("operations")).forEach((operation, value) -> {
+            Map<String, Object> summary = (Map<String, Object>) value;
+            Map<String, Object> latency = (Map<String, Object>) summary.get("latencyMillis");
+            metrics.put("load." + operation + ".throughputPerSecond",
+                    ((Number) summary.get("throughputPerSecond")).doubleValue());
+            metrics.put("load." + operation + ".p99Millis", ((Number) latency.get("p99")).doubleValue());
+        });
+        ((Map<String, Object>) report.get("sqlStatementsPerRequest")).forEach((endpoint, mean) ->
+                metrics.put("load.sql." + endpoint, ((Number) mean).doubleValue()));
+        return metrics;
+    }
+}
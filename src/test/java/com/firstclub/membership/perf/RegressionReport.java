@@ -0,0 +1,135 @@
+package com.firstclub.membership.perf;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * Comparison of one gate run against the stored baseline. Each tracked metric
+ * declares whether higher or lower is better and the relative change it may
+ * move in the wrong direction before it counts as a regression. A tracked
+ * metric with no recorded baseline fails the gate too, so an unrecorded
+ * baseline file can never pass unnoticed.
+ */
+class RegressionReport {
+
+    enum Status {
+        OK, IMPROVED, REGRESSED, NO_BASELINE, MISSING
+    }
+
+    /**
+     * A metric as stored in the baseline file.
+     *
+     * @param better "higher" or "lower"
+     * @param tolerance Allowed relative change in the wrong direction, e.g. 0.10 for 10%
+     * @param value Baseline value, or null until a baseline run has been recorded; null fails the gate
+     */
+    record Tracked(String better, double tolerance, Double value) {
+
+        boolean higherIsBetter() {
+            return "higher".equalsIgnoreCase(better);
+        }
+    }
+
+    record Row(String metric, Double baseline, Double current, Double change, double tolerance, Status status) {
+    }
+
+    private final List<Row> rows = new ArrayList<>();
+    private final Map<String, Double> untracked = new TreeMap<>();
+
+    static RegressionReport compare(Map<String, Tracked> baseline, Map<String, Double> current) {
+        RegressionReport report = new RegressionReport();
+        baseline.forEach((metric, tracked) ->
+                report.rows.add(compare(metric, tracked, current.get(metric))));
+        current.forEach((metric, value) -> {
+            if (!baseline.containsKey(metric)) {
+                report.untracked.put(metric, value);
+            }
+        });
+        return report;
+    }
+
+    private static Row compare(String metric, Tracked tracked, Double current) {
+        Double baseline = tracked.value();
+        if (current == null) {
+            return new Row(metric, baseline, null, null, tracked.tolerance(), Status.MISSING);
+        }
+        if (baseline == null) {
+            return new Row(metric, null, current, null, tracked.tolerance(), Status.NO_BASELINE);
+        }
+
+        Double change = baseline == 0 ? null : (current - baseline) / Math.abs(baseline);
+        // Positive when the metric moved in the wrong direction
+        double worse = tracked.higherIsBetter() ? baseline - current : current - baseline;
+        double allowed = Math.abs(baseline) * tracked.tolerance();
+        Status status = worse > allowed ? Status.REGRESSED
+                : worse < -allowed ? Status.IMPROVED
+                : Status.OK;
+        return new Row(metric, baseline, current, change, tracked.tolerance(), status);
+    }
+
+    List<Row> rows() {
+        return rows;
+    }
+
+    List<Row> failures() {
+        return rows.stream()
+            .filter(row -> row.status() == Status.REGRESSED || row.status() == Status.MISSING
+                    || row.status() == Status.NO_BASELINE)
+            .toList();
+    }
+
+    Map<String, Object> toJson() {
+        List<Map<String, Object>> metrics = new ArrayList<>();
+        for (Row row : rows) {
+            Map<String, Object> metric = new LinkedHashMap<>();
+            metric.put("metric", row.metric());
+            metric.put("baseline", row.baseline());
+            metric.put("current", row.current());
+            metric.put("change", row.change());
+            metric.put("tolerance", row.tolerance());
+            metric.put("status", row.status().name());
+            metrics.add(metric);
+        }
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("passed", failures().isEmpty());
+        json.put("metrics", metrics);
+        json.put("untracked", untracked);
+        return json;
+    }
+
+    String toMarkdown() {
+        StringBuilder out = new StringBuilder("# Performance regression report\n\n")
+            .append(failures().isEmpty() ? "**PASSED**" : "**FAILED**: " + failures().size() + " metric(s)")
+            .append("\n\n| Metric | Baseline | Current | Change | Tolerance | Status |\n")
+            .append("|---|---:|---:|---:|---:|---|\n");
+        for (Row row : rows) {
+            out.append("| ").append(row.metric())
+                .append(" | ").append(number(row.baseline()))
+                .append(" | ").append(number(row.current()))
+                .append(" | ").append(row.change() == null ? "-" : percent(row.change()))
+                .append(" | ").append(percent(row.tolerance()))
+                .append(" | ").append(row.status())
+                .append(" |\n");
+        }
+        if (rows.stream().anyMatch(row -> row.status() == Status.NO_BASELINE)) {
+            out.append("\nNO_BASELINE metrics have no recorded value; record one with -Dperf.update-baseline=true.\n");
+        }
+        if (!untracked.isEmpty()) {
+            out.append("\nUntracked metrics (add them to the baseline file to gate on them):\n\n");
+            untracked.forEach((metric, value) -> out.append("- ").append(metric).append(": ").append(number(value)).append('\n'));
+        }
+        return out.toString();
+    }
+
+    private static String number(Double value) {
+        return value == null ? "-" : String.format(Locale.ROOT, "%.3f", value);
+    }
+
+    private static String percent(double value) {
+        return String.format(Locale.ROOT, "%+.1f%%", value * 100);
+    }
+}
@@ -0,0 +1,51 @@
+package com.firstclub.membership.perf;
+
+import com.firstclub.membership.perf.RegressionReport.Row;
+import com.firstclub.membership.perf.RegressionReport.Status;
+import com.firstclub.membership.perf.RegressionReport.Tracked;
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegressionReportTest {
+
+    @Test
+    void flagsOnlyChangesBeyondToleranceInTheWrongDirection() {
+        Map<String, Tracked> baseline = new LinkedHashMap<>();
+        baseline.put("throughput.ok", new Tracked("higher", 0.10, 1000.0));
+        baseline.put("throughput.regressed", new Tracked("higher", 0.10, 1000.0));
+        baseline.put("p99.improved", new Tracked("lower", 0.25, 40.0));
+        baseline.put("sql.regressed", new Tracked("lower", 0.05, 3.0));
+        baseline.put("new", new Tracked("higher", 0.10, null));
+        baseline.put("removed", new Tracked("higher", 0.10, 5.0));
+
+        RegressionReport report = RegressionReport.compare(baseline, Map.of(
+                "throughput.ok", 920.0,
+                "throughput.regressed", 850.0,
+                "p99.improved", 20.0,
+                "sql.regressed", 4.0,
+                "new", 1.0,
+                "untracked", 7.0));
+
+        assertThat(report.rows()).extracting(Row::status).containsExactly(
+                Status.OK, Status.REGRESSED, Status.IMPROVED, Status.REGRESSED, Status.NO_BASELINE, Status.MISSING);
+        assertThat(report.failures()).extracting(Row::metric)
+            .containsExactly("throughput.regressed", "sql.regressed", "new", "removed");
+        assertThat(report.toMarkdown()).contains("**FAILED**: 4 metric(s)", "| sql.regressed | 3.000 | 4.000 | +33.3% |",
+                "record one with -Dperf.update-baseline=true");
+        assertThat(report.toJson()).containsEntry("untracked", Map.of("untracked", 7.0));
+    }
+
+    @Test
+    void passesOnlyOnceEveryTrackedMetricHasBaseline() {
+        Map<String, Tracked> unrecorded = Map.of("throughput", new Tracked("higher", 0.10, null));
+        Map<String, Tracked> recorded = Map.of("throughput", new Tracked("higher", 0.10, 1000.0));
+
+        assertThat(RegressionReport.compare(unrecorded, Map.of("throughput", 1000.0)).failures())
+            .extracting(Row::status).containsExactly(Status.NO_BASELINE);
+        assertThat(RegressionReport.compare(recorded, Map.of("throughput", 1000.0)).failures()).isEmpty();
+    }
+}
@@ -0,0 +1,75 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.response.DiscountQuote;
+import com.firstclub.membership.dto.response.DiscountTerms;
+import com.firstclub.membership.exception.InvalidOperationException;
+import com.firstclub.membership.service.EntitlementService;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class DiscountQuoteServiceImplTest {
+
+    private final EntitlementService entitlementService = mock(EntitlementService.class);
+    private final DiscountQuoteServiceImpl quoteService = new DiscountQuoteServiceImpl(entitlementService);
+
+    @Test
+    void appliesPercentageThenFixedThenCashback() {
+        // 10% off, then 5.00 off, then 2% cashback
+        when(entitlementService.getDiscountTerms(1L)).thenReturn(new DiscountTerms(3L, 1_000, 500, 200));
+
+        DiscountQuote quote = quoteService.quote(1L, 10_000);
+
+        assertThat(quote.percentageDiscountMinor()).isEqualTo(1_000);
+        assertThat(quote.fixedDiscountMinor()).isEqualTo(500);
+        assertThat(quote.payableMinor()).isEqualTo(8_500);
+        assertThat(quote.cashbackMinor()).isEqualTo(170);
+        assertThat(quote.tierId()).isEqualTo(3L);
+    }
+
+    @Test
+    void roundsPercentageHalfUpPerLine() {
+        when(entitlementService.getDiscountTerms(1L)).thenReturn(new DiscountTerms(3L, 500, 0, 0));
+
+        // 5% of 0.10 is 0.005 -> 0.01 on each line
+        DiscountQuote quote = quoteService.quote(1L, new long[] {10, 10, 10});
+
+        assertThat(quote.subtotalMinor()).isEqualTo(30);
+        assertThat(quote.percentageDiscountMinor()).isEqualTo(3);
+    }
+
+    @Test
+    void capsFixedDiscountAtRemainingAmount() {
+        when(entitlementService.getDiscountTerms(1L)).thenReturn(new DiscountTerms(3L, 0, 2_000, 200));
+
+        DiscountQuote quote = quoteService.quote(1L, 1_500);
+
+        assertThat(quote.fixedDiscountMinor()).isEqualTo(1_500);
+        assertThat(quote.payableMinor()).isZero();
+        assertThat(quote.cashbackMinor()).isZero();
+    }
+
+    @Test
+    void quotesZeroForNonMembers() {
+        when(entitlementService.getDiscountTerms(1L)).thenReturn(DiscountTerms.NONE);
+
+        DiscountQuote quote = quoteService.quote(1L, 12_345);
+
+        assertThat(quote.totalDiscountMinor()).isZero();
+        assertThat(quote.cashbackMinor()).isZero();
+        assertThat(quote.tierId()).isNull();
+    }
+
+    @Test
+    void rejectsNegativeAndOverflowingAmounts() {
+        when(entitlementService.getDiscountTerms(1L)).thenReturn(new DiscountTerms(3L, 500, 0, 0));
+
+        assertThatThrownBy(() -> quoteService.quote(1L, -1))
+            .isInstanceOf(InvalidOperationException.class);
+        assertThatThrownBy(() -> quoteService.quote(1L, new long[] {Long.MAX_VALUE, 1}))
+            .isInstanceOf(InvalidOperationException.class);
+    }
+}
@@ -0,0 +1,148 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.dto.response.ApiResponse;
+import com.firstclub.membership.exception.IdempotencyConflictException;
+import com.firstclub.membership.service.IdempotencyService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class IdempotencyServiceImplTest {
+
+    private final IdempotencyServiceImpl idempotencyService = new IdempotencyServiceImpl(
+            new InMemoryIdempotencyStore(), new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+            Duration.ofHours(1), Duration.ofSeconds(30), Duration.ofSeconds(5));
+
+    private final AtomicInteger executions = new AtomicInteger();
+
+    @Test
+    void replaysStoredResponseWithoutExecutingAgain() {
+        ResponseEntity<ApiResponse<String>> first = subscribe("key-1", Map.of("planId", 1));
+        ResponseEntity<ApiResponse<String>> second = subscribe("key-1", Map.of("planId", 1));
+
+        assertThat(executions).hasValue(1);
+        assertThat(second.getStatusCode()).isEqualTo(HttpStatus.CREATED);
+        assertThat(second.getBody().getData()).isEqualTo(first.getBody().getData());
+        assertThat(second.getHeaders().getFirst(IdempotencyService.REPLAYED_HEADER)).isEqualTo("true");
+    }
+
+    @Test
+    void rejectsKeyReusedForDifferentRequest() {
+        subscribe("key-1", Map.of("planId", 1));
+
+        assertThatThrownBy(() -> subscribe("key-1", Map.of("planId", 2)))
+            .isInstanceOf(IdempotencyConflictException.class);
+    }
+
+    @Test
+    void executesAgainAfterFailure() {
+        assertThatThrownBy(() -> idempotencyService.execute("key-1", "subscribe", 7L, Map.of("planId", 1),
+                String.class, () -> {
+                    throw new IllegalStateException("payment declined");
+                }))
+            .isInstanceOf(IllegalStateException.class);
+
+        subscribe("key-1", Map.of("planId", 1));
+
+        assertThat(executions).hasValue(1);
+    }
+
+    @Test
+    void concurrentDuplicatesWaitForFirstExecution() throws Exception {
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            Future<ResponseEntity<ApiResponse<String>>> first = executor.submit(() ->
+                    idempotencyService.execute("key-1", "subscribe", 7L, Map.of("planId", 1), String.class, () -> {
+                        started.countDown();
+                        await(release);
+                        return created("membership-" + executions.incrementAndGet());
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+
+            List<Future<ResponseEntity<ApiResponse<String>>>> duplicates = new ArrayList<>();
+            for (int i = 0; i < 7; i++) {
+                duplicates.add(executor.submit(() -> subscribe("key-1", Map.of("planId", 1))));
+            }
+            release.countDown();
+
+            String data = first.get(5, TimeUnit.SECONDS).getBody().getData();
+            for (Future<ResponseEntity<ApiResponse<String>>> duplicate : duplicates) {
+                assertThat(duplicate.get(5, TimeUnit.SECONDS).getBody().getData()).isEqualTo(data);
+            }
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
+    @Test
+    void slowExecutionKeepsItsClaimPastTheLockTtl() throws Exception {
+        IdempotencyServiceImpl shortLocks = new IdempotencyServiceImpl(
+                new InMemoryIdempotencyStore(), new ObjectMapper().findAndRegisterModules(), new SimpleMeterRegistry(),
+                Duration.ofHours(1), Duration.ofMillis(60), Duration.ofSeconds(5));
+        CountDownLatch started = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<ResponseEntity<ApiResponse<String>>> first = executor.submit(() ->
+                    shortLocks.execute("key-1", "subscribe", 7L, Map.of("planId", 1), String.class, () -> {
+                        started.countDown();
+                        sleep(Duration.ofMillis(300));
+                        return created("membership-" + executions.incrementAndGet());
+                    }));
+            started.await(5, TimeUnit.SECONDS);
+            sleep(Duration.ofMillis(150));
+
+            ResponseEntity<ApiResponse<String>> duplicate = shortLocks.execute("key-1", "subscribe", 7L,
+                    Map.of("planId", 1), String.class, () -> created("membership-" + executions.incrementAndGet()));
+
+            assertThat(duplicate.getBody().getData()).isEqualTo(first.get(5, TimeUnit.SECONDS).getBody().getData());
+            assertThat(executions).hasValue(1);
+        } finally {
+            executor.shutdownNow();
+            shortLocks.close();
+        }
+    }
+
+    private ResponseEntity<ApiResponse<String>> subscribe(String key, Object request) {
+        return idempotencyService.execute(key, "subscribe", 7L, request, String.class,
+                () -> created("membership-" + executions.incrementAndGet()));
+    }
+
+    private static ResponseEntity<ApiResponse<String>> created(String data) {
+        return ResponseEntity.status(HttpStatus.CREATED).body(ApiResponse.success("Subscription successful", data));
+    }
+
+    private static void sleep(Duration duration) {
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
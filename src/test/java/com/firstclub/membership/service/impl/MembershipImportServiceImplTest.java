@@ -0,0 +1,210 @@
+package com.firstclub.membership.service.impl;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.firstclub.membership.config.MembershipMetrics;
+import com.firstclub.membership.dto.response.ImportResult;
+import com.firstclub.membership.dto.response.ImportRowError;
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.enums.DataFormat;
+import com.firstclub.membership.model.enums.PlanDuration;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.service.EntitlementService;
+import com.firstclub.membership.service.MembershipCacheService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.PreparedStatementSetter;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MembershipImportServiceImplTest {
+
+    private static final String CSV_HEADER = "userId,plan,tier,status,startDate,endDate,amount\n";
+
+    private final JdbcTemplate jdbcTemplate = mock(JdbcTemplate.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final MembershipPlanRepository planRepository = mock(MembershipPlanRepository.class);
+    private final MembershipTierRepository tierRepository = mock(MembershipTierRepository.class);
+    private final MembershipCacheService membershipCacheService = mock(MembershipCacheService.class);
+    private final EntitlementService entitlementService = mock(EntitlementService.class);
+    private final ThreadPoolTaskExecutor importExecutor = new ThreadPoolTaskExecutor();
+
+    private MembershipImportServiceImpl importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        importExecutor.setCorePoolSize(1);
+        importExecutor.setMaxPoolSize(1);
+        importExecutor.initialize();
+
+        when(planRepository.findAll()).thenReturn(List.of(
+                MembershipPlan.builder().id(1L).name("Monthly").duration(PlanDuration.MONTHLY)
+                        .price(new BigDecimal("9.99")).active(true).build(),
+                MembershipPlan.builder().id(2L).name("Legacy").duration(PlanDuration.YEARLY)
+                        .price(new BigDecimal("99.00")).active(false).build()));
+        when(tierRepository.findAllByActiveOrderByLevelDesc(true)).thenReturn(List.of(
+                MembershipTier.builder().id(10L).name("Gold").level(2).active(true).build(),
+                MembershipTier.builder().id(11L).name("Silver").level(1).active(true).build()));
+
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenReturn(List.of());
+        when(jdbcTemplate.queryForList(anyString(), eq(Long.class), any())).thenAnswer(invocation ->
+                LongStream.rangeClosed(1, invocation.<Integer>getArgument(2)).boxed().toList());
+
+        importService = new MembershipImportServiceImpl(new ObjectMapper(), planRepository, tierRepository,
+                jdbcTemplate, transactionTemplate, importExecutor, membershipCacheService, entitlementService,
+                mock(MembershipMetrics.class));
+        ReflectionTestUtils.setField(importService, "chunkSize", 100);
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 10);
+    }
+
+    @AfterEach
+    void tearDown() {
+        importExecutor.shutdown();
+    }
+
+    @Test
+    void splitsQuotedCsvFields() {
+        assertThat(MembershipImportServiceImpl.splitCsv("1,\"Gold, annual\",\"say \"\"hi\"\"\",,x"))
+                .containsExactly("1", "Gold, annual", "say \"hi\"", "", "x");
+        assertThat(MembershipImportServiceImpl.splitCsv("")).containsExactly("");
+    }
+
+    @Test
+    void importsValidCsvRowsCaseInsensitively() throws IOException {
+        ImportResult result = importCsv(CSV_HEADER
+                + "1,monthly,GOLD,,,,\n"
+                + "\n"
+                + "2,Monthly,silver,EXPIRED,2024-01-01,2024-02-01,0\n");
+
+        assertThat(result.getTotalRows()).isEqualTo(2);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isZero();
+        assertThat(result.getErrors()).isEmpty();
+        verify(membershipCacheService).evictAll(List.of(1L, 2L));
+        verify(entitlementService).invalidateAll(List.of(1L, 2L));
+    }
+
+    @Test
+    void reportsEachInvalidRowByLine() throws IOException {
+        ImportResult result = importCsv("\uFEFF" + CSV_HEADER
+                + ",Monthly,Gold,,,,\n"
+                + "abc,Monthly,Gold,,,,\n"
+                + "3,Legacy,Gold,,,,\n"
+                + "4,Monthly,Bronze,,,,\n"
+                + "5,Monthly,Gold,,2024-02-01,2024-01-01,\n"
+                + "6,Monthly,Gold,,,,ten\n"
+                + "7,Monthly,Gold,,,,-1\n"
+                + "8,Monthly,Gold,PAUSED,,,\n"
+                + "9,Monthly,Gold,,,,\n");
+
+        assertThat(result.getTotalRows()).isEqualTo(9);
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getFailed()).isEqualTo(8);
+        assertThat(result.isErrorsTruncated()).isFalse();
+        assertThat(result.getErrors()).extracting(ImportRowError::getLine)
+                .containsExactly(2L, 3L, 4L, 5L, 6L, 7L, 8L, 9L);
+        assertThat(result.getErrors()).extracting(ImportRowError::getMessage)
+                .startsWith("Missing userId", "Invalid userId: abc", "Unknown or inactive plan: Legacy",
+                        "Unknown or inactive tier: Bronze", "endDate must be after startDate",
+                        "Invalid amount: ten", "amount must not be negative");
+    }
+
+    @Test
+    void reportsMalformedNdjsonLines() throws IOException {
+        ImportResult result = importNdjson("{\"userId\":1,\"plan\":\"Monthly\",\"tier\":\"Gold\"}\n"
+                + "{\"userId\":2,\n"
+                + "[1,2]\n");
+
+        assertThat(result.getImported()).isEqualTo(1);
+        assertThat(result.getErrors()).extracting(ImportRowError::getLine).containsExactly(2L, 3L);
+        assertThat(result.getErrors().get(0).getMessage()).startsWith("Malformed JSON");
+        assertThat(result.getErrors().get(1).getMessage()).isEqualTo("Expected a JSON object");
+    }
+
+    @Test
+    void truncatesReportedErrors() throws IOException {
+        ReflectionTestUtils.setField(importService, "maxReportedErrors", 2);
+
+        ImportResult result = importNdjson("x\ny\nz\n");
+
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).hasSize(2);
+        assertThat(result.isErrorsTruncated()).isTrue();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rejectsSecondActiveMembershipForUser() throws IOException {
+        // user 1 is already active in the database; user 2 appears twice in the file
+        when(jdbcTemplate.query(anyString(), any(PreparedStatementSetter.class), any(RowMapper.class)))
+                .thenReturn(List.of(1L));
+
+        ImportResult result = importCsv(CSV_HEADER
+                + "1,Monthly,Gold,,,,\n"
+                + "1,Monthly,Gold,EXPIRED,2024-01-01,2024-02-01,\n"
+                + "2,Monthly,Gold,,,,\n"
+                + "2,Monthly,Silver,,,,\n");
+
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportRowError::getLine).containsExactly(2L, 5L);
+        assertThat(result.getErrors()).extracting(ImportRowError::getUserId).containsExactly(1L, 2L);
+        assertThat(result.getErrors()).extracting(ImportRowError::getMessage).containsExactly(
+                "User 1 already has an active membership", "User 2 already has an active membership");
+    }
+
+    @Test
+    void failsEveryRowOfRolledBackChunk() throws IOException {
+        when(jdbcTemplate.batchUpdate(anyString(), anyList()))
+                .thenThrow(new DataIntegrityViolationException("duplicate key"));
+
+        ImportResult result = importCsv(CSV_HEADER
+                + "1,Monthly,Gold,,,,\n"
+                + "2,Monthly,Gold,,,,\n");
+
+        assertThat(result.getImported()).isZero();
+        assertThat(result.getFailed()).isEqualTo(2);
+        assertThat(result.getErrors()).extracting(ImportRowError::getMessage)
+                .containsOnly("Chunk rolled back: duplicate key");
+        verify(membershipCacheService, never()).evictAll(any());
+    }
+
+    private ImportResult importCsv(String csv) throws IOException {
+        return importService.importMemberships(stream(csv), DataFormat.CSV);
+    }
+
+    private ImportResult importNdjson(String ndjson) throws IOException {
+        return importService.importMemberships(stream(ndjson), DataFormat.NDJSON);
+    }
+
+    private static ByteArrayInputStream stream(String text) {
+        return new ByteArrayInputStream(text.getBytes(StandardCharsets.UTF_8));
+    }
+}
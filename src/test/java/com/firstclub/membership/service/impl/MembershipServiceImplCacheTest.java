@@ -0,0 +1,95 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.response.MembershipResponse;
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.UserMembership;
+import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.service.MembershipService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The bulk current-membership lookup caches what it reads; every membership
+ * change must drop that entry so the lookup never serves the old state.
+ */
+@SpringBootTest(properties = {
+        "app.payment.simulator.latency.value=5ms",
+        "app.outbox.relay.enabled=false"
+})
+@ActiveProfiles("loadtest")
+class MembershipServiceImplCacheTest {
+
+    private static final long USER_ID = 910_001L;
+
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private UserMembershipRepository membershipRepository;
+
+    @Autowired
+    private MembershipPlanRepository planRepository;
+
+    @Autowired
+    private MembershipTierRepository tierRepository;
+
+    private MembershipPlan plan;
+    private List<MembershipTier> tiers;
+
+    @BeforeEach
+    void setUp() {
+        membershipRepository.findAll().stream()
+                .filter(membership -> membership.getUserId() == USER_ID)
+                .forEach(membershipRepository::delete);
+        tiers = new ArrayList<>(tierRepository.findAll());
+        tiers.sort(Comparator.comparing(MembershipTier::getLevel));
+        plan = planRepository.findAll().get(0);
+        membershipRepository.save(UserMembership.builder()
+                .userId(USER_ID)
+                .plan(plan)
+                .tier(tiers.get(0))
+                .status(MembershipStatus.ACTIVE)
+                .startDate(LocalDateTime.now().minusDays(10))
+                .endDate(LocalDateTime.now().plusDays(20))
+                .autoRenew(false)
+                .build());
+    }
+
+    @Test
+    void bulkLookupShowsUpgradeAfterCaching() {
+        assertThat(lookup().getTierName()).isEqualTo(tiers.get(0).getName());
+
+        membershipService.upgradeMembership(USER_ID, plan.getId(), tiers.get(tiers.size() - 1).getId(), null);
+
+        assertThat(lookup().getTierName()).isEqualTo(tiers.get(tiers.size() - 1).getName());
+    }
+
+    @Test
+    void bulkLookupOmitsCancelledMembershipAfterCaching() {
+        assertThat(lookup()).isNotNull();
+
+        membershipService.cancelMembership(USER_ID);
+
+        assertThat(membershipService.getCurrentMemberships(List.of(USER_ID))).isEmpty();
+    }
+
+    private MembershipResponse lookup() {
+        Map<Long, MembershipResponse> memberships = membershipService.getCurrentMemberships(List.of(USER_ID));
+        return memberships.get(USER_ID);
+    }
+}
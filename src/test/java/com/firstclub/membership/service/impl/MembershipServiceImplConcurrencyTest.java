@@ -0,0 +1,154 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.exception.ConcurrentMembershipChangeException;
+import com.firstclub.membership.exception.InvalidOperationException;
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.MembershipTransaction;
+import com.firstclub.membership.model.entity.UserMembership;
+import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.MembershipTransactionRepository;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.service.MembershipService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Stress test for optimistic mutations: many threads upgrade and downgrade a
+ * few memberships at once, with no user lock, against the embedded database.
+ * Every applied change must have been made on top of the previous one, so the
+ * recorded transactions of each membership form one unbroken tier chain that
+ * ends at its current tier.
+ */
+@SpringBootTest(properties = {
+        "app.membership.optimistic.enabled=true",
+        "app.payment.simulator.latency.value=5ms",
+        "app.outbox.relay.enabled=false"
+})
+@ActiveProfiles("loadtest")
+class MembershipServiceImplConcurrencyTest {
+
+    private static final long FIRST_USER_ID = 900_001L;
+    private static final int USERS = 4;
+    private static final int THREADS = 16;
+    private static final int CHANGES_PER_THREAD = 40;
+
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private UserMembershipRepository membershipRepository;
+
+    @Autowired
+    private MembershipTransactionRepository transactionRepository;
+
+    @Autowired
+    private MembershipPlanRepository planRepository;
+
+    @Autowired
+    private MembershipTierRepository tierRepository;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    @Test
+    void concurrentUpgradesAndDowngradesNeverLoseAnUpdate() throws Exception {
+        List<MembershipTier> tiers = new ArrayList<>(tierRepository.findAll());
+        tiers.sort(Comparator.comparing(MembershipTier::getLevel));
+        MembershipPlan plan = planRepository.findAll().get(0);
+        List<Long> membershipIds = new ArrayList<>();
+        for (int user = 0; user < USERS; user++) {
+            membershipIds.add(membershipRepository.save(UserMembership.builder()
+                    .userId(FIRST_USER_ID + user)
+                    .plan(plan)
+                    .tier(tiers.get(0))
+                    .status(MembershipStatus.ACTIVE)
+                    .startDate(LocalDateTime.now().minusDays(10))
+                    .endDate(LocalDateTime.now().plusDays(20))
+                    .autoRenew(false)
+                    .build()).getId());
+        }
+
+        AtomicIntegerArray applied = new AtomicIntegerArray(USERS);
+        Queue<Throwable> unexpected = new ConcurrentLinkedQueue<>();
+        CountDownLatch start = new CountDownLatch(1);
+        ExecutorService executor = Executors.newFixedThreadPool(THREADS);
+        try {
+            for (int thread = 0; thread < THREADS; thread++) {
+                executor.execute(() -> {
+                    ThreadLocalRandom random = ThreadLocalRandom.current();
+                    try {
+                        start.await();
+                        for (int i = 0; i < CHANGES_PER_THREAD; i++) {
+                            int user = random.nextInt(USERS);
+                            Long tierId = tiers.get(random.nextInt(tiers.size())).getId();
+                            try {
+                                if (random.nextBoolean()) {
+                                    membershipService.upgradeMembership(FIRST_USER_ID + user, plan.getId(), tierId, null);
+                                } else {
+                                    membershipService.downgradeMembership(FIRST_USER_ID + user, plan.getId(), tierId);
+                                }
+                                applied.incrementAndGet(user);
+                            } catch (InvalidOperationException | ConcurrentMembershipChangeException expected) {
+                                // Not a change for the current tier, or lost to concurrent changes
+                            }
+                        }
+                    } catch (Throwable e) {
+                        unexpected.add(e);
+                    }
+                });
+            }
+            start.countDown();
+            executor.shutdown();
+            assertThat(executor.awaitTermination(2, TimeUnit.MINUTES)).isTrue();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        assertThat(unexpected).isEmpty();
+        int total = 0;
+        for (int user = 0; user < USERS; user++) {
+            int appliedChanges = applied.get(user);
+            total += appliedChanges;
+            Long membershipId = membershipIds.get(user);
+            transactionTemplate.executeWithoutResult(status -> {
+                List<MembershipTransaction> transactions = new ArrayList<>(transactionRepository
+                        .findByMembershipIdOrderByTransactionDateDesc(membershipId, PageRequest.of(0, 10_000))
+                        .getContent());
+                transactions.sort(Comparator.comparing(MembershipTransaction::getId));
+                UserMembership membership = membershipRepository.findById(membershipId).orElseThrow();
+
+                assertThat(transactions).hasSize(appliedChanges);
+                Long tierId = tiers.get(0).getId();
+                for (MembershipTransaction transaction : transactions) {
+                    assertThat(transaction.getOldTier().getId()).isEqualTo(tierId);
+                    tierId = transaction.getNewTier().getId();
+                }
+                assertThat(membership.getTier().getId()).isEqualTo(tierId);
+                assertThat(membership.getReservedBy()).isNull();
+            });
+        }
+        assertThat(total).isPositive();
+    }
+}
@@ -0,0 +1,130 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.response.MembershipResponse;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.model.entity.MembershipPlan;
+import com.firstclub.membership.model.entity.MembershipTier;
+import com.firstclub.membership.model.entity.UserMembership;
+import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.service.MembershipService;
+import com.firstclub.membership.service.PaymentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.util.AopTestUtils;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Optimistic upgrades must leave no reservation behind when the charge
+ * throws, and must wait for confirmation when payments are asynchronous.
+ */
+@SpringBootTest(properties = {
+        "app.membership.optimistic.enabled=true",
+        "app.outbox.relay.enabled=false"
+})
+@ActiveProfiles("loadtest")
+class MembershipServiceImplOptimisticUpgradeTest {
+
+    private static final long THROWING_CHARGE_USER_ID = 940_001L;
+    private static final long ASYNC_USER_ID = 940_002L;
+
+    @MockitoBean
+    private PaymentService paymentService;
+
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private UserMembershipRepository membershipRepository;
+
+    @Autowired
+    private MembershipPlanRepository planRepository;
+
+    @Autowired
+    private MembershipTierRepository tierRepository;
+
+    @Test
+    void chargeThatThrowsReleasesTheReservation() {
+        List<MembershipTier> tiers = tiersByLevel();
+        UserMembership membership = activeMembership(THROWING_CHARGE_USER_ID, tiers.get(0));
+        Long topTierId = tiers.get(tiers.size() - 1).getId();
+        when(paymentService.processPayment(eq(THROWING_CHARGE_USER_ID), any(), any()))
+                .thenThrow(new IllegalStateException("gateway client failed"));
+
+        assertThatThrownBy(() -> membershipService.upgradeMembership(THROWING_CHARGE_USER_ID,
+                membership.getPlan().getId(), topTierId, null))
+                .isInstanceOf(IllegalStateException.class);
+
+        UserMembership released = membershipRepository.findById(membership.getId()).orElseThrow();
+        assertThat(released.getReservedBy()).isNull();
+        assertThat(released.getReservedUntil()).isNull();
+        assertThat(released.getTier().getId()).isEqualTo(tiers.get(0).getId());
+    }
+
+    @Test
+    void asynchronousPaymentsLeaveTheUpgradePending() {
+        List<MembershipTier> tiers = tiersByLevel();
+        UserMembership membership = activeMembership(ASYNC_USER_ID, tiers.get(0));
+        MembershipTier topTier = tiers.get(tiers.size() - 1);
+        when(paymentService.processPayment(eq(ASYNC_USER_ID), any(), any()))
+                .thenReturn(PaymentResult.unknown("Payment gateway error"));
+        Object target = AopTestUtils.getUltimateTargetObject(membershipService);
+        ReflectionTestUtils.setField(target, "asyncPayments", true);
+        try {
+            MembershipResponse pending = membershipService.upgradeMembership(ASYNC_USER_ID,
+                    membership.getPlan().getId(), topTier.getId(), null);
+
+            String reference = pending.getPendingPaymentReference();
+            assertThat(reference).isNotNull();
+            // The charge is only submitted once the request has committed
+            verify(paymentService, timeout(5_000)).processPayment(eq(ASYNC_USER_ID), any(), eq(reference));
+            UserMembership unchanged = membershipRepository.findById(membership.getId()).orElseThrow();
+            assertThat(unchanged.getTier().getId()).isEqualTo(tiers.get(0).getId());
+            assertThat(unchanged.getReservedBy()).isNull();
+
+            assertThat(membershipService.confirmPayment(reference, PaymentResult.success("tx-upgrade"))).isTrue();
+
+            assertThat(membershipRepository.findById(membership.getId()).orElseThrow().getTier().getId())
+                    .isEqualTo(topTier.getId());
+        } finally {
+            ReflectionTestUtils.setField(target, "asyncPayments", false);
+        }
+    }
+
+    private List<MembershipTier> tiersByLevel() {
+        List<MembershipTier> tiers = new ArrayList<>(tierRepository.findAll());
+        tiers.sort(Comparator.comparing(MembershipTier::getLevel));
+        return tiers;
+    }
+
+    private UserMembership activeMembership(long userId, MembershipTier tier) {
+        MembershipPlan plan = planRepository.findAll().get(0);
+        return membershipRepository.save(UserMembership.builder()
+                .userId(userId)
+                .plan(plan)
+                .tier(tier)
+                .status(MembershipStatus.ACTIVE)
+                .startDate(LocalDateTime.now().minusDays(10))
+                .endDate(LocalDateTime.now().plusDays(20))
+                .autoRenew(false)
+                .build());
+    }
+}
@@ -0,0 +1,99 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.request.SubscriptionRequest;
+import com.firstclub.membership.dto.response.MembershipResponse;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.model.entity.PaymentConfirmation;
+import com.firstclub.membership.model.entity.UserMembership;
+import com.firstclub.membership.model.enums.MembershipStatus;
+import com.firstclub.membership.model.enums.PaymentConfirmationStatus;
+import com.firstclub.membership.repository.MembershipPlanRepository;
+import com.firstclub.membership.repository.MembershipTierRepository;
+import com.firstclub.membership.repository.PaymentConfirmationRepository;
+import com.firstclub.membership.repository.UserMembershipRepository;
+import com.firstclub.membership.service.MembershipService;
+import com.firstclub.membership.service.PaymentService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.context.ActiveProfiles;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+/**
+ * Asynchronous charges the gateway never answered must stay PENDING, so the
+ * outcome reported later by the webhook still applies.
+ */
+@SpringBootTest(properties = {
+        "app.payment.async.enabled=true",
+        "app.outbox.relay.enabled=false"
+})
+@ActiveProfiles("loadtest")
+class PaymentConfirmationServiceImplTest {
+
+    private static final long USER_ID = 930_001L;
+
+    @MockitoBean
+    private PaymentService paymentService;
+
+    @Autowired
+    private MembershipService membershipService;
+
+    @Autowired
+    private PaymentConfirmationRepository confirmationRepository;
+
+    @Autowired
+    private UserMembershipRepository membershipRepository;
+
+    @Autowired
+    private MembershipPlanRepository planRepository;
+
+    @Autowired
+    private MembershipTierRepository tierRepository;
+
+    @Autowired
+    @Qualifier("paymentSubmissionExecutor")
+    private ThreadPoolTaskExecutor submissionExecutor;
+
+    @Test
+    void lateSuccessWebhookActivatesMembershipAfterGatewayTimeout() throws InterruptedException {
+        when(paymentService.processPayment(eq(USER_ID), any(), any()))
+                .thenReturn(PaymentResult.unknown("Payment gateway error"));
+
+        MembershipResponse pending = membershipService.subscribeToPlan(SubscriptionRequest.builder()
+                .userId(USER_ID)
+                .planId(planRepository.findAll().get(0).getId())
+                .tierId(tierRepository.findAll().get(0).getId())
+                .build(), null);
+        String reference = pending.getPendingPaymentReference();
+        verify(paymentService, timeout(5_000)).processPayment(eq(USER_ID), any(), eq(reference));
+        awaitSubmissions();
+
+        assertThat(confirmationRepository.findByPaymentReference(reference))
+                .get().extracting(PaymentConfirmation::getStatus).isEqualTo(PaymentConfirmationStatus.PENDING);
+
+        // The webhook reports the charge as taken after all
+        assertThat(membershipService.confirmPayment(reference, PaymentResult.success("tx-late"))).isTrue();
+
+        assertThat(confirmationRepository.findByPaymentReference(reference))
+                .get().extracting(PaymentConfirmation::getStatus).isEqualTo(PaymentConfirmationStatus.CONFIRMED);
+        assertThat(membershipRepository.findActiveByUserId(USER_ID))
+                .get().extracting(UserMembership::getStatus).isEqualTo(MembershipStatus.ACTIVE);
+    }
+
+    private void awaitSubmissions() throws InterruptedException {
+        long deadline = System.nanoTime() + 5_000_000_000L;
+        while ((submissionExecutor.getActiveCount() > 0 || submissionExecutor.getQueueSize() > 0)
+                && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+}
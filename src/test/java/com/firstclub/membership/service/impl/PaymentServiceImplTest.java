@@ -0,0 +1,128 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.support.StubPaymentGatewayServer;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.RestClient;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PaymentServiceImplTest {
+
+    // Generous enough for a cold HTTP client; only the timeout test uses a tight one
+    private static final Duration READ_TIMEOUT = Duration.ofSeconds(2);
+    private static final Duration TIGHT_READ_TIMEOUT = Duration.ofMillis(200);
+
+    private StubPaymentGatewayServer gateway;
+    private CircuitBreakerRegistry circuitBreakers;
+    private BulkheadRegistry bulkheads;
+    private PaymentServiceImpl paymentService;
+
+    @BeforeEach
+    void setUp() throws Exception {
+        gateway = StubPaymentGatewayServer.start();
+        circuitBreakers = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(4)
+            .minimumNumberOfCalls(4)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+        bulkheads = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(4)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+        paymentService = paymentService(READ_TIMEOUT);
+    }
+
+    private PaymentServiceImpl paymentService(Duration readTimeout) {
+        return new PaymentServiceImpl(
+                new HttpPaymentGateway(RestClient.builder(), gateway.baseUrl(), Duration.ofMillis(500), readTimeout),
+                circuitBreakers, bulkheads, Runnable::run, 100, Duration.ofMillis(20));
+    }
+
+    @AfterEach
+    void tearDown() {
+        paymentService.close();
+        gateway.close();
+    }
+
+    @Test
+    void chargesOncePerReferenceAndMapsDeclines() {
+        PaymentResult first = paymentService.processPayment(1L, BigDecimal.TEN, "ref-1");
+        PaymentResult retried = paymentService.processPayment(1L, BigDecimal.TEN, "ref-1");
+        gateway.decline(true);
+        PaymentResult declined = paymentService.processPayment(1L, BigDecimal.TEN, "ref-2");
+
+        assertThat(first.isSuccess()).isTrue();
+        assertThat(retried.getTransactionId()).isEqualTo(first.getTransactionId());
+        assertThat(gateway.charges()).isEqualTo(1);
+        assertThat(declined.isSuccess()).isFalse();
+        assertThat(declined.getMessage()).isEqualTo("Card declined");
+        assertThat(declined.isOutcomeUnknown()).isFalse();
+    }
+
+    @Test
+    void slowGatewayTimesOutAndThenOpensTheCircuit() {
+        paymentService.close();
+        paymentService = paymentService(TIGHT_READ_TIMEOUT);
+        // Warm the client so the first timed call is not also paying for connection setup
+        paymentService.processPayment(1L, BigDecimal.TEN, "warm-up");
+        circuitBreakers.circuitBreaker(PaymentServiceImpl.RESILIENCE_INSTANCE).reset();
+        gateway.latency(Duration.ofSeconds(2));
+        int requestsBefore = gateway.requests();
+
+        long started = System.nanoTime();
+        for (int i = 0; i < 4; i++) {
+            assertThat(paymentService.processPayment(1L, BigDecimal.TEN).isSuccess()).isFalse();
+        }
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofSeconds(2));
+
+        started = System.nanoTime();
+        PaymentResult rejected = paymentService.processPayment(1L, BigDecimal.TEN);
+
+        assertThat(rejected.getMessage()).isEqualTo("Payment gateway unavailable");
+        assertThat(rejected.isOutcomeUnknown()).isTrue();
+        assertThat(Duration.ofNanos(System.nanoTime() - started)).isLessThan(Duration.ofMillis(50));
+        assertThat(gateway.requests() - requestsBefore).isEqualTo(4);
+    }
+
+    @Test
+    void processPaymentsSendsFullBatchesAndLingersOnTheRest() {
+        List<PaymentCharge> charges = new ArrayList<>();
+        for (long userId = 1; userId <= 250; userId++) {
+            charges.add(new PaymentCharge(userId, BigDecimal.TEN, "renewal-" + userId));
+        }
+
+        List<PaymentResult> results = paymentService.processPayments(charges);
+
+        assertThat(results).hasSize(250).allMatch(PaymentResult::isSuccess);
+        assertThat(gateway.requests()).isEqualTo(3);
+        assertThat(gateway.charges()).isEqualTo(250);
+    }
+
+    @Test
+    void failedBatchFailsEveryChargeInIt() {
+        gateway.respondWith(503);
+
+        List<PaymentResult> results = paymentService.processPayments(List.of(
+                new PaymentCharge(1L, BigDecimal.TEN, "ref-1"),
+                new PaymentCharge(2L, BigDecimal.TEN, "ref-2")));
+
+        assertThat(results).extracting(PaymentResult::getMessage)
+            .containsExactly("Payment gateway error", "Payment gateway error");
+        assertThat(results).allMatch(PaymentResult::isOutcomeUnknown);
+        assertThat(gateway.requests()).isEqualTo(1);
+    }
+}
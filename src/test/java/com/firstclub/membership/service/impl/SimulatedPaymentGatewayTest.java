@@ -0,0 +1,80 @@
+package com.firstclub.membership.service.impl;
+
+import com.firstclub.membership.dto.request.PaymentCharge;
+import com.firstclub.membership.dto.response.PaymentResult;
+import com.firstclub.membership.exception.PaymentGatewayException;
+import com.firstclub.membership.service.impl.SimulatedPaymentGateway.LatencyDistribution;
+import com.firstclub.membership.service.impl.SimulatedPaymentGateway.Settings;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class SimulatedPaymentGatewayTest {
+
+    private static final Settings INSTANT = new Settings(LatencyDistribution.FIXED, Duration.ZERO, 0.5,
+            0.0, Duration.ZERO, Duration.ZERO, 0.0, 0.0, 0.0, Duration.ZERO);
+
+    @Test
+    void lognormalLatencyCentresOnTheMedianAndBimodalStalls() {
+        Settings lognormal = new Settings(LatencyDistribution.LOGNORMAL, Duration.ofMillis(100), 0.5,
+                0.0, Duration.ZERO, Duration.ZERO, 0.0, 0.0, 0.0, Duration.ZERO);
+        Settings bimodal = new Settings(LatencyDistribution.BIMODAL, Duration.ofMillis(100), 0.5,
+                0.1, Duration.ofSeconds(5), Duration.ZERO, 0.0, 0.0, 0.0, Duration.ZERO);
+
+        List<Long> samples = new ArrayList<>();
+        int stalls = 0;
+        for (int i = 0; i < 10_000; i++) {
+            samples.add(lognormal.sampleLatency(ThreadLocalRandom.current()).toMillis());
+            if (bimodal.sampleLatency(ThreadLocalRandom.current()).equals(Duration.ofSeconds(5))) {
+                stalls++;
+            }
+        }
+        samples.sort(null);
+
+        assertThat(samples.get(5_000)).isBetween(90L, 110L);
+        assertThat(samples.get(9_900)).isGreaterThan(250L);
+        assertThat(stalls).isBetween(800, 1_200);
+    }
+
+    @Test
+    void faultsCanBeInjectedAndResetAtRuntime() {
+        SimulatedPaymentGateway gateway = new SimulatedPaymentGateway(INSTANT);
+
+        gateway.setSettings(new Settings(LatencyDistribution.FIXED, Duration.ZERO, 0.5,
+                0.0, Duration.ZERO, Duration.ZERO, 0.0, 1.0, 0.0, Duration.ZERO));
+        assertThatThrownBy(() -> gateway.charge(1L, BigDecimal.TEN, "ref-1"))
+            .isInstanceOf(PaymentGatewayException.class);
+        assertThatThrownBy(() -> gateway.chargeBatch(List.of(new PaymentCharge(1L, BigDecimal.TEN, "ref-1"))))
+            .isInstanceOf(PaymentGatewayException.class);
+
+        gateway.setSettings(new Settings(LatencyDistribution.FIXED, Duration.ZERO, 0.5,
+                0.0, Duration.ZERO, Duration.ZERO, 1.0, 0.0, 0.0, Duration.ZERO));
+        PaymentResult declined = gateway.charge(2L, BigDecimal.TEN, "ref-2");
+        assertThat(declined.isSuccess()).isFalse();
+        assertThat(declined.getMessage()).isEqualTo("Card declined");
+
+        gateway.resetSettings();
+        PaymentResult taken = gateway.charge(1L, BigDecimal.TEN, "ref-1");
+        assertThat(taken.isSuccess()).isTrue();
+        assertThat(gateway.charge(1L, BigDecimal.TEN, "ref-1").getTransactionId())
+            .isEqualTo(taken.getTransactionId());
+        assertThat(gateway.charge(2L, BigDecimal.TEN, "ref-2").isSuccess()).isFalse();
+    }
+
+    @Test
+    void rejectsRatesOutsideZeroToOne() {
+        assertThatThrownBy(() -> new Settings(LatencyDistribution.FIXED, Duration.ZERO, 0.5,
+                0.0, Duration.ZERO, Duration.ZERO, 0.0, 0.6, 0.6, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Settings(LatencyDistribution.FIXED, Duration.ZERO, 0.5,
+                0.0, Duration.ZERO, Duration.ZERO, -0.1, 0.0, 0.0, Duration.ZERO))
+            .isInstanceOf(IllegalArgumentException.class);
+    }
+}
@@ -0,0 +1,81 @@
+package com.firstclub.membership.service.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserTierIndexTest {
+
+    private static final long FAR_FUTURE = System.currentTimeMillis() / 1000 + 3600;
+
+    @Test
+    void packsTierIdAndExpiry() {
+        long entry = UserTierIndex.pack(42, FAR_FUTURE);
+
+        assertThat(UserTierIndex.tierId(entry)).isEqualTo(42);
+        assertThat(UserTierIndex.expiresAtSecond(entry)).isEqualTo(FAR_FUTURE);
+        assertThat(UserTierIndex.pack(0, FAR_FUTURE)).isNotEqualTo(UserTierIndex.MISSING);
+    }
+
+    @Test
+    void matchesHashMapUnderRandomPutsAndRemoves() {
+        UserTierIndex index = new UserTierIndex(1_000_000);
+        Map<Long, Long> expected = new HashMap<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 200_000; i++) {
+            long userId = random.nextInt(20_000);
+            if (random.nextInt(3) == 0) {
+                index.remove(userId);
+                expected.remove(userId);
+            } else {
+                long entry = UserTierIndex.pack(random.nextInt(5), FAR_FUTURE);
+                index.put(userId, entry);
+                expected.put(userId, entry);
+            }
+        }
+
+        for (long userId = 0; userId < 20_000; userId++) {
+            assertThat(index.get(userId)).isEqualTo(expected.getOrDefault(userId, UserTierIndex.MISSING));
+        }
+        assertThat(index.size()).isEqualTo(expected.size());
+    }
+
+    @Test
+    void loadStartedBeforeRemoveIsNotStored() {
+        UserTierIndex index = new UserTierIndex(1_000_000);
+        index.put(7, UserTierIndex.pack(1, FAR_FUTURE));
+
+        long generation = index.generation(7);
+        index.remove(7);
+
+        assertThat(index.putIfGeneration(7, UserTierIndex.pack(1, FAR_FUTURE), generation)).isFalse();
+        assertThat(index.get(7)).isEqualTo(UserTierIndex.MISSING);
+        assertThat(index.putIfGeneration(7, UserTierIndex.pack(2, FAR_FUTURE), index.generation(7))).isTrue();
+        assertThat(UserTierIndex.tierId(index.get(7))).isEqualTo(2);
+    }
+
+    @Test
+    void dropsExpiredEntriesWhenGrowing() {
+        UserTierIndex index = new UserTierIndex(1_000_000);
+        for (long userId = 0; userId < 10_000; userId++) {
+            index.put(userId, UserTierIndex.pack(1, 1));
+        }
+
+        assertThat(index.size()).isLessThan(10_000);
+    }
+
+    @Test
+    void resetsSegmentsAtSizeLimit() {
+        UserTierIndex index = new UserTierIndex(64 * 100);
+        for (long userId = 0; userId < 100_000; userId++) {
+            index.put(userId, UserTierIndex.pack(1, FAR_FUTURE));
+        }
+
+        assertThat(index.size()).isLessThanOrEqualTo(64 * 100 * 2);
+    }
+}
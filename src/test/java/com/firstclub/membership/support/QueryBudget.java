@@ -0,0 +1,32 @@
+package com.firstclub.membership.support;
+
+import org.junit.jupiter.api.extension.ExtendWith;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Fails a test whose body makes more Hibernate SQL statements than declared.
+ * Statements made in @BeforeEach and @AfterEach methods are not counted.
+ * Only statements on the test thread are seen, which covers MockMvc calls
+ * but not requests sent to a server on a random port.
+ *
+ * <pre>
+ * &#64;Test
+ * &#64;QueryBudget(value = 3, maxRepeats = 1)
+ * void historyPageLoadsPlansAndTiersInOneQuery() { ... }
+ * </pre>
+ */
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+@ExtendWith(QueryBudgetExtension.class)
+public @interface QueryBudget {
+
+    /** Maximum statements the test may make. */
+    int value();
+
+    /** Maximum times any single statement may run; lower it to catch N+1 queries. */
+    int maxRepeats() default Integer.MAX_VALUE;
+}
@@ -0,0 +1,39 @@
+package com.firstclub.membership.support;
+
+import com.firstclub.membership.config.SqlStatementCounter;
+import org.junit.jupiter.api.extension.AfterTestExecutionCallback;
+import org.junit.jupiter.api.extension.BeforeTestExecutionCallback;
+import org.junit.jupiter.api.extension.ExtensionContext;
+import org.junit.platform.commons.support.AnnotationSupport;
+
+/**
+ * Enforces {@link QueryBudget} using the SqlStatementCounter that the
+ * application installs as Hibernate's statement inspector.
+ */
+public class QueryBudgetExtension implements BeforeTestExecutionCallback, AfterTestExecutionCallback {
+
+    @Override
+    public void beforeTestExecution(ExtensionContext context) {
+        SqlStatementCounter.begin();
+    }
+
+    @Override
+    public void afterTestExecution(ExtensionContext context) {
+        SqlStatementCounter.Snapshot snapshot = SqlStatementCounter.end();
+        if (context.getExecutionException().isPresent()) {
+            return;
+        }
+
+        QueryBudget budget = AnnotationSupport.findAnnotation(context.getRequiredTestMethod(), QueryBudget.class)
+            .or(() -> AnnotationSupport.findAnnotation(context.getRequiredTestClass(), QueryBudget.class))
+            .orElseThrow();
+        if (snapshot.statements() > budget.value()) {
+            throw new AssertionError("Query budget exceeded: " + snapshot.statements()
+                    + " statements, budget " + budget.value());
+        }
+        if (snapshot.maxRepeats() > budget.maxRepeats()) {
+            throw new AssertionError("Statement ran " + snapshot.maxRepeats() + " times, at most "
+                    + budget.maxRepeats() + " allowed (possible N+1): " + snapshot.mostRepeated());
+        }
+    }
+}
@@ -0,0 +1,171 @@
+package com.firstclub.membership.support;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Local HTTP stand-in for the payment gateway's {@code POST /charges} and
+ * {@code POST /charges/batch} APIs, for tests of HttpPaymentGateway and
+ * anything built on it. Responses can be slowed down, declined or failed at
+ * runtime. Charges are de-duplicated by the Idempotency-Key header, or by the
+ * reference of each batched charge, like the real gateway.
+ *
+ * <pre>
+ * try (StubPaymentGatewayServer gateway = StubPaymentGatewayServer.start()) {
+ *     gateway.respondWith(503);
+ *     ... app.payment.http.base-url = gateway.baseUrl()
+ * }
+ * </pre>
+ */
+public final class StubPaymentGatewayServer implements AutoCloseable {
+
+    private static final ObjectMapper OBJECT_MAPPER = new ObjectMapper();
+
+    private final HttpServer server;
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+    private final AtomicInteger requests = new AtomicInteger();
+    private final Map<String, String> chargesByKey = new ConcurrentHashMap<>();
+
+    private volatile Duration latency = Duration.ZERO;
+    private volatile int status = 200;
+    private volatile boolean decline;
+
+    private StubPaymentGatewayServer(HttpServer server) {
+        this.server = server;
+        server.createContext("/charges", this::handleCharge);
+        server.createContext("/charges/batch", this::handleBatch);
+        server.setExecutor(executor);
+        server.start();
+    }
+
+    public static StubPaymentGatewayServer start() throws IOException {
+        return new StubPaymentGatewayServer(HttpServer.create(new InetSocketAddress("localhost", 0), 0));
+    }
+
+    public String baseUrl() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    /** Delay before each response is sent. */
+    public StubPaymentGatewayServer latency(Duration latency) {
+        this.latency = latency;
+        return this;
+    }
+
+    /** HTTP status for every charge; 200 answers with a charge result. */
+    public StubPaymentGatewayServer respondWith(int status) {
+        this.status = status;
+        return this;
+    }
+
+    /** Whether 200 responses decline the charge instead of taking it. */
+    public StubPaymentGatewayServer decline(boolean decline) {
+        this.decline = decline;
+        return this;
+    }
+
+    /** Charge and batch requests received, including those answered with an error. */
+    public int requests() {
+        return requests.get();
+    }
+
+    /** Distinct charges taken. */
+    public int charges() {
+        return chargesByKey.size();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+        executor.shutdownNow();
+    }
+
+    private void handleCharge(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            exchange.getRequestBody().readAllBytes();
+            sleep(latency);
+
+            int responseStatus = status;
+            String body = responseStatus != 200
+                    ? errorBody(responseStatus)
+                    : OBJECT_MAPPER.writeValueAsString(
+                            chargeResult(exchange.getRequestHeaders().getFirst("Idempotency-Key")));
+            respond(exchange, responseStatus, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private void handleBatch(HttpExchange exchange) throws IOException {
+        try {
+            requests.incrementAndGet();
+            JsonNode request = OBJECT_MAPPER.readTree(exchange.getRequestBody());
+            sleep(latency);
+
+            int responseStatus = status;
+            String body;
+            if (responseStatus != 200) {
+                body = errorBody(responseStatus);
+            } else {
+                List<Map<String, String>> results = new ArrayList<>();
+                for (JsonNode charge : request.path("charges")) {
+                    results.add(chargeResult(charge.path("reference").asText(null)));
+                }
+                body = OBJECT_MAPPER.writeValueAsString(Map.of("results", results));
+            }
+            respond(exchange, responseStatus, body);
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private Map<String, String> chargeResult(String key) {
+        if (decline) {
+            return Map.of("status", "declined", "message", "Card declined");
+        }
+        String transactionId = chargesByKey.computeIfAbsent(
+                key != null ? key : UUID.randomUUID().toString(), k -> UUID.randomUUID().toString());
+        return Map.of("status", "succeeded", "transactionId", transactionId);
+    }
+
+    private static String errorBody(int status) {
+        return "{\"message\":\"stub error " + status + "\"}";
+    }
+
+    private static void respond(HttpExchange exchange, int status, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+
+    private static void sleep(Duration duration) {
+        if (duration.isZero()) {
+            return;
+        }
+        try {
+            Thread.sleep(duration.toMillis());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+-- Catalog for load tests; memberships are created by the generated traffic
+
+INSERT INTO membership_plans (name, duration, price, description, active, created_at, updated_at) VALUES
+('Monthly Premium', 'MONTHLY', 49.99, 'Monthly plan', true, NOW(), NOW()),
+('Quarterly Premium', 'QUARTERLY', 129.99, 'Quarterly plan', true, NOW(), NOW()),
+('Annual Premium', 'YEARLY', 499.99, 'Annual plan', true, NOW(), NOW());
+
+INSERT INTO membership_tiers (name, level, description, active, created_at, updated_at) VALUES
+('Bronze', 1, 'Basic member benefits', true, NOW(), NOW()),
+('Silver', 2, 'Enhanced benefits', true, NOW(), NOW()),
+('Gold', 3, 'Premium benefits', true, NOW(), NOW()),
+('Platinum', 4, 'Exclusive benefits', true, NOW(), NOW());
+
+INSERT INTO tier_benefits (tier_id, type, value, description, active) VALUES
+((SELECT id FROM membership_tiers WHERE name = 'Bronze'), 'FREE_DELIVERY', 0.00, 'Free delivery', true),
+((SELECT id FROM membership_tiers WHERE name = 'Silver'), 'PERCENTAGE_DISCOUNT', 5.00, '5% discount', true),
+((SELECT id FROM membership_tiers WHERE name = 'Silver'), 'PRIORITY_SUPPORT', NULL, 'Priority support', true),
+((SELECT id FROM membership_tiers WHERE name = 'Gold'), 'CASHBACK', 2.00, '2% cashback', true),
+((SELECT id FROM membership_tiers WHERE name = 'Gold'), 'EARLY_ACCESS', NULL, 'Early access', true),
+((SELECT id FROM membership_tiers WHERE name = 'Platinum'), 'EXCLUSIVE_DEALS', NULL, 'Exclusive deals', true),
+((SELECT id FROM membership_tiers WHERE name = 'Platinum'), 'FASTER_DELIVERY', NULL, 'Express delivery', true);